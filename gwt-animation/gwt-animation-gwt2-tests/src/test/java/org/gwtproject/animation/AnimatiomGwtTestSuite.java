@@ -17,6 +17,7 @@ package org.gwtproject.animation;
 
 import junit.framework.Test;
 import junit.framework.TestSuite;
+import org.gwtproject.animation.client.AnimationDriverGwt2Test;
 import org.gwtproject.animation.client.AnimationGwt2SchedulerTest;
 import org.gwtproject.animation.client.AnimationGwt2Test;
 
@@ -26,6 +27,7 @@ public class AnimatiomGwtTestSuite {
   public static Test suite() {
     TestSuite suite = new TestSuite("Tests of the animation package");
 
+    suite.addTestSuite(AnimationDriverGwt2Test.class);
     suite.addTestSuite(AnimationGwt2SchedulerTest.class);
     suite.addTestSuite(AnimationGwt2Test.class);
 
@@ -0,0 +1,283 @@
+/*
+ * Copyright © 2020 The GWT Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gwtproject.animation.client;
+
+import static junit.framework.TestCase.*;
+
+import com.google.j2cl.junit.apt.J2clTestInput;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.gwtproject.animation.client.AnimationScheduler.AnimationCallback;
+import org.gwtproject.animation.client.AnimationScheduler.AnimationHandle;
+import org.gwtproject.animation.client.testing.StubAnimationScheduler;
+import org.gwtproject.core.client.Duration;
+import org.gwtproject.core.client.Scheduler.ScheduledCommand;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the {@link AnimationDriver} class.
+ *
+ * <p>This class uses the {@link StubAnimationScheduler} to manually trigger frames.
+ */
+@J2clTestInput(AnimationDriverJ2clTest.class)
+public class AnimationDriverJ2clTest {
+
+  private List<AnimationCallback> callbacks;
+  private AnimationDriver driver;
+  private List<String> events;
+
+  @Before
+  public void setUp() {
+    StubAnimationScheduler scheduler = new StubAnimationScheduler();
+    callbacks = scheduler.getAnimationCallbacks();
+    driver = new AnimationDriver(scheduler);
+    events = new ArrayList<>();
+  }
+
+  /** Test that all callbacks run from a single frame with the same timestamp. */
+  @Test
+  public void testSingleFrame() {
+    driver.requestAnimationFrame(new LoggingCallback("a"));
+    driver.requestAnimationFrame(new LoggingCallback("b"));
+    assertEquals(1, callbacks.size());
+
+    executeFrameAt(100);
+    assertEquals(Arrays.asList("a@100.0", "b@100.0"), events);
+    assertTrue(callbacks.isEmpty());
+    assertEquals(1, driver.getFrameCount());
+  }
+
+  /** Test that a callback that requests another frame runs in the next frame. */
+  @Test
+  public void testRequestFromCallback() {
+    driver.requestAnimationFrame(
+        new AnimationCallback() {
+          @Override
+          public void execute(double timestamp) {
+            events.add("a@" + timestamp);
+            driver.requestAnimationFrame(new LoggingCallback("b"));
+          }
+        });
+    executeFrameAt(100);
+    assertEquals(Arrays.asList("a@100.0"), events);
+    assertEquals(1, callbacks.size());
+
+    executeFrameAt(116);
+    assertEquals(Arrays.asList("a@100.0", "b@116.0"), events);
+    assertTrue(callbacks.isEmpty());
+  }
+
+  /** Test canceling requested callbacks. */
+  @Test
+  public void testCancel() {
+    AnimationHandle a = driver.requestAnimationFrame(new LoggingCallback("a"));
+    AnimationHandle b = driver.requestAnimationFrame(new LoggingCallback("b"));
+    a.cancel();
+    assertEquals(1, callbacks.size());
+
+    // The frame is canceled with the last callback.
+    b.cancel();
+    b.cancel();
+    assertTrue(callbacks.isEmpty());
+
+    driver.requestAnimationFrame(new LoggingCallback("c"));
+    executeFrameAt(100);
+    assertEquals(Arrays.asList("c@100.0"), events);
+  }
+
+  /** Test that style writes run after all callbacks of a frame. */
+  @Test
+  public void testScheduleWrite() {
+    // Outside of a frame, writes run immediately.
+    driver.scheduleWrite(new LoggingWrite("write"));
+    assertEquals(Arrays.asList("write"), events);
+    events.clear();
+
+    driver.requestAnimationFrame(
+        new AnimationCallback() {
+          @Override
+          public void execute(double timestamp) {
+            assertTrue(driver.isInFrame());
+            events.add("a");
+            driver.scheduleWrite(new LoggingWrite("write a"));
+          }
+        });
+    driver.requestAnimationFrame(
+        new AnimationCallback() {
+          @Override
+          public void execute(double timestamp) {
+            events.add("b");
+            driver.scheduleWrite(new LoggingWrite("write b"));
+          }
+        });
+    executeFrameAt(100);
+    assertEquals(Arrays.asList("a", "b", "write a", "write b"), events);
+    assertFalse(driver.isInFrame());
+  }
+
+  /** Test flushing the style writes from a callback. */
+  @Test
+  public void testFlushWrites() {
+    driver.requestAnimationFrame(
+        new AnimationCallback() {
+          @Override
+          public void execute(double timestamp) {
+            driver.scheduleWrite(new LoggingWrite("write"));
+            driver.flushWrites();
+            events.add("a");
+          }
+        });
+    executeFrameAt(100);
+    assertEquals(Arrays.asList("write", "a"), events);
+  }
+
+  /** Test that an exception does not prevent the other callbacks of a frame from running. */
+  @Test
+  public void testException() {
+    final RuntimeException exception = new RuntimeException();
+    driver.requestAnimationFrame(
+        new AnimationCallback() {
+          @Override
+          public void execute(double timestamp) {
+            throw exception;
+          }
+        });
+    driver.requestAnimationFrame(new LoggingCallback("b"));
+    try {
+      executeFrameAt(100);
+      fail("Expected the exception of the callback");
+    } catch (RuntimeException e) {
+      assertSame(exception, e);
+    }
+    assertEquals(Arrays.asList("b@100.0"), events);
+    assertFalse(driver.isInFrame());
+  }
+
+  /** Test that animations share the frames of the driver. */
+  @Test
+  public void testAnimations() {
+    double curTime = Duration.currentTimeMillis();
+    Animation a = new LoggingAnimation("a");
+    Animation b = new LoggingAnimation("b");
+    a.run(1000, curTime);
+    b.run(1000, curTime);
+    events.clear();
+    assertEquals(1, callbacks.size());
+
+    executeFrameAt(curTime + 500);
+    assertEquals(Arrays.asList("a", "b"), events);
+    assertEquals(1, callbacks.size());
+
+    b.cancel();
+    executeFrameAt(curTime + 1000);
+    assertFalse(a.isRunning());
+    assertTrue(callbacks.isEmpty());
+  }
+
+  /** Test the timing statistics. */
+  @Test
+  public void testStats() {
+    AnimationCallback callback =
+        new AnimationCallback() {
+          @Override
+          public void execute(double timestamp) {
+            driver.requestAnimationFrame(this);
+          }
+        };
+    driver.requestAnimationFrame(callback);
+    executeFrameAt(1000);
+    executeFrameAt(1017);
+    assertEquals(0, driver.getDroppedFrameCount());
+
+    // Two frames were skipped.
+    executeFrameAt(1067);
+    assertEquals(3, driver.getFrameCount());
+    assertEquals(2, driver.getDroppedFrameCount());
+    assertTrue(driver.getLastUpdateTime() >= 0);
+    assertTrue(driver.getMaxUpdateTime() >= driver.getLastUpdateTime());
+    assertTrue(driver.getTotalUpdateTime() >= driver.getMaxUpdateTime());
+
+    driver.resetStats();
+    assertEquals(0, driver.getFrameCount());
+    assertEquals(0, driver.getDroppedFrameCount());
+  }
+
+  /** Test that the time between two animations does not count as dropped frames. */
+  @Test
+  public void testStatsIdle() {
+    driver.requestAnimationFrame(new LoggingCallback("a"));
+    executeFrameAt(1000);
+    driver.requestAnimationFrame(new LoggingCallback("b"));
+    executeFrameAt(5000);
+    assertEquals(2, driver.getFrameCount());
+    assertEquals(0, driver.getDroppedFrameCount());
+  }
+
+  /**
+   * Execute the pending frame of the stub scheduler.
+   *
+   * @param timestamp the timestamp of the frame
+   */
+  private void executeFrameAt(double timestamp) {
+    assertEquals(1, callbacks.size());
+    callbacks.remove(0).execute(timestamp);
+  }
+
+  /** A callback that logs its name and timestamp. */
+  private class LoggingCallback implements AnimationCallback {
+    private final String name;
+
+    LoggingCallback(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public void execute(double timestamp) {
+      events.add(name + "@" + timestamp);
+    }
+  }
+
+  /** A style write that logs its name. */
+  private class LoggingWrite implements ScheduledCommand {
+    private final String name;
+
+    LoggingWrite(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public void execute() {
+      events.add(name);
+    }
+  }
+
+  /** An animation that logs its name on each update. */
+  private class LoggingAnimation extends Animation {
+    private final String name;
+
+    LoggingAnimation(String name) {
+      super(driver);
+      this.name = name;
+    }
+
+    @Override
+    protected void onUpdate(double progress) {
+      events.add(name);
+    }
+  }
+}
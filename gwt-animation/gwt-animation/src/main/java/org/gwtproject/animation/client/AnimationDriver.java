@@ -0,0 +1,277 @@
+/*
+ * Copyright © 2020 The GWT Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gwtproject.animation.client;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import org.gwtproject.core.client.Duration;
+import org.gwtproject.core.client.Scheduler.ScheduledCommand;
+import org.gwtproject.dom.client.Element;
+
+/**
+ * An {@link AnimationScheduler} that runs all requested callbacks from a single animation frame of
+ * another scheduler. Every callback of a frame receives the same timestamp, so animations that run
+ * together stay in step.
+ *
+ * <p>Callbacks that write styles can defer the writes with {@link #scheduleWrite(ScheduledCommand)}
+ * until every callback of the frame has run. Reading the layout of the page between two writes
+ * forces the browser to reflow it, so a frame that first reads and then writes only reflows once.
+ *
+ * <p>The driver also collects timing statistics about the frames it ran, see {@link
+ * #getFrameCount()}, {@link #getDroppedFrameCount()} and {@link #getLastUpdateTime()}.
+ */
+public class AnimationDriver extends AnimationScheduler {
+
+  /** A handle to a callback that waits for the next frame. */
+  private class Request extends AnimationHandle {
+    private final AnimationCallback callback;
+    private boolean cancelled;
+
+    Request(AnimationCallback callback) {
+      this.callback = callback;
+    }
+
+    @Override
+    public void cancel() {
+      if (cancelled) {
+        return;
+      }
+      cancelled = true;
+      requests.remove(this);
+      if (requests.isEmpty() && frameHandle != null) {
+        frameHandle.cancel();
+        frameHandle = null;
+        lastFrameTime = -1;
+      }
+    }
+  }
+
+  /**
+   * The expected time between two frames in milliseconds. Most displays refresh at 60Hz, and
+   * browsers run animation frames at the refresh rate of the display.
+   */
+  private static final double FRAME_INTERVAL = 1000.0 / 60;
+
+  private static AnimationDriver instance;
+
+  /**
+   * Returns the driver used by {@link AnimationScheduler#get()}.
+   *
+   * @return the default animation driver
+   */
+  public static AnimationDriver get() {
+    if (instance == null) {
+      instance = new AnimationDriver(new AnimationSchedulerImplStandard());
+    }
+    return instance;
+  }
+
+  private final AnimationCallback frameCallback =
+      new AnimationCallback() {
+        @Override
+        public void execute(double timestamp) {
+          runFrame(timestamp);
+        }
+      };
+
+  /** The handle of the pending frame of the underlying scheduler. */
+  private AnimationHandle frameHandle;
+
+  /** True while the callbacks of a frame are running. */
+  private boolean inFrame;
+
+  /** The callbacks waiting for the next frame. */
+  private List<Request> requests = new ArrayList<>();
+
+  private final AnimationScheduler scheduler;
+
+  /** The style writes deferred until the end of the current frame. */
+  private final ArrayDeque<ScheduledCommand> writes = new ArrayDeque<>();
+
+  private int droppedFrameCount;
+  private int frameCount;
+  private double lastFrameTime = -1;
+  private double lastUpdateTime;
+  private double maxUpdateTime;
+  private double totalUpdateTime;
+
+  /**
+   * Constructor for {@link AnimationDriver}.
+   *
+   * @param scheduler the scheduler that triggers the frames of the driver
+   */
+  public AnimationDriver(AnimationScheduler scheduler) {
+    this.scheduler = scheduler;
+  }
+
+  /**
+   * Run all deferred style writes now. A callback that completes an animation can call this method
+   * before it writes the final state, so the writes of the animation keep their order.
+   */
+  public void flushWrites() {
+    ScheduledCommand write;
+    while ((write = writes.poll()) != null) {
+      write.execute();
+    }
+  }
+
+  /**
+   * Get the number of frames that were expected but not run while animations were running, for
+   * example because the callbacks took longer than a frame.
+   *
+   * @return the number of dropped frames
+   */
+  public int getDroppedFrameCount() {
+    return droppedFrameCount;
+  }
+
+  /**
+   * Get the number of frames the driver ran.
+   *
+   * @return the number of frames
+   */
+  public int getFrameCount() {
+    return frameCount;
+  }
+
+  /**
+   * Get the time spent running the callbacks and style writes of the last frame.
+   *
+   * @return the update time in milliseconds
+   */
+  public double getLastUpdateTime() {
+    return lastUpdateTime;
+  }
+
+  /**
+   * Get the longest time spent running the callbacks and style writes of a frame.
+   *
+   * @return the update time in milliseconds
+   */
+  public double getMaxUpdateTime() {
+    return maxUpdateTime;
+  }
+
+  /**
+   * Get the time spent running the callbacks and style writes of all frames.
+   *
+   * @return the update time in milliseconds
+   */
+  public double getTotalUpdateTime() {
+    return totalUpdateTime;
+  }
+
+  /**
+   * Check if the callbacks of a frame are running.
+   *
+   * @return true if called from a callback of the driver
+   */
+  public boolean isInFrame() {
+    return inFrame;
+  }
+
+  /**
+   * Schedule an animation to run in the next frame of the driver. The driver requests a single
+   * frame from its underlying scheduler for all callbacks. Since all callbacks share that frame,
+   * the element is not passed on.
+   */
+  @Override
+  public AnimationHandle requestAnimationFrame(AnimationCallback callback, Element element) {
+    Request request = new Request(callback);
+    requests.add(request);
+    if (frameHandle == null) {
+      frameHandle = scheduler.requestAnimationFrame(frameCallback);
+    }
+    return request;
+  }
+
+  /** Reset the timing statistics. */
+  public void resetStats() {
+    droppedFrameCount = 0;
+    frameCount = 0;
+    lastUpdateTime = 0;
+    maxUpdateTime = 0;
+    totalUpdateTime = 0;
+  }
+
+  /**
+   * Schedule a style write. In a frame of the driver, the write is deferred until all callbacks of
+   * the frame have run. Otherwise it is executed immediately.
+   *
+   * @param write the command that writes the styles
+   */
+  public void scheduleWrite(ScheduledCommand write) {
+    if (inFrame) {
+      writes.add(write);
+    } else {
+      write.execute();
+    }
+  }
+
+  private void runFrame(double timestamp) {
+    frameHandle = null;
+    if (lastFrameTime >= 0) {
+      int missed = (int) Math.round((timestamp - lastFrameTime) / FRAME_INTERVAL) - 1;
+      if (missed > 0) {
+        droppedFrameCount += missed;
+      }
+    }
+    lastFrameTime = timestamp;
+
+    // Callbacks that request another frame are added to a new list.
+    List<Request> frame = requests;
+    requests = new ArrayList<>();
+    double start = Duration.currentTimeMillis();
+    RuntimeException caught = null;
+    inFrame = true;
+    try {
+      for (Request request : frame) {
+        if (!request.cancelled) {
+          request.cancelled = true;
+          try {
+            request.callback.execute(timestamp);
+          } catch (RuntimeException e) {
+            caught = caught == null ? e : caught;
+          }
+        }
+      }
+      ScheduledCommand write;
+      while ((write = writes.poll()) != null) {
+        try {
+          write.execute();
+        } catch (RuntimeException e) {
+          caught = caught == null ? e : caught;
+        }
+      }
+    } finally {
+      inFrame = false;
+    }
+
+    lastUpdateTime = Duration.currentTimeMillis() - start;
+    maxUpdateTime = Math.max(maxUpdateTime, lastUpdateTime);
+    totalUpdateTime += lastUpdateTime;
+    frameCount++;
+
+    // Frames are not expected while no animation is running.
+    if (frameHandle == null) {
+      lastFrameTime = -1;
+    }
+    if (caught != null) {
+      throw caught;
+    }
+  }
+}
@@ -25,18 +25,14 @@ import org.gwtproject.dom.client.Element;
  */
 public abstract class AnimationScheduler {
 
-  private static AnimationScheduler instance;
-
   /**
-   * Returns the default implementation of the AnimationScheduler API.
+   * Returns the default implementation of the AnimationScheduler API. The default implementation is
+   * an {@link AnimationDriver}, which runs all callbacks from a single animation frame.
    *
    * @return the default implementation of the AnimationScheduler API.
    */
   public static AnimationScheduler get() {
-    if (instance == null) {
-      instance = new AnimationSchedulerImplStandard();
-    }
-    return instance;
+    return AnimationDriver.get();
   }
 
   /**
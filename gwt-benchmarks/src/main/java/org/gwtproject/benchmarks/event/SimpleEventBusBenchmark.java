@@ -0,0 +1,119 @@
+/*
+ * Copyright © 2019 The GWT Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gwtproject.benchmarks.event;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.gwtproject.event.shared.Event;
+import org.gwtproject.event.shared.HandlerRegistration;
+import org.gwtproject.event.shared.SimpleEventBus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/** Dispatch and registration costs of {@link SimpleEventBus}. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SimpleEventBusBenchmark {
+
+  /** Handler of {@link BenchEvent}. */
+  public interface Handler {
+    void onBench(BenchEvent event);
+  }
+
+  /** Minimal event carrying the blackhole its handlers consume into. */
+  public static class BenchEvent extends Event<Handler> {
+    public static final Type<Handler> TYPE = new Type<>();
+
+    private final Blackhole blackhole;
+
+    BenchEvent(Blackhole blackhole) {
+      this.blackhole = blackhole;
+    }
+
+    @Override
+    public Type<Handler> getAssociatedType() {
+      return TYPE;
+    }
+
+    @Override
+    protected void dispatch(Handler handler) {
+      handler.onBench(this);
+    }
+  }
+
+  private static final Handler HANDLER = event -> event.blackhole.consume(event);
+
+  /** Number of handlers registered for each of the global and sourced lists. */
+  @Param({"1", "10", "300"})
+  public int handlers;
+
+  private final Object source = new Object();
+
+  private SimpleEventBus eventBus;
+
+  @Setup
+  public void setUp() {
+    eventBus = new SimpleEventBus();
+    for (int i = 0; i < handlers; i++) {
+      eventBus.addHandler(BenchEvent.TYPE, HANDLER);
+      eventBus.addHandlerToSource(BenchEvent.TYPE, source, HANDLER);
+    }
+  }
+
+  @Benchmark
+  public void fireEvent(Blackhole blackhole) {
+    eventBus.fireEvent(new BenchEvent(blackhole));
+  }
+
+  @Benchmark
+  public void fireEventFromSource(Blackhole blackhole) {
+    eventBus.fireEventFromSource(new BenchEvent(blackhole), source);
+  }
+
+  @Benchmark
+  public void addAndRemoveAll() {
+    SimpleEventBus bus = new SimpleEventBus();
+    List<HandlerRegistration> registrations = new ArrayList<>(handlers);
+    for (int i = 0; i < handlers; i++) {
+      registrations.add(bus.addHandlerToSource(BenchEvent.TYPE, source, HANDLER));
+    }
+    for (HandlerRegistration registration : registrations) {
+      registration.removeHandler();
+    }
+  }
+
+  @Benchmark
+  public void addFireRemove(Blackhole blackhole) {
+    HandlerRegistration registration = eventBus.addHandler(BenchEvent.TYPE, HANDLER);
+    eventBus.fireEventFromSource(new BenchEvent(blackhole), source);
+    registration.removeHandler();
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2019 The GWT Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gwtproject.benchmarks.i18n;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.gwtproject.i18n.shared.DateTimeFormat;
+import org.gwtproject.i18n.shared.cldr.DateTimeFormatInfoImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Pattern compilation, formatting and parsing costs of the shared {@link DateTimeFormat}. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DateTimeFormatBenchmark {
+
+  /**
+   * Uses the default (root locale) CLDR data directly, so the benchmark does not depend on the
+   * locale selected by the generated factory.
+   */
+  private static final class BenchFormat extends DateTimeFormat {
+    BenchFormat(String pattern) {
+      super(pattern, new DateTimeFormatInfoImpl());
+    }
+  }
+
+  @Param({"yyyy-MM-dd'T'HH:mm:ss.SSSZZZ", "EEEE, MMMM d, y h:mm a", "dd/MM/yy"})
+  public String pattern;
+
+  private final Date date = new Date(1_234_567_890_123L);
+
+  private DateTimeFormat format;
+
+  private String formatted;
+
+  @Setup
+  public void setUp() {
+    format = new BenchFormat(pattern);
+    formatted = format.format(date);
+  }
+
+  @Benchmark
+  public DateTimeFormat compilePattern() {
+    return new BenchFormat(pattern);
+  }
+
+  @Benchmark
+  public String format() {
+    return format.format(date);
+  }
+
+  @Benchmark
+  public Date parse() {
+    return format.parse(formatted);
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright © 2019 The GWT Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gwtproject.benchmarks.regexp;
+
+import java.util.concurrent.TimeUnit;
+import org.gwtproject.regexp.server.JavaRegExp;
+import org.gwtproject.regexp.shared.MatchResult;
+import org.gwtproject.regexp.shared.RegExp;
+import org.gwtproject.regexp.shared.SplitResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Compile, match, replace and split costs of {@link JavaRegExp}. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class JavaRegExpBenchmark {
+
+  private static final String PATTERN = "(\\w+)@(\\w+)\\.(com|org|net)";
+
+  private static final String INPUT =
+      "contact alice@example.com, bob@example.org or carol@example.net for details";
+
+  private RegExp global;
+
+  private RegExp single;
+
+  private RegExp comma;
+
+  @Setup
+  public void setUp() {
+    global = JavaRegExp.compile(PATTERN, "g");
+    single = JavaRegExp.compile(PATTERN);
+    comma = JavaRegExp.compile("\\s*,\\s*");
+  }
+
+  @Benchmark
+  public RegExp compile() {
+    return JavaRegExp.compile(PATTERN, "gi");
+  }
+
+  @Benchmark
+  public MatchResult exec() {
+    return single.exec(INPUT);
+  }
+
+  @Benchmark
+  public int execAllGlobal() {
+    global.setLastIndex(0);
+    int count = 0;
+    while (global.exec(INPUT) != null) {
+      count++;
+    }
+    return count;
+  }
+
+  @Benchmark
+  public boolean test() {
+    return single.test(INPUT);
+  }
+
+  @Benchmark
+  public String replaceGlobal() {
+    return global.replace(INPUT, "$2:$1");
+  }
+
+  @Benchmark
+  public SplitResult split() {
+    return comma.split(INPUT);
+  }
+}
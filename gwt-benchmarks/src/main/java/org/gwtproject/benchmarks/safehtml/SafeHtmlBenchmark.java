@@ -0,0 +1,98 @@
+/*
+ * Copyright © 2019 The GWT Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gwtproject.benchmarks.safehtml;
+
+import java.util.concurrent.TimeUnit;
+import org.gwtproject.safehtml.shared.SafeHtml;
+import org.gwtproject.safehtml.shared.SafeHtmlBuilder;
+import org.gwtproject.safehtml.shared.SafeHtmlUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Escaping and building costs of {@link SafeHtmlUtils} and {@link SafeHtmlBuilder}. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SafeHtmlBenchmark {
+
+  /** Kind of text being escaped: none, some or only characters needing escaping. */
+  @Param({"plain", "mixed", "markup"})
+  public String content;
+
+  /** Number of cells rendered per row by {@link #buildRow()}. */
+  @Param({"20"})
+  public int cells;
+
+  private String text;
+
+  @Setup
+  public void setUp() {
+    switch (content) {
+      case "plain":
+        text = "The quick brown fox jumps over the lazy dog";
+        break;
+      case "mixed":
+        text = "Tom & Jerry's \"quick\" <fox> jumps over the lazy dog";
+        break;
+      case "markup":
+        text = "<<<&&&>>>'''\"\"\"";
+        break;
+      default:
+        throw new IllegalArgumentException(content);
+    }
+  }
+
+  @Benchmark
+  public String htmlEscape() {
+    return SafeHtmlUtils.htmlEscape(text);
+  }
+
+  @Benchmark
+  public String htmlEscapeAllowEntities() {
+    return SafeHtmlUtils.htmlEscapeAllowEntities(text);
+  }
+
+  @Benchmark
+  public SafeHtml fromString() {
+    return SafeHtmlUtils.fromString(text);
+  }
+
+  @Benchmark
+  public SafeHtml buildRow() {
+    SafeHtmlBuilder sb = new SafeHtmlBuilder();
+    sb.appendHtmlConstant("<tr>");
+    for (int i = 0; i < cells; i++) {
+      sb.appendHtmlConstant("<td>");
+      sb.appendEscaped(text);
+      sb.append(i);
+      sb.appendHtmlConstant("</td>");
+    }
+    sb.appendHtmlConstant("</tr>");
+    return sb.toSafeHtml();
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright © 2019 The GWT Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gwtproject.benchmarks.typedarrays;
+
+import java.util.concurrent.TimeUnit;
+import org.gwtproject.typedarrays.server.ArrayBufferImpl;
+import org.gwtproject.typedarrays.server.DataViewImpl;
+import org.gwtproject.typedarrays.server.Float32ArrayImpl;
+import org.gwtproject.typedarrays.server.Int32ArrayImpl;
+import org.gwtproject.typedarrays.server.Uint8ArrayImpl;
+import org.gwtproject.typedarrays.shared.ArrayBuffer;
+import org.gwtproject.typedarrays.shared.DataView;
+import org.gwtproject.typedarrays.shared.Float32Array;
+import org.gwtproject.typedarrays.shared.Int32Array;
+import org.gwtproject.typedarrays.shared.Uint8Array;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Element access and bulk copy costs of the pure Java typed array implementations. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TypedArraysBenchmark {
+
+  /** Number of 32 bit elements in the backing buffer. */
+  @Param({"1024", "65536"})
+  public int length;
+
+  private ArrayBuffer buffer;
+
+  private Float32Array floats;
+
+  private Int32Array ints;
+
+  private Uint8Array bytes;
+
+  private DataView view;
+
+  private float[] source;
+
+  @Setup
+  public void setUp() {
+    buffer = new ArrayBufferImpl(length * 4);
+    floats = new Float32ArrayImpl(buffer, 0, length);
+    ints = new Int32ArrayImpl(buffer, 0, length);
+    bytes = new Uint8ArrayImpl(buffer, 0, length * 4);
+    view = new DataViewImpl(buffer, 0, length * 4);
+    source = new float[length];
+    for (int i = 0; i < length; i++) {
+      source[i] = i * 0.5f;
+    }
+  }
+
+  @Benchmark
+  public float float32ReadWrite() {
+    float sum = 0;
+    for (int i = 0; i < length; i++) {
+      floats.set(i, i);
+      sum += floats.get(i);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public long int32Sum() {
+    long sum = 0;
+    for (int i = 0; i < length; i++) {
+      sum += ints.get(i);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public int uint8Sum() {
+    int sum = 0;
+    int byteLength = bytes.length();
+    for (int i = 0; i < byteLength; i++) {
+      sum += bytes.get(i);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public double dataViewFloat64LittleEndian() {
+    double sum = 0;
+    int byteLength = length * 4;
+    for (int offset = 0; offset + 8 <= byteLength; offset += 8) {
+      sum += view.getFloat64(offset, true);
+    }
+    return sum;
+  }
+
+  @Benchmark
+  public Float32Array bulkSet() {
+    floats.set(source);
+    return floats;
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright © 2019 The GWT Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gwtproject.benchmarks.view;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.gwtproject.event.shared.Event;
+import org.gwtproject.event.shared.HandlerRegistration;
+import org.gwtproject.view.client.CellPreviewEvent;
+import org.gwtproject.view.client.HasData;
+import org.gwtproject.view.client.ListDataProvider;
+import org.gwtproject.view.client.Range;
+import org.gwtproject.view.client.RangeChangeEvent;
+import org.gwtproject.view.client.RowCountChangeEvent;
+import org.gwtproject.view.client.SelectionModel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Costs of pushing rows from a {@link ListDataProvider} to a display.
+ *
+ * <p>Only the synchronous entry points are measured; mutations through {@link
+ * ListDataProvider#getList()} are flushed asynchronously and are left out. The benchmark needs a
+ * browser runtime: even the synchronous paths call browser APIs through elemental2, so it cannot
+ * run on a plain JVM.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ListDataProviderBenchmark {
+
+  /** A display that only records the rows it receives. */
+  private static final class NullDisplay implements HasData<Integer> {
+    private final Blackhole blackhole;
+    private Range range;
+    private int rowCount;
+
+    NullDisplay(Blackhole blackhole, int pageSize) {
+      this.blackhole = blackhole;
+      this.range = new Range(0, pageSize);
+    }
+
+    @Override
+    public HandlerRegistration addRangeChangeHandler(RangeChangeEvent.Handler handler) {
+      return () -> {};
+    }
+
+    @Override
+    public HandlerRegistration addRowCountChangeHandler(RowCountChangeEvent.Handler handler) {
+      return () -> {};
+    }
+
+    @Override
+    public HandlerRegistration addCellPreviewHandler(CellPreviewEvent.Handler<Integer> handler) {
+      return () -> {};
+    }
+
+    @Override
+    public void fireEvent(Event<?> event) {}
+
+    @Override
+    public int getRowCount() {
+      return rowCount;
+    }
+
+    @Override
+    public Range getVisibleRange() {
+      return range;
+    }
+
+    @Override
+    public boolean isRowCountExact() {
+      return true;
+    }
+
+    @Override
+    public void setRowCount(int count) {
+      setRowCount(count, true);
+    }
+
+    @Override
+    public void setRowCount(int count, boolean isExact) {
+      rowCount = count;
+    }
+
+    @Override
+    public void setVisibleRange(int start, int length) {
+      setVisibleRange(new Range(start, length));
+    }
+
+    @Override
+    public void setVisibleRange(Range range) {
+      this.range = range;
+    }
+
+    @Override
+    public SelectionModel<? super Integer> getSelectionModel() {
+      return null;
+    }
+
+    @Override
+    public Integer getVisibleItem(int indexOnPage) {
+      return null;
+    }
+
+    @Override
+    public int getVisibleItemCount() {
+      return 0;
+    }
+
+    @Override
+    public Iterable<Integer> getVisibleItems() {
+      return null;
+    }
+
+    @Override
+    public void setRowData(int start, List<? extends Integer> values) {
+      blackhole.consume(values);
+    }
+
+    @Override
+    public void setSelectionModel(SelectionModel<? super Integer> selectionModel) {}
+
+    @Override
+    public void setVisibleRangeAndClearData(Range range, boolean forceRangeChangeEvent) {
+      setVisibleRange(range);
+    }
+  }
+
+  @Param({"1000", "100000"})
+  public int rows;
+
+  @Param({"50", "1000"})
+  public int pageSize;
+
+  private List<Integer> values;
+
+  private ListDataProvider<Integer> provider;
+
+  @Setup
+  public void setUp(Blackhole blackhole) {
+    values = new ArrayList<>(rows);
+    for (int i = 0; i < rows; i++) {
+      values.add(i);
+    }
+    provider = new ListDataProvider<>(values);
+    provider.addDataDisplay(new NullDisplay(blackhole, pageSize));
+  }
+
+  @Benchmark
+  public void refresh() {
+    provider.refresh();
+  }
+
+  @Benchmark
+  public void setList() {
+    provider.setList(values);
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Copyright © 2019 The GWT Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gwtproject.user.client.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Build and lookup costs of {@link PrefixTree}. See {@link SuggestionIndexBenchmark} for the index
+ * behind {@link MultiWordSuggestOracle}.
+ *
+ * <p>Lives in the widgets package because {@link PrefixTree} is package private.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PrefixTreeBenchmark {
+
+  private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz";
+
+  @Param({"1000", "100000"})
+  public int words;
+
+  private List<String> dictionary;
+
+  private PrefixTree tree;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    dictionary = new ArrayList<>(words);
+    for (int i = 0; i < words; i++) {
+      int len = 3 + random.nextInt(10);
+      StringBuilder sb = new StringBuilder(len);
+      for (int j = 0; j < len; j++) {
+        sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+      }
+      dictionary.add(sb.toString());
+    }
+    tree = new PrefixTree(2, dictionary);
+  }
+
+  @Benchmark
+  public PrefixTree build() {
+    return new PrefixTree(2, dictionary);
+  }
+
+  @Benchmark
+  public List<String> suggestShortPrefix() {
+    return tree.getSuggestions("a", 20);
+  }
+
+  @Benchmark
+  public List<String> suggestLongPrefix() {
+    return tree.getSuggestions("mno", 20);
+  }
+
+  @Benchmark
+  public boolean contains() {
+    return tree.contains(dictionary.get(words / 2));
+  }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright © 2019 The GWT Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gwtproject.user.client.ui;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Build and lookup costs of {@link SuggestionIndex}, the index behind {@link
+ * MultiWordSuggestOracle}, against the {@link PrefixTree} and word to candidate maps it replaced.
+ *
+ * <p>Run with {@code -prof gc} to compare the allocation of the two builds, which bounds the heap
+ * each index retains. Lives in the widgets package because both indexes are package private.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SuggestionIndexBenchmark {
+
+  private static final String ALPHABET = "abcdefghijklmnopqrstuvwxyz";
+
+  @Param({"1000", "200000"})
+  public int suggestions;
+
+  /** Multi word suggestions, in sorted order. */
+  private List<String> names;
+
+  private SuggestionIndex index;
+
+  private PrefixTree tree;
+
+  private Map<String, Set<String>> toCandidates;
+
+  @Setup
+  public void setUp() {
+    Random random = new Random(42);
+    names = new ArrayList<>(suggestions);
+    for (int i = 0; i < suggestions; i++) {
+      int words = 2 + random.nextInt(3);
+      StringBuilder sb = new StringBuilder();
+      for (int w = 0; w < words; w++) {
+        if (w > 0) {
+          sb.append(' ');
+        }
+        int len = 3 + random.nextInt(8);
+        for (int j = 0; j < len; j++) {
+          sb.append(ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+        }
+      }
+      names.add(sb.toString());
+    }
+    Collections.sort(names);
+    index = buildSuggestionIndex();
+    tree = new PrefixTree();
+    toCandidates = buildPrefixTree(tree);
+  }
+
+  @Benchmark
+  public SuggestionIndex buildSuggestionIndex() {
+    SuggestionIndex index = new SuggestionIndex();
+    for (String name : names) {
+      index.add(name, name, name.split(" "));
+    }
+    index.flush();
+    return index;
+  }
+
+  @Benchmark
+  public Map<String, Set<String>> buildPrefixTree() {
+    return buildPrefixTree(new PrefixTree());
+  }
+
+  @Benchmark
+  public Set<String> candidatesSuggestionIndex() {
+    Set<String> candidates = new HashSet<>();
+    index.collectCandidates("mno", candidates);
+    return candidates;
+  }
+
+  @Benchmark
+  public Set<String> candidatesPrefixTree() {
+    Set<String> candidates = new HashSet<>();
+    for (String word : tree.getSuggestions("mno", Integer.MAX_VALUE)) {
+      candidates.addAll(toCandidates.get(word));
+    }
+    return candidates;
+  }
+
+  /** Fill a {@link PrefixTree} the way {@link MultiWordSuggestOracle} used to. */
+  private Map<String, Set<String>> buildPrefixTree(PrefixTree tree) {
+    Map<String, Set<String>> toCandidates = new HashMap<>();
+    Map<String, List<String>> toRealSuggestions = new HashMap<>();
+    for (String name : names) {
+      List<String> realSuggestions = toRealSuggestions.get(name);
+      if (realSuggestions == null) {
+        realSuggestions = new ArrayList<>();
+        toRealSuggestions.put(name, realSuggestions);
+      }
+      realSuggestions.add(0, name);
+      for (String word : name.split(" ")) {
+        tree.add(word);
+        Set<String> candidates = toCandidates.get(word);
+        if (candidates == null) {
+          candidates = new HashSet<>();
+          toCandidates.put(word, candidates);
+        }
+        candidates.add(name);
+      }
+    }
+    return toCandidates;
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * Copyright 2011 The GWT Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gwtproject.event.shared;
+
+/**
+ * Marks an {@link Event} that a {@link CoalescingEventBus} may merge with later events of the same
+ * type fired from the same source before they are delivered.
+ *
+ * <p>By default only the latest event is delivered. Events that accumulate state, such as a dirty
+ * range, can override {@link #coalesce} to combine themselves with the later event instead.
+ *
+ * @param <E> the event type, usually the implementing class itself
+ */
+public interface CoalescableEvent<E extends Event<?>> {
+
+  /**
+   * Returns the event to deliver in place of this event and {@code later}, which was fired after
+   * this one with the same type and source. The default returns {@code later}.
+   *
+   * @param later the more recently fired event
+   * @return the event to keep buffered, possibly a new merged event
+   */
+  default E coalesce(E later) {
+    return later;
+  }
+}
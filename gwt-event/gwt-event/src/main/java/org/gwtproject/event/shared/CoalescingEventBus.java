@@ -0,0 +1,215 @@
+/*
+ * Copyright 2011 The GWT Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gwtproject.event.shared;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import org.gwtproject.event.shared.Event.Type;
+
+/**
+ * An {@link EventBus} that buffers {@link CoalescableEvent}s and delivers them at most once per
+ * flush, keeping only the latest (or merged) event for each type and source.
+ *
+ * <p>Events that do not implement {@link CoalescableEvent} are fired immediately. Handlers are
+ * registered with the wrapped bus, so adds and removes made during dispatch behave exactly as they
+ * do there; the default wrapped bus is a {@link SimpleEventBus}.
+ *
+ * <p>Flushes are requested from a {@link FlushScheduler} the first time an event is buffered after
+ * a flush. In the browser, flush once per event loop with:
+ *
+ * <pre>
+ * new CoalescingEventBus(flush -&gt; Scheduler.get().scheduleFinally(flush::run));
+ * </pre>
+ */
+public class CoalescingEventBus extends EventBus {
+
+  /** Schedules a later call to {@link CoalescingEventBus#flush()}. */
+  public interface FlushScheduler {
+    /**
+     * Arranges for {@code flush} to be run once, after the code currently firing events returns.
+     *
+     * @param flush the command delivering the buffered events
+     */
+    void scheduleFlush(Runnable flush);
+  }
+
+  /** Buffer key made of an event type and its (possibly null) source. */
+  private static final class Key {
+    private final Type<?> type;
+    private final Object source;
+
+    Key(Type<?> type, Object source) {
+      this.type = type;
+      this.source = source;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (!(o instanceof Key)) {
+        return false;
+      }
+      Key other = (Key) o;
+      return type == other.type
+          && (source == null ? other.source == null : source.equals(other.source));
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * type.hashCode() + (source == null ? 0 : source.hashCode());
+    }
+  }
+
+  private final EventBus wrapped;
+  private final FlushScheduler flushScheduler;
+  private final Runnable flushCommand = this::flush;
+
+  /** Buffered events, in the order their key was first fired. */
+  private Map<Key, Event<?>> pending = new LinkedHashMap<>();
+
+  private boolean flushScheduled;
+
+  /**
+   * Creates a bus dispatching through a new {@link SimpleEventBus}.
+   *
+   * @param flushScheduler schedules delivery of the buffered events
+   */
+  public CoalescingEventBus(FlushScheduler flushScheduler) {
+    this(new SimpleEventBus(), flushScheduler);
+  }
+
+  /**
+   * Creates a bus dispatching through {@code wrapped}.
+   *
+   * @param wrapped the bus handlers are registered with and events are delivered through
+   * @param flushScheduler schedules delivery of the buffered events
+   */
+  public CoalescingEventBus(EventBus wrapped, FlushScheduler flushScheduler) {
+    if (wrapped == null) {
+      throw new NullPointerException("Cannot wrap a null event bus");
+    }
+    if (flushScheduler == null) {
+      throw new NullPointerException("Cannot use a null flush scheduler");
+    }
+    this.wrapped = wrapped;
+    this.flushScheduler = flushScheduler;
+  }
+
+  @Override
+  public <H> HandlerRegistration addHandler(Type<H> type, H handler) {
+    return wrapped.addHandler(type, handler);
+  }
+
+  @Override
+  public <H> HandlerRegistration addHandlerToSource(Type<H> type, Object source, H handler) {
+    return wrapped.addHandlerToSource(type, source, handler);
+  }
+
+  @Override
+  public void fireEvent(Event<?> event) {
+    if (event == null) {
+      throw new NullPointerException("Cannot fire null event");
+    }
+    if (event instanceof CoalescableEvent) {
+      enqueue(event, null);
+    } else {
+      wrapped.fireEvent(event);
+    }
+  }
+
+  @Override
+  public void fireEventFromSource(Event<?> event, Object source) {
+    if (event == null) {
+      throw new NullPointerException("Cannot fire null event");
+    }
+    if (source == null) {
+      throw new NullPointerException("Cannot fire from a null source");
+    }
+    if (event instanceof CoalescableEvent) {
+      enqueue(event, source);
+    } else {
+      wrapped.fireEventFromSource(event, source);
+    }
+  }
+
+  /**
+   * Delivers all buffered events now, in the order their type and source were first fired.
+   * Coalescable events fired by handlers during the flush are buffered for the next flush.
+   *
+   * @throws UmbrellaException wrapping exceptions thrown by handlers
+   */
+  public void flush() {
+    flushScheduled = false;
+    if (pending.isEmpty()) {
+      return;
+    }
+
+    Map<Key, Event<?>> toFire = pending;
+    pending = new LinkedHashMap<>();
+
+    Set<Throwable> causes = null;
+    for (Map.Entry<Key, Event<?>> entry : toFire.entrySet()) {
+      Object source = entry.getKey().source;
+      try {
+        if (source == null) {
+          wrapped.fireEvent(entry.getValue());
+        } else {
+          wrapped.fireEventFromSource(entry.getValue(), source);
+        }
+      } catch (Throwable e) {
+        if (causes == null) {
+          causes = new HashSet<>();
+        }
+        if (e instanceof UmbrellaException) {
+          causes.addAll(((UmbrellaException) e).getCauses());
+        } else {
+          causes.add(e);
+        }
+      }
+    }
+
+    if (causes != null) {
+      throw new UmbrellaException(causes);
+    }
+  }
+
+  /** Visible for testing. */
+  int getPendingCount() {
+    return pending.size();
+  }
+
+  private void enqueue(Event<?> event, Object source) {
+    Key key = new Key(event.getAssociatedType(), source);
+    Event<?> previous = pending.get(key);
+    pending.put(key, previous == null ? event : coalesce(previous, event));
+
+    if (!flushScheduled) {
+      flushScheduled = true;
+      flushScheduler.scheduleFlush(flushCommand);
+    }
+  }
+
+  private static Event<?> coalesce(Event<?> previous, Event<?> later) {
+    // safe, both events were fired with the same associated type.
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    Event<?> merged = (Event<?>) ((CoalescableEvent) previous).coalesce(later);
+    if (merged == null) {
+      throw new NullPointerException("CoalescableEvent.coalesce() must not return null");
+    }
+    return merged;
+  }
+}
@@ -16,7 +16,6 @@
 package org.gwtproject.event.shared;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -24,19 +23,128 @@ import java.util.Map;
 import java.util.Set;
 import org.gwtproject.event.shared.Event.Type;
 
-/** Basic implementation of {@link EventBus}. */
+/**
+ * Basic implementation of {@link EventBus}.
+ *
+ * <p>Handlers are kept in linked lists so that a {@link HandlerRegistration} can unlink its own
+ * handler in constant time. Dispatch iterates an immutable array snapshot of those lists, which is
+ * built lazily and cached until the handlers it was built from change, so firing an event does not
+ * allocate once the handler set has settled. Snapshots for sourced events already include the
+ * global handlers of the same type.
+ */
 public class SimpleEventBus extends EventBus {
   private interface Command {
     void execute();
   }
 
+  private static final Object[] EMPTY = new Object[0];
+
+  /** A single registered handler, linked into the {@link HandlerList} it was added to. */
+  private final class HandlerEntry implements HandlerRegistration {
+    private final Event.Type<?> type;
+    private final Object source;
+    private final Object handler;
+
+    private TypeHandlers typeHandlers;
+    private HandlerList owner;
+    private HandlerEntry prev;
+    private HandlerEntry next;
+    private boolean removed;
+
+    HandlerEntry(Event.Type<?> type, Object source, Object handler) {
+      this.type = type;
+      this.source = source;
+      this.handler = handler;
+    }
+
+    @Override
+    public void removeHandler() {
+      doRemove(this);
+    }
+  }
+
+  /** Handlers registered for one (type, source) pair, in registration order. */
+  private static final class HandlerList {
+    private HandlerEntry head;
+    private HandlerEntry tail;
+    private int size;
+
+    /** Handlers of this list only, or null if it must be rebuilt. */
+    private Object[] snapshot;
+
+    /** Handlers of this list followed by the global ones, or null if it must be rebuilt. */
+    private Object[] merged;
+
+    /** Value of {@link TypeHandlers#globalVersion} when {@link #merged} was built. */
+    private int mergedGlobalVersion;
+
+    void append(HandlerEntry entry) {
+      entry.owner = this;
+      entry.prev = tail;
+      if (tail == null) {
+        head = entry;
+      } else {
+        tail.next = entry;
+      }
+      tail = entry;
+      size++;
+      invalidate();
+    }
+
+    void unlink(HandlerEntry entry) {
+      if (entry.prev == null) {
+        head = entry.next;
+      } else {
+        entry.prev.next = entry.next;
+      }
+      if (entry.next == null) {
+        tail = entry.prev;
+      } else {
+        entry.next.prev = entry.prev;
+      }
+      entry.owner = null;
+      entry.prev = null;
+      entry.next = null;
+      size--;
+      invalidate();
+    }
+
+    Object[] snapshot() {
+      if (snapshot == null) {
+        snapshot = new Object[size];
+        copyInto(snapshot, 0);
+      }
+      return snapshot;
+    }
+
+    void copyInto(Object[] target, int offset) {
+      for (HandlerEntry e = head; e != null; e = e.next) {
+        target[offset++] = e.handler;
+      }
+    }
+
+    private void invalidate() {
+      snapshot = null;
+      merged = null;
+    }
+  }
+
+  /** All handlers of a single event type. */
+  private static final class TypeHandlers {
+    /** Map of event source to its handlers, the global handlers being keyed by null. */
+    private final Map<Object, HandlerList> bySource = new HashMap<>();
+
+    /** Bumped whenever the global handlers change, invalidating all merged snapshots. */
+    private int globalVersion;
+  }
+
   private int firingDepth = 0;
 
   /** Add and remove operations received during dispatch. */
   private List<Command> deferredDeltas;
 
-  /** Map of event type to map of event source to list of their handlers. */
-  private final Map<Event.Type<?>, Map<Object, List<?>>> map = new HashMap<>();
+  /** Map of event type to the handlers registered for it. */
+  private final Map<Event.Type<?>, TypeHandlers> map = new HashMap<>();
 
   @Override
   public <H> HandlerRegistration addHandler(Type<H> type, H handler) {
@@ -66,11 +174,11 @@ public class SimpleEventBus extends EventBus {
     doFire(event, source);
   }
 
-  private <H> void doRemove(Event.Type<H> type, Object source, H handler) {
+  private void doRemove(HandlerEntry entry) {
     if (firingDepth > 0) {
-      enqueueRemove(type, source, handler);
+      enqueueRemove(entry);
     } else {
-      doRemoveNow(type, source, handler);
+      doRemoveNow(entry);
     }
   }
 
@@ -90,18 +198,33 @@ public class SimpleEventBus extends EventBus {
       throw new NullPointerException("Cannot add a null handler");
     }
 
+    HandlerEntry entry = new HandlerEntry(type, source, handler);
+
     if (firingDepth > 0) {
-      enqueueAdd(type, source, handler);
+      enqueueAdd(entry);
     } else {
-      doAddNow(type, source, handler);
+      doAddNow(entry);
     }
 
-    return () -> doRemove(type, source, handler);
+    return entry;
   }
 
-  private <H> void doAddNow(Event.Type<H> type, Object source, H handler) {
-    List<H> l = ensureHandlerList(type, source);
-    l.add(handler);
+  private void doAddNow(HandlerEntry entry) {
+    if (entry.removed) {
+      // Removed before the deferred add was applied.
+      return;
+    }
+    TypeHandlers typeHandlers = map.computeIfAbsent(entry.type, k -> new TypeHandlers());
+    HandlerList list = typeHandlers.bySource.get(entry.source);
+    if (list == null) {
+      list = new HandlerList();
+      typeHandlers.bySource.put(entry.source, list);
+    }
+    entry.typeHandlers = typeHandlers;
+    list.append(entry);
+    if (entry.source == null) {
+      typeHandlers.globalVersion++;
+    }
   }
 
   private <H> void doFire(Event<H> event, Object source) {
@@ -115,12 +238,15 @@ public class SimpleEventBus extends EventBus {
         setSourceOfEvent(event, source);
       }
 
-      List<H> handlers = getDispatchList(event.getAssociatedType(), source);
+      Object[] handlers = getDispatchArray(event.getAssociatedType(), source);
       Set<Throwable> causes = null;
 
-      for (H handler : handlers) {
+      for (Object handler : handlers) {
         try {
-          dispatchEvent(event, handler);
+          // safe, only handlers of type H are registered with the associated type.
+          @SuppressWarnings("unchecked")
+          H h = (H) handler;
+          dispatchEvent(event, h);
         } catch (Throwable e) {
           if (causes == null) {
             causes = new HashSet<>();
@@ -140,65 +266,63 @@ public class SimpleEventBus extends EventBus {
     }
   }
 
-  private <H> void doRemoveNow(Event.Type<H> type, Object source, H handler) {
-    List<H> l = getHandlerList(type, source);
+  private void doRemoveNow(HandlerEntry entry) {
+    if (entry.removed) {
+      return;
+    }
+    entry.removed = true;
 
-    boolean removed = l.remove(handler);
+    HandlerList list = entry.owner;
+    if (list == null) {
+      // Add still pending, doAddNow will skip it.
+      return;
+    }
+    list.unlink(entry);
 
-    if (removed && l.isEmpty()) {
-      prune(type, source);
+    TypeHandlers typeHandlers = entry.typeHandlers;
+    if (entry.source == null) {
+      typeHandlers.globalVersion++;
+    }
+    if (list.size == 0) {
+      prune(entry.type, typeHandlers, entry.source);
     }
   }
 
-  private <H> void enqueueAdd(final Event.Type<H> type, final Object source, final H handler) {
-    defer(() -> doAddNow(type, source, handler));
+  private void enqueueAdd(final HandlerEntry entry) {
+    defer(() -> doAddNow(entry));
   }
 
-  private <H> void enqueueRemove(final Event.Type<H> type, final Object source, final H handler) {
-    defer(() -> doRemoveNow(type, source, handler));
+  private void enqueueRemove(final HandlerEntry entry) {
+    defer(() -> doRemoveNow(entry));
   }
 
-  private <H> List<H> ensureHandlerList(Event.Type<H> type, Object source) {
-    Map<Object, List<?>> sourceMap = map.computeIfAbsent(type, k -> new HashMap<>());
-
-    // safe, we control the puts.
-    @SuppressWarnings("unchecked")
-    List<H> handlers = (List<H>) sourceMap.get(source);
-    if (handlers == null) {
-      handlers = new ArrayList<>();
-      sourceMap.put(source, handlers);
+  private Object[] getDispatchArray(Event.Type<?> type, Object source) {
+    TypeHandlers typeHandlers = map.get(type);
+    if (typeHandlers == null) {
+      return EMPTY;
     }
 
-    return handlers;
-  }
-
-  private <H> List<H> getDispatchList(Event.Type<H> type, Object source) {
-    List<H> directHandlers = getHandlerList(type, source);
+    HandlerList direct = typeHandlers.bySource.get(source);
     if (source == null) {
-      return directHandlers;
+      return direct == null ? EMPTY : direct.snapshot();
     }
 
-    List<H> globalHandlers = getHandlerList(type, null);
-
-    List<H> rtn = new ArrayList<>(directHandlers);
-    rtn.addAll(globalHandlers);
-    return rtn;
-  }
-
-  private <H> List<H> getHandlerList(Event.Type<H> type, Object source) {
-    Map<Object, List<?>> sourceMap = map.get(type);
-    if (sourceMap == null) {
-      return Collections.emptyList();
+    HandlerList global = typeHandlers.bySource.get(null);
+    if (direct == null) {
+      return global == null ? EMPTY : global.snapshot();
     }
-
-    // safe, we control the puts.
-    @SuppressWarnings("unchecked")
-    List<H> handlers = (List<H>) sourceMap.get(source);
-    if (handlers == null) {
-      return Collections.emptyList();
+    if (global == null) {
+      return direct.snapshot();
     }
 
-    return handlers;
+    if (direct.merged == null || direct.mergedGlobalVersion != typeHandlers.globalVersion) {
+      Object[] merged = new Object[direct.size + global.size];
+      direct.copyInto(merged, 0);
+      global.copyInto(merged, direct.size);
+      direct.merged = merged;
+      direct.mergedGlobalVersion = typeHandlers.globalVersion;
+    }
+    return direct.merged;
   }
 
   private void handleQueuedAddsAndRemoves() {
@@ -213,15 +337,13 @@ public class SimpleEventBus extends EventBus {
     }
   }
 
-  private void prune(Event.Type<?> type, Object source) {
-    Map<Object, List<?>> sourceMap = map.get(type);
-
-    List<?> pruned = sourceMap.remove(source);
+  private void prune(Event.Type<?> type, TypeHandlers typeHandlers, Object source) {
+    HandlerList pruned = typeHandlers.bySource.remove(source);
 
     assert pruned != null : "Can't prune what wasn't there";
-    assert pruned.isEmpty() : "Pruned unempty list!";
+    assert pruned.size == 0 : "Pruned unempty list!";
 
-    if (sourceMap.isEmpty()) {
+    if (typeHandlers.bySource.isEmpty()) {
       map.remove(type);
     }
   }
@@ -0,0 +1,227 @@
+/*
+ * Copyright 2011 The GWT Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.gwtproject.event.shared;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/** Eponymous unit test. */
+public class CoalescingEventBusTest extends EventBusTestBase {
+
+  /** A coalescable event carrying a count, the latest of which wins. */
+  static class CountEvent extends Event<CountEvent.Handler>
+      implements CoalescableEvent<CountEvent> {
+    interface Handler {
+      void onCount(CountEvent event);
+    }
+
+    static final Type<Handler> TYPE = new Type<>();
+
+    final int count;
+
+    CountEvent(int count) {
+      this.count = count;
+    }
+
+    @Override
+    public Type<Handler> getAssociatedType() {
+      return TYPE;
+    }
+
+    @Override
+    protected void dispatch(Handler handler) {
+      handler.onCount(this);
+    }
+  }
+
+  /** Like {@link CountEvent}, but merges by summing the counts. */
+  static class SumEvent extends CountEvent {
+    SumEvent(int count) {
+      super(count);
+    }
+
+    @Override
+    public CountEvent coalesce(CountEvent later) {
+      return new SumEvent(count + later.count);
+    }
+  }
+
+  private final List<Runnable> scheduled = new ArrayList<>();
+
+  private final List<String> received = new ArrayList<>();
+
+  private CoalescingEventBus eventBus;
+
+  @Override
+  protected void setUp() throws Exception {
+    super.setUp();
+    eventBus = new CoalescingEventBus(scheduled::add);
+  }
+
+  public void testNonCoalescableFiresImmediately() {
+    FooEvent.register(eventBus, fooHandler1);
+    eventBus.fireEvent(new FooEvent());
+    assertFired(fooHandler1);
+    assertEquals(0, scheduled.size());
+  }
+
+  public void testLatestEventWins() {
+    eventBus.addHandler(CountEvent.TYPE, e -> received.add("global:" + e.count));
+
+    eventBus.fireEvent(new CountEvent(1));
+    eventBus.fireEvent(new CountEvent(2));
+    eventBus.fireEvent(new CountEvent(3));
+    assertTrue(received.isEmpty());
+    assertEquals(1, scheduled.size());
+    assertEquals(1, eventBus.getPendingCount());
+
+    runScheduled();
+    assertEquals(list("global:3"), received);
+    assertEquals(0, eventBus.getPendingCount());
+  }
+
+  public void testMerge() {
+    eventBus.addHandler(CountEvent.TYPE, e -> received.add("global:" + e.count));
+
+    eventBus.fireEvent(new SumEvent(1));
+    eventBus.fireEvent(new SumEvent(2));
+    eventBus.fireEvent(new SumEvent(3));
+    runScheduled();
+    assertEquals(list("global:6"), received);
+  }
+
+  public void testCoalescesPerSource() {
+    eventBus.addHandler(CountEvent.TYPE, e -> received.add(e.getSource() + ":" + e.count));
+
+    eventBus.fireEventFromSource(new CountEvent(1), "able");
+    eventBus.fireEventFromSource(new CountEvent(2), "baker");
+    eventBus.fireEventFromSource(new CountEvent(3), "able");
+    eventBus.fireEvent(new CountEvent(4));
+    assertEquals(1, scheduled.size());
+
+    runScheduled();
+    assertEquals(list("able:3", "baker:2", "null:4"), received);
+  }
+
+  public void testSourcedHandlers() {
+    eventBus.addHandlerToSource(CountEvent.TYPE, "able", e -> received.add("able:" + e.count));
+    eventBus.addHandler(CountEvent.TYPE, e -> received.add("global:" + e.count));
+
+    eventBus.fireEventFromSource(new CountEvent(1), "able");
+    eventBus.fireEventFromSource(new CountEvent(2), "baker");
+    runScheduled();
+    assertEquals(list("able:1", "global:1", "global:2"), received);
+  }
+
+  public void testEventsFiredDuringFlushAreDeferred() {
+    eventBus.addHandler(
+        CountEvent.TYPE,
+        e -> {
+          received.add("global:" + e.count);
+          if (e.count < 3) {
+            eventBus.fireEvent(new CountEvent(e.count + 1));
+          }
+        });
+
+    eventBus.fireEvent(new CountEvent(1));
+    runScheduled();
+    assertEquals(list("global:1", "global:2", "global:3"), received);
+  }
+
+  public void testConcurrentAddAndRemove() {
+    final CountEvent.Handler late = e -> received.add("late:" + e.count);
+    final HandlerRegistration[] reg = new HandlerRegistration[1];
+    eventBus.addHandler(
+        CountEvent.TYPE,
+        e -> {
+          received.add("first:" + e.count);
+          eventBus.addHandler(CountEvent.TYPE, late);
+          reg[0].removeHandler();
+        });
+    reg[0] = eventBus.addHandler(CountEvent.TYPE, e -> received.add("second:" + e.count));
+
+    eventBus.fireEvent(new CountEvent(1));
+    runScheduled();
+    // Like SimpleEventBus, changes made during dispatch apply once it completes.
+    assertEquals(list("first:1", "second:1"), received);
+
+    received.clear();
+    eventBus.fireEvent(new CountEvent(2));
+    runScheduled();
+    assertEquals(list("first:2", "late:2"), received);
+  }
+
+  public void testHandlersThrow() {
+    RuntimeException exception1 = new RuntimeException("first exception");
+    RuntimeException exception2 = new RuntimeException("second exception");
+
+    eventBus.addHandlerToSource(
+        CountEvent.TYPE,
+        "able",
+        e -> {
+          throw exception1;
+        });
+    eventBus.addHandlerToSource(
+        CountEvent.TYPE,
+        "baker",
+        e -> {
+          throw exception2;
+        });
+    eventBus.addHandler(CountEvent.TYPE, e -> received.add(e.getSource() + ":" + e.count));
+
+    eventBus.fireEventFromSource(new CountEvent(1), "able");
+    eventBus.fireEventFromSource(new CountEvent(2), "baker");
+    try {
+      runScheduled();
+      fail("eventBus should have thrown");
+    } catch (UmbrellaException e) {
+      assertEquals(2, e.getCauses().size());
+      assertTrue(e.getCauses().contains(exception1));
+      assertTrue(e.getCauses().contains(exception2));
+    }
+    assertEquals(list("able:1", "baker:2"), received);
+  }
+
+  public void testNullChecks() {
+    try {
+      eventBus.fireEvent(null);
+      fail("expected NullPointerException");
+    } catch (NullPointerException e) {
+      /* pass */
+    }
+    try {
+      eventBus.fireEventFromSource(new CountEvent(1), null);
+      fail("expected NullPointerException");
+    } catch (NullPointerException e) {
+      /* pass */
+    }
+  }
+
+  private void runScheduled() {
+    while (!scheduled.isEmpty()) {
+      scheduled.remove(0).run();
+    }
+  }
+
+  private static List<String> list(String... values) {
+    List<String> rtn = new ArrayList<>();
+    for (String value : values) {
+      rtn.add(value);
+    }
+    return rtn;
+  }
+}
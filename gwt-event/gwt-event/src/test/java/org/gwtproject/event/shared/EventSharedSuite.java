@@ -23,6 +23,7 @@ import org.junit.runners.Suite.SuiteClasses;
 /** Tests of shared Event code. */
 @RunWith(Suite.class)
 @SuiteClasses({
+  CoalescingEventBusTest.class,
   CountingEventBusTest.class,
   HandlerRegistrationsTest.class,
   SimpleEventBusTest.class,
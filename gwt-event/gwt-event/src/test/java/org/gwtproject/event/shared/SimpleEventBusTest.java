@@ -302,6 +302,67 @@ public class SimpleEventBusTest extends EventBusTestBase {
     reg.removeHandler(); // should not throw
   }
 
+  public void testNoDoubleRemoveOfDuplicateHandler() {
+    final SimpleEventBus eventBus = new SimpleEventBus();
+    HandlerRegistration reg = FooEvent.register(eventBus, fooHandler1);
+    FooEvent.register(eventBus, fooHandler1);
+
+    reg.removeHandler();
+    reg.removeHandler(); // must not remove the second registration
+
+    eventBus.fireEvent(new FooEvent());
+    assertFired(fooHandler1);
+  }
+
+  public void testFromSourceSeesGlobalChanges() {
+    final SimpleEventBus eventBus = new SimpleEventBus();
+
+    SourcedHandler able = new SourcedHandler("able");
+    SourcedHandler global = new SourcedHandler("able");
+
+    FooEvent.register(eventBus, "able", able);
+    eventBus.fireEventFromSource(new FooEvent(), "able");
+    assertFired(able);
+    assertNotFired(global);
+
+    reset();
+    HandlerRegistration reg = FooEvent.register(eventBus, global);
+    eventBus.fireEventFromSource(new FooEvent(), "able");
+    assertFired(able, global);
+
+    reset();
+    reg.removeHandler();
+    eventBus.fireEventFromSource(new FooEvent(), "able");
+    assertFired(able);
+    assertNotFired(global);
+  }
+
+  public void testReAddAfterPrune() {
+    final SimpleEventBus eventBus = new SimpleEventBus();
+
+    FooEvent.Handler one =
+        new FooEvent.Handler() {
+          HandlerRegistration reg = FooEvent.register(eventBus, this);
+
+          @Override
+          public void onFoo(FooEvent event) {
+            add(this);
+            // Removing the only handler prunes the type before the add is applied.
+            reg.removeHandler();
+            FooEvent.register(eventBus, fooHandler1);
+          }
+        };
+
+    eventBus.fireEvent(new FooEvent());
+    assertFired(one);
+    assertNotFired(fooHandler1);
+
+    reset();
+    eventBus.fireEvent(new FooEvent());
+    assertFired(fooHandler1);
+    assertNotFired(one);
+  }
+
   public void testNoSource() {
     final SimpleEventBus eventBus = new SimpleEventBus();
 
@@ -16,6 +16,8 @@
 package org.gwtproject.http;
 
 import org.gwtproject.http.client.RequestBuilderTest;
+import org.gwtproject.http.client.RequestCacheTest;
+import org.gwtproject.http.client.RequestSchedulerTest;
 import org.gwtproject.http.client.RequestTest;
 import org.gwtproject.http.client.ResponseTest;
 import org.gwtproject.http.client.URLTest;
@@ -28,6 +30,8 @@ import org.junit.runners.Suite;
 @Suite.SuiteClasses({
   URLTest.class,
   RequestBuilderTest.class,
+  RequestCacheTest.class,
+  RequestSchedulerTest.class,
   RequestTest.class,
   ResponseTest.class,
   UrlBuilderTest.class
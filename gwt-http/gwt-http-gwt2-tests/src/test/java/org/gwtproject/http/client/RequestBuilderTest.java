@@ -20,10 +20,16 @@ import static org.gwtproject.http.shared.RequestBuilderTestConstants.SERVLET_GET
 import static org.gwtproject.http.shared.RequestBuilderTestConstants.SERVLET_HEAD_RESPONSE;
 import static org.gwtproject.http.shared.RequestBuilderTestConstants.SERVLET_POST_RESPONSE;
 import static org.gwtproject.http.shared.RequestBuilderTestConstants.SERVLET_PUT_RESPONSE;
+import static org.gwtproject.http.shared.RequestBuilderTestConstants.SERVLET_STREAM_RESPONSE;
 
 import com.google.gwt.core.client.GWT;
 import com.google.gwt.junit.DoNotRunWith;
 import com.google.gwt.junit.Platform;
+import java.util.ArrayList;
+import java.util.List;
+import org.gwtproject.typedarrays.shared.ArrayBuffer;
+import org.gwtproject.typedarrays.shared.TypedArrays;
+import org.gwtproject.typedarrays.shared.Uint8Array;
 
 /** Test cases for the {@link RequestBuilder} class. */
 public class RequestBuilderTest extends RequestTestBase {
@@ -138,6 +144,39 @@ public class RequestBuilderTest extends RequestTestBase {
     testSendRequest(builder, null, SERVLET_POST_RESPONSE);
   }
 
+  public void testSendRequest_binary() throws RequestException {
+    RequestBuilder builder =
+        new RequestBuilder(RequestBuilder.POST, getTestBaseURL() + "sendRequest_binary");
+    builder.setResponseType(RequestBuilder.ResponseType.ArrayBuffer);
+    Uint8Array data = TypedArrays.createUint8Array(3);
+    data.set(0, 0);
+    data.set(1, 0x7f);
+    data.set(2, 0xff);
+
+    delayTestFinishForRequest();
+    builder.sendBinaryRequest(
+        data.buffer(),
+        new RequestCallback() {
+          @Override
+          public void onError(Request request, Throwable exception) {
+            fail(exception.getMessage());
+          }
+
+          @Override
+          public void onResponseReceived(Request request, Response response) {
+            assertEquals(200, response.getStatusCode());
+            assertNull(response.getText());
+            ArrayBuffer buffer = response.getArrayBuffer();
+            assertEquals(3, buffer.byteLength());
+            Uint8Array echoed = TypedArrays.createUint8Array(buffer);
+            assertEquals(0, echoed.get(0));
+            assertEquals(0x7f, echoed.get(1));
+            assertEquals(0xff, echoed.get(2));
+            finishTest();
+          }
+        });
+  }
+
   public void testSendRequest_PUT() throws RequestException {
     RequestBuilder builder = new RequestBuilder(RequestBuilder.PUT, getTestBaseURL());
     builder.setHeader("Content-Type", "application/x-www-form-urlencoded");
@@ -153,6 +192,81 @@ public class RequestBuilderTest extends RequestTestBase {
     }
   }
 
+  /**
+   * Test method for {@link RequestBuilder#setChunkHandler(ResponseChunkHandler)}. The response is
+   * written in two parts, so the first chunk arrives while it is downloaded, and the last one
+   * before the callback is called.
+   *
+   * <p>XHR handling is synchronous in HtmlUnit at present (svn r5607).
+   */
+  @DoNotRunWith(Platform.HtmlUnitBug)
+  public void testSetChunkHandler() throws RequestException {
+    delayTestFinishForRequest();
+
+    RequestBuilder builder =
+        new RequestBuilder(RequestBuilder.GET, getTestBaseURL() + "setChunkHandler");
+    final List<String> chunks = new ArrayList<String>();
+    builder.setChunkHandler(
+        new ResponseChunkHandler() {
+          @Override
+          public void onChunk(Request request, String chunk) {
+            chunks.add(chunk);
+          }
+        });
+    builder.sendRequest(
+        null,
+        new RequestCallback() {
+          @Override
+          public void onError(Request request, Throwable exception) {
+            fail(exception.getMessage());
+          }
+
+          @Override
+          public void onResponseReceived(Request request, Response response) {
+            assertEquals(200, response.getStatusCode());
+            assertEquals(SERVLET_STREAM_RESPONSE, response.getText());
+            assertTrue(chunks.size() > 1);
+            StringBuilder streamed = new StringBuilder();
+            for (String chunk : chunks) {
+              streamed.append(chunk);
+            }
+            assertEquals(SERVLET_STREAM_RESPONSE, streamed.toString());
+            finishTest();
+          }
+        });
+  }
+
+  /** Test that a request streaming its response must expect a text response. */
+  public void testSetChunkHandler_binary() {
+    RequestBuilder builder =
+        new RequestBuilder(RequestBuilder.GET, getTestBaseURL() + "setChunkHandler");
+    builder.setResponseType(RequestBuilder.ResponseType.ArrayBuffer);
+    builder.setChunkHandler(
+        new ResponseChunkHandler() {
+          @Override
+          public void onChunk(Request request, String chunk) {
+            fail("No chunk expected");
+          }
+        });
+    try {
+      builder.sendRequest(
+          null,
+          new RequestCallback() {
+            @Override
+            public void onError(Request request, Throwable exception) {
+              fail("No error expected");
+            }
+
+            @Override
+            public void onResponseReceived(Request request, Response response) {
+              fail("No response expected");
+            }
+          });
+      fail("Expected RequestException");
+    } catch (RequestException expected) {
+    }
+  }
+
   public void testSetPassword() {
     RequestBuilder builder = new RequestBuilder(RequestBuilder.GET, getTestBaseURL());
     try {
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2008 The GWT Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gwtproject.http.client;
+
+import com.google.gwt.core.client.GWT;
+
+/** Tests for {@link RequestCache}. */
+public class RequestCacheTest extends RequestTestBase {
+
+  /** A callback for requests that must not fail. */
+  private abstract static class ResponseCallback implements RequestCallback {
+    @Override
+    public void onError(Request request, Throwable exception) {
+      fail(exception.getMessage());
+    }
+  }
+
+  private static RequestBuilder get(String path) {
+    return new RequestBuilder(
+        RequestBuilder.GET, GWT.getModuleBaseURL() + "testRequestCache/" + path);
+  }
+
+  @Override
+  public String getModuleName() {
+    return "org.gwtproject.http.RequestCacheTest";
+  }
+
+  /** Test method for {@link RequestCache#computeExpiry(String, double)}. */
+  public void testComputeExpiry() {
+    assertEquals(7.0, RequestCache.computeExpiry(null, 7), 0);
+    assertEquals(7.0, RequestCache.computeExpiry("private", 7), 0);
+    assertEquals(-1.0, RequestCache.computeExpiry("max-age=60, no-store", 7), 0);
+    assertEquals(0.0, RequestCache.computeExpiry("no-cache, max-age=60", 7), 0);
+    assertEquals(0.0, RequestCache.computeExpiry("max-age=soon", 7), 0);
+
+    double before = System.currentTimeMillis();
+    double expiry = RequestCache.computeExpiry("public, Max-Age=60", 7);
+    assertTrue(expiry >= before + 60000);
+    assertTrue(expiry <= System.currentTimeMillis() + 60000);
+  }
+
+  /** Test method for {@link RequestCache#RequestCache(int)}. */
+  public void testNegativeSize() {
+    try {
+      new RequestCache(-1);
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException ex) {
+      // expected exception was thrown
+    }
+    assertEquals(0, new RequestCache(0).size());
+  }
+
+  /**
+   * Tests that identical requests in flight share one response, which is then served from memory.
+   */
+  public void testSharesResponse() {
+    final RequestCache cache = new RequestCache(10);
+    final RequestBuilder builder = get("maxAge");
+    delayTestFinishForRequest();
+    final Response[] responses = new Response[2];
+    send(
+        cache,
+        builder,
+        new ResponseCallback() {
+          @Override
+          public void onResponseReceived(Request request, Response response) {
+            assertEquals(200, response.getStatusCode());
+            responses[0] = response;
+          }
+        });
+    send(
+        cache,
+        builder,
+        new ResponseCallback() {
+          @Override
+          public void onResponseReceived(Request request, final Response response) {
+            assertSame(responses[0], response);
+            assertEquals(1, cache.size());
+            send(
+                cache,
+                builder,
+                new ResponseCallback() {
+                  @Override
+                  public void onResponseReceived(Request request, Response cached) {
+                    assertSame(response, cached);
+                    assertEquals(1, cache.getMissCount());
+                    assertEquals(2, cache.getHitCount());
+                    finishTest();
+                  }
+                });
+          }
+        });
+    assertEquals(1, cache.getMissCount());
+    assertEquals(1, cache.getHitCount());
+  }
+
+  /** Tests that a stale response with an ETag is revalidated, and reused on 304 Not Modified. */
+  public void testRevalidate() {
+    final RequestCache cache = new RequestCache(10);
+    final RequestBuilder builder = get("etag");
+    delayTestFinishForRequest();
+    send(
+        cache,
+        builder,
+        new ResponseCallback() {
+          @Override
+          public void onResponseReceived(Request request, final Response response) {
+            assertEquals(200, response.getStatusCode());
+            assertEquals(1, cache.size());
+            send(
+                cache,
+                builder,
+                new ResponseCallback() {
+                  @Override
+                  public void onResponseReceived(Request request, Response revalidated) {
+                    assertSame(response, revalidated);
+                    assertEquals(2, cache.getMissCount());
+                    assertEquals(1, cache.getRevalidatedCount());
+                    assertEquals(1, cache.size());
+                    finishTest();
+                  }
+                });
+          }
+        });
+  }
+
+  /** Tests that a response revalidated with <code>Cache-Control: no-store</code> is dropped. */
+  public void testRevalidateNoStore() {
+    final RequestCache cache = new RequestCache(10);
+    final RequestBuilder builder = get("etag/noStore");
+    delayTestFinishForRequest();
+    send(
+        cache,
+        builder,
+        new ResponseCallback() {
+          @Override
+          public void onResponseReceived(Request request, final Response response) {
+            assertEquals(1, cache.size());
+            send(
+                cache,
+                builder,
+                new ResponseCallback() {
+                  @Override
+                  public void onResponseReceived(Request request, Response revalidated) {
+                    assertSame(response, revalidated);
+                    assertEquals(1, cache.getRevalidatedCount());
+                    assertEquals(0, cache.size());
+                    finishTest();
+                  }
+                });
+          }
+        });
+  }
+
+  /** Tests that a response with <code>Cache-Control: no-store</code> is not kept. */
+  public void testNoStore() {
+    final RequestCache cache = new RequestCache(10);
+    final RequestBuilder builder = get("noStore");
+    delayTestFinishForRequest();
+    send(
+        cache,
+        builder,
+        new ResponseCallback() {
+          @Override
+          public void onResponseReceived(Request request, final Response response) {
+            assertEquals(200, response.getStatusCode());
+            assertEquals(0, cache.size());
+            send(
+                cache,
+                builder,
+                new ResponseCallback() {
+                  @Override
+                  public void onResponseReceived(Request request, Response other) {
+                    assertNotSame(response, other);
+                    assertEquals(2, cache.getMissCount());
+                    assertEquals(0, cache.getHitCount());
+                    finishTest();
+                  }
+                });
+          }
+        });
+  }
+
+  /** Tests that the least recently used response is evicted once the cache is full. */
+  public void testEviction() {
+    final RequestCache cache = new RequestCache(2);
+    final RequestBuilder a = get("maxAge?a");
+    final RequestBuilder b = get("maxAge?b");
+    final RequestBuilder c = get("maxAge?c");
+    delayTestFinishForRequest();
+    // a and b are cached, reading a again makes b the least recently used, and c evicts it.
+    sendAll(
+        cache,
+        new RequestBuilder[] {a, b, a, c, a, b},
+        new Runnable() {
+          @Override
+          public void run() {
+            assertEquals(4, cache.getMissCount());
+            assertEquals(2, cache.getHitCount());
+            assertEquals(2, cache.size());
+            finishTest();
+          }
+        });
+  }
+
+  /** Sends a request that is not expected to fail to initiate. */
+  private static void send(RequestCache cache, RequestBuilder builder, RequestCallback callback) {
+    try {
+      cache.send(builder, callback);
+    } catch (RequestException e) {
+      fail(e.getMessage());
+    }
+  }
+
+  /** Sends the requests one after the other, then runs <code>done</code>. */
+  private static void sendAll(
+      final RequestCache cache, final RequestBuilder[] builders, final Runnable done) {
+    new ResponseCallback() {
+      private int next;
+
+      @Override
+      public void onResponseReceived(Request request, Response response) {
+        if (next < builders.length) {
+          send(cache, builders[next++], this);
+        } else {
+          done.run();
+        }
+      }
+    }.onResponseReceived(null, null);
+  }
+}
@@ -0,0 +1,186 @@
+/*
+ * Copyright 2008 The GWT Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gwtproject.http.client;
+
+import com.google.gwt.core.client.GWT;
+import com.google.gwt.junit.DoNotRunWith;
+import com.google.gwt.junit.Platform;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/** Tests for {@link RequestScheduler}. */
+public class RequestSchedulerTest extends RequestTestBase {
+
+  private static RequestBuilder get(String path) {
+    return new RequestBuilder(
+        RequestBuilder.GET, GWT.getModuleBaseURL() + "testRequestScheduler/" + path);
+  }
+
+  @Override
+  public String getModuleName() {
+    return "org.gwtproject.http.RequestSchedulerTest";
+  }
+
+  private static final RequestCallback NO_CALLBACK =
+      new RequestCallback() {
+        @Override
+        public void onResponseReceived(Request request, Response response) {
+          fail("Canceled request must not complete");
+        }
+
+        @Override
+        public void onError(Request request, Throwable exception) {
+          fail("Canceled request must not fail");
+        }
+      };
+
+  /** Test method for {@link RequestScheduler#RequestScheduler(int)}. */
+  public void testInvalidLimit() {
+    try {
+      new RequestScheduler(0);
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException ex) {
+      // expected exception was thrown
+    }
+  }
+
+  /** Tests that queued requests are canceled and sent in order of priority. */
+  public void testQueueAndCancel() {
+    RequestScheduler scheduler = new RequestScheduler(1);
+    RequestBuilder builder = new RequestBuilder(RequestBuilder.GET, "scheduler-test");
+
+    Request first = scheduler.schedule(builder, NO_CALLBACK);
+    Request low = scheduler.schedule(builder, RequestScheduler.Priority.LOW, NO_CALLBACK);
+    Request high = scheduler.schedule(builder, RequestScheduler.Priority.HIGH, NO_CALLBACK);
+    assertEquals(1, scheduler.getInFlightCount());
+    assertEquals(2, scheduler.getQueuedCount());
+
+    low.cancel();
+    assertFalse(low.isPending());
+    assertEquals(1, scheduler.getQueuedCount());
+
+    first.cancel();
+    assertFalse(first.isPending());
+    assertTrue(high.isPending());
+    assertEquals(1, scheduler.getInFlightCount());
+    assertEquals(0, scheduler.getQueuedCount());
+
+    high.cancel();
+    assertEquals(0, scheduler.getInFlightCount());
+  }
+
+  /**
+   * Tests that queued requests are sent highest priority first, and in the order they were
+   * scheduled within a priority. With one request in flight at a time, they complete in the order
+   * they are sent.
+   *
+   * <p>XHR handling is synchronous in HtmlUnit at present (svn r5607).
+   */
+  @DoNotRunWith(Platform.HtmlUnitBug)
+  public void testSendOrder() {
+    RequestScheduler scheduler = new RequestScheduler(1);
+    List<String> expected = Arrays.asList("first", "high1", "high2", "normal", "low1", "low2");
+    List<String> completed = new ArrayList<String>();
+    delayTestFinishForRequest();
+
+    scheduler.schedule(get("slow?first"), recordCompletion("first", completed, expected));
+    scheduler.schedule(
+        get("fast?low1"),
+        RequestScheduler.Priority.LOW,
+        recordCompletion("low1", completed, expected));
+    scheduler.schedule(get("fast?normal"), recordCompletion("normal", completed, expected));
+    scheduler.schedule(
+        get("fast?high1"),
+        RequestScheduler.Priority.HIGH,
+        recordCompletion("high1", completed, expected));
+    scheduler.schedule(
+        get("fast?low2"),
+        RequestScheduler.Priority.LOW,
+        recordCompletion("low2", completed, expected));
+    scheduler.schedule(
+        get("fast?high2"),
+        RequestScheduler.Priority.HIGH,
+        recordCompletion("high2", completed, expected));
+    assertEquals(1, scheduler.getInFlightCount());
+    assertEquals(5, scheduler.getQueuedCount());
+  }
+
+  /**
+   * Tests that the timeout of a queued request starts when it is sent, not when it is scheduled.
+   *
+   * <p>XHR handling is synchronous in HtmlUnit at present (svn r5607).
+   */
+  @DoNotRunWith(Platform.HtmlUnitBug)
+  public void testTimeoutStartsWhenSent() {
+    RequestScheduler scheduler = new RequestScheduler(1);
+    delayTestFinishForRequest();
+
+    scheduler.schedule(
+        get("slow"),
+        new RequestCallback() {
+          @Override
+          public void onResponseReceived(Request request, Response response) {}
+
+          @Override
+          public void onError(Request request, Throwable exception) {}
+        });
+
+    // Waits in the queue for longer than its timeout.
+    RequestBuilder builder = get("fast");
+    builder.setTimeoutMillis(500);
+    final double scheduled = System.currentTimeMillis();
+    scheduler.schedule(
+        builder,
+        new RequestCallback() {
+          @Override
+          public void onResponseReceived(Request request, Response response) {
+            assertEquals(200, response.getStatusCode());
+            assertTrue(System.currentTimeMillis() - scheduled >= 1000);
+            finishTest();
+          }
+
+          @Override
+          public void onError(Request request, Throwable exception) {
+            fail("The request timed out while it was queued");
+          }
+        });
+  }
+
+  /**
+   * Returns a callback that records the name of its request once it completes, and finishes the
+   * test when all the expected requests have.
+   */
+  private RequestCallback recordCompletion(
+      final String name, final List<String> completed, final List<String> expected) {
+    return new RequestCallback() {
+      @Override
+      public void onResponseReceived(Request request, Response response) {
+        assertEquals(200, response.getStatusCode());
+        completed.add(name);
+        if (completed.size() == expected.size()) {
+          assertEquals(expected, completed);
+          finishTest();
+        }
+      }
+
+      @Override
+      public void onError(Request request, Throwable exception) {
+        fail(exception.getMessage());
+      }
+    };
+  }
+}
@@ -17,6 +17,8 @@ package org.gwtproject.http.server;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
@@ -61,6 +63,19 @@ public class RequestBuilderTestServlet extends HttpServlet {
         response.setStatus(HttpServletResponse.SC_OK);
         response.getWriter().write(RequestBuilderTestConstants.SERVLET_GET_RESPONSE);
         break;
+      case "/setChunkHandler":
+        // write the body in two parts, so that the client sees it arrive in more than one chunk
+        String body = RequestBuilderTestConstants.SERVLET_STREAM_RESPONSE;
+        response.setStatus(HttpServletResponse.SC_OK);
+        response.getWriter().write(body.substring(0, body.length() / 2));
+        response.flushBuffer();
+        try {
+          Thread.sleep(1000);
+        } catch (InterruptedException e) {
+          throw new AssertionError(e);
+        }
+        response.getWriter().write(body.substring(body.length() / 2));
+        break;
       case "/setTimeout/timeout":
         // cause a timeout on the client
         try {
@@ -108,6 +123,16 @@ public class RequestBuilderTestServlet extends HttpServlet {
       if (request.getPathInfo().equals("/sendRequest_POST")) {
         response.getWriter().print(RequestBuilderTestConstants.SERVLET_POST_RESPONSE);
         response.setStatus(HttpServletResponse.SC_OK);
+      } else if (request.getPathInfo().equals("/sendRequest_binary")) {
+        // echo the request body back, byte for byte
+        response.setContentType(request.getContentType());
+        response.setStatus(HttpServletResponse.SC_OK);
+        InputStream in = request.getInputStream();
+        OutputStream out = response.getOutputStream();
+        byte[] buffer = new byte[1024];
+        for (int read; (read = in.read(buffer)) != -1; ) {
+          out.write(buffer, 0, read);
+        }
       } else {
         response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
       }
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2008 The GWT Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gwtproject.http.server;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.gwtproject.http.client.RequestCacheTest;
+
+/**
+ * Servlet component of the {@link RequestCacheTest}. Every response with a body has a different
+ * one, and the path selects the caching headers.
+ */
+@SuppressWarnings("serial")
+@WebServlet("/testRequestCache/*")
+public class RequestCacheTestServlet extends HttpServlet {
+
+  /** The ETag of the responses that can be revalidated. */
+  private static final String ETAG = "\"v1\"";
+
+  private final AtomicInteger bodies = new AtomicInteger();
+
+  @Override
+  protected void doGet(HttpServletRequest request, HttpServletResponse response)
+      throws IOException {
+    boolean notModified = ETAG.equals(request.getHeader("If-None-Match"));
+    switch (request.getPathInfo()) {
+      case "/maxAge":
+        response.setHeader("Cache-Control", "max-age=60");
+        break;
+      case "/noStore":
+        response.setHeader("Cache-Control", "no-store");
+        break;
+      case "/etag":
+        response.setHeader("Cache-Control", "no-cache");
+        response.setHeader("ETag", ETAG);
+        if (notModified) {
+          response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+          return;
+        }
+        break;
+      case "/etag/noStore":
+        // Revalidates the first response, but forbids keeping it any longer
+        response.setHeader("ETag", ETAG);
+        if (notModified) {
+          response.setHeader("Cache-Control", "no-store");
+          response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+          return;
+        }
+        response.setHeader("Cache-Control", "no-cache");
+        break;
+      default:
+        response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        return;
+    }
+    response.setStatus(HttpServletResponse.SC_OK);
+    response.getWriter().print(bodies.incrementAndGet());
+  }
+}
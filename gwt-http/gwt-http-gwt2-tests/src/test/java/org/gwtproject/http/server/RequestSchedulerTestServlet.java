@@ -0,0 +1,51 @@
+/*
+ * Copyright 2008 The GWT Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gwtproject.http.server;
+
+import java.io.IOException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.gwtproject.http.client.RequestSchedulerTest;
+
+/** Servlet component of the {@link RequestSchedulerTest}. */
+@SuppressWarnings("serial")
+@WebServlet("/testRequestScheduler/*")
+public class RequestSchedulerTestServlet extends HttpServlet {
+
+  @Override
+  protected void doGet(HttpServletRequest request, HttpServletResponse response)
+      throws IOException {
+    switch (request.getPathInfo()) {
+      case "/fast":
+        break;
+      case "/slow":
+        // keep the request in flight long enough for the others to be queued
+        try {
+          Thread.sleep(1000);
+        } catch (InterruptedException e) {
+          throw new AssertionError(e);
+        }
+        break;
+      default:
+        response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+        return;
+    }
+    response.setStatus(HttpServletResponse.SC_OK);
+    response.getWriter().print(request.getQueryString());
+  }
+}
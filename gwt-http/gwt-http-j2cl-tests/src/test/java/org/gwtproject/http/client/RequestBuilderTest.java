@@ -20,11 +20,15 @@ import static org.gwtproject.http.shared.RequestBuilderTestConstants.SERVLET_GET
 import static org.gwtproject.http.shared.RequestBuilderTestConstants.SERVLET_HEAD_RESPONSE;
 import static org.gwtproject.http.shared.RequestBuilderTestConstants.SERVLET_POST_RESPONSE;
 import static org.gwtproject.http.shared.RequestBuilderTestConstants.SERVLET_PUT_RESPONSE;
+import static org.gwtproject.http.shared.RequestBuilderTestConstants.SERVLET_STREAM_RESPONSE;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import com.google.j2cl.junit.apt.J2clTestInput;
 import elemental2.promise.Promise;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.Test;
 
 /** Test cases for the {@link RequestBuilder} class. */
@@ -164,6 +168,66 @@ public class RequestBuilderTest extends RequestTestBase {
     }
   }
 
+  /**
+   * Test method for {@link RequestBuilder#setChunkHandler(ResponseChunkHandler)}. The response is
+   * written in two parts, so the first chunk arrives while it is downloaded, and the last one
+   * before the callback is called.
+   */
+  @Test(timeout = REQUEST_TIMEOUT)
+  public Promise<Void> testSetChunkHandler() throws RequestException {
+    if ("htmlunit".equals(System.getProperty("test.webdriver", "htmlunit"))) {
+      // XHR handling is synchronous in HtmlUnit
+      return Promise.resolve((Void) null);
+    }
+    RequestBuilder builder =
+        new RequestBuilder(RequestBuilder.GET, getTestBaseURL() + "setChunkHandler");
+    List<String> chunks = new ArrayList<>();
+    builder.setChunkHandler((request, chunk) -> chunks.add(chunk));
+    return sendRequest(
+        builder,
+        null,
+        new RequestCallback() {
+          @Override
+          public void onError(Request request, Throwable exception) {
+            fail(exception.getMessage());
+          }
+
+          @Override
+          public void onResponseReceived(Request request, Response response) {
+            assertEquals(200, response.getStatusCode());
+            assertEquals(SERVLET_STREAM_RESPONSE, response.getText());
+            assertTrue(chunks.size() > 1);
+            assertEquals(SERVLET_STREAM_RESPONSE, String.join("", chunks));
+          }
+        });
+  }
+
+  /** Test that a request streaming its response must expect a text response. */
+  @Test
+  public void testSetChunkHandler_binary() {
+    RequestBuilder builder =
+        new RequestBuilder(RequestBuilder.GET, getTestBaseURL() + "setChunkHandler");
+    builder.setResponseType(RequestBuilder.ResponseType.ArrayBuffer);
+    builder.setChunkHandler((request, chunk) -> fail("No chunk expected"));
+    try {
+      builder.sendRequest(
+          null,
+          new RequestCallback() {
+            @Override
+            public void onError(Request request, Throwable exception) {
+              fail("No error expected");
+            }
+
+            @Override
+            public void onResponseReceived(Request request, Response response) {
+              fail("No response expected");
+            }
+          });
+      fail("Expected RequestException");
+    } catch (RequestException expected) {
+    }
+  }
+
   @Test
   public void testSetPassword() {
     RequestBuilder builder = new RequestBuilder(RequestBuilder.GET, getTestBaseURL());
@@ -0,0 +1,199 @@
+/*
+ * Copyright 2008 The GWT Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gwtproject.http.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.j2cl.junit.apt.J2clTestInput;
+import elemental2.promise.Promise;
+import org.junit.Test;
+
+/** Tests for {@link RequestCache}. */
+@J2clTestInput(RequestCacheTest.class)
+public class RequestCacheTest extends RequestTestBase {
+
+  private static RequestBuilder get(String path) {
+    return new RequestBuilder(RequestBuilder.GET, BASE_URL + "testRequestCache/" + path);
+  }
+
+  /** Test method for {@link RequestCache#computeExpiry(String, double)}. */
+  @Test
+  public void testComputeExpiry() {
+    assertEquals(7.0, RequestCache.computeExpiry(null, 7), 0);
+    assertEquals(7.0, RequestCache.computeExpiry("private", 7), 0);
+    assertEquals(-1.0, RequestCache.computeExpiry("max-age=60, no-store", 7), 0);
+    assertEquals(0.0, RequestCache.computeExpiry("no-cache, max-age=60", 7), 0);
+    assertEquals(0.0, RequestCache.computeExpiry("max-age=soon", 7), 0);
+
+    double before = System.currentTimeMillis();
+    double expiry = RequestCache.computeExpiry("public, Max-Age=60", 7);
+    assertTrue(expiry >= before + 60000);
+    assertTrue(expiry <= System.currentTimeMillis() + 60000);
+  }
+
+  /** Test method for {@link RequestCache#RequestCache(int)}. */
+  @Test
+  public void testNegativeSize() {
+    try {
+      new RequestCache(-1);
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException ex) {
+      // expected exception was thrown
+    }
+    assertEquals(0, new RequestCache(0).size());
+  }
+
+  /**
+   * Tests that identical requests in flight share one response, which is then served from memory.
+   */
+  @Test(timeout = REQUEST_TIMEOUT)
+  public Promise<Void> testSharesResponse() {
+    RequestCache cache = new RequestCache(10);
+    RequestBuilder builder = get("maxAge");
+    Promise<Response> first = send(cache, builder);
+    Promise<Response> second = send(cache, builder);
+    assertEquals(1, cache.getMissCount());
+    assertEquals(1, cache.getHitCount());
+    return first.then(
+        response ->
+            second.then(
+                other -> {
+                  assertEquals(200, response.getStatusCode());
+                  assertSame(response, other);
+                  assertEquals(1, cache.size());
+                  return send(cache, builder)
+                      .then(
+                          cached -> {
+                            assertSame(response, cached);
+                            assertEquals(1, cache.getMissCount());
+                            assertEquals(2, cache.getHitCount());
+                            return Promise.resolve((Void) null);
+                          });
+                }));
+  }
+
+  /** Tests that a stale response with an ETag is revalidated, and reused on 304 Not Modified. */
+  @Test(timeout = REQUEST_TIMEOUT)
+  public Promise<Void> testRevalidate() {
+    RequestCache cache = new RequestCache(10);
+    RequestBuilder builder = get("etag");
+    return send(cache, builder)
+        .then(
+            response -> {
+              assertEquals(200, response.getStatusCode());
+              assertEquals(1, cache.size());
+              return send(cache, builder)
+                  .then(
+                      revalidated -> {
+                        assertSame(response, revalidated);
+                        assertEquals(2, cache.getMissCount());
+                        assertEquals(1, cache.getRevalidatedCount());
+                        assertEquals(1, cache.size());
+                        return Promise.resolve((Void) null);
+                      });
+            });
+  }
+
+  /** Tests that a response revalidated with <code>Cache-Control: no-store</code> is dropped. */
+  @Test(timeout = REQUEST_TIMEOUT)
+  public Promise<Void> testRevalidateNoStore() {
+    RequestCache cache = new RequestCache(10);
+    RequestBuilder builder = get("etag/noStore");
+    return send(cache, builder)
+        .then(
+            response -> {
+              assertEquals(1, cache.size());
+              return send(cache, builder)
+                  .then(
+                      revalidated -> {
+                        assertSame(response, revalidated);
+                        assertEquals(1, cache.getRevalidatedCount());
+                        assertEquals(0, cache.size());
+                        return Promise.resolve((Void) null);
+                      });
+            });
+  }
+
+  /** Tests that a response with <code>Cache-Control: no-store</code> is not kept. */
+  @Test(timeout = REQUEST_TIMEOUT)
+  public Promise<Void> testNoStore() {
+    RequestCache cache = new RequestCache(10);
+    RequestBuilder builder = get("noStore");
+    return send(cache, builder)
+        .then(
+            response -> {
+              assertEquals(200, response.getStatusCode());
+              assertEquals(0, cache.size());
+              return send(cache, builder)
+                  .then(
+                      other -> {
+                        assertNotSame(response, other);
+                        assertEquals(2, cache.getMissCount());
+                        assertEquals(0, cache.getHitCount());
+                        return Promise.resolve((Void) null);
+                      });
+            });
+  }
+
+  /** Tests that the least recently used response is evicted once the cache is full. */
+  @Test(timeout = REQUEST_TIMEOUT)
+  public Promise<Void> testEviction() {
+    RequestCache cache = new RequestCache(2);
+    RequestBuilder a = get("maxAge?a");
+    RequestBuilder b = get("maxAge?b");
+    RequestBuilder c = get("maxAge?c");
+    // a and b are cached, reading a again makes b the least recently used, and c evicts it.
+    Promise<Response> sent = send(cache, a);
+    for (RequestBuilder builder : new RequestBuilder[] {b, a, c, a, b}) {
+      sent = sent.then(ignored -> send(cache, builder));
+    }
+    return sent.then(
+        ignored -> {
+          assertEquals(4, cache.getMissCount());
+          assertEquals(2, cache.getHitCount());
+          assertEquals(2, cache.size());
+          return Promise.resolve((Void) null);
+        });
+  }
+
+  /** Sends a request through the cache, and resolves with its response. */
+  private static Promise<Response> send(RequestCache cache, RequestBuilder builder) {
+    return new Promise<>(
+        (resolve, reject) -> {
+          try {
+            cache.send(
+                builder,
+                new RequestCallback() {
+                  @Override
+                  public void onResponseReceived(Request request, Response response) {
+                    resolve.onInvoke(response);
+                  }
+
+                  @Override
+                  public void onError(Request request, Throwable exception) {
+                    reject.onInvoke(exception);
+                  }
+                });
+          } catch (RequestException e) {
+            reject.onInvoke(e);
+          }
+        });
+  }
+}
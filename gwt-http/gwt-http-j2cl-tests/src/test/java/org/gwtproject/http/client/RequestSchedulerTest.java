@@ -0,0 +1,181 @@
+/*
+ * Copyright 2008 The GWT Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gwtproject.http.client;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.google.j2cl.junit.apt.J2clTestInput;
+import elemental2.promise.Promise;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.Test;
+
+/** Tests for {@link RequestScheduler}. */
+@J2clTestInput(RequestSchedulerTest.class)
+public class RequestSchedulerTest extends RequestTestBase {
+
+  private static RequestBuilder get(String path) {
+    return new RequestBuilder(RequestBuilder.GET, BASE_URL + "testRequestScheduler/" + path);
+  }
+
+  private static final RequestCallback IGNORE_CALLBACK =
+      new RequestCallback() {
+        @Override
+        public void onResponseReceived(Request request, Response response) {}
+
+        @Override
+        public void onError(Request request, Throwable exception) {}
+      };
+
+  private static final RequestCallback NO_CALLBACK =
+      new RequestCallback() {
+        @Override
+        public void onResponseReceived(Request request, Response response) {
+          fail("Canceled request must not complete");
+        }
+
+        @Override
+        public void onError(Request request, Throwable exception) {
+          fail("Canceled request must not fail");
+        }
+      };
+
+  /** Test method for {@link RequestScheduler#RequestScheduler(int)}. */
+  @Test
+  public void testInvalidLimit() {
+    try {
+      new RequestScheduler(0);
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException ex) {
+      // expected exception was thrown
+    }
+  }
+
+  /** Tests that queued requests are canceled and sent in order of priority. */
+  @Test
+  public void testQueueAndCancel() {
+    RequestScheduler scheduler = new RequestScheduler(1);
+    RequestBuilder builder = new RequestBuilder(RequestBuilder.GET, "scheduler-test");
+
+    Request first = scheduler.schedule(builder, NO_CALLBACK);
+    Request low = scheduler.schedule(builder, RequestScheduler.Priority.LOW, NO_CALLBACK);
+    Request high = scheduler.schedule(builder, RequestScheduler.Priority.HIGH, NO_CALLBACK);
+    assertEquals(1, scheduler.getInFlightCount());
+    assertEquals(2, scheduler.getQueuedCount());
+
+    low.cancel();
+    assertFalse(low.isPending());
+    assertEquals(1, scheduler.getQueuedCount());
+
+    first.cancel();
+    assertFalse(first.isPending());
+    assertTrue(high.isPending());
+    assertEquals(1, scheduler.getInFlightCount());
+    assertEquals(0, scheduler.getQueuedCount());
+
+    high.cancel();
+    assertEquals(0, scheduler.getInFlightCount());
+  }
+
+  /**
+   * Tests that queued requests are sent highest priority first, and in the order they were
+   * scheduled within a priority. With one request in flight at a time, they complete in the order
+   * they are sent.
+   */
+  @Test(timeout = REQUEST_TIMEOUT)
+  public Promise<Void> testSendOrder() {
+    if ("htmlunit".equals(System.getProperty("test.webdriver", "htmlunit"))) {
+      // XHR handling is synchronous in HtmlUnit
+      return Promise.resolve((Void) null);
+    }
+    RequestScheduler scheduler = new RequestScheduler(1);
+    List<String> completed = new ArrayList<>();
+
+    scheduler.schedule(get("slow?first"), recordCompletion("first", completed));
+    scheduler.schedule(
+        get("fast?low1"), RequestScheduler.Priority.LOW, recordCompletion("low1", completed));
+    scheduler.schedule(get("fast?normal"), recordCompletion("normal", completed));
+    scheduler.schedule(
+        get("fast?high1"), RequestScheduler.Priority.HIGH, recordCompletion("high1", completed));
+    assertEquals(1, scheduler.getInFlightCount());
+    assertEquals(3, scheduler.getQueuedCount());
+    return withCallback(
+            recordCompletion("low2", completed),
+            cb -> {
+              scheduler.schedule(get("fast?low2"), RequestScheduler.Priority.LOW, cb);
+              scheduler.schedule(
+                  get("fast?high2"),
+                  RequestScheduler.Priority.HIGH,
+                  recordCompletion("high2", completed));
+            })
+        .then(
+            ignored -> {
+              assertEquals(
+                  Arrays.asList("first", "high1", "high2", "normal", "low1", "low2"), completed);
+              return Promise.resolve((Void) null);
+            });
+  }
+
+  /** Tests that the timeout of a queued request starts when it is sent, not when it is scheduled. */
+  @Test(timeout = REQUEST_TIMEOUT)
+  public Promise<Void> testTimeoutStartsWhenSent() {
+    if ("htmlunit".equals(System.getProperty("test.webdriver", "htmlunit"))) {
+      // XHR handling is synchronous in HtmlUnit
+      return Promise.resolve((Void) null);
+    }
+    RequestScheduler scheduler = new RequestScheduler(1);
+    scheduler.schedule(get("slow"), IGNORE_CALLBACK);
+
+    // Waits in the queue for longer than its timeout.
+    RequestBuilder builder = get("fast");
+    builder.setTimeoutMillis(500);
+    double scheduled = System.currentTimeMillis();
+    return withCallback(
+        new RequestCallback() {
+          @Override
+          public void onResponseReceived(Request request, Response response) {
+            assertEquals(200, response.getStatusCode());
+            assertTrue(System.currentTimeMillis() - scheduled >= 1000);
+          }
+
+          @Override
+          public void onError(Request request, Throwable exception) {
+            fail("The request timed out while it was queued");
+          }
+        },
+        cb -> scheduler.schedule(builder, cb));
+  }
+
+  /** Returns a callback that records the name of its request once it completes. */
+  private static RequestCallback recordCompletion(String name, List<String> completed) {
+    return new RequestCallback() {
+      @Override
+      public void onResponseReceived(Request request, Response response) {
+        assertEquals(200, response.getStatusCode());
+        completed.add(name);
+      }
+
+      @Override
+      public void onError(Request request, Throwable exception) {
+        fail(exception.getMessage());
+      }
+    };
+  }
+}
@@ -22,4 +22,6 @@ public interface RequestBuilderTestConstants {
   // W3C's XMLHttpRequest requires it be the empty string
   String SERVLET_HEAD_RESPONSE = "";
   String SERVLET_PUT_RESPONSE = "put";
+  // written in two parts, see RequestBuilderTest#testSetChunkHandler()
+  String SERVLET_STREAM_RESPONSE = "streamed in two parts";
 }
@@ -34,6 +34,12 @@ public class Request {
     return new ResponseImpl(xmlHttpRequest);
   }
 
+  /** Receives the response body as it arrives, or null if the request is not streamed. */
+  private final ResponseChunkHandler chunkHandler;
+
+  /** Length of the response text already handed to the {@link #chunkHandler}. */
+  private int chunkOffset;
+
   /** The number of milliseconds to wait for this HTTP request to complete. */
   private final int timeoutMillis;
 
@@ -56,6 +62,24 @@ public class Request {
    * @throws NullPointerException if xmlHttpRequest, or callback are null
    */
   Request(XMLHttpRequest xmlHttpRequest, int timeoutMillis, RequestCallback callback) {
+    this(xmlHttpRequest, timeoutMillis, callback, null);
+  }
+
+  /**
+   * Constructs an instance of the Request object that streams its response body.
+   *
+   * @param xmlHttpRequest JavaScript XmlHttpRequest object instance
+   * @param timeoutMillis number of milliseconds to wait for a response
+   * @param callback callback interface to use for notification
+   * @param chunkHandler receives the response body as it arrives, may be null
+   * @throws IllegalArgumentException if timeoutMillis &lt; 0
+   * @throws NullPointerException if xmlHttpRequest, or callback are null
+   */
+  Request(
+      XMLHttpRequest xmlHttpRequest,
+      int timeoutMillis,
+      RequestCallback callback,
+      ResponseChunkHandler chunkHandler) {
     if (xmlHttpRequest == null) {
       throw new NullPointerException();
     }
@@ -68,6 +92,7 @@ public class Request {
       throw new IllegalArgumentException();
     }
 
+    this.chunkHandler = chunkHandler;
     this.timeoutMillis = timeoutMillis;
     this.xmlHttpRequest = xmlHttpRequest;
 
@@ -78,6 +103,17 @@ public class Request {
     }
   }
 
+  /**
+   * Constructs a Request that does not own a JavaScript XmlHttpRequest object, for subclasses that
+   * track a response obtained some other way. Such a request is never pending unless the subclass
+   * says otherwise.
+   */
+  Request() {
+    this.chunkHandler = null;
+    this.timeoutMillis = 0;
+    this.timerId = 0;
+  }
+
   /**
    * Cancels a pending request. If the request has already been canceled or if it has timed out no
    * action is taken.
@@ -168,10 +204,51 @@ public class Request {
     final XMLHttpRequest xhr = xmlHttpRequest;
     xmlHttpRequest = null;
 
+    if (chunkHandler != null && !fireOnChunk(xhr, callback)) {
+      return;
+    }
+
     Response response = createResponse(xhr);
     callback.onResponseReceived(this, response);
   }
 
+  /*
+   * Method called when the JavaScript XmlHttpRequest object reports progress
+   * while its readyState is 3 (LOADING).
+   */
+  void fireOnProgress(RequestCallback callback) {
+    if (xmlHttpRequest == null || chunkHandler == null) {
+      // the request has been canceled, timed out or already completed
+      return;
+    }
+
+    fireOnChunk(xmlHttpRequest, callback);
+  }
+
+  /**
+   * Hands the part of the response text that has not been seen yet to the chunk handler.
+   *
+   * @return false if the chunk handler failed, in which case the request has been canceled and the
+   *     callback notified
+   */
+  private boolean fireOnChunk(XMLHttpRequest xhr, RequestCallback callback) {
+    String text = xhr.responseText;
+    if (text == null || text.length() <= chunkOffset) {
+      return true;
+    }
+
+    String chunk = text.substring(chunkOffset);
+    chunkOffset = text.length();
+    try {
+      chunkHandler.onChunk(this, chunk);
+    } catch (Throwable e) {
+      cancel();
+      callback.onError(this, e);
+      return false;
+    }
+    return true;
+  }
+
   /** Stops the current HTTPRequest timer if there is one. */
   private void cancelTimer() {
     if (timeoutMillis > 0) {
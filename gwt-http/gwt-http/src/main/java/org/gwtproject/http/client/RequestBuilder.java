@@ -19,6 +19,7 @@ import elemental2.dom.XMLHttpRequest;
 import java.util.HashMap;
 import java.util.Map;
 import jsinterop.base.Js;
+import org.gwtproject.typedarrays.shared.ArrayBuffer;
 
 /** Builder for constructing {@link Request} objects. */
 public class RequestBuilder {
@@ -36,6 +37,30 @@ public class RequestBuilder {
     }
   }
 
+  /** The type of response body expected, see {@link #setResponseType(ResponseType)}. */
+  public enum ResponseType {
+    /** The default response type -- use {@link Response#getText()} for the response body. */
+    Default(""),
+
+    /**
+     * Binary data -- use {@link Response#getArrayBuffer()} for the response body. This value may
+     * only be used if {@link org.gwtproject.typedarrays.shared.TypedArrays#isSupported()} returns
+     * true.
+     */
+    ArrayBuffer("arraybuffer");
+
+    private final String responseTypeString;
+
+    ResponseType(String responseTypeString) {
+      this.responseTypeString = responseTypeString;
+    }
+
+    /** Returns the value of <code>XMLHttpRequest.responseType</code> for this type. */
+    public String getResponseTypeString() {
+      return responseTypeString;
+    }
+  }
+
   /** Specifies that the HTTP DELETE method should be used. */
   public static final Method DELETE = new Method("DELETE");
 
@@ -54,6 +79,9 @@ public class RequestBuilder {
   /** The callback to call when the request completes. */
   private RequestCallback callback;
 
+  /** Receives the response body as it arrives, or null to deliver it only on completion. */
+  private ResponseChunkHandler chunkHandler;
+
   /**
    * Map of header name to value that will be added to the JavaScript XmlHttpRequest object before
    * sending a request.
@@ -72,6 +100,9 @@ public class RequestBuilder {
   /** Request data to use when sending a JavaScript XmlHttpRequest object. */
   private String requestData;
 
+  /** The type of response body expected. */
+  private ResponseType responseType = ResponseType.Default;
+
   /** Timeout in milliseconds before the request timeouts and fails. */
   private int timeoutMillis;
 
@@ -122,6 +153,14 @@ public class RequestBuilder {
     return callback;
   }
 
+  /**
+   * Returns the chunk handler previously set by {@link #setChunkHandler(ResponseChunkHandler)}, or
+   * <code>null</code> if the response is not streamed.
+   */
+  public ResponseChunkHandler getChunkHandler() {
+    return chunkHandler;
+  }
+
   /**
    * Returns the value of a header previous set by {@link #setHeader(String, String)}, or <code>null
    * </code> if no such header was set.
@@ -156,6 +195,14 @@ public class RequestBuilder {
     return requestData;
   }
 
+  /**
+   * Returns the response type previously set by {@link #setResponseType(ResponseType)}, or {@link
+   * ResponseType#Default} if no response type was set.
+   */
+  public ResponseType getResponseType() {
+    return responseType;
+  }
+
   /**
    * Returns the timeoutMillis previously set by {@link #setTimeoutMillis(int)}, or <code>0</code>
    * if no timeoutMillis was set.
@@ -208,6 +255,31 @@ public class RequestBuilder {
     return doSend(requestData, callback);
   }
 
+  /**
+   * Sends an HTTP request based on the current builder configuration with the specified binary data
+   * and callback. The data is handed to the browser as is, without any conversion. If no request
+   * headers have been set, the header "Content-Type" will be used with a value of
+   * "application/octet-stream". This method does not cache <code>requestData</code> or <code>
+   * callback</code>.
+   *
+   * @param requestData the data to send as part of the request
+   * @param callback the response handler to be notified when the request fails or completes
+   * @return a {@link Request} object that can be used to track the request
+   * @throws NullPointerException if <code>callback</code> <code>null</code>
+   */
+  public Request sendBinaryRequest(ArrayBuffer requestData, RequestCallback callback)
+      throws RequestException {
+    StringValidator.throwIfNull("callback", callback);
+    XMLHttpRequest xmlHttpRequest = new XMLHttpRequest();
+    Request request = prepare(xmlHttpRequest, "application/octet-stream", callback);
+    try {
+      xmlHttpRequest.send(Js.<elemental2.core.ArrayBuffer>uncheckedCast(requestData));
+    } catch (Throwable e) {
+      throw new RequestException(e.getMessage());
+    }
+    return request;
+  }
+
   /**
    * Sets the response handler for this request. This method <b>must</b> be called before calling
    * {@link #send()}.
@@ -221,6 +293,21 @@ public class RequestBuilder {
     this.callback = callback;
   }
 
+  /**
+   * Streams the response body of subsequent requests to the given handler as it is downloaded,
+   * instead of only making it available once the request completes. The {@link RequestCallback}
+   * is still notified as usual once the response is complete.
+   *
+   * <p>This is useful for long responses made of independent parts, such as newline-delimited JSON,
+   * which can then be processed while the rest is still in flight.
+   *
+   * @param chunkHandler the handler to receive the response body, or <code>null</code> to stop
+   *     streaming
+   */
+  public void setChunkHandler(ResponseChunkHandler chunkHandler) {
+    this.chunkHandler = chunkHandler;
+  }
+
   /**
    * Sets a request header with the given name and value. If a header with the specified name has
    * already been set then the new value overwrites the current value.
@@ -264,6 +351,20 @@ public class RequestBuilder {
     this.requestData = requestData;
   }
 
+  /**
+   * Sets the type of response body expected. With {@link ResponseType#ArrayBuffer} the body is
+   * available from {@link Response#getArrayBuffer()} without being decoded to text, and cannot be
+   * streamed with a {@link ResponseChunkHandler}.
+   *
+   * @param responseType the type of response body expected
+   * @throws NullPointerException if responseType is null
+   */
+  public void setResponseType(ResponseType responseType) {
+    StringValidator.throwIfNull("responseType", responseType);
+
+    this.responseType = responseType;
+  }
+
   /**
    * Sets the number of milliseconds to wait for a request to complete. Should the request timeout,
    * the {@link RequestCallback#onError(Request, Throwable)} method will be called on the callback
@@ -305,6 +406,27 @@ public class RequestBuilder {
     this.includeCredentials = includeCredentials;
   }
 
+  /** Returns a new builder with the same configuration, except for the callback. */
+  RequestBuilder copy() {
+    RequestBuilder copy = new RequestBuilder(httpMethod, url);
+    if (headers != null) {
+      copy.headers = new HashMap<>(headers);
+    }
+    copy.chunkHandler = chunkHandler;
+    copy.includeCredentials = includeCredentials;
+    copy.password = password;
+    copy.requestData = requestData;
+    copy.responseType = responseType;
+    copy.timeoutMillis = timeoutMillis;
+    copy.user = user;
+    return copy;
+  }
+
+  /** Returns the headers set on this builder, or <code>null</code> if none were set. */
+  Map<String, String> getHeaders() {
+    return headers;
+  }
+
   /**
    * Sends an HTTP request based on the current builder configuration. If no request headers have
    * been set, the header "Content-Type" will be used with a value of "text/plain; charset=utf-8".
@@ -317,6 +439,26 @@ public class RequestBuilder {
   private Request doSend(String requestData, final RequestCallback callback)
       throws RequestException {
     XMLHttpRequest xmlHttpRequest = new XMLHttpRequest();
+    Request request = prepare(xmlHttpRequest, "text/plain; charset=utf-8", callback);
+    try {
+      xmlHttpRequest.send(requestData);
+    } catch (Throwable e) {
+      throw new RequestException(e.getMessage());
+    }
+
+    return request;
+  }
+
+  /**
+   * Opens and configures a JavaScript XmlHttpRequest object, and wraps it in a {@link Request} that
+   * is ready to be sent.
+   */
+  private Request prepare(
+      XMLHttpRequest xmlHttpRequest, String defaultContentType, final RequestCallback callback)
+      throws RequestException {
+    if (chunkHandler != null && responseType != ResponseType.Default) {
+      throw new RequestException("Only text responses can be streamed");
+    }
 
     if (user != null && password != null) {
       xmlHttpRequest.open(httpMethod, url, true, user, password);
@@ -326,12 +468,20 @@ public class RequestBuilder {
       xmlHttpRequest.open(httpMethod, url, true);
     }
 
-    setHeaders(xmlHttpRequest);
+    setHeaders(xmlHttpRequest, defaultContentType);
     if (includeCredentials) {
       xmlHttpRequest.withCredentials = true;
     }
+    if (responseType != ResponseType.Default) {
+      xmlHttpRequest.responseType = responseType.getResponseTypeString();
+    }
 
-    final Request request = new Request(xmlHttpRequest, timeoutMillis, callback);
+    final Request request = new Request(xmlHttpRequest, timeoutMillis, callback, chunkHandler);
+
+    if (chunkHandler != null) {
+      // readystatechange fires only once on entering LOADING; progress fires for every chunk.
+      xmlHttpRequest.addEventListener("progress", evt -> request.fireOnProgress(callback));
+    }
 
     // Must set the onreadystatechange handler before calling send().
     xmlHttpRequest.onreadystatechange =
@@ -359,22 +509,17 @@ public class RequestBuilder {
           return Js.undefined();
         };
 
-    try {
-      xmlHttpRequest.send(requestData);
-    } catch (Throwable e) {
-      throw new RequestException(e.getMessage());
-    }
-
     return request;
   }
 
   /*
    * Internal method that actually sets our cached headers on the underlying
    * JavaScript XmlHttpRequest object. If there are no headers set, then we set
-   * the "Content-Type" to "text/plain; charset=utf-8". This is really lining us
-   * up for integration with RPC.
+   * the "Content-Type" to the given default, "text/plain; charset=utf-8" for
+   * text. This is really lining us up for integration with RPC.
    */
-  private void setHeaders(XMLHttpRequest xmlHttpRequest) throws RequestException {
+  private void setHeaders(XMLHttpRequest xmlHttpRequest, String defaultContentType)
+      throws RequestException {
     if (headers != null && headers.size() > 0) {
       for (Map.Entry<String, String> header : headers.entrySet()) {
         try {
@@ -384,7 +529,7 @@ public class RequestBuilder {
         }
       }
     } else {
-      xmlHttpRequest.setRequestHeader("Content-Type", "text/plain; charset=utf-8");
+      xmlHttpRequest.setRequestHeader("Content-Type", defaultContentType);
     }
   }
 }
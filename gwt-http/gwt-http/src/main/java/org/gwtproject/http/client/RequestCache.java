@@ -0,0 +1,336 @@
+/*
+ * Copyright 2008 The GWT Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gwtproject.http.client;
+
+import elemental2.dom.DomGlobal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An optional caching layer in front of {@link RequestBuilder} for GET requests.
+ *
+ * <p>Identical GET requests, that is with the same URL, headers, user and response type, that are
+ * issued while one of them is still in flight share a single XmlHttpRequest, and its {@link
+ * Response} is handed to every {@link RequestCallback}. Completed responses are kept in a memory
+ * cache of bounded size, evicting the least recently used entry first, when the server allows it:
+ *
+ * <ul>
+ *   <li>a response with <code>Cache-Control: max-age=N</code> is served from memory for N seconds;
+ *   <li>a response with an <code>ETag</code> header is revalidated once stale, by sending the
+ *       request again with an <code>If-None-Match</code> header, and reused if the server answers
+ *       304 Not Modified;
+ *   <li>a response with <code>Cache-Control: no-store</code>, or with neither of the above, is not
+ *       kept.
+ * </ul>
+ *
+ * <p>Only {@link Response#SC_OK} responses are cached. Requests using another method, or streaming
+ * their response with a {@link ResponseChunkHandler}, are sent as is. Callbacks are always called
+ * asynchronously, even when the response comes from memory.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * RequestCache cache = new RequestCache(100);
+ * cache.send(new RequestBuilder(RequestBuilder.GET, "/api/items"), callback);
+ * </pre>
+ */
+public class RequestCache {
+
+  /** A cached response, and how long it may be served without asking the server. */
+  private static class Entry {
+    final Response response;
+    final String etag;
+    double expires;
+
+    Entry(Response response, String etag, double expires) {
+      this.response = response;
+      this.etag = etag;
+      this.expires = expires;
+    }
+  }
+
+  /** The requests waiting for the response to a single XmlHttpRequest. */
+  private class InFlight implements RequestCallback {
+    final String key;
+    final Entry stale;
+    final List<CachedRequest> waiters = new ArrayList<>();
+    Request request;
+
+    InFlight(String key, Entry stale) {
+      this.key = key;
+      this.stale = stale;
+    }
+
+    @Override
+    public void onResponseReceived(Request ignored, Response response) {
+      inFlight.remove(key);
+      Response delivered = response;
+      if (response.getStatusCode() == Response.SC_NOT_MODIFIED && stale != null) {
+        revalidatedCount++;
+        double expires = computeExpiry(response.getHeader("Cache-Control"), stale.expires);
+        if (expires < 0) {
+          entries.remove(key);
+        } else {
+          stale.expires = expires;
+          entries.put(key, stale);
+        }
+        delivered = stale.response;
+      } else if (response.getStatusCode() == Response.SC_OK) {
+        store(key, response);
+      }
+      for (CachedRequest waiter : copyWaiters()) {
+        waiter.deliver(delivered);
+      }
+    }
+
+    @Override
+    public void onError(Request ignored, Throwable exception) {
+      inFlight.remove(key);
+      for (CachedRequest waiter : copyWaiters()) {
+        waiter.fail(exception);
+      }
+    }
+
+    void remove(CachedRequest waiter) {
+      waiters.remove(waiter);
+      if (waiters.isEmpty()) {
+        inFlight.remove(key);
+        request.cancel();
+      }
+    }
+
+    private List<CachedRequest> copyWaiters() {
+      List<CachedRequest> copy = new ArrayList<>(waiters);
+      waiters.clear();
+      return copy;
+    }
+  }
+
+  /** The {@link Request} handed to a caller, which may share its response with others. */
+  private static class CachedRequest extends Request {
+    private final RequestCallback callback;
+    private InFlight inFlight;
+    private double timerId;
+    private boolean pending = true;
+
+    CachedRequest(RequestCallback callback) {
+      this.callback = callback;
+    }
+
+    @Override
+    public void cancel() {
+      if (!pending) {
+        return;
+      }
+      pending = false;
+      if (inFlight != null) {
+        inFlight.remove(this);
+      } else {
+        DomGlobal.clearTimeout(timerId);
+      }
+    }
+
+    @Override
+    public boolean isPending() {
+      return pending;
+    }
+
+    void deliverLater(Response response) {
+      timerId = DomGlobal.setTimeout(args -> deliver(response), 0);
+    }
+
+    void deliver(Response response) {
+      if (pending) {
+        pending = false;
+        callback.onResponseReceived(this, response);
+      }
+    }
+
+    void fail(Throwable exception) {
+      if (pending) {
+        pending = false;
+        callback.onError(this, exception);
+      }
+    }
+  }
+
+  private final Map<String, Entry> entries;
+
+  private final Map<String, InFlight> inFlight = new HashMap<>();
+
+  private int hitCount;
+
+  private int missCount;
+
+  private int revalidatedCount;
+
+  /**
+   * Creates a cache keeping at most <code>maxEntries</code> responses.
+   *
+   * @param maxEntries the maximum number of responses to keep in memory
+   * @throws IllegalArgumentException if maxEntries is negative
+   */
+  public RequestCache(final int maxEntries) {
+    if (maxEntries < 0) {
+      throw new IllegalArgumentException("maxEntries cannot be negative");
+    }
+    entries =
+        new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > maxEntries;
+          }
+        };
+  }
+
+  /**
+   * Sends the request described by <code>builder</code>, or answers it from memory or from an
+   * identical request already in flight. The builder itself is not modified.
+   *
+   * @param builder the request to send
+   * @param callback the response handler to be notified when the request fails or completes
+   * @return a {@link Request} object that can be used to track the request; canceling it only
+   *     aborts the underlying XmlHttpRequest once no other caller is waiting for it
+   * @throws RequestException if the call fails to initiate
+   * @throws NullPointerException if <code>callback</code> is <code>null</code>
+   */
+  public Request send(RequestBuilder builder, RequestCallback callback) throws RequestException {
+    StringValidator.throwIfNull("callback", callback);
+    if (!RequestBuilder.GET.toString().equals(builder.getHTTPMethod())
+        || builder.getChunkHandler() != null) {
+      return builder.sendRequest(builder.getRequestData(), callback);
+    }
+
+    String key = computeKey(builder);
+    CachedRequest request = new CachedRequest(callback);
+
+    Entry entry = entries.get(key);
+    if (entry != null && entry.expires > now()) {
+      hitCount++;
+      request.deliverLater(entry.response);
+      return request;
+    }
+
+    InFlight shared = inFlight.get(key);
+    if (shared != null) {
+      hitCount++;
+    } else {
+      missCount++;
+      shared = new InFlight(key, entry != null && entry.etag != null ? entry : null);
+      RequestBuilder network = builder.copy();
+      if (shared.stale != null) {
+        network.setHeader("If-None-Match", shared.stale.etag);
+      }
+      shared.request = network.sendRequest(network.getRequestData(), shared);
+      inFlight.put(key, shared);
+    }
+    request.inFlight = shared;
+    shared.waiters.add(request);
+    return request;
+  }
+
+  /** Drops every cached response. Requests in flight are not affected. */
+  public void clear() {
+    entries.clear();
+  }
+
+  /**
+   * Returns the number of requests answered without a new XmlHttpRequest, either from memory or by
+   * joining an identical request in flight.
+   */
+  public int getHitCount() {
+    return hitCount;
+  }
+
+  /** Returns the number of requests that needed a new XmlHttpRequest. */
+  public int getMissCount() {
+    return missCount;
+  }
+
+  /** Returns the number of stale responses the server confirmed with 304 Not Modified. */
+  public int getRevalidatedCount() {
+    return revalidatedCount;
+  }
+
+  /** Returns the number of responses currently cached. */
+  public int size() {
+    return entries.size();
+  }
+
+  /**
+   * Returns the time until which a response may be served from memory according to its
+   * <code>Cache-Control</code> header, <code>-1</code> if it must not be stored, or <code>
+   * fallback</code> if the header says nothing about it.
+   */
+  static double computeExpiry(String cacheControl, double fallback) {
+    if (cacheControl == null) {
+      return fallback;
+    }
+    double expiry = fallback;
+    for (String directive : cacheControl.split(",")) {
+      directive = directive.trim().toLowerCase();
+      if (directive.equals("no-store")) {
+        return -1;
+      } else if (directive.equals("no-cache")) {
+        expiry = 0;
+      } else if (directive.startsWith("max-age=") && expiry != 0) {
+        try {
+          expiry = now() + 1000 * Double.parseDouble(directive.substring("max-age=".length()));
+        } catch (NumberFormatException e) {
+          expiry = 0;
+        }
+      }
+    }
+    return expiry;
+  }
+
+  private void store(String key, Response response) {
+    String etag = response.getHeader("ETag");
+    if (etag != null && etag.isEmpty()) {
+      etag = null;
+    }
+    double expires = computeExpiry(response.getHeader("Cache-Control"), 0);
+    if (expires < 0 || (expires <= now() && etag == null)) {
+      // Neither fresh for a while nor revalidatable: keeping it would only waste memory.
+      entries.remove(key);
+      return;
+    }
+    entries.put(key, new Entry(response, etag, expires));
+  }
+
+  private static String computeKey(RequestBuilder builder) {
+    StringBuilder key = new StringBuilder(builder.getUrl());
+    key.append('\n').append(builder.getUser());
+    key.append('\n').append(builder.getResponseType().getResponseTypeString());
+    Map<String, String> headers = builder.getHeaders();
+    if (headers != null) {
+      List<String> names = new ArrayList<>(headers.keySet());
+      Collections.sort(names);
+      for (String name : names) {
+        key.append('\n').append(name).append(':').append(headers.get(name));
+      }
+    }
+    return key.toString();
+  }
+
+  private static double now() {
+    return System.currentTimeMillis();
+  }
+}
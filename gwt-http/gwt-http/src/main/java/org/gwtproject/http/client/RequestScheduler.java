@@ -0,0 +1,210 @@
+/*
+ * Copyright 2008 The GWT Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gwtproject.http.client;
+
+import java.util.ArrayDeque;
+
+/**
+ * Limits the number of requests in flight at once, sending the others in order of {@link
+ * Priority} as earlier ones complete.
+ *
+ * <p>Browsers only open a few connections per host, so a burst of requests sent directly with
+ * {@link RequestBuilder} queues inside the browser where critical requests wait behind bulk ones.
+ * Scheduling them here instead keeps the browser's queue short and lets {@link Priority#HIGH}
+ * requests overtake the rest.
+ *
+ * <p>The {@link Request} returned by {@link #schedule(RequestBuilder, Priority, RequestCallback)}
+ * can be canceled whether it is still queued or already sent. The timeout set with {@link
+ * RequestBuilder#setTimeoutMillis(int)} only starts when the request is actually sent. A failure to
+ * send is reported to {@link RequestCallback#onError(Request, Throwable)} as a {@link
+ * RequestException}.
+ *
+ * <p>Example:
+ *
+ * <pre>
+ * RequestScheduler scheduler = new RequestScheduler(4);
+ * scheduler.schedule(new RequestBuilder(RequestBuilder.GET, "/api/user"), Priority.HIGH, callback);
+ * </pre>
+ */
+public class RequestScheduler {
+
+  /** Priority classes. Requests of a higher priority are always sent first. */
+  public enum Priority {
+    /** Requests the user is waiting for. */
+    HIGH,
+    /** The default priority. */
+    NORMAL,
+    /** Prefetches and other background requests. */
+    LOW
+  }
+
+  /** The {@link Request} handed to the caller, standing for the real one once it is sent. */
+  private class ScheduledRequest extends Request implements RequestCallback {
+    private final RequestBuilder builder;
+    private final RequestCallback callback;
+    private Request sent;
+    private boolean queued = true;
+    private boolean finished;
+
+    ScheduledRequest(RequestBuilder builder, RequestCallback callback) {
+      this.builder = builder;
+      this.callback = callback;
+    }
+
+    @Override
+    public void cancel() {
+      if (finished) {
+        return;
+      }
+      finished = true;
+      if (queued) {
+        // Left in its queue, and skipped when it is reached.
+        queuedCount--;
+      } else {
+        sent.cancel();
+        onFinished();
+      }
+    }
+
+    @Override
+    public boolean isPending() {
+      return !finished;
+    }
+
+    @Override
+    public void onResponseReceived(Request request, Response response) {
+      if (!finished) {
+        finished = true;
+        onFinished();
+        callback.onResponseReceived(this, response);
+      }
+    }
+
+    @Override
+    public void onError(Request request, Throwable exception) {
+      if (!finished) {
+        finished = true;
+        onFinished();
+        callback.onError(this, exception);
+      }
+    }
+
+    void send() {
+      queued = false;
+      inFlightCount++;
+      try {
+        sent = builder.sendRequest(builder.getRequestData(), this);
+      } catch (RequestException e) {
+        onError(this, e);
+      }
+    }
+  }
+
+  private final int maxInFlight;
+
+  @SuppressWarnings("unchecked")
+  private final ArrayDeque<ScheduledRequest>[] queues =
+      new ArrayDeque[Priority.values().length];
+
+  private int inFlightCount;
+
+  private int queuedCount;
+
+  /**
+   * Creates a scheduler sending at most <code>maxInFlight</code> requests at once.
+   *
+   * @param maxInFlight the maximum number of requests in flight
+   * @throws IllegalArgumentException if maxInFlight is less than 1
+   */
+  public RequestScheduler(int maxInFlight) {
+    if (maxInFlight < 1) {
+      throw new IllegalArgumentException("maxInFlight must be at least 1");
+    }
+    this.maxInFlight = maxInFlight;
+    for (int i = 0; i < queues.length; i++) {
+      queues[i] = new ArrayDeque<>();
+    }
+  }
+
+  /**
+   * Schedules a request with {@link Priority#NORMAL} priority.
+   *
+   * @see #schedule(RequestBuilder, Priority, RequestCallback)
+   */
+  public Request schedule(RequestBuilder builder, RequestCallback callback) {
+    return schedule(builder, Priority.NORMAL, callback);
+  }
+
+  /**
+   * Schedules the request described by the current configuration of <code>builder</code>. It is
+   * sent right away if fewer than the maximum number of requests are in flight, and otherwise once
+   * all the requests scheduled before it with the same or a higher priority have been sent and one
+   * completes. Later changes to the builder do not affect the scheduled request.
+   *
+   * @param builder the request to send
+   * @param priority the priority of the request
+   * @param callback the response handler to be notified when the request fails or completes
+   * @return a {@link Request} object that can be used to track or cancel the request
+   * @throws NullPointerException if <code>priority</code> or <code>callback</code> is <code>null
+   *     </code>
+   */
+  public Request schedule(RequestBuilder builder, Priority priority, RequestCallback callback) {
+    StringValidator.throwIfNull("priority", priority);
+    StringValidator.throwIfNull("callback", callback);
+
+    ScheduledRequest request = new ScheduledRequest(builder.copy(), callback);
+    queues[priority.ordinal()].add(request);
+    queuedCount++;
+    pump();
+    return request;
+  }
+
+  /** Returns the number of requests sent and not yet completed or canceled. */
+  public int getInFlightCount() {
+    return inFlightCount;
+  }
+
+  /** Returns the number of requests waiting to be sent. */
+  public int getQueuedCount() {
+    return queuedCount;
+  }
+
+  private void onFinished() {
+    inFlightCount--;
+    pump();
+  }
+
+  /** Sends queued requests, highest priority first, until the limit is reached. */
+  private void pump() {
+    while (inFlightCount < maxInFlight && queuedCount > 0) {
+      ScheduledRequest next = poll();
+      queuedCount--;
+      next.send();
+    }
+  }
+
+  private ScheduledRequest poll() {
+    for (ArrayDeque<ScheduledRequest> queue : queues) {
+      ScheduledRequest request;
+      while ((request = queue.poll()) != null) {
+        if (!request.finished) {
+          return request;
+        }
+      }
+    }
+    throw new IllegalStateException("Queued request count out of sync");
+  }
+}
@@ -15,6 +15,8 @@
  */
 package org.gwtproject.http.client;
 
+import org.gwtproject.typedarrays.shared.ArrayBuffer;
+
 /** Wrapper which provides access to the components of an HTTP response. */
 public abstract class Response {
 
@@ -104,7 +106,18 @@ public abstract class Response {
   /**
    * Returns the text associated with the response.
    *
-   * @return the response text
+   * @return the response text, or <code>null</code> if the request was sent with a response type
+   *     other than {@link RequestBuilder.ResponseType#Default}
    */
   public abstract String getText();
+
+  /**
+   * Returns the binary body of the response, without any conversion. Only available if the request
+   * was sent with {@link RequestBuilder.ResponseType#ArrayBuffer}.
+   *
+   * @return the response body, or <code>null</code> if it is not available as binary data
+   */
+  public ArrayBuffer getArrayBuffer() {
+    return null;
+  }
 }
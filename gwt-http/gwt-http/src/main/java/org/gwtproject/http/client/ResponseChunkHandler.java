@@ -0,0 +1,40 @@
+/*
+ * Copyright 2008 The GWT Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gwtproject.http.client;
+
+/**
+ * The primary interface a caller must implement to receive the body of a {@link Request}
+ * incrementally, while it is still being downloaded.
+ *
+ * <p>Chunks are delivered in order and without overlap: concatenating every chunk handed to {@link
+ * #onChunk(Request, String)} yields the complete response text. The last chunk, if any, is
+ * delivered just before {@link RequestCallback#onResponseReceived(Request, Response)}, so the
+ * callback can rely on having seen the whole body. Chunks are delivered regardless of the status
+ * code of the response; check {@link Response#getStatusCode()} in the callback.
+ *
+ * <p>If {@link #onChunk(Request, String)} throws, the request is canceled and the exception is
+ * passed to {@link RequestCallback#onError(Request, Throwable)}.
+ */
+public interface ResponseChunkHandler {
+
+  /**
+   * Called each time more of the response body has arrived.
+   *
+   * @param request the request being downloaded
+   * @param chunk the text received since the previous call, never empty
+   */
+  void onChunk(Request request, String chunk);
+}
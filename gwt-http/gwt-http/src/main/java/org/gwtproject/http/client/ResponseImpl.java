@@ -18,6 +18,8 @@ package org.gwtproject.http.client;
 import elemental2.dom.XMLHttpRequest;
 import java.util.ArrayList;
 import java.util.List;
+import jsinterop.base.Js;
+import org.gwtproject.typedarrays.shared.ArrayBuffer;
 
 /** A {@link Response} implementation based on a {@link XMLHttpRequest}. */
 class ResponseImpl extends Response {
@@ -98,9 +100,28 @@ class ResponseImpl extends Response {
 
   @Override
   public String getText() {
+    if (!isTextResponse()) {
+      // responseText throws for any other response type
+      return null;
+    }
     return xmlHttpRequest.responseText;
   }
 
+  @Override
+  public ArrayBuffer getArrayBuffer() {
+    if (!RequestBuilder.ResponseType.ArrayBuffer
+        .getResponseTypeString()
+        .equals(xmlHttpRequest.responseType)) {
+      return null;
+    }
+    return Js.cast(xmlHttpRequest.response);
+  }
+
+  private boolean isTextResponse() {
+    String responseType = xmlHttpRequest.responseType;
+    return responseType == null || responseType.isEmpty() || "text".equals(responseType);
+  }
+
   protected boolean isResponseReady() {
     return xmlHttpRequest.readyState == XMLHttpRequest.DONE;
   }
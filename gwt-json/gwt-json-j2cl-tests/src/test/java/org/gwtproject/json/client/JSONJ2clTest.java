@@ -131,6 +131,71 @@ public class JSONJ2clTest {
     assertEquals(n, a.get(1));
   }
 
+  /** Tests that {@link JSONWriter} appends the same text as toString() to a shared buffer. */
+  @Test
+  public void testWriter() {
+    JSONObject obj = new JSONObject();
+    JSONArray arr = new JSONArray();
+    arr.set(0, new JSONString("a\"b"));
+    arr.set(2, JSONBoolean.getInstance(true));
+    obj.put("k", arr);
+    obj.put("n", JSONNull.getInstance());
+    obj.put("o", new JSONObject());
+    assertEquals("{\"k\":[\"a\\\"b\",null,true], \"n\":null, \"o\":{}}", obj.toString());
+    assertEquals(obj.toString(), JSONWriter.write(obj));
+
+    StringBuilder out = new StringBuilder("x=");
+    JSONWriter.write(arr, out);
+    JSONWriter.write(null, out);
+    assertEquals("x=[\"a\\\"b\",null,true]null", out.toString());
+  }
+
+  /** Tests the typed accessors, which read values without wrapping them. */
+  @Test
+  public void testTypedAccessors() {
+    JSONObject obj =
+        JSONParser.parseStrict("{\"d\":1.5,\"s\":\"x\",\"b\":true,\"a\":[1,\"2\",3]}").isObject();
+    assertEquals(1.5, obj.getDouble("d", -1), 0);
+    assertEquals(-1, obj.getDouble("s", -1), 0);
+    assertEquals(-1, obj.getDouble("missing", -1), 0);
+    assertEquals("x", obj.getString("s"));
+    assertNull(obj.getString("d"));
+    assertTrue(obj.getBoolean("b", false));
+    assertFalse(obj.getBoolean("d", false));
+
+    JSONArray arr = obj.get("a").isArray();
+    assertSame(arr, obj.get("a"));
+    assertEquals(1, arr.getDouble(0), 0);
+    assertTrue(Double.isNaN(arr.getDouble(1)));
+    assertEquals("2", arr.getString(1));
+    assertTrue(Double.isNaN(arr.getDouble(5)));
+    double[] doubles = arr.toDoubleArray();
+    assertEquals(3, doubles.length);
+    assertEquals(3, doubles[2], 0);
+    assertEquals(3, arr.toFloat64Array().get(2), 0);
+
+    obj.put("a", new JSONArray());
+    assertNotSame(arr, obj.get("a"));
+  }
+
+  /** Tests that keys inherited from {@code Object.prototype} do not confuse the child cache. */
+  @Test
+  public void testChildCacheInheritedKeys() {
+    JSONObject obj = JSONParser.parseStrict("{\"a\":{}}").isObject();
+    JSONValue a = obj.get("a");
+    assertSame(a, obj.get("a"));
+    assertEquals(new JSONObject().get("constructor"), obj.get("constructor"));
+    assertEquals(new JSONObject().get("toString"), obj.get("toString"));
+    assertEquals(new JSONObject().get("hasOwnProperty"), obj.get("hasOwnProperty"));
+
+    JSONObject proto = new JSONObject();
+    obj.put("__proto__", proto);
+    assertEquals(proto, obj.get("__proto__"));
+    assertSame(obj.get("__proto__"), obj.get("__proto__"));
+    assertSame(a, obj.get("a"));
+    assertEquals(new JSONObject().get("toString"), obj.get("toString"));
+  }
+
   /** Test deep recursion of arrays. */
   @Test
   public void testArrayOfArraysOfArrays() {
@@ -19,12 +19,20 @@ import elemental2.core.JsArray;
 import java.util.Objects;
 import jsinterop.base.Js;
 import org.gwtproject.core.client.JavaScriptObject;
+import org.gwtproject.typedarrays.shared.Float64Array;
+import org.gwtproject.typedarrays.shared.TypedArrays;
 
 /** Represents an array of {@link org.gwtproject.json.client.JSONValue} objects. */
 public class JSONArray extends JSONValue {
 
   private final JsArray<Object> jsArray;
 
+  /**
+   * Wrappers previously returned by {@link #get(int)} for object and array elements, so that
+   * repeated reads of the same child do not allocate. Created lazily.
+   */
+  private JsArray<JSONValue> childCache;
+
   /** Creates an empty JSONArray. */
   public JSONArray() {
     jsArray = new JsArray<>();
@@ -89,7 +97,75 @@ public class JSONArray extends JSONValue {
    * @return the value at this index, or <code>null</code> if this index is empty
    */
   public JSONValue get(int index) {
-    return JSONValueFactory.create(jsArray.getAt(index));
+    Object value = jsArray.getAt(index);
+    if (childCache != null) {
+      JSONValue cached = childCache.getAt(index);
+      if (cached != null && Js.isTripleEqual(cached.getUnwrapper(), value)) {
+        return cached;
+      }
+    }
+    JSONValue wrapped = JSONValueFactory.create(value);
+    if (wrapped instanceof JSONObject || wrapped instanceof JSONArray) {
+      if (childCache == null) {
+        childCache = new JsArray<>();
+      }
+      childCache.setAt(index, wrapped);
+    }
+    return wrapped;
+  }
+
+  /**
+   * Returns the number at the specified index position, without creating a {@link JSONNumber}.
+   *
+   * @param index the index of the array item to retrieve
+   * @return the number at this index, or {@link Double#NaN} if this index is empty or does not
+   *     hold a number
+   */
+  public double getDouble(int index) {
+    Object value = jsArray.getAt(index);
+    return "number".equals(Js.typeof(value)) ? Js.asDouble(value) : Double.NaN;
+  }
+
+  /**
+   * Returns the string at the specified index position, without creating a {@link JSONString}.
+   *
+   * @param index the index of the array item to retrieve
+   * @return the string at this index, or <code>null</code> if this index is empty or does not hold
+   *     a string
+   */
+  public String getString(int index) {
+    Object value = jsArray.getAt(index);
+    return "string".equals(Js.typeof(value)) ? Js.asString(value) : null;
+  }
+
+  /**
+   * Copies the elements of this array into a new <code>double[]</code>. Elements that are not
+   * numbers are copied as {@link Double#NaN}.
+   *
+   * @return the elements of this array as numbers
+   */
+  public double[] toDoubleArray() {
+    double[] result = new double[size()];
+    for (int i = 0; i < result.length; i++) {
+      result[i] = getDouble(i);
+    }
+    return result;
+  }
+
+  /**
+   * Copies the elements of this array into a new {@link Float64Array}. Elements that are not
+   * numbers are copied as {@link Double#NaN}. Requires typed array support, see {@link
+   * TypedArrays#isSupported()}.
+   *
+   * @return the elements of this array as numbers
+   */
+  public Float64Array toFloat64Array() {
+    int size = size();
+    Float64Array result = TypedArrays.createFloat64Array(size);
+    for (int i = 0; i < size; i++) {
+      result.set(i, getDouble(i));
+    }
+    return result;
   }
 
   @Override
@@ -126,19 +202,13 @@ public class JSONArray extends JSONValue {
   }
 
   /**
-   * Create the JSON encoded string representation of this JSONArray instance. This method may take
-   * a long time to execute if the underlying array is large.
+   * Create the JSON encoded string representation of this JSONArray instance, in a single pass over
+   * the underlying array and its nested values. See {@link JSONWriter}.
    */
   @Override
   public String toString() {
-    StringBuilder sb = new StringBuilder("[");
-    for (int i = 0, c = size(); i < c; i++) {
-      if (i > 0) {
-        sb.append(",");
-      }
-      sb.append(get(i));
-    }
-    sb.append("]");
+    StringBuilder sb = new StringBuilder();
+    JSONWriter.writeArray(jsArray, sb);
     return sb.toString();
   }
 
@@ -15,7 +15,6 @@
  */
 package org.gwtproject.json.client;
 
-import elemental2.core.Global;
 import elemental2.core.JsArray;
 import elemental2.core.JsObject;
 import java.util.AbstractSet;
@@ -33,6 +32,13 @@ public class JSONObject extends JSONValue {
 
   private final JsObject jsObject;
 
+  /**
+   * Wrappers previously returned by {@link #get(String)} for object and array properties, so that
+   * repeated reads of the same child do not allocate. Created lazily, without a prototype, so that
+   * keys like {@code "constructor"} or {@code "__proto__"} are ordinary entries.
+   */
+  private JsPropertyMap<JSONValue> childCache;
+
   public JSONObject() {
     this(new JsObject());
   }
@@ -96,6 +102,46 @@ public class JSONObject extends JSONValue {
     return get0(key);
   }
 
+  /**
+   * Gets the value of the specified property as a number, without creating a {@link JSONNumber}.
+   *
+   * @param key the property to access
+   * @param defaultValue the value to return if the property is missing or not a number
+   * @return the value of the specified property, or <code>defaultValue</code>
+   * @throws NullPointerException if key is <code>null</code>
+   */
+  public double getDouble(String key, double defaultValue) {
+    Object value = getRaw(key);
+    return "number".equals(Js.typeof(value)) ? Js.asDouble(value) : defaultValue;
+  }
+
+  /**
+   * Gets the value of the specified property as a string, without creating a {@link JSONString}.
+   *
+   * @param key the property to access
+   * @return the value of the specified property, or <code>null</code> if it is missing or not a
+   *     string
+   * @throws NullPointerException if key is <code>null</code>
+   */
+  public String getString(String key) {
+    Object value = getRaw(key);
+    return "string".equals(Js.typeof(value)) ? Js.asString(value) : null;
+  }
+
+  /**
+   * Gets the value of the specified property as a boolean, without looking up a {@link
+   * JSONBoolean}.
+   *
+   * @param key the property to access
+   * @param defaultValue the value to return if the property is missing or not a boolean
+   * @return the value of the specified property, or <code>defaultValue</code>
+   * @throws NullPointerException if key is <code>null</code>
+   */
+  public boolean getBoolean(String key, boolean defaultValue) {
+    Object value = getRaw(key);
+    return "boolean".equals(Js.typeof(value)) ? Js.asBoolean(value) : defaultValue;
+  }
+
   @Override
   public int hashCode() {
     return jsObject.hashCode();
@@ -160,20 +206,8 @@ public class JSONObject extends JSONValue {
    */
   @Override
   public String toString() {
-    StringBuilder sb = new StringBuilder("{");
-    boolean first = true;
-    String[] keys = computeKeys();
-    for (String key : keys) {
-      if (first) {
-        first = false;
-      } else {
-        sb.append(", ");
-      }
-      sb.append(Global.JSON.stringify(key));
-      sb.append(":");
-      sb.append(get(key));
-    }
-    sb.append("}");
+    StringBuilder sb = new StringBuilder();
+    JSONWriter.writeObject(jsObject, sb);
     return sb.toString();
   }
 
@@ -199,8 +233,31 @@ public class JSONObject extends JSONValue {
   }
 
   private JSONValue get0(String key) {
-    if (propertyMap.has(key)) return JSONValueFactory.create(propertyMap.get(key));
-    return null;
+    if (!propertyMap.has(key)) {
+      return null;
+    }
+    Object value = propertyMap.get(key);
+    if (childCache != null && childCache.has(key)) {
+      JSONValue cached = childCache.get(key);
+      if (Js.isTripleEqual(cached.getUnwrapper(), value)) {
+        return cached;
+      }
+    }
+    JSONValue wrapped = JSONValueFactory.create(value);
+    if (wrapped instanceof JSONObject || wrapped instanceof JSONArray) {
+      if (childCache == null) {
+        childCache = Js.uncheckedCast(JsObject.create(null));
+      }
+      childCache.set(key, wrapped);
+    }
+    return wrapped;
+  }
+
+  private Object getRaw(String key) {
+    if (key == null) {
+      throw new NullPointerException();
+    }
+    return propertyMap.has(key) ? propertyMap.get(key) : null;
   }
 
   private void put0(String key, JSONValue value) {
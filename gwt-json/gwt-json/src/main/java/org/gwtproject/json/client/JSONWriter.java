@@ -0,0 +1,135 @@
+/*
+ * Copyright © 2019 The GWT Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gwtproject.json.client;
+
+import static elemental2.core.Global.JSON;
+
+import elemental2.core.JsArray;
+import elemental2.core.JsObject;
+import jsinterop.base.Js;
+import jsinterop.base.JsPropertyMap;
+
+/**
+ * Serializes {@link JSONValue}s to JSON text in a single pass.
+ *
+ * <p>The writer walks the underlying JavaScript objects and arrays directly and appends to one
+ * buffer, so no {@link JSONValue} is created for nested values and no nested value is rendered to
+ * a string of its own. The output is the same as that of {@link JSONValue#toString()}, which uses
+ * this class for objects and arrays.
+ */
+public final class JSONWriter {
+
+  /**
+   * Returns the JSON text for {@code value}.
+   *
+   * @param value the value to serialize
+   * @return the JSON encoded value
+   */
+  public static String write(JSONValue value) {
+    StringBuilder out = new StringBuilder();
+    write(value, out);
+    return out.toString();
+  }
+
+  /**
+   * Appends the JSON text for {@code value} to {@code out}.
+   *
+   * @param value the value to serialize, <code>null</code> is written as JSON null
+   * @param out the buffer to append to
+   */
+  public static void write(JSONValue value, StringBuilder out) {
+    writeValue(value == null ? null : value.getUnwrapper(), out);
+  }
+
+  /** Appends the JSON text for the contents of {@code jsObject}. */
+  static void writeObject(JsObject jsObject, StringBuilder out) {
+    JsPropertyMap<Object> propertyMap = Js.asPropertyMap(jsObject);
+    JsArray<String> keys = JsObject.keys(jsObject);
+    out.append('{');
+    boolean first = true;
+    for (int i = 0; i < keys.length; i++) {
+      String key = keys.getAt(i);
+      if (!jsObject.hasOwnProperty(key)) {
+        continue;
+      }
+      if (first) {
+        first = false;
+      } else {
+        out.append(", ");
+      }
+      out.append(JSON.stringify(key));
+      out.append(':');
+      writeValue(propertyMap.get(key), out);
+    }
+    out.append('}');
+  }
+
+  /** Appends the JSON text for the contents of {@code jsArray}. */
+  static void writeArray(JsArray<Object> jsArray, StringBuilder out) {
+    out.append('[');
+    for (int i = 0, c = jsArray.length; i < c; i++) {
+      if (i > 0) {
+        out.append(',');
+      }
+      writeValue(jsArray.getAt(i), out);
+    }
+    out.append(']');
+  }
+
+  /** Mirrors {@link JSONValueFactory#create(Object)}, without creating the wrapper. */
+  private static void writeValue(Object value, StringBuilder out) {
+    String type = Js.typeof(value);
+    switch (type) {
+      case "boolean":
+        out.append(((Boolean) value).booleanValue());
+        return;
+      case "number":
+        out.append(((Double) value).doubleValue());
+        return;
+      case "string":
+        out.append(JSON.stringify(value));
+        return;
+      case "object":
+      case "function":
+        writeComposite(value, out);
+        return;
+      case "undefined":
+        out.append("null");
+        return;
+    }
+    throw new JSONException(
+        "Unexpected typeof result '" + type + "'; please report this bug to the GWT team");
+  }
+
+  private static void writeComposite(Object o, StringBuilder out) {
+    if (Js.isFalsy(o)) {
+      out.append("null");
+      return;
+    }
+
+    JsObject jsObject = Js.cast(o);
+    Object v = jsObject.valueOf() != null ? jsObject.valueOf() : jsObject;
+    if (!Js.isTripleEqual(v, jsObject)) {
+      writeValue(v, out);
+    } else if (JsArray.isArray(o)) {
+      writeArray(Js.<JsArray<Object>>cast(o), out);
+    } else {
+      writeObject(jsObject, out);
+    }
+  }
+
+  private JSONWriter() {}
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright © 2019 The GWT Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gwtproject.json.shared;
+
+/**
+ * Splits a stream of JSON text into its elements and hands each one to an {@link ElementHandler}
+ * as soon as it has been fully received, while later elements are still arriving.
+ *
+ * <p>Two framings are supported: newline-delimited JSON, where the input is a sequence of
+ * top-level values, and a single top-level array, whose elements are delivered one by one. In
+ * both cases input is fed in chunks of any size, for example from a streamed {@code
+ * RequestBuilder}:
+ *
+ * <pre>
+ * JSONElementReader elements =
+ *     new JSONElementReader(
+ *         JSONElementReader.Framing.ARRAY, (reader, index) -&gt; rows.add(readRow(reader)));
+ * builder.setChunkHandler((request, chunk) -&gt; elements.feed(chunk));
+ * </pre>
+ *
+ * <p>and {@link #end()} is called once the response is complete.
+ *
+ * <p>This class is not thread safe.
+ */
+public class JSONElementReader {
+
+  /** How elements are laid out in the input. */
+  public enum Framing {
+    /** A sequence of top-level values separated by whitespace, usually one per line. */
+    NEWLINE_DELIMITED,
+    /** A single top-level array. */
+    ARRAY
+  }
+
+  /** Receives the elements of the input. */
+  public interface ElementHandler {
+
+    /**
+     * Called for each element once it has been fully received. The handler must read exactly that
+     * one value from {@code reader}, either with the structured methods or with {@link
+     * JSONReader#skipValue()}.
+     *
+     * @param reader the reader, positioned at the start of the element
+     * @param index the index of the element, starting at 0
+     */
+    void onElement(JSONReader reader, int index);
+  }
+
+  private final JSONReader reader = new JSONReader();
+
+  private final Framing framing;
+
+  private final ElementHandler handler;
+
+  private boolean inArray;
+
+  private boolean arrayClosed;
+
+  private int elementCount;
+
+  /**
+   * Creates a reader expecting input through {@link #feed(String)}.
+   *
+   * @param framing how elements are laid out in the input
+   * @param handler receives each element
+   */
+  public JSONElementReader(Framing framing, ElementHandler handler) {
+    if (framing == null || handler == null) {
+      throw new NullPointerException();
+    }
+    this.framing = framing;
+    this.handler = handler;
+    reader.setAllowMultipleValues(framing == Framing.NEWLINE_DELIMITED);
+  }
+
+  /**
+   * Appends the next chunk of input, and delivers every element it completes.
+   *
+   * @param chunk the characters following the previously fed input
+   * @throws JSONSyntaxException if the input is malformed
+   * @throws IllegalStateException if {@link #end()} has already been called, or if the handler did
+   *     not read exactly one value
+   */
+  public void feed(String chunk) {
+    reader.feed(chunk);
+    drain();
+  }
+
+  /**
+   * Signals that no more input will be fed, and delivers the last element if it has not been yet.
+   *
+   * @throws JSONSyntaxException if the input is truncated or has trailing content
+   */
+  public void end() {
+    reader.end();
+    drain();
+    if (framing == Framing.ARRAY && !arrayClosed) {
+      throw new JSONSyntaxException("Unterminated array at offset " + reader.getOffset());
+    }
+    if (reader.peek() != JSONToken.END_DOCUMENT) {
+      throw new JSONSyntaxException("Unexpected trailing content at offset " + reader.getOffset());
+    }
+  }
+
+  /**
+   * Returns the number of elements delivered so far.
+   *
+   * @return the number of calls made to the handler
+   */
+  public int getElementCount() {
+    return elementCount;
+  }
+
+  private void drain() {
+    if (framing == Framing.ARRAY && !inArray) {
+      JSONToken token = reader.peek();
+      if (token == JSONToken.NEEDS_INPUT) {
+        return;
+      }
+      if (token != JSONToken.BEGIN_ARRAY) {
+        throw new JSONSyntaxException(
+            "Expected an array but was " + token + " at offset " + reader.getOffset());
+      }
+      reader.beginArray();
+      inArray = true;
+    }
+    while (!arrayClosed && reader.hasCompleteValue()) {
+      int depth = reader.getDepth();
+      int offset = reader.getOffset();
+      handler.onElement(reader, elementCount++);
+      if (reader.getDepth() != depth || reader.getOffset() == offset) {
+        throw new IllegalStateException(
+            "Handler did not read exactly one value for element " + (elementCount - 1));
+      }
+    }
+    if (inArray && !arrayClosed && reader.peek() == JSONToken.END_ARRAY) {
+      reader.endArray();
+      arrayClosed = true;
+    }
+  }
+}
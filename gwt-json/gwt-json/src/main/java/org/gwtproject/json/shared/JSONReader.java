@@ -0,0 +1,836 @@
+/*
+ * Copyright © 2019 The GWT Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gwtproject.json.shared;
+
+/**
+ * Reads a JSON encoded value one token at a time, without building an intermediate tree.
+ *
+ * <p>Input may be fed in chunks with {@link #feed(String)} as it arrives, for example from an
+ * {@code XMLHttpRequest} progress event, and {@link #end()} must be called once there is no more.
+ * A token is only returned once it is complete, so a number or string split across two chunks is
+ * never seen half way: until then {@link #peek()} returns {@link JSONToken#NEEDS_INPUT}. Code that
+ * does not want to deal with partial input can check {@link #hasCompleteValue()} before reading a
+ * whole value with the structured methods.
+ *
+ * <p>Example, summing the {@code "price"} of every object in a top-level array:
+ *
+ * <pre>
+ * JSONReader reader = new JSONReader(json);
+ * double total = 0;
+ * reader.beginArray();
+ * while (reader.hasNext()) {
+ *   reader.beginObject();
+ *   while (reader.hasNext()) {
+ *     if ("price".equals(reader.nextName())) {
+ *       total += reader.nextDouble();
+ *     } else {
+ *       reader.skipValue();
+ *     }
+ *   }
+ *   reader.endObject();
+ * }
+ * reader.endArray();
+ * </pre>
+ *
+ * <p>Malformed input causes a {@link JSONSyntaxException}. Calling a method that does not match the
+ * next token, or that needs more input than has been fed, causes an {@link IllegalStateException}.
+ *
+ * <p>This class is not thread safe.
+ */
+public class JSONReader {
+
+  /** Scopes kept on the stack, describing what is expected next. */
+  private static final int EMPTY_DOCUMENT = 0;
+
+  private static final int NONEMPTY_DOCUMENT = 1;
+  private static final int EMPTY_ARRAY = 2;
+  private static final int NONEMPTY_ARRAY = 3;
+  private static final int EMPTY_OBJECT = 4;
+  private static final int DANGLING_NAME = 5;
+  private static final int NONEMPTY_OBJECT = 6;
+
+  /** Returned by the scanning helpers when the buffer ends before the token does. */
+  private static final int INCOMPLETE = -1;
+
+  /** Unread input. Characters before {@link #pos} have been consumed. */
+  private final StringBuilder buffer = new StringBuilder();
+
+  /** Index in {@link #buffer} of the next character to read. */
+  private int pos;
+
+  /** Number of characters dropped from the front of {@link #buffer}, for error offsets. */
+  private int dropped;
+
+  private boolean ended;
+
+  private boolean allowMultipleValues;
+
+  private int[] stack = new int[32];
+
+  private int stackSize = 1;
+
+  /** The token returned by the last {@link #peek()} if it has not been consumed yet, or null. */
+  private JSONToken peeked;
+
+  /** Index in {@link #buffer} just past the text of {@link #peeked}. */
+  private int peekedEnd;
+
+  /** Absolute offset of the value {@link #hasCompleteValue()} last scanned, or -1. */
+  private int scanStart = -1;
+
+  /** Absolute offset at which the scan of {@link #scanStart} resumes. */
+  private int scanPos;
+
+  private int scanDepth;
+
+  private boolean scanInString;
+
+  private boolean scanEscaped;
+
+  private boolean scanComplete;
+
+  /** Creates a reader expecting input through {@link #feed(String)}. */
+  public JSONReader() {}
+
+  /**
+   * Creates a reader over the complete JSON text {@code json}.
+   *
+   * @param json the whole input
+   */
+  public JSONReader(String json) {
+    feed(json);
+    end();
+  }
+
+  /**
+   * Appends the next chunk of input.
+   *
+   * @param chunk the characters following the previously fed input
+   * @throws IllegalStateException if {@link #end()} has already been called
+   */
+  public void feed(String chunk) {
+    if (chunk == null) {
+      throw new NullPointerException("Cannot feed a null chunk");
+    }
+    if (ended) {
+      throw new IllegalStateException("Cannot feed input after end()");
+    }
+    compact();
+    buffer.append(chunk);
+  }
+
+  /** Signals that no more input will be fed. */
+  public void end() {
+    ended = true;
+  }
+
+  /**
+   * Whether to accept a sequence of top-level values, separated by whitespace, instead of a single
+   * one. This reads newline-delimited JSON, and is false by default.
+   *
+   * @param allowMultipleValues true to accept more than one top-level value
+   */
+  public void setAllowMultipleValues(boolean allowMultipleValues) {
+    this.allowMultipleValues = allowMultipleValues;
+  }
+
+  /**
+   * Returns the number of arrays and objects the reader is currently inside of.
+   *
+   * @return the current nesting depth, 0 at the top level
+   */
+  public int getDepth() {
+    return stackSize - 1;
+  }
+
+  /**
+   * Returns the type of the next token without consuming it.
+   *
+   * @return the next token, or {@link JSONToken#NEEDS_INPUT} if it is not fully available yet
+   * @throws JSONSyntaxException if the input is malformed
+   */
+  public JSONToken peek() {
+    if (peeked == null) {
+      doPeek();
+    }
+    return peeked == null ? JSONToken.NEEDS_INPUT : peeked;
+  }
+
+  /**
+   * Returns whether the current array or object has another element. At the top level, returns
+   * whether another value follows.
+   *
+   * @return false if the next token closes the current array, object or document
+   * @throws IllegalStateException if more input is needed to tell
+   */
+  public boolean hasNext() {
+    JSONToken token = peek();
+    if (token == JSONToken.NEEDS_INPUT) {
+      throw needsInput();
+    }
+    return token != JSONToken.END_ARRAY
+        && token != JSONToken.END_OBJECT
+        && token != JSONToken.END_DOCUMENT;
+  }
+
+  /**
+   * Returns whether the next token starts a value (not a name or the end of a scope) and that whole
+   * value, including any nested arrays and objects, has been fed. Also returns true for such a
+   * value once {@link #end()} has been called, in which case reading it reports any truncation.
+   *
+   * <p>Scanning resumes where the previous call stopped, so polling after each fed chunk costs time
+   * proportional to the new input only.
+   *
+   * @return true if the next value can be read without running out of input
+   */
+  public boolean hasCompleteValue() {
+    JSONToken token = peek();
+    switch (token) {
+      case STRING:
+      case NUMBER:
+      case BOOLEAN:
+      case NULL:
+        return true;
+      case BEGIN_ARRAY:
+      case BEGIN_OBJECT:
+        return scanContainer() || ended;
+      default:
+        return false;
+    }
+  }
+
+  /** Consumes the opening of an array. */
+  public void beginArray() {
+    consume(JSONToken.BEGIN_ARRAY);
+    push(EMPTY_ARRAY);
+  }
+
+  /** Consumes the closing of the current array. */
+  public void endArray() {
+    consume(JSONToken.END_ARRAY);
+    stackSize--;
+  }
+
+  /** Consumes the opening of an object. */
+  public void beginObject() {
+    consume(JSONToken.BEGIN_OBJECT);
+    push(EMPTY_OBJECT);
+  }
+
+  /** Consumes the closing of the current object. */
+  public void endObject() {
+    consume(JSONToken.END_OBJECT);
+    stackSize--;
+  }
+
+  /**
+   * Consumes the next property name.
+   *
+   * @return the unescaped name
+   */
+  public String nextName() {
+    int start = expect(JSONToken.NAME);
+    String name = decodeString(start, peekedEnd);
+    advance();
+    return name;
+  }
+
+  /**
+   * Consumes the next string value. A number value is returned as its JSON source text.
+   *
+   * @return the unescaped string, or the text of the number
+   */
+  public String nextString() {
+    JSONToken token = peek();
+    String value;
+    if (token == JSONToken.NUMBER) {
+      value = buffer.substring(pos, peekedEnd);
+    } else {
+      int start = expect(JSONToken.STRING);
+      value = decodeString(start, peekedEnd);
+    }
+    advance();
+    return value;
+  }
+
+  /**
+   * Consumes the next number value.
+   *
+   * @return the number as a double
+   */
+  public double nextDouble() {
+    int start = expect(JSONToken.NUMBER);
+    double value = Double.parseDouble(buffer.substring(start, peekedEnd));
+    advance();
+    return value;
+  }
+
+  /**
+   * Consumes the next number value, which must be an integer within the range of a long.
+   *
+   * @return the number as a long
+   * @throws NumberFormatException if the number has a fraction or does not fit in a long
+   */
+  public long nextLong() {
+    int start = expect(JSONToken.NUMBER);
+    long value = parseLong(buffer.substring(start, peekedEnd));
+    advance();
+    return value;
+  }
+
+  /**
+   * Consumes the next number value, which must be an integer within the range of an int.
+   *
+   * @return the number as an int
+   * @throws NumberFormatException if the number has a fraction or does not fit in an int
+   */
+  public int nextInt() {
+    int start = expect(JSONToken.NUMBER);
+    String text = buffer.substring(start, peekedEnd);
+    long value = parseLong(text);
+    if (value != (int) value) {
+      throw new NumberFormatException("Not an int: " + text);
+    }
+    advance();
+    return (int) value;
+  }
+
+  /**
+   * Consumes the next boolean value.
+   *
+   * @return the boolean
+   */
+  public boolean nextBoolean() {
+    int start = expect(JSONToken.BOOLEAN);
+    boolean value = buffer.charAt(start) == 't';
+    advance();
+    return value;
+  }
+
+  /** Consumes the next null value. */
+  public void nextNull() {
+    expect(JSONToken.NULL);
+    advance();
+  }
+
+  /**
+   * Consumes the next value, including any nested arrays and objects, without decoding it. If the
+   * next token is a name, the name and its value are skipped.
+   *
+   * @throws IllegalStateException if the whole value has not been fed yet
+   */
+  public void skipValue() {
+    if (peek() == JSONToken.NAME) {
+      nextName();
+    }
+    JSONToken token = peek();
+    if (token == JSONToken.END_ARRAY
+        || token == JSONToken.END_OBJECT
+        || token == JSONToken.END_DOCUMENT) {
+      throw unexpected("a value");
+    }
+    if (!hasCompleteValue()) {
+      throw needsInput();
+    }
+    int depth = 0;
+    do {
+      switch (peek()) {
+        case BEGIN_ARRAY:
+          beginArray();
+          depth++;
+          break;
+        case BEGIN_OBJECT:
+          beginObject();
+          depth++;
+          break;
+        case END_ARRAY:
+          endArray();
+          depth--;
+          break;
+        case END_OBJECT:
+          endObject();
+          depth--;
+          break;
+        case NAME:
+        case STRING:
+        case NUMBER:
+        case BOOLEAN:
+        case NULL:
+          advance();
+          break;
+        default:
+          throw unexpected("a value");
+      }
+    } while (depth > 0);
+  }
+
+  /**
+   * Returns the absolute offset in the input of the next unread character, for diagnostics.
+   *
+   * @return the number of characters consumed so far
+   */
+  public int getOffset() {
+    return dropped + pos;
+  }
+
+  private void push(int scope) {
+    if (stackSize == stack.length) {
+      int[] grown = new int[stackSize * 2];
+      System.arraycopy(stack, 0, grown, 0, stackSize);
+      stack = grown;
+    }
+    stack[stackSize++] = scope;
+  }
+
+  private void consume(JSONToken token) {
+    expect(token);
+    advance();
+  }
+
+  /** Checks that the next token is {@code token} and returns the index where its text starts. */
+  private int expect(JSONToken token) {
+    JSONToken actual = peek();
+    if (actual != token) {
+      if (actual == JSONToken.NEEDS_INPUT) {
+        throw needsInput();
+      }
+      throw new IllegalStateException(
+          "Expected " + token + " but was " + actual + " at offset " + getOffset());
+    }
+    return pos;
+  }
+
+  /** Consumes the peeked token. */
+  private void advance() {
+    pos = peekedEnd;
+    peeked = null;
+  }
+
+  private IllegalStateException needsInput() {
+    return new IllegalStateException("More input is needed at offset " + getOffset());
+  }
+
+  private IllegalStateException unexpected(String expected) {
+    return new IllegalStateException(
+        "Expected " + expected + " but was " + peek() + " at offset " + getOffset());
+  }
+
+  private JSONSyntaxException syntaxError(String message, int index) {
+    return new JSONSyntaxException(message + " at offset " + (dropped + index));
+  }
+
+  /** Drops consumed input from the buffer once it makes up at least half of it. */
+  private void compact() {
+    if (pos > 0 && pos >= buffer.length() - pos) {
+      buffer.delete(0, pos);
+      dropped += pos;
+      peekedEnd -= pos;
+      pos = 0;
+    }
+  }
+
+  /**
+   * Determines the next token. Separators before it are only consumed, and the scope on top of the
+   * stack only updated, once the whole token is available, so that a later call can start over
+   * after more input has been fed.
+   */
+  private void doPeek() {
+    int scope = stack[stackSize - 1];
+    int newScope = scope;
+    int p = skipWhitespace(pos);
+
+    switch (scope) {
+      case EMPTY_ARRAY:
+      case NONEMPTY_ARRAY:
+        if (p == buffer.length()) {
+          incompleteUnlessEnded(p);
+          return;
+        }
+        if (buffer.charAt(p) == ']') {
+          setPeeked(JSONToken.END_ARRAY, scope, p, p + 1);
+          return;
+        }
+        if (scope == NONEMPTY_ARRAY) {
+          if (buffer.charAt(p) != ',') {
+            throw syntaxError("Expected ',' or ']'", p);
+          }
+          p = skipWhitespace(p + 1);
+        }
+        newScope = NONEMPTY_ARRAY;
+        break;
+
+      case EMPTY_OBJECT:
+      case NONEMPTY_OBJECT:
+        if (p == buffer.length()) {
+          incompleteUnlessEnded(p);
+          return;
+        }
+        if (buffer.charAt(p) == '}') {
+          setPeeked(JSONToken.END_OBJECT, scope, p, p + 1);
+          return;
+        }
+        if (scope == NONEMPTY_OBJECT) {
+          if (buffer.charAt(p) != ',') {
+            throw syntaxError("Expected ',' or '}'", p);
+          }
+          p = skipWhitespace(p + 1);
+          if (p == buffer.length()) {
+            incompleteUnlessEnded(p);
+            return;
+          }
+        }
+        if (buffer.charAt(p) != '"') {
+          throw syntaxError("Expected a property name", p);
+        }
+        int end = scanString(p);
+        if (end != INCOMPLETE) {
+          setPeeked(JSONToken.NAME, DANGLING_NAME, p, end);
+        }
+        return;
+
+      case DANGLING_NAME:
+        if (p == buffer.length()) {
+          incompleteUnlessEnded(p);
+          return;
+        }
+        if (buffer.charAt(p) != ':') {
+          throw syntaxError("Expected ':'", p);
+        }
+        p = skipWhitespace(p + 1);
+        newScope = NONEMPTY_OBJECT;
+        break;
+
+      case EMPTY_DOCUMENT:
+      case NONEMPTY_DOCUMENT:
+        if (p == buffer.length()) {
+          if (!ended) {
+            return;
+          }
+          if (scope == EMPTY_DOCUMENT && !allowMultipleValues) {
+            throw syntaxError("Empty document", p);
+          }
+          setPeeked(JSONToken.END_DOCUMENT, scope, p, p);
+          return;
+        }
+        if (scope == NONEMPTY_DOCUMENT && !allowMultipleValues) {
+          throw syntaxError("Unexpected data after the top-level value", p);
+        }
+        newScope = NONEMPTY_DOCUMENT;
+        break;
+
+      default:
+        throw new IllegalStateException("Unknown scope " + scope);
+    }
+
+    peekValue(newScope, p);
+  }
+
+  private void peekValue(int newScope, int p) {
+    if (p == buffer.length()) {
+      incompleteUnlessEnded(p);
+      return;
+    }
+    char c = buffer.charAt(p);
+    switch (c) {
+      case '[':
+        setPeeked(JSONToken.BEGIN_ARRAY, newScope, p, p + 1);
+        return;
+      case '{':
+        setPeeked(JSONToken.BEGIN_OBJECT, newScope, p, p + 1);
+        return;
+      case '"':
+        int end = scanString(p);
+        if (end != INCOMPLETE) {
+          setPeeked(JSONToken.STRING, newScope, p, end);
+        }
+        return;
+      case 't':
+        peekLiteral("true", JSONToken.BOOLEAN, newScope, p);
+        return;
+      case 'f':
+        peekLiteral("false", JSONToken.BOOLEAN, newScope, p);
+        return;
+      case 'n':
+        peekLiteral("null", JSONToken.NULL, newScope, p);
+        return;
+      default:
+        if (c == '-' || (c >= '0' && c <= '9')) {
+          end = scanNumber(p);
+          if (end != INCOMPLETE) {
+            setPeeked(JSONToken.NUMBER, newScope, p, end);
+          }
+          return;
+        }
+        throw syntaxError("Unexpected character '" + c + "'", p);
+    }
+  }
+
+  private void setPeeked(JSONToken token, int newScope, int start, int end) {
+    stack[stackSize - 1] = newScope;
+    pos = start;
+    peekedEnd = end;
+    peeked = token;
+  }
+
+  private void incompleteUnlessEnded(int p) {
+    if (ended) {
+      throw syntaxError("Unexpected end of input", p);
+    }
+  }
+
+  private int skipWhitespace(int p) {
+    int length = buffer.length();
+    while (p < length) {
+      char c = buffer.charAt(p);
+      if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+        break;
+      }
+      p++;
+    }
+    return p;
+  }
+
+  private void peekLiteral(String literal, JSONToken token, int newScope, int p) {
+    int length = buffer.length();
+    for (int i = 0; i < literal.length(); i++) {
+      if (p + i == length) {
+        incompleteUnlessEnded(p + i);
+        return;
+      }
+      if (buffer.charAt(p + i) != literal.charAt(i)) {
+        throw syntaxError("Unexpected character '" + buffer.charAt(p + i) + "'", p + i);
+      }
+    }
+    setPeeked(token, newScope, p, p + literal.length());
+  }
+
+  /**
+   * Returns the index just past the closing quote of the string starting at {@code p}, or {@link
+   * #INCOMPLETE}.
+   */
+  private int scanString(int p) {
+    int length = buffer.length();
+    int i = p + 1;
+    while (i < length) {
+      char c = buffer.charAt(i);
+      if (c == '"') {
+        return i + 1;
+      } else if (c == '\\') {
+        if (i + 1 == length) {
+          break;
+        }
+        char escaped = buffer.charAt(i + 1);
+        if (escaped == 'u') {
+          if (i + 6 > length) {
+            break;
+          }
+          for (int j = i + 2; j < i + 6; j++) {
+            if (Character.digit(buffer.charAt(j), 16) < 0) {
+              throw syntaxError("Invalid unicode escape", i);
+            }
+          }
+          i += 6;
+        } else if ("\"\\/bfnrt".indexOf(escaped) >= 0) {
+          i += 2;
+        } else {
+          throw syntaxError("Invalid escape sequence", i);
+        }
+      } else if (c < 0x20) {
+        throw syntaxError("Unescaped control character in string", i);
+      } else {
+        i++;
+      }
+    }
+    incompleteUnlessEnded(length);
+    return INCOMPLETE;
+  }
+
+  /**
+   * Returns the index just past the number starting at {@code p}, or {@link #INCOMPLETE} if the
+   * buffer ends inside of it.
+   */
+  private int scanNumber(int p) {
+    int length = buffer.length();
+    int i = p;
+    while (i < length) {
+      char c = buffer.charAt(i);
+      if ((c >= '0' && c <= '9') || c == '-' || c == '+' || c == '.' || c == 'e' || c == 'E') {
+        i++;
+      } else {
+        break;
+      }
+    }
+    if (i == length && !ended) {
+      return INCOMPLETE;
+    }
+    if (!isValidNumber(p, i)) {
+      throw syntaxError("Malformed number '" + buffer.substring(p, i) + "'", p);
+    }
+    return i;
+  }
+
+  /** Checks {@code -?(0|[1-9][0-9]*)(\.[0-9]+)?([eE][+-]?[0-9]+)?}. */
+  private boolean isValidNumber(int start, int end) {
+    int i = start;
+    if (i < end && buffer.charAt(i) == '-') {
+      i++;
+    }
+    if (i == end) {
+      return false;
+    }
+    if (buffer.charAt(i) == '0') {
+      i++;
+    } else {
+      int digitsStart = i;
+      i = skipDigits(i, end);
+      if (i == digitsStart) {
+        return false;
+      }
+    }
+    if (i < end && buffer.charAt(i) == '.') {
+      int digitsStart = ++i;
+      i = skipDigits(i, end);
+      if (i == digitsStart) {
+        return false;
+      }
+    }
+    if (i < end && (buffer.charAt(i) == 'e' || buffer.charAt(i) == 'E')) {
+      i++;
+      if (i < end && (buffer.charAt(i) == '+' || buffer.charAt(i) == '-')) {
+        i++;
+      }
+      int digitsStart = i;
+      i = skipDigits(i, end);
+      if (i == digitsStart) {
+        return false;
+      }
+    }
+    return i == end;
+  }
+
+  private int skipDigits(int i, int end) {
+    while (i < end && buffer.charAt(i) >= '0' && buffer.charAt(i) <= '9') {
+      i++;
+    }
+    return i;
+  }
+
+  private static long parseLong(String text) {
+    try {
+      return Long.parseLong(text);
+    } catch (NumberFormatException e) {
+      double value = Double.parseDouble(text);
+      long asLong = (long) value;
+      if (asLong != value || value >= 9.223372036854775807E18) {
+        throw new NumberFormatException("Not a long: " + text);
+      }
+      return asLong;
+    }
+  }
+
+  /** Unescapes the string whose quotes are at {@code start} and {@code end - 1}. */
+  private String decodeString(int start, int end) {
+    int first = start + 1;
+    while (first < end - 1 && buffer.charAt(first) != '\\') {
+      first++;
+    }
+    if (first == end - 1) {
+      return buffer.substring(start + 1, end - 1);
+    }
+    StringBuilder sb = new StringBuilder(end - start);
+    sb.append(buffer, start + 1, first);
+    int i = first;
+    while (i < end - 1) {
+      char c = buffer.charAt(i);
+      if (c != '\\') {
+        sb.append(c);
+        i++;
+        continue;
+      }
+      char escaped = buffer.charAt(i + 1);
+      switch (escaped) {
+        case 'b':
+          sb.append('\b');
+          break;
+        case 'f':
+          sb.append('\f');
+          break;
+        case 'n':
+          sb.append('\n');
+          break;
+        case 'r':
+          sb.append('\r');
+          break;
+        case 't':
+          sb.append('\t');
+          break;
+        case 'u':
+          sb.append((char) Integer.parseInt(buffer.substring(i + 2, i + 6), 16));
+          i += 4;
+          break;
+        default:
+          // '"', '\\' and '/' stand for themselves.
+          sb.append(escaped);
+          break;
+      }
+      i += 2;
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Scans forward from the peeked array or object for its closing bracket, resuming the previous
+   * scan of the same value if there was one.
+   */
+  private boolean scanContainer() {
+    int start = dropped + pos;
+    if (scanStart != start) {
+      scanStart = start;
+      scanPos = start;
+      scanDepth = 0;
+      scanInString = false;
+      scanEscaped = false;
+      scanComplete = false;
+    }
+    if (scanComplete) {
+      return true;
+    }
+    int length = buffer.length();
+    for (int i = scanPos - dropped; i < length; i++) {
+      char c = buffer.charAt(i);
+      if (scanInString) {
+        if (scanEscaped) {
+          scanEscaped = false;
+        } else if (c == '\\') {
+          scanEscaped = true;
+        } else if (c == '"') {
+          scanInString = false;
+        }
+      } else if (c == '"') {
+        scanInString = true;
+      } else if (c == '[' || c == '{') {
+        scanDepth++;
+      } else if (c == ']' || c == '}') {
+        if (--scanDepth == 0) {
+          scanComplete = true;
+          return true;
+        }
+      }
+    }
+    scanPos = dropped + length;
+    return false;
+  }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright © 2019 The GWT Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gwtproject.json.shared;
+
+/**
+ * The kinds of token a {@link JSONReader} can return from {@link JSONReader#peek()}.
+ *
+ * @see JSONReader
+ */
+public enum JSONToken {
+  /** The opening of a JSON array, consumed with {@link JSONReader#beginArray()}. */
+  BEGIN_ARRAY,
+
+  /** The closing of a JSON array, consumed with {@link JSONReader#endArray()}. */
+  END_ARRAY,
+
+  /** The opening of a JSON object, consumed with {@link JSONReader#beginObject()}. */
+  BEGIN_OBJECT,
+
+  /** The closing of a JSON object, consumed with {@link JSONReader#endObject()}. */
+  END_OBJECT,
+
+  /** A property name within an object, consumed with {@link JSONReader#nextName()}. */
+  NAME,
+
+  /** A string value, consumed with {@link JSONReader#nextString()}. */
+  STRING,
+
+  /**
+   * A number value, consumed with {@link JSONReader#nextDouble()}, {@link JSONReader#nextLong()},
+   * {@link JSONReader#nextInt()} or, as its source text, {@link JSONReader#nextString()}.
+   */
+  NUMBER,
+
+  /** A {@code true} or {@code false} value, consumed with {@link JSONReader#nextBoolean()}. */
+  BOOLEAN,
+
+  /** A {@code null} value, consumed with {@link JSONReader#nextNull()}. */
+  NULL,
+
+  /** The end of the input, after {@link JSONReader#end()} has been called. */
+  END_DOCUMENT,
+
+  /**
+   * The input fed so far ends before the next token is complete. Feed more input with {@link
+   * JSONReader#feed(String)} or call {@link JSONReader#end()}.
+   */
+  NEEDS_INPUT
+}
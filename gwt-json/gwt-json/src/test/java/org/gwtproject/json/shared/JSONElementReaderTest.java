@@ -0,0 +1,131 @@
+/*
+ * Copyright © 2019 The GWT Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gwtproject.json.shared;
+
+import java.util.ArrayList;
+import java.util.List;
+import junit.framework.TestCase;
+
+/** Unit tests for {@link JSONElementReader}. */
+public class JSONElementReaderTest extends TestCase {
+
+  /** Collects the {@code "id"} of each element, or the element itself for numbers. */
+  private static class Collector implements JSONElementReader.ElementHandler {
+    final List<String> ids = new ArrayList<>();
+
+    @Override
+    public void onElement(JSONReader reader, int index) {
+      assertEquals(ids.size(), index);
+      if (reader.peek() == JSONToken.NUMBER) {
+        ids.add(reader.nextString());
+        return;
+      }
+      reader.beginObject();
+      while (reader.hasNext()) {
+        if ("id".equals(reader.nextName())) {
+          ids.add(reader.nextString());
+        } else {
+          reader.skipValue();
+        }
+      }
+      reader.endObject();
+    }
+  }
+
+  public void testArrayElementsDeliveredAsTheyComplete() {
+    Collector collector = new Collector();
+    JSONElementReader elements =
+        new JSONElementReader(JSONElementReader.Framing.ARRAY, collector);
+    elements.feed(" [{\"id\": \"a\", \"tags\": [1, 2]}, {\"id\"");
+    assertEquals(1, elements.getElementCount());
+    elements.feed(": \"b\", \"x\": {\"y\": \"]}\"}}");
+    assertEquals(2, elements.getElementCount());
+    elements.feed(",{\"id\":\"c\"}");
+    elements.feed("]\n");
+    elements.end();
+    assertEquals(3, elements.getElementCount());
+    assertEquals("[a, b, c]", collector.ids.toString());
+  }
+
+  public void testArrayFedOneCharacterAtATime() {
+    String json = "[{\"id\": \"a\"}, 12, {\"id\": \"b\\\"\"}, 3.5]";
+    Collector collector = new Collector();
+    JSONElementReader elements =
+        new JSONElementReader(JSONElementReader.Framing.ARRAY, collector);
+    for (int i = 0; i < json.length(); i++) {
+      elements.feed(json.substring(i, i + 1));
+    }
+    // The trailing number is only known to be complete at the closing bracket.
+    assertEquals(4, elements.getElementCount());
+    elements.end();
+    assertEquals("[a, 12, b\", 3.5]", collector.ids.toString());
+  }
+
+  public void testEmptyArray() {
+    JSONElementReader elements =
+        new JSONElementReader(JSONElementReader.Framing.ARRAY, new Collector());
+    elements.feed("[ ]");
+    elements.end();
+    assertEquals(0, elements.getElementCount());
+  }
+
+  public void testNewlineDelimited() {
+    Collector collector = new Collector();
+    JSONElementReader elements =
+        new JSONElementReader(JSONElementReader.Framing.NEWLINE_DELIMITED, collector);
+    elements.feed("{\"id\": \"a\"}\n{\"id\": ");
+    assertEquals(1, elements.getElementCount());
+    elements.feed("\"b\"}\n42");
+    assertEquals(2, elements.getElementCount());
+    elements.feed("\n");
+    assertEquals(3, elements.getElementCount());
+    elements.feed("{\"id\": \"c\"}");
+    elements.end();
+    assertEquals("[a, b, 42, c]", collector.ids.toString());
+  }
+
+  public void testNotAnArray() {
+    JSONElementReader elements =
+        new JSONElementReader(JSONElementReader.Framing.ARRAY, new Collector());
+    try {
+      elements.feed("{\"id\": \"a\"}");
+      fail();
+    } catch (JSONSyntaxException expected) {
+    }
+  }
+
+  public void testTruncatedArray() {
+    JSONElementReader elements =
+        new JSONElementReader(JSONElementReader.Framing.ARRAY, new Collector());
+    elements.feed("[{\"id\": \"a\"}");
+    try {
+      elements.end();
+      fail();
+    } catch (JSONSyntaxException expected) {
+    }
+    assertEquals(1, elements.getElementCount());
+  }
+
+  public void testHandlerMustReadTheElement() {
+    JSONElementReader elements =
+        new JSONElementReader(JSONElementReader.Framing.ARRAY, (reader, index) -> {});
+    try {
+      elements.feed("[1, 2]");
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+  }
+}
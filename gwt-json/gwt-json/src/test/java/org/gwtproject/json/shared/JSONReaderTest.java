@@ -0,0 +1,253 @@
+/*
+ * Copyright © 2019 The GWT Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gwtproject.json.shared;
+
+import junit.framework.TestCase;
+
+/** Unit tests for {@link JSONReader}. */
+public class JSONReaderTest extends TestCase {
+
+  public void testObject() {
+    JSONReader reader =
+        new JSONReader("{\"a\": 1.5, \"b\": \"x\\ty\", \"c\": [true, false, null], \"d\": {}}");
+    reader.beginObject();
+    assertEquals("a", reader.nextName());
+    assertEquals(1.5, reader.nextDouble(), 0);
+    assertEquals("b", reader.nextName());
+    assertEquals("x\ty", reader.nextString());
+    assertEquals("c", reader.nextName());
+    reader.beginArray();
+    assertTrue(reader.nextBoolean());
+    assertFalse(reader.nextBoolean());
+    reader.nextNull();
+    assertFalse(reader.hasNext());
+    reader.endArray();
+    assertEquals("d", reader.nextName());
+    reader.beginObject();
+    assertFalse(reader.hasNext());
+    reader.endObject();
+    assertFalse(reader.hasNext());
+    reader.endObject();
+    assertEquals(JSONToken.END_DOCUMENT, reader.peek());
+  }
+
+  public void testNumbers() {
+    JSONReader reader = new JSONReader("[0, -12, 3.25e2, 9007199254740993, 1E+2, 7]");
+    reader.beginArray();
+    assertEquals(0, reader.nextInt());
+    assertEquals(-12, reader.nextLong());
+    assertEquals(325.0, reader.nextDouble(), 0);
+    assertEquals(9007199254740993L, reader.nextLong());
+    assertEquals(100, reader.nextInt());
+    assertEquals("7", reader.nextString());
+    reader.endArray();
+  }
+
+  public void testMalformedNumbers() {
+    assertMalformed("[01]");
+    assertMalformed("[1.]");
+    assertMalformed("[-]");
+    assertMalformed("[1e]");
+    assertMalformed("[.5]");
+  }
+
+  public void testNotAnInt() {
+    JSONReader reader = new JSONReader("[1.5, 3000000000]");
+    reader.beginArray();
+    try {
+      reader.nextInt();
+      fail("expected NumberFormatException");
+    } catch (NumberFormatException e) {
+      /* pass */
+    }
+    assertEquals(1.5, reader.nextDouble(), 0);
+    try {
+      reader.nextInt();
+      fail("expected NumberFormatException");
+    } catch (NumberFormatException e) {
+      /* pass */
+    }
+    assertEquals(3000000000L, reader.nextLong());
+  }
+
+  public void testEscapes() {
+    JSONReader reader = new JSONReader("\"\\\"\\\\\\/\\b\\f\\n\\r\\t\\u00e9\\u20AC\"");
+    assertEquals("\"\\/\b\f\n\r\t\u00e9\u20ac", reader.nextString());
+  }
+
+  public void testSkipValue() {
+    JSONReader reader = new JSONReader("{\"skip\": {\"x\": [1, {\"y\": \"]\"}]}, \"keep\": 2}");
+    reader.beginObject();
+    reader.skipValue();
+    assertEquals("keep", reader.nextName());
+    assertEquals(2, reader.nextInt());
+    reader.endObject();
+  }
+
+  public void testWrongToken() {
+    JSONReader reader = new JSONReader("[\"a\"]");
+    reader.beginArray();
+    try {
+      reader.nextDouble();
+      fail("expected IllegalStateException");
+    } catch (IllegalStateException e) {
+      /* pass */
+    }
+    assertEquals("a", reader.nextString());
+  }
+
+  public void testMalformed() {
+    assertMalformed("");
+    assertMalformed("[1 2]");
+    assertMalformed("[1,]");
+    assertMalformed("{\"a\" 1}");
+    assertMalformed("{\"a\": 1,}");
+    assertMalformed("{a: 1}");
+    assertMalformed("[tru]");
+    assertMalformed("[\"abc");
+    assertMalformed("[\"\\x\"]");
+    assertMalformed("1 2");
+    assertMalformed("[1");
+  }
+
+  public void testChunkedFeed() {
+    String json = "{\"rows\": [{\"id\": 12345, \"name\": \"caf\\u00e9\"}, true, null, -0.5e1]}";
+    // Split the input at every position, including inside of tokens and escapes.
+    for (int split = 0; split <= json.length(); split++) {
+      JSONReader reader = new JSONReader();
+      reader.feed(json.substring(0, split));
+      StringBuilder out = new StringBuilder();
+      boolean fedRest = false;
+      while (true) {
+        JSONToken token = reader.peek();
+        if (token == JSONToken.NEEDS_INPUT) {
+          assertFalse("stalled at split " + split, fedRest);
+          reader.feed(json.substring(split));
+          reader.end();
+          fedRest = true;
+          continue;
+        }
+        if (token == JSONToken.END_DOCUMENT) {
+          break;
+        }
+        out.append(read(reader, token)).append(' ');
+      }
+      assertEquals(
+          "split " + split,
+          "{ rows [ { id 12345.0 name caf\u00e9 } true null -5.0 ] } ",
+          out.toString());
+    }
+  }
+
+  public void testHasCompleteValue() {
+    JSONReader reader = new JSONReader();
+    reader.feed("[{\"a\": [1, \"]");
+    reader.beginArray();
+    assertFalse(reader.hasCompleteValue());
+    reader.feed("\"]");
+    assertFalse(reader.hasCompleteValue());
+    reader.feed("}, 2");
+    assertTrue(reader.hasCompleteValue());
+    reader.skipValue();
+    // The number could still continue.
+    assertFalse(reader.hasCompleteValue());
+    reader.feed("3]");
+    assertTrue(reader.hasCompleteValue());
+    assertEquals(23, reader.nextInt());
+    reader.end();
+    reader.endArray();
+    assertEquals(JSONToken.END_DOCUMENT, reader.peek());
+  }
+
+  public void testMultipleValues() {
+    JSONReader reader = new JSONReader();
+    reader.setAllowMultipleValues(true);
+    reader.feed("{\"a\": 1}\n{\"a\": 2}\n");
+    reader.feed("{\"a\": 3}");
+    reader.end();
+    int sum = 0;
+    while (reader.hasNext()) {
+      reader.beginObject();
+      reader.nextName();
+      sum += reader.nextInt();
+      reader.endObject();
+    }
+    assertEquals(6, sum);
+  }
+
+  public void testLongInput() {
+    JSONReader reader = new JSONReader();
+    reader.feed("[");
+    reader.beginArray();
+    long sum = 0;
+    for (int i = 0; i < 10000; i++) {
+      reader.feed(i + ",");
+      // Every number but the last fed one is complete.
+      while (reader.hasCompleteValue()) {
+        sum += reader.nextInt();
+      }
+    }
+    reader.feed("0]");
+    reader.end();
+    while (reader.hasNext()) {
+      sum += reader.nextInt();
+    }
+    reader.endArray();
+    assertEquals(49995000, sum);
+  }
+
+  private static String read(JSONReader reader, JSONToken token) {
+    switch (token) {
+      case BEGIN_ARRAY:
+        reader.beginArray();
+        return "[";
+      case END_ARRAY:
+        reader.endArray();
+        return "]";
+      case BEGIN_OBJECT:
+        reader.beginObject();
+        return "{";
+      case END_OBJECT:
+        reader.endObject();
+        return "}";
+      case NAME:
+        return reader.nextName();
+      case STRING:
+        return reader.nextString();
+      case NUMBER:
+        return String.valueOf(reader.nextDouble());
+      case BOOLEAN:
+        return String.valueOf(reader.nextBoolean());
+      case NULL:
+        reader.nextNull();
+        return "null";
+      default:
+        throw new AssertionError(token);
+    }
+  }
+
+  private static void assertMalformed(String json) {
+    try {
+      JSONReader reader = new JSONReader(json);
+      while (reader.peek() != JSONToken.END_DOCUMENT) {
+        read(reader, reader.peek());
+      }
+      fail("expected JSONSyntaxException for " + json);
+    } catch (JSONSyntaxException e) {
+      /* pass */
+    }
+  }
+}
@@ -18,6 +18,7 @@ package org.gwtproject.layout;
 import junit.framework.Test;
 import junit.framework.TestSuite;
 import org.gwtproject.layout.client.LayoutGwt2Test;
+import org.gwtproject.layout.client.LayoutSchedulerGwt2Test;
 
 /** Tests layout package. */
 public class LayoutGwt2Suite {
@@ -27,6 +28,7 @@ public class LayoutGwt2Suite {
 
     // $JUnit-BEGIN$
     suite.addTestSuite(LayoutGwt2Test.class);
+    suite.addTestSuite(LayoutSchedulerGwt2Test.class);
     // $JUnit-END$
 
     return suite;
@@ -0,0 +1,200 @@
+/*
+ * Copyright © 2019 The GWT Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gwtproject.layout.client;
+
+import static junit.framework.TestCase.*;
+import static org.gwtproject.dom.style.shared.Unit.*;
+
+import com.google.j2cl.junit.apt.J2clTestInput;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.gwtproject.animation.client.AnimationScheduler.AnimationCallback;
+import org.gwtproject.animation.client.testing.StubAnimationScheduler;
+import org.gwtproject.core.client.Duration;
+import org.gwtproject.dom.client.DivElement;
+import org.gwtproject.dom.client.Document;
+import org.gwtproject.layout.client.LayoutScheduler.LayoutTask;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/** Tests for the {@link LayoutScheduler} class. */
+@J2clTestInput(LayoutSchedulerJ2clTest.class)
+public class LayoutSchedulerJ2clTest {
+
+  private List<AnimationCallback> callbacks;
+  private Layout childLayout;
+  private List<String> log;
+  private DivElement parent;
+  private Layout parentLayout;
+  private LayoutScheduler scheduler;
+
+  @Before
+  public void setUp() {
+    Document doc = Document.get();
+    parent = doc.createDivElement();
+    DivElement child = doc.createDivElement();
+    parent.appendChild(child);
+    doc.getBody().appendChild(parent);
+    parentLayout = new Layout(parent);
+    childLayout = new Layout(child);
+
+    StubAnimationScheduler animationScheduler = new StubAnimationScheduler();
+    callbacks = animationScheduler.getAnimationCallbacks();
+    scheduler = new LayoutScheduler(animationScheduler);
+    log = new ArrayList<>();
+  }
+
+  @After
+  public void tearDown() {
+    Document.get().getBody().removeChild(parent);
+  }
+
+  /** Tests that a task scheduled several times is executed once. */
+  @Test
+  public void testSchedule() {
+    LoggingTask task = new LoggingTask("task", parentLayout);
+    scheduler.schedule(task);
+    scheduler.schedule(task);
+    assertTrue(scheduler.isScheduled(task));
+    assertEquals(1, callbacks.size());
+
+    executeFrame();
+    assertEquals(Arrays.asList("task"), log);
+    assertFalse(scheduler.isScheduled(task));
+    assertTrue(callbacks.isEmpty());
+  }
+
+  /** Tests that the tasks of outer layouts are executed first. */
+  @Test
+  public void testTopDown() {
+    scheduler.schedule(new LoggingTask("child", childLayout));
+    scheduler.schedule(new LoggingTask("parent", parentLayout));
+    executeFrame();
+    assertEquals(Arrays.asList("parent", "child"), log);
+  }
+
+  /** Tests that tasks scheduled by a task are executed by the same pass. */
+  @Test
+  public void testScheduleDuringPass() {
+    final LoggingTask child = new LoggingTask("child", childLayout);
+    scheduler.schedule(
+        new LoggingTask("parent", parentLayout) {
+          @Override
+          public void executeLayout() {
+            super.executeLayout();
+            scheduler.schedule(child);
+          }
+        });
+    executeFrame();
+    assertEquals(Arrays.asList("parent", "child"), log);
+    assertTrue(callbacks.isEmpty());
+  }
+
+  /** Tests that a task scheduled again after it was executed waits for the next pass. */
+  @Test
+  public void testRescheduleDuringPass() {
+    LoggingTask task =
+        new LoggingTask("task", parentLayout) {
+          @Override
+          public void executeLayout() {
+            super.executeLayout();
+            scheduler.schedule(this);
+          }
+        };
+    scheduler.schedule(task);
+    executeFrame();
+    assertEquals(Arrays.asList("task"), log);
+    assertTrue(scheduler.isScheduled(task));
+    assertEquals(1, callbacks.size());
+  }
+
+  /** Tests canceling tasks, before and during a pass. */
+  @Test
+  public void testCancel() {
+    LoggingTask task = new LoggingTask("task", parentLayout);
+    scheduler.schedule(task);
+    scheduler.cancel(task);
+    assertFalse(scheduler.isScheduled(task));
+    assertTrue(callbacks.isEmpty());
+
+    final LoggingTask second = new LoggingTask("second", parentLayout);
+    scheduler.schedule(
+        new LoggingTask("first", parentLayout) {
+          @Override
+          public void executeLayout() {
+            super.executeLayout();
+            scheduler.cancel(second);
+          }
+        });
+    scheduler.schedule(second);
+    executeFrame();
+    assertEquals(Arrays.asList("first"), log);
+  }
+
+  /** Tests executing the scheduled tasks without waiting for the frame. */
+  @Test
+  public void testFlush() {
+    scheduler.schedule(new LoggingTask("task", parentLayout));
+    scheduler.flush();
+    assertEquals(Arrays.asList("task"), log);
+    assertTrue(callbacks.isEmpty());
+  }
+
+  /** Tests that the sizes measured before a task are used while it executes. */
+  @Test
+  public void testMeasurements() {
+    parent.getStyle().setWidth(200, PX);
+    scheduler.schedule(
+        new LoggingTask("task", parentLayout) {
+          @Override
+          public void executeLayout() {
+            assertEquals(2.0, parentLayout.getUnitSize(PCT, false), 0.001);
+            parent.getStyle().setWidth(400, PX);
+            assertEquals(2.0, parentLayout.getUnitSize(PCT, false), 0.001);
+          }
+        });
+    scheduler.flush();
+    assertEquals(4.0, parentLayout.getUnitSize(PCT, false), 0.001);
+  }
+
+  private void executeFrame() {
+    assertEquals(1, callbacks.size());
+    callbacks.remove(0).execute(Duration.currentTimeMillis());
+  }
+
+  /** A task that logs its name. */
+  private class LoggingTask implements LayoutTask {
+    private final Layout layout;
+    private final String name;
+
+    LoggingTask(String name, Layout layout) {
+      this.name = name;
+      this.layout = layout;
+    }
+
+    @Override
+    public void executeLayout() {
+      log.add(name);
+    }
+
+    @Override
+    public Layout getLayout() {
+      return layout;
+    }
+  }
+}
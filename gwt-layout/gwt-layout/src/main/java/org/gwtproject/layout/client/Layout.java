@@ -20,6 +20,7 @@ import static org.gwtproject.dom.style.shared.Unit.PX;
 import java.util.ArrayList;
 import java.util.List;
 import org.gwtproject.animation.client.Animation;
+import org.gwtproject.animation.client.AnimationDriver;
 import org.gwtproject.dom.client.Element;
 import org.gwtproject.dom.style.shared.Unit;
 
@@ -97,6 +98,15 @@ public class Layout {
 
   private Animation animation;
 
+  /** The parent size measured by {@link #measure()}. */
+  private int measuredWidth, measuredHeight;
+
+  /**
+   * The pixel sizes of all units measured by {@link #measure()}, indexed by unit ordinal and axis,
+   * or null if the layout has not been measured.
+   */
+  private double[] measuredUnitSizes;
+
   /**
    * Constructs a new layout associated with the given parent element.
    *
@@ -200,6 +210,9 @@ public class Layout {
    * @return the unit size, in pixels
    */
   public double getUnitSize(Unit unit, boolean vertical) {
+    if (measuredUnitSizes != null && unit != null) {
+      return measuredUnitSizes[unit.ordinal() * 2 + (vertical ? 1 : 0)];
+    }
     return impl.getUnitSizeInPixels(parentElem, unit, vertical);
   }
 
@@ -273,8 +286,8 @@ public class Layout {
     }
 
     // Deal with constraint changes (e.g. left-width => right-width, etc)
-    int parentWidth = parentElem.getClientWidth();
-    int parentHeight = parentElem.getClientHeight();
+    int parentWidth = measuredUnitSizes != null ? measuredWidth : parentElem.getClientWidth();
+    int parentHeight = measuredUnitSizes != null ? measuredHeight : parentElem.getClientHeight();
     for (Layer l : layers) {
       adjustHorizontalConstraints(parentWidth, l);
       adjustVerticalConstraints(parentHeight, l);
@@ -289,6 +302,8 @@ public class Layout {
 
           @Override
           protected void onComplete() {
+            // Write the last frame before the final layout.
+            AnimationDriver.get().flushWrites();
             animation = null;
             layout();
             if (callback != null) {
@@ -297,7 +312,7 @@ public class Layout {
           }
 
           @Override
-          protected void onUpdate(double progress) {
+          protected void onUpdate(final double progress) {
             for (Layer l : layers) {
               if (l.setTargetLeft) {
                 l.left = l.sourceLeft + (l.targetLeft - l.sourceLeft) * progress;
@@ -317,13 +332,20 @@ public class Layout {
               if (l.setTargetHeight) {
                 l.height = l.sourceHeight + (l.targetHeight - l.sourceHeight) * progress;
               }
-
-              impl.layout(l);
-              if (callback != null) {
-                callback.onLayout(l, progress);
-              }
             }
-            impl.finalizeLayout(parentElem);
+
+            // Write the styles after all animations of the frame have been updated.
+            AnimationDriver.get()
+                .scheduleWrite(
+                    () -> {
+                      for (Layer l : layers) {
+                        impl.layout(l);
+                        if (callback != null) {
+                          callback.onLayout(l, progress);
+                        }
+                      }
+                      impl.finalizeLayout(parentElem);
+                    });
           }
         };
 
@@ -358,6 +380,33 @@ public class Layout {
     layers.remove(layer);
   }
 
+  /** Forgets the measurements taken by {@link #measure()}. */
+  void clearMeasurements() {
+    measuredUnitSizes = null;
+  }
+
+  /** Returns the element whose children this layout manages. */
+  Element getParentElem() {
+    return parentElem;
+  }
+
+  /**
+   * Measures the size of the parent and of all units, and uses the measurements instead of reading
+   * them again until {@link #clearMeasurements()} is called. Used by {@link LayoutScheduler} to
+   * read the sizes of all layouts of a pass before any of them writes its styles.
+   */
+  void measure() {
+    Unit[] units = Unit.values();
+    double[] unitSizes = new double[units.length * 2];
+    for (Unit unit : units) {
+      unitSizes[unit.ordinal() * 2] = impl.getUnitSizeInPixels(parentElem, unit, false);
+      unitSizes[unit.ordinal() * 2 + 1] = impl.getUnitSizeInPixels(parentElem, unit, true);
+    }
+    measuredWidth = parentElem.getClientWidth();
+    measuredHeight = parentElem.getClientHeight();
+    measuredUnitSizes = unitSizes;
+  }
+
   private void adjustHorizontalConstraints(int parentWidth, Layer l) {
     double leftPx = l.left * getUnitSize(l.leftUnit, false);
     double rightPx = l.right * getUnitSize(l.rightUnit, false);
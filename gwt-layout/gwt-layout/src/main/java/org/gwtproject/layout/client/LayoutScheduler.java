@@ -0,0 +1,220 @@
+/*
+ * Copyright © 2019 The GWT Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gwtproject.layout.client;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.gwtproject.animation.client.AnimationScheduler;
+import org.gwtproject.animation.client.AnimationScheduler.AnimationCallback;
+import org.gwtproject.animation.client.AnimationScheduler.AnimationHandle;
+import org.gwtproject.dom.client.Element;
+
+/**
+ * Coalesces layout work into a single pass per animation frame.
+ *
+ * <p>Instead of laying out a {@link Layout} immediately, widgets {@link #schedule(LayoutTask)
+ * schedule} a {@link LayoutTask} for it. A task that is scheduled several times before the pass
+ * runs is only executed once. The pass executes the tasks top-down, so that a layout whose parent
+ * element is nested in the element of another layout is laid out after it. Tasks scheduled while
+ * the pass runs, for example by the resize notifications of a parent layout, are executed by the
+ * same pass.
+ *
+ * <p>Tasks of layouts at the same depth in the document are executed together. The scheduler first
+ * measures all of their layouts, and only then executes the tasks. While a task executes, {@link
+ * Layout#getUnitSize} returns the measured sizes instead of reading them from the document, so the
+ * style writes of the tasks do not force the browser to reflow the page between them.
+ */
+public class LayoutScheduler {
+
+  /** A unit of layout work for a {@link Layout}, executed by the {@link LayoutScheduler}. */
+  public interface LayoutTask {
+
+    /**
+     * Returns the layout this task updates. The depth of its parent element determines the order in
+     * which tasks are executed.
+     *
+     * @return the layout
+     */
+    Layout getLayout();
+
+    /** Updates the layout, typically by calling {@link Layout#layout(int, AnimationCallback)}. */
+    void executeLayout();
+  }
+
+  private static LayoutScheduler instance;
+
+  /**
+   * Returns the scheduler shared by all layouts.
+   *
+   * @return the default layout scheduler
+   */
+  public static LayoutScheduler get() {
+    if (instance == null) {
+      instance = new LayoutScheduler(AnimationScheduler.get());
+    }
+    return instance;
+  }
+
+  private static int getDepth(Element elem) {
+    int depth = 0;
+    Element parent = elem.getParentElement();
+    while (parent != null) {
+      depth++;
+      parent = parent.getParentElement();
+    }
+    return depth;
+  }
+
+  private final AnimationCallback frameCallback =
+      new AnimationCallback() {
+        @Override
+        public void execute(double timestamp) {
+          frameHandle = null;
+          flush();
+        }
+      };
+
+  /** The tasks of the pass that have been executed, or null if no pass is running. */
+  private List<LayoutTask> executed;
+
+  /** The handle of the requested animation frame. */
+  private AnimationHandle frameHandle;
+
+  /** The tasks at the depth the running pass is executing. */
+  private final List<LayoutTask> level = new ArrayList<>();
+
+  private final AnimationScheduler scheduler;
+
+  /** The scheduled tasks. */
+  private final List<LayoutTask> tasks = new ArrayList<>();
+
+  /**
+   * Constructor for {@link LayoutScheduler}.
+   *
+   * @param scheduler the scheduler that triggers the layout passes
+   */
+  public LayoutScheduler(AnimationScheduler scheduler) {
+    this.scheduler = scheduler;
+  }
+
+  /**
+   * Cancels a scheduled task. If the task is not scheduled, do nothing.
+   *
+   * @param task the task to cancel
+   */
+  public void cancel(LayoutTask task) {
+    tasks.remove(task);
+    level.remove(task);
+    if (tasks.isEmpty() && frameHandle != null) {
+      frameHandle.cancel();
+      frameHandle = null;
+    }
+  }
+
+  /**
+   * Executes all scheduled tasks now, instead of waiting for the next animation frame. If a pass is
+   * already running, the tasks are left to it.
+   */
+  public void flush() {
+    if (executed != null) {
+      return;
+    }
+    if (frameHandle != null) {
+      frameHandle.cancel();
+      frameHandle = null;
+    }
+
+    executed = new ArrayList<>();
+    List<LayoutTask> next = new ArrayList<>();
+    try {
+      while (!tasks.isEmpty()) {
+        // Take the shallowest tasks. A task scheduled again after it was executed waits for the
+        // next pass, so that a task that keeps scheduling itself cannot block this one.
+        int minDepth = Integer.MAX_VALUE;
+        List<LayoutTask> pending = new ArrayList<>(tasks.size());
+        List<Integer> depths = new ArrayList<>(tasks.size());
+        for (LayoutTask task : tasks) {
+          if (executed.contains(task)) {
+            next.add(task);
+          } else {
+            int depth = getDepth(task.getLayout().getParentElem());
+            minDepth = Math.min(minDepth, depth);
+            pending.add(task);
+            depths.add(depth);
+          }
+        }
+        tasks.clear();
+        for (int i = 0; i < pending.size(); i++) {
+          if (depths.get(i) == minDepth) {
+            level.add(pending.get(i));
+          } else {
+            tasks.add(pending.get(i));
+          }
+        }
+
+        // Read first, then write.
+        List<LayoutTask> measured = new ArrayList<>(level);
+        for (LayoutTask task : measured) {
+          task.getLayout().measure();
+        }
+        try {
+          for (LayoutTask task : measured) {
+            // Skip the tasks canceled by the tasks executed before them.
+            if (level.remove(task)) {
+              executed.add(task);
+              task.executeLayout();
+            }
+          }
+        } finally {
+          level.clear();
+          for (LayoutTask task : measured) {
+            task.getLayout().clearMeasurements();
+          }
+        }
+      }
+    } finally {
+      executed = null;
+      tasks.addAll(next);
+      if (!tasks.isEmpty() && frameHandle == null) {
+        frameHandle = scheduler.requestAnimationFrame(frameCallback);
+      }
+    }
+  }
+
+  /**
+   * Checks if a task is scheduled.
+   *
+   * @param task the task
+   * @return true if the task waits for the next pass
+   */
+  public boolean isScheduled(LayoutTask task) {
+    return tasks.contains(task);
+  }
+
+  /**
+   * Schedules a task for the next layout pass. If the task is already scheduled, do nothing.
+   *
+   * @param task the task to schedule
+   */
+  public void schedule(LayoutTask task) {
+    if (!tasks.contains(task)) {
+      tasks.add(task);
+    }
+    if (executed == null && frameHandle == null) {
+      frameHandle = scheduler.requestAnimationFrame(frameCallback);
+    }
+  }
+}
@@ -39,8 +39,26 @@ public class ImageResourcePrototype implements ImageResource {
         boolean lossy) {
       super(name, url, left, top, width, height, animated, lossy);
     }
+
+    /**
+     * Returns an image that shows only this image of the composite image, as the background of a
+     * transparent image.
+     */
+    @Override
+    public Image getImage() {
+      Image image = super.getImage();
+      image.src = CLEAR_PIXEL;
+      image.style.setProperty(
+          "background",
+          "url(\"" + getURL() + "\") no-repeat " + (-getLeft()) + "px " + (-getTop()) + "px");
+      return image;
+    }
   }
 
+  /** A transparent image of a single pixel. */
+  private static final String CLEAR_PIXEL =
+      "data:image/gif;base64,R0lGODlhAQABAIAAAAAAAP///yH5BAEAAAAALAAAAAABAAEAAAIBRAA7";
+
   private final boolean animated;
   private final boolean lossy;
   private final String name;
@@ -18,6 +18,7 @@ package org.gwtproject.resources;
 import junit.framework.Test;
 import junit.framework.TestSuite;
 import org.gwtproject.resources.rg.CssClassNamesTestCase;
+import org.gwtproject.resources.rg.ImageBundleBuilderTest;
 import org.gwtproject.resources.rg.css.*;
 
 /** @author Dmitrii Tikhomirov Created by treblereel 11/30/18 */
@@ -28,6 +29,7 @@ public class ResourcesJreSuite {
     suite.addTestSuite(CssClassNamesTestCase.class);
     suite.addTestSuite(CssExternalTest.class);
     suite.addTestSuite(CssNodeClonerTest.class);
+    suite.addTestSuite(ImageBundleBuilderTest.class);
     // suite.addTestSuite(CssReorderTest.class);
     // suite.addTestSuite(CssRtlTest.class);
     // suite.addTestSuite(ExtractClassNamesVisitorTest.class);
@@ -88,6 +88,32 @@ public class ImageResourceTest extends GWTTestCase {
     assertFalse(a.getSafeUri().equals(r.i16x16().getSafeUri()));
   }
 
+  public void testBundling() {
+    ImageResources r = new ImageResourceTest_ImageResourcesImpl();
+
+    ImageResourcePrototype a = (ImageResourcePrototype) r.i16x16();
+    ImageResourcePrototype b = (ImageResourcePrototype) r.i32x32();
+    ImageResourcePrototype c = (ImageResourcePrototype) r.i64x64();
+
+    // Small, lossless images share a single composite image
+    assertTrue(a instanceof ImageResourcePrototype.Bundle);
+    assertEquals(a.getSafeUri().asString(), b.getSafeUri().asString());
+    assertEquals(a.getSafeUri().asString(), c.getSafeUri().asString());
+    assertFalse(overlaps(a, b));
+    assertFalse(overlaps(a, c));
+    assertFalse(overlaps(b, c));
+
+    // Images that repeat are arranged separately
+    assertFalse(a.getSafeUri().equals(r.i16x16Horizontal().getSafeUri()));
+    assertFalse(r.i16x16Horizontal().getSafeUri().equals(r.i16x16Vertical().getSafeUri()));
+    assertEquals(0, r.i16x16Horizontal().getLeft());
+    assertEquals(0, r.i16x16Vertical().getTop());
+
+    // Animated and lossy images are not bundled
+    assertFalse(r.animated() instanceof ImageResourcePrototype.Bundle);
+    assertFalse(r.largeLossy() instanceof ImageResourcePrototype.Bundle);
+  }
+
   public void testDedup() {
     ImageResources r = new ImageResourceTest_ImageResourcesImpl();
 
@@ -136,7 +162,14 @@ public class ImageResourceTest extends GWTTestCase {
     assertTrue(b.getSafeUri().asString().startsWith("data:"));
     assertFalse(c.getSafeUri().asString().startsWith("data:"));
     // Should be fetched from different URLs
-    assertFalse(a.getSafeUri().asString().equals(b.getSafeUri().asString()));
+    assertFalse(a.getSafeUri().asString().equals(c.getSafeUri().asString()));
+  }
+
+  private static boolean overlaps(ImageResource a, ImageResource b) {
+    return a.getLeft() < b.getLeft() + b.getWidth()
+        && b.getLeft() < a.getLeft() + a.getWidth()
+        && a.getTop() < b.getTop() + b.getHeight()
+        && b.getTop() < a.getTop() + a.getHeight();
   }
 
   @Resource
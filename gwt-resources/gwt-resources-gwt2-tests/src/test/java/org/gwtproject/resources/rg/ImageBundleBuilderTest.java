@@ -0,0 +1,117 @@
+/*
+ * Copyright 2009 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gwtproject.resources.rg;
+
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import junit.framework.TestCase;
+import org.gwtproject.resources.client.ImageResource.RepeatStyle;
+import org.gwtproject.resources.rg.ImageResourceGenerator.ImageRect;
+import org.gwtproject.resources.rg.ImageResourceGenerator.Size;
+
+/** Tests the arrangement of images by {@link ImageBundleBuilder}. */
+public class ImageBundleBuilderTest extends TestCase {
+
+  public void testBestFit() {
+    Random random = new Random(42);
+    for (int trial = 0; trial < 50; trial++) {
+      ImageBundleBuilder builder = new ImageBundleBuilder(RepeatStyle.None);
+      List<ImageRect> rects = new ArrayList<>();
+      for (int i = 0, n = 1 + random.nextInt(50); i < n; i++) {
+        rects.add(add(builder, 1 + random.nextInt(64), 1 + random.nextInt(64)));
+      }
+      assertArranged(builder.arrangeImages(), rects);
+    }
+  }
+
+  public void testBestFitEqualImages() {
+    ImageBundleBuilder builder = new ImageBundleBuilder(RepeatStyle.None);
+    List<ImageRect> rects = new ArrayList<>();
+    for (int i = 0; i < 60; i++) {
+      rects.add(add(builder, 16, 16));
+    }
+    Size size = builder.arrangeImages();
+    assertArranged(size, rects);
+
+    // The icons fill the composite image without gaps, which is close to a square
+    assertEquals(60 * 16 * 16, size.getWidth() * size.getHeight());
+    assertTrue(size.getWidth() >= 64 && size.getHeight() >= 64);
+  }
+
+  public void testHorizontalRepeat() {
+    ImageBundleBuilder builder = new ImageBundleBuilder(RepeatStyle.Horizontal);
+    List<ImageRect> rects = new ArrayList<>();
+    rects.add(add(builder, 16, 10));
+    rects.add(add(builder, 16, 20));
+    Size size = builder.arrangeImages();
+    assertArranged(size, rects);
+    assertEquals(16, size.getWidth());
+    assertEquals(30, size.getHeight());
+    for (ImageRect rect : rects) {
+      assertEquals(0, rect.getLeft());
+    }
+  }
+
+  public void testRepeatBoth() {
+    try {
+      new ImageBundleBuilder(RepeatStyle.Both);
+      fail("Images that repeat in both directions cannot be bundled");
+    } catch (IllegalArgumentException e) {
+      // Expected
+    }
+  }
+
+  public void testVerticalRepeat() {
+    ImageBundleBuilder builder = new ImageBundleBuilder(RepeatStyle.Vertical);
+    List<ImageRect> rects = new ArrayList<>();
+    rects.add(add(builder, 10, 16));
+    rects.add(add(builder, 20, 16));
+    Size size = builder.arrangeImages();
+    assertArranged(size, rects);
+    assertEquals(30, size.getWidth());
+    assertEquals(16, size.getHeight());
+    for (ImageRect rect : rects) {
+      assertEquals(0, rect.getTop());
+    }
+  }
+
+  private static ImageRect add(ImageBundleBuilder builder, int width, int height) {
+    ImageRect rect =
+        new ImageRect("image", new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB));
+    builder.assimilate(rect);
+    return rect;
+  }
+
+  /** Asserts that the images are inside the composite image, and do not overlap. */
+  private static void assertArranged(Size size, List<ImageRect> rects) {
+    for (ImageRect a : rects) {
+      assertTrue(a.hasBeenPositioned());
+      assertTrue(a.getLeft() >= 0 && a.getLeft() + a.getWidth() <= size.getWidth());
+      assertTrue(a.getTop() >= 0 && a.getTop() + a.getHeight() <= size.getHeight());
+      for (ImageRect b : rects) {
+        if (a != b) {
+          assertFalse(
+              a.getLeft() < b.getLeft() + b.getWidth()
+                  && b.getLeft() < a.getLeft() + a.getWidth()
+                  && a.getTop() < b.getTop() + b.getHeight()
+                  && b.getTop() < a.getTop() + a.getHeight());
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,376 @@
+/*
+ * Copyright 2008 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gwtproject.resources.rg;
+
+import java.awt.Graphics2D;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Set;
+import java.util.TreeSet;
+import org.gwtproject.resources.client.ImageResource.RepeatStyle;
+import org.gwtproject.resources.ext.TreeLogger;
+import org.gwtproject.resources.ext.UnableToCompleteException;
+import org.gwtproject.resources.rg.ImageResourceGenerator.ImageRect;
+import org.gwtproject.resources.rg.ImageResourceGenerator.Size;
+
+/**
+ * Accumulates state for the bundled image. Images are arranged into a single composite image, so
+ * that a bundle with many small images is downloaded as one file. The images are arranged according
+ * to their {@link RepeatStyle}:
+ *
+ * <ul>
+ *   <li>{@link RepeatStyle#None} images are packed into a rectangle of minimal area.
+ *   <li>{@link RepeatStyle#Horizontal} images are stacked vertically, so that each one spans the
+ *       full width of the composite image.
+ *   <li>{@link RepeatStyle#Vertical} images are placed side by side, so that each one spans the
+ *       full height of the composite image.
+ * </ul>
+ *
+ * {@link RepeatStyle#Both} images cannot share a composite image with other images.
+ */
+class ImageBundleBuilder {
+
+  /** Arranges a collection of images into a composite image. */
+  interface Arranger {
+
+    /**
+     * Positions the images, without overlapping them.
+     *
+     * @param rects the images to arrange
+     * @return the size of the composite image
+     */
+    Size arrangeImages(Collection<ImageRect> rects);
+  }
+
+  /**
+   * Packs the images into a rectangle of close to minimal area, using the skyline bottom-left
+   * heuristic. The images are placed from the tallest to the shortest, each one at the lowest
+   * position where it fits below the skyline of the images placed before it. Widths between half
+   * and twice the side of a square with the area of all images are tried, and the arrangement with
+   * the smallest area is kept.
+   */
+  static class BestFitArranger implements Arranger {
+
+    /** A horizontal segment of the skyline. */
+    private static class Segment {
+      final int x;
+      final int y;
+      final int width;
+
+      Segment(int x, int y, int width) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+      }
+    }
+
+    /** The number of widths to try. */
+    private static final int WIDTH_STEPS = 32;
+
+    private static final Comparator<ImageRect> TALLEST_FIRST =
+        new Comparator<ImageRect>() {
+          @Override
+          public int compare(ImageRect a, ImageRect b) {
+            int c = b.getHeight() - a.getHeight();
+            return c != 0 ? c : b.getWidth() - a.getWidth();
+          }
+        };
+
+    @Override
+    public Size arrangeImages(Collection<ImageRect> rects) {
+      if (rects.isEmpty()) {
+        return new Size(0, 0);
+      }
+
+      List<ImageRect> sorted = new ArrayList<>(rects);
+      Collections.sort(sorted, TALLEST_FIRST);
+
+      long area = 0;
+      int maxWidth = 0;
+      int totalWidth = 0;
+      for (ImageRect rect : sorted) {
+        area += (long) rect.getWidth() * rect.getHeight();
+        maxWidth = Math.max(maxWidth, rect.getWidth());
+        totalWidth += rect.getWidth();
+      }
+
+      // The narrowest width any arrangement can have is tried too
+      Set<Integer> widths = new TreeSet<>();
+      widths.add(maxWidth);
+      double side = Math.sqrt(area);
+      for (int i = 0; i <= WIDTH_STEPS; i++) {
+        int width = (int) Math.ceil(side * Math.pow(4, (double) i / WIDTH_STEPS) / 2);
+        widths.add(Math.min(Math.max(width, maxWidth), totalWidth));
+      }
+
+      // Of two arrangements with the same area, keep the one closer to a square
+      int bestWidth = -1;
+      long bestArea = Long.MAX_VALUE;
+      int bestSide = Integer.MAX_VALUE;
+      for (int width : widths) {
+        Size size = pack(sorted, width, false);
+        long candidateArea = (long) size.getWidth() * size.getHeight();
+        int candidateSide = Math.max(size.getWidth(), size.getHeight());
+        if (candidateArea < bestArea || (candidateArea == bestArea && candidateSide < bestSide)) {
+          bestArea = candidateArea;
+          bestSide = candidateSide;
+          bestWidth = width;
+        }
+      }
+
+      return pack(sorted, bestWidth, true);
+    }
+
+    /**
+     * Packs the images into a composite image of a given width.
+     *
+     * @param sorted the images, from the tallest to the shortest
+     * @param width the width of the composite image
+     * @param position if true, the images are moved to the computed positions
+     * @return the size of the area covered by the images, which may be narrower than the width
+     */
+    private Size pack(List<ImageRect> sorted, int width, boolean position) {
+      LinkedList<Segment> skyline = new LinkedList<>();
+      skyline.add(new Segment(0, 0, width));
+      int height = 0;
+      int usedWidth = 0;
+
+      for (ImageRect rect : sorted) {
+        int bestX = -1;
+        int bestY = Integer.MAX_VALUE;
+        for (Segment start : skyline) {
+          if (start.x + rect.getWidth() > width) {
+            break;
+          }
+          int y = fitAt(skyline, start.x, rect.getWidth());
+          if (y < bestY) {
+            bestX = start.x;
+            bestY = y;
+          }
+        }
+
+        // The width is at least the width of the widest image, so every image fits at x = 0
+        assert bestX >= 0;
+        if (position) {
+          rect.setPosition(bestX, bestY);
+        }
+        raise(skyline, bestX, rect.getWidth(), bestY + rect.getHeight());
+        height = Math.max(height, bestY + rect.getHeight());
+        usedWidth = Math.max(usedWidth, bestX + rect.getWidth());
+      }
+      return new Size(usedWidth, height);
+    }
+
+    /** Returns the lowest position of an image of a given width whose left edge is at x. */
+    private int fitAt(List<Segment> skyline, int x, int width) {
+      int y = 0;
+      for (Segment segment : skyline) {
+        if (segment.x >= x + width) {
+          break;
+        }
+        if (segment.x + segment.width > x) {
+          y = Math.max(y, segment.y);
+        }
+      }
+      return y;
+    }
+
+    /** Raises the skyline to y between x and x + width. */
+    private void raise(LinkedList<Segment> skyline, int x, int width, int y) {
+      int end = x + width;
+      ListIterator<Segment> it = skyline.listIterator();
+      while (it.hasNext()) {
+        Segment segment = it.next();
+        int segmentEnd = segment.x + segment.width;
+        if (segmentEnd <= x) {
+          continue;
+        }
+        if (segment.x >= end) {
+          it.previous();
+          break;
+        }
+
+        // Replace the segment with the parts of it that are not covered
+        it.remove();
+        if (segment.x < x) {
+          it.add(new Segment(segment.x, segment.y, x - segment.x));
+        }
+        if (segmentEnd > end) {
+          it.add(new Segment(end, segment.y, segmentEnd - end));
+          it.previous();
+          break;
+        }
+      }
+      it.add(new Segment(x, y, width));
+
+      // Merge adjacent segments of the same height
+      Segment previous = null;
+      it = skyline.listIterator();
+      while (it.hasNext()) {
+        Segment segment = it.next();
+        if (previous != null && previous.y == segment.y) {
+          it.remove();
+          it.previous();
+          previous = new Segment(previous.x, previous.y, previous.width + segment.width);
+          it.set(previous);
+          it.next();
+        } else {
+          previous = segment;
+        }
+      }
+    }
+  }
+
+  /**
+   * Places the images side by side, for images that repeat vertically. The composite image is as
+   * tall as the tallest image.
+   */
+  static class HorizontalArranger implements Arranger {
+    @Override
+    public Size arrangeImages(Collection<ImageRect> rects) {
+      int height = 0;
+      int width = 0;
+      for (ImageRect rect : rects) {
+        rect.setPosition(width, 0);
+        width += rect.getWidth();
+        height = Math.max(height, rect.getHeight());
+      }
+      return new Size(width, height);
+    }
+  }
+
+  /**
+   * Stacks the images vertically, for images that repeat horizontally. The composite image is as
+   * wide as the widest image.
+   */
+  static class VerticalArranger implements Arranger {
+    @Override
+    public Size arrangeImages(Collection<ImageRect> rects) {
+      int height = 0;
+      int width = 0;
+      for (ImageRect rect : rects) {
+        rect.setPosition(0, height);
+        height += rect.getHeight();
+        width = Math.max(width, rect.getWidth());
+      }
+      return new Size(width, height);
+    }
+  }
+
+  /**
+   * Returns the arranger for images with a repeat style.
+   *
+   * @param repeatStyle the repeat style of the images
+   * @return the arranger
+   * @throws IllegalArgumentException if images with the repeat style cannot be bundled
+   */
+  static Arranger getArranger(RepeatStyle repeatStyle) {
+    switch (repeatStyle) {
+      case None:
+        return new BestFitArranger();
+      case Horizontal:
+        return new VerticalArranger();
+      case Vertical:
+        return new HorizontalArranger();
+      default:
+        throw new IllegalArgumentException("Images with " + repeatStyle + " cannot be bundled");
+    }
+  }
+
+  private final Arranger arranger;
+
+  private final List<ImageRect> rects = new ArrayList<>();
+
+  private Size size;
+
+  /**
+   * Creates a builder for images with a repeat style.
+   *
+   * @param repeatStyle the repeat style of the images
+   */
+  ImageBundleBuilder(RepeatStyle repeatStyle) {
+    this.arranger = getArranger(repeatStyle);
+  }
+
+  /**
+   * Adds an image to the composite image. Its position is computed by {@link #arrangeImages()}.
+   *
+   * @param rect the image to add
+   */
+  void assimilate(ImageRect rect) {
+    rects.add(rect);
+    size = null;
+  }
+
+  /**
+   * Positions the images that were added to the composite image.
+   *
+   * @return the size of the composite image
+   */
+  Size arrangeImages() {
+    if (size == null) {
+      size = arranger.arrangeImages(rects);
+    }
+    return size;
+  }
+
+  /** Returns the images that were added to the composite image. */
+  List<ImageRect> getImageRects() {
+    return Collections.unmodifiableList(rects);
+  }
+
+  /**
+   * Renders the composite image as a PNG.
+   *
+   * @param logger the logger
+   * @param mirrored the images to flip about the y-axis in place, for a right-to-left variant of
+   *     the composite image
+   * @return the bytes of the composite image
+   */
+  byte[] render(TreeLogger logger, Collection<ImageRect> mirrored)
+      throws UnableToCompleteException {
+    Size bundleSize = arrangeImages();
+    BufferedImage bundledImage =
+        new BufferedImage(
+            Math.max(bundleSize.getWidth(), 1),
+            Math.max(bundleSize.getHeight(), 1),
+            BufferedImage.TYPE_INT_ARGB_PRE);
+
+    Graphics2D g2d = bundledImage.createGraphics();
+    ImageResourceGenerator.setBetterRenderingQuality(g2d);
+    for (ImageRect rect : rects) {
+      AffineTransform tx = rect.transform();
+      if (mirrored.contains(rect)) {
+        // Mirror about the vertical center line of the image
+        AffineTransform mirror = new AffineTransform();
+        mirror.translate(2 * rect.getLeft() + rect.getWidth(), 0);
+        mirror.scale(-1, 1);
+        tx.preConcatenate(mirror);
+      }
+      g2d.drawImage(rect.getImage(), tx, null);
+    }
+    g2d.dispose();
+
+    return ImageResourceGenerator.createImageBytes(logger, bundledImage);
+  }
+}
@@ -28,10 +28,14 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.net.URL;
 import java.net.URLConnection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import javax.imageio.ImageIO;
 import javax.imageio.ImageReader;
 import javax.imageio.metadata.IIOMetadata;
@@ -62,6 +66,11 @@ public class ImageResourceGenerator extends AbstractResourceGenerator {
    * best output type, and get rid of this constant.
    */
   static final String BUNDLE_FILE_TYPE = "png";
+
+  /**
+   * Images that are wider or taller than this are not bundled, so that a single large image does
+   * not delay all the small images of the bundle.
+   */
   private static final int IMAGE_MAX_SIZE =
       Integer.getInteger("gwt.imageResource.maxBundleSize", 256);
 
@@ -84,8 +93,11 @@ public class ImageResourceGenerator extends AbstractResourceGenerator {
     if (rect == null) {
       throw new NullPointerException("No ImageRect ever computed for " + name);
     }
-    rect.setHeight(image.getScaleHeight());
-    rect.setWidth(image.getScaleWidth());
+    if (!rect.hasBeenPositioned()) {
+      // Bundled images are scaled before they are arranged
+      rect.setHeight(image.getScaleHeight());
+      rect.setWidth(image.getScaleWidth());
+    }
 
     String[] urlExpressions =
         new String[] {bundle.getNormalContentsFieldName(), bundle.getRtlContentsFieldName()};
@@ -98,7 +110,7 @@ public class ImageResourceGenerator extends AbstractResourceGenerator {
           UriUtils.class.getName()
               + ".fromTrustedString("
               + LocaleInfo.class.getCanonicalName()
-              + "getCurrentLocale().isRTL() ?"
+              + ".getCurrentLocale().isRTL() ? "
               + urlExpressions[1]
               + " : "
               + urlExpressions[0]
@@ -123,11 +135,16 @@ public class ImageResourceGenerator extends AbstractResourceGenerator {
     return sw.toString();
   }
 
-  private ExternalImage getImage(ImageResourceDeclaration image) {
+  private DisplayedImage getImage(ImageResourceDeclaration image) {
     ExternalImage toReturn = shared.externalImages.get(new BundleKey(image, true));
     if (toReturn != null) {
       return toReturn;
     }
+    for (BundledImage bundle : shared.bundledImages.values()) {
+      if (bundle.getImageRect(image) != null) {
+        return bundle;
+      }
+    }
     return null;
   }
 
@@ -138,6 +155,7 @@ public class ImageResourceGenerator extends AbstractResourceGenerator {
   @Override
   public void createFields(TreeLogger logger, ResourceContext context, ClientBundleFields fields)
       throws UnableToCompleteException {
+    renderImageMap(logger, context, fields, shared.bundledImages);
     renderImageMap(logger, context, fields, shared.externalImages);
   }
 
@@ -208,6 +226,34 @@ public class ImageResourceGenerator extends AbstractResourceGenerator {
 
     ImageRect rect = addImage(logger, resource.getFile(), resource);
 
+    // test mirrored in BundleKey.key(), make sure to keep them in sync
+    if (!image.isPreventInlining()
+        && image.getRepeatStyle() != RepeatStyle.Both
+        && !rect.isAnimated()
+        && !rect.isLossy()) {
+      ImageRect scaled = new ImageRect(rect);
+      if (image.getScaleHeight() > 0) {
+        scaled.setHeight(image.getScaleHeight());
+      }
+      if (image.getScaleWidth() > 0) {
+        scaled.setWidth(image.getScaleWidth());
+      }
+
+      if (scaled.getWidth() <= IMAGE_MAX_SIZE && scaled.getHeight() <= IMAGE_MAX_SIZE) {
+        BundleKey key = new BundleKey(image, scaled);
+        BundledImage bundle = shared.bundledImages.get(key);
+        if (bundle == null) {
+          bundle = new BundledImage(image.getRepeatStyle());
+          shared.bundledImages.put(key, bundle);
+        }
+        bundle.addImage(image, localized, scaled);
+        return;
+      }
+      logger.log(
+          TreeLogger.DEBUG,
+          "Not bundling image larger than " + IMAGE_MAX_SIZE + "px: " + image.getName());
+    }
+
     if (rect.isAnimated() || rect.isLossy()) {
       // Don't re-encode
     } else {
@@ -407,7 +453,7 @@ public class ImageResourceGenerator extends AbstractResourceGenerator {
   }
 
   /** Write the bundled image into a byte array, so that we can compute its strong name. */
-  private static byte[] createImageBytes(TreeLogger logger, BufferedImage bundledImage)
+  static byte[] createImageBytes(TreeLogger logger, BufferedImage bundledImage)
       throws UnableToCompleteException {
     byte[] imageBytes;
 
@@ -426,7 +472,7 @@ public class ImageResourceGenerator extends AbstractResourceGenerator {
     return imageBytes;
   }
 
-  private static void setBetterRenderingQuality(Graphics2D g2d) {
+  static void setBetterRenderingQuality(Graphics2D g2d) {
     g2d.setRenderingHint(
         RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
     g2d.setRenderingHint(
@@ -445,6 +491,12 @@ public class ImageResourceGenerator extends AbstractResourceGenerator {
       this.repeatStyle = image.getRepeatStyle();
     }
 
+    /** Create the key of the composite image a scaled image is arranged into. */
+    public BundleKey(ImageResourceDeclaration image, ImageRect rect) {
+      super(key(image, false) + stripKey(image.getRepeatStyle(), rect));
+      this.repeatStyle = image.getRepeatStyle();
+    }
+
     private static String key(ImageResourceDeclaration image, boolean isExternal) {
       if (isExternal) {
         return "External: " + image.get();
@@ -456,6 +508,21 @@ public class ImageResourceGenerator extends AbstractResourceGenerator {
       return "Arranged: " + image.getRepeatStyle().toString();
     }
 
+    /**
+     * An image that repeats horizontally must span the full width of its composite image, so only
+     * images of the same width are arranged together. Likewise for vertical repetition and height.
+     */
+    private static String stripKey(RepeatStyle repeatStyle, ImageRect rect) {
+      switch (repeatStyle) {
+        case Horizontal:
+          return " " + rect.getWidth();
+        case Vertical:
+          return " " + rect.getHeight();
+        default:
+          return "";
+      }
+    }
+
     public RepeatStyle getRepeatStyle() {
       return repeatStyle;
     }
@@ -467,9 +534,88 @@ public class ImageResourceGenerator extends AbstractResourceGenerator {
 
   /** This is client that can be client across permutations for a given ClientBundle . */
   static class CachedState {
+    public final Map<BundleKey, BundledImage> bundledImages = new LinkedHashMap<>();
     public final Map<BundleKey, ExternalImage> externalImages = new LinkedHashMap<>();
   }
 
+  /** Represents a composite image that contains several images of a ClientBundle. */
+  static class BundledImage extends DisplayedImage {
+    private final ImageBundleBuilder builder;
+    private final Map<ImageResourceDeclaration, ImageRect> rects = new LinkedHashMap<>();
+    private final Map<String, ImageRect> rectsByContent = new HashMap<>();
+    private final Set<ImageRect> rtlRects = new HashSet<>();
+    private byte[] normalData;
+    private byte[] rtlData;
+
+    public BundledImage(RepeatStyle repeatStyle) {
+      this.builder = new ImageBundleBuilder(repeatStyle);
+    }
+
+    /**
+     * Add an image to the composite image. Declarations of identical image data with the same
+     * options share a single position in the composite image.
+     */
+    public void addImage(ImageResourceDeclaration image, LocalizedImage localized, ImageRect rect) {
+      if (rects.containsKey(image)) {
+        return;
+      }
+      String key = localized.getKey() + ":" + image.isFlipRtl();
+      ImageRect shared = rectsByContent.get(key);
+      if (shared == null) {
+        shared = rect;
+        rectsByContent.put(key, shared);
+        builder.assimilate(shared);
+        if (image.isFlipRtl()) {
+          rtlRects.add(shared);
+        }
+        normalData = null;
+        rtlData = null;
+      }
+      rects.put(image, shared);
+    }
+
+    @Override
+    public Class<?> getResourceType() {
+      return ImageResourcePrototype.Bundle.class;
+    }
+
+    @Override
+    public ImageRect getImageRect(ImageResourceDeclaration image) {
+      return rects.get(image);
+    }
+
+    @Override
+    public void setRtlImage(LocalizedImage image) {
+      // Images are flipped according to their declaration, see addImage()
+    }
+
+    @Override
+    public void render(
+        TreeLogger logger,
+        ResourceContext context,
+        ClientBundleFields fields,
+        RepeatStyle repeatStyle)
+        throws UnableToCompleteException {
+      if (normalData == null) {
+        normalData = builder.render(logger, Collections.<ImageRect>emptySet());
+        if (!rtlRects.isEmpty()) {
+          rtlData = builder.render(logger, rtlRects);
+        }
+      }
+
+      String name = "bundledImage_" + repeatStyle.name();
+      String contentsExpression = context.deploy(name + ".png", "image/png", normalData, false);
+      normalContentsFieldName = fields.define("String", name, contentsExpression, true, true);
+
+      if (rtlData != null) {
+        String rtlContentsExpression =
+            context.deploy(name + "_rtl.png", "image/png", rtlData, false);
+        rtlContentsFieldName =
+            fields.define("String", name + "_rtl", rtlContentsExpression, true, true);
+      }
+    }
+  }
+
   /** Represents a file that contains exactly one image. */
   static class ExternalImage extends DisplayedImage {
     private final ImageResourceDeclaration image;
@@ -702,7 +848,7 @@ public class ImageResourceGenerator extends AbstractResourceGenerator {
       // Scale
       assert height > 0 == width > 0;
       if (height > 0) {
-        toReturn.scale((double) height / intrinsicHeight, (double) width / intrinsicWidth);
+        toReturn.scale((double) width / intrinsicWidth, (double) height / intrinsicHeight);
       }
 
       // Use the base concatenation
@@ -764,6 +910,14 @@ public class ImageResourceGenerator extends AbstractResourceGenerator {
       this.width = width;
       this.height = height;
     }
+
+    public int getHeight() {
+      return height;
+    }
+
+    public int getWidth() {
+      return width;
+    }
   }
 
   /**
@@ -812,6 +966,11 @@ public class ImageResourceGenerator extends AbstractResourceGenerator {
       return toReturn;
     }
 
+    /** Returns a key that identifies the image data and the size it is scaled to. */
+    public String getKey() {
+      return key(image, url);
+    }
+
     public URL getUrl() {
       return url;
     }
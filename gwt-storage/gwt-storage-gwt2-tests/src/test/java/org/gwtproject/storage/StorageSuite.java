@@ -18,10 +18,12 @@ package org.gwtproject.storage;
 
 import com.google.gwt.junit.tools.GWTTestSuite;
 import junit.framework.Test;
+import org.gwtproject.storage.client.CachedStorageTest;
 import org.gwtproject.storage.client.LocalStorageMapTest;
 import org.gwtproject.storage.client.LocalStorageTest;
 import org.gwtproject.storage.client.SessionStorageMapTest;
 import org.gwtproject.storage.client.SessionStorageTest;
+import org.gwtproject.storage.client.StorageCacheTest;
 
 /** Suite for all Storage tests. */
 public class StorageSuite {
@@ -32,6 +34,8 @@ public class StorageSuite {
     suite.addTestSuite(SessionStorageTest.class);
     suite.addTestSuite(LocalStorageMapTest.class);
     suite.addTestSuite(SessionStorageMapTest.class);
+    suite.addTestSuite(CachedStorageTest.class);
+    suite.addTestSuite(StorageCacheTest.class);
 
     return suite;
   }
@@ -0,0 +1,118 @@
+/*
+ * Copyright 2011 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.gwtproject.storage.client;
+
+import com.google.gwt.junit.client.GWTTestCase;
+
+/** Tests {@link CachedStorage}. */
+public class CachedStorageTest extends GWTTestCase {
+  private Storage storage;
+  private CachedStorage cached;
+
+  @Override
+  public String getModuleName() {
+    return "org.gwtproject.storage.StorageTest";
+  }
+
+  @Override
+  protected void gwtSetUp() throws Exception {
+    storage = Storage.getLocalStorageIfSupported();
+    if (storage == null) {
+      return; // do not run if not supported
+    }
+
+    storage.clear();
+    storage.setItem("one", "January");
+    cached = new CachedStorage(storage);
+  }
+
+  @Override
+  protected void gwtTearDown() throws Exception {
+    if (cached != null) {
+      cached.detach();
+    }
+    if (storage != null) {
+      storage.clear();
+    }
+  }
+
+  public void testReadsInitialItems() {
+    if (storage == null) {
+      return;
+    }
+    assertEquals(1, cached.size());
+    assertEquals("January", cached.get("one"));
+    assertTrue(cached.containsKey("one"));
+  }
+
+  public void testWritesAreDeferredUntilFlush() {
+    if (storage == null) {
+      return;
+    }
+    assertNull(cached.put("two", "February"));
+    assertEquals("January", cached.remove("one"));
+    assertEquals("February", cached.get("two"));
+    assertNull(cached.get("one"));
+    assertEquals("January", storage.getItem("one"));
+    assertNull(storage.getItem("two"));
+
+    cached.flush();
+    assertNull(storage.getItem("one"));
+    assertEquals("February", storage.getItem("two"));
+  }
+
+  public void testClearIsDeferredUntilFlush() {
+    if (storage == null) {
+      return;
+    }
+    cached.clear();
+    cached.put("two", "February");
+    assertEquals(1, storage.getLength());
+
+    cached.flush();
+    assertNull(storage.getItem("one"));
+    assertEquals("February", storage.getItem("two"));
+  }
+
+  public void testExternalChangesAreMirrored() {
+    if (storage == null) {
+      return;
+    }
+    storage.setItem("two", "February");
+    assertEquals("February", cached.get("two"));
+    storage.removeItem("one");
+    assertFalse(cached.containsKey("one"));
+
+    storage.clear();
+    assertTrue(cached.isEmpty());
+  }
+
+  public void testPendingChangesWinOverExternalChanges() {
+    if (storage == null) {
+      return;
+    }
+    cached.put("one", "Jan");
+    storage.setItem("one", "Janvier");
+    assertEquals("Jan", cached.get("one"));
+
+    storage.clear();
+    assertEquals("Jan", cached.get("one"));
+
+    cached.flush();
+    assertEquals("Jan", storage.getItem("one"));
+  }
+}
@@ -0,0 +1,158 @@
+/*
+ * Copyright 2011 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+
+package org.gwtproject.storage.client;
+
+import com.google.gwt.junit.client.GWTTestCase;
+
+/** Tests {@link StorageCache}. */
+public class StorageCacheTest extends GWTTestCase {
+  private Storage storage;
+
+  @Override
+  public String getModuleName() {
+    return "org.gwtproject.storage.StorageTest";
+  }
+
+  @Override
+  protected void gwtSetUp() throws Exception {
+    storage = Storage.getLocalStorageIfSupported();
+    if (storage != null) {
+      storage.clear();
+    }
+  }
+
+  @Override
+  protected void gwtTearDown() throws Exception {
+    if (storage != null) {
+      storage.clear();
+    }
+  }
+
+  public void testPutGetRemove() {
+    if (storage == null) {
+      return; // do not run if not supported
+    }
+    StorageCache cache = new StorageCache(storage, "test", 100000);
+    String value = repeat("abcdefgh", 100);
+    assertTrue(cache.put("one", value));
+    assertEquals(value, cache.get("one"));
+    assertTrue(cache.containsKey("one"));
+    assertEquals(1, cache.size());
+    // Compressible values are stored compressed.
+    assertTrue(storage.getItem("test:one").length() < value.length());
+
+    cache.remove("one");
+    assertNull(cache.get("one"));
+    assertNull(storage.getItem("test:one"));
+    assertEquals(0, cache.getUsedBytes());
+  }
+
+  public void testEvictsLeastRecentlyUsed() {
+    if (storage == null) {
+      return;
+    }
+    StorageCache cache = new StorageCache(storage, "test", 80);
+    assertTrue(cache.put("a", "0123456789"));
+    assertTrue(cache.put("b", "0123456789"));
+    assertEquals("0123456789", cache.get("a"));
+    assertTrue(cache.put("c", "0123456789"));
+    assertTrue(cache.containsKey("a"));
+    assertFalse(cache.containsKey("b"));
+    assertTrue(cache.containsKey("c"));
+    assertEquals(1, cache.getEvictionCount());
+    assertTrue(cache.getUsedBytes() <= cache.getMaxBytes());
+  }
+
+  public void testRejectsValuesLargerThanBudget() {
+    if (storage == null) {
+      return;
+    }
+    StorageCache cache = new StorageCache(storage, "test", 20);
+    assertFalse(cache.put("a", "0123456789"));
+    assertFalse(cache.containsKey("a"));
+    assertNull(storage.getItem("test:a"));
+  }
+
+  public void testReloadsEntries() {
+    if (storage == null) {
+      return;
+    }
+    storage.setItem("other", "untouched");
+    StorageCache cache = new StorageCache(storage, "test", 100000);
+    cache.put("a", "alpha");
+    cache.put("b", "beta");
+    cache.get("a");
+
+    // Only the entries themselves are stored.
+    assertEquals(3, storage.getLength());
+
+    StorageCache reloaded = new StorageCache(storage, "test", 100000);
+    assertEquals(2, reloaded.size());
+    assertEquals(cache.getUsedBytes(), reloaded.getUsedBytes());
+    assertEquals("alpha", reloaded.get("a"));
+    assertEquals("beta", reloaded.get("b"));
+
+    reloaded.clear();
+    assertEquals(1, storage.getLength());
+    assertEquals("untouched", storage.getItem("other"));
+  }
+
+  public void testReloadsOrderOfStores() {
+    if (storage == null) {
+      return;
+    }
+    StorageCache cache = new StorageCache(storage, "test", 80);
+    assertTrue(cache.put("b", "0123456789"));
+    assertTrue(cache.put("a", "0123456789"));
+
+    // The entry stored first is evicted first, although its key sorts last.
+    StorageCache reloaded = new StorageCache(storage, "test", 80);
+    assertTrue(reloaded.put("c", "0123456789"));
+    assertFalse(reloaded.containsKey("b"));
+    assertTrue(reloaded.containsKey("a"));
+  }
+
+  public void testRemovesUnreadableEntries() {
+    if (storage == null) {
+      return;
+    }
+    storage.setItem("test:a", "not an entry");
+    StorageCache cache = new StorageCache(storage, "test", 100000);
+    assertEquals(0, cache.size());
+    assertNull(storage.getItem("test:a"));
+  }
+
+  public void testRejectsNamespacesWithSeparator() {
+    if (storage == null) {
+      return;
+    }
+    try {
+      new StorageCache(storage, "a:b", 100000);
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException expected) {
+      // Expected.
+    }
+  }
+
+  private static String repeat(String s, int count) {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < count; i++) {
+      sb.append(s);
+    }
+    return sb.toString();
+  }
+}
@@ -0,0 +1,337 @@
+/*
+ * Copyright 2011 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gwtproject.storage.client;
+
+import static elemental2.dom.DomGlobal.window;
+
+import elemental2.dom.EventListener;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import jsinterop.base.Js;
+import org.gwtproject.core.client.Scheduler;
+import org.gwtproject.event.shared.HandlerRegistration;
+
+/**
+ * A {@link StorageMap} alternative that keeps a copy of the whole local/session {@link Storage} in
+ * memory.
+ *
+ * <p><span style="color:red">Experimental API: This API is still under development and is subject
+ * to change. </span>
+ *
+ * <p>Every access to {@link StorageMap} goes to the browser's Storage, which is synchronous and
+ * may block on disk. This Map instead answers reads from a {@link HashMap} mirror, filled once
+ * when it is created, and batches writes: changes are applied to the mirror immediately and
+ * written to the Storage in a single {@link #flush()} at the end of the current event loop, see
+ * {@link Scheduler#scheduleFinally(Scheduler.ScheduledCommand)}.
+ *
+ * <p>The mirror is kept coherent with changes made to the Storage by other code of this window,
+ * through {@link StorageEvent.Handler}, and by other windows and tabs, through the browser's
+ * <code>storage</code> event. Unflushed local changes win over such external changes.
+ *
+ * <p>Call {@link #detach()} when the map is no longer needed, to stop listening for changes.
+ *
+ * <p>The same restrictions as for {@link StorageMap} apply: keys and values are non-null Strings.
+ */
+public class CachedStorage extends AbstractMap<String, String> {
+
+  /*
+   * Represents a Map.Entry to a mirrored item
+   */
+  private class CachedEntry implements Map.Entry<String, String> {
+    private final Map.Entry<String, String> entry;
+
+    CachedEntry(Map.Entry<String, String> entry) {
+      this.entry = entry;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+      return entry.equals(obj);
+    }
+
+    @Override
+    public String getKey() {
+      return entry.getKey();
+    }
+
+    @Override
+    public String getValue() {
+      return entry.getValue();
+    }
+
+    @Override
+    public int hashCode() {
+      return entry.hashCode();
+    }
+
+    @Override
+    public String setValue(String value) {
+      return put(entry.getKey(), value);
+    }
+  }
+
+  /*
+   * Represents a Set<Map.Entry> over all mirrored items
+   */
+  private class CachedEntrySet extends AbstractSet<Map.Entry<String, String>> {
+    @Override
+    public void clear() {
+      CachedStorage.this.clear();
+    }
+
+    @Override
+    public Iterator<Map.Entry<String, String>> iterator() {
+      final Iterator<Map.Entry<String, String>> iterator = mirror.entrySet().iterator();
+      return new Iterator<Map.Entry<String, String>>() {
+        private String lastKey;
+
+        @Override
+        public boolean hasNext() {
+          return iterator.hasNext();
+        }
+
+        @Override
+        public Map.Entry<String, String> next() {
+          Map.Entry<String, String> next = iterator.next();
+          lastKey = next.getKey();
+          return new CachedEntry(next);
+        }
+
+        @Override
+        public void remove() {
+          iterator.remove();
+          markDirty(lastKey, null);
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return mirror.size();
+    }
+  }
+
+  private final Storage storage;
+
+  private final Map<String, String> mirror = new HashMap<>();
+
+  /** Keys changed since the last flush, to their new value, or null if removed. */
+  private final Map<String, String> dirty = new LinkedHashMap<>();
+
+  /** Whether the Storage must be cleared before the dirty keys are written. */
+  private boolean clearPending;
+
+  private boolean flushScheduled;
+
+  /** Set while flushing, to ignore the events caused by our own writes. */
+  private boolean flushing;
+
+  private final HandlerRegistration storageEventRegistration;
+
+  private final EventListener nativeListener =
+      event -> onStorageChange(Js.<StorageEvent>uncheckedCast(event));
+
+  /**
+   * Creates the Map with the specified Storage as data provider, reading all of its items.
+   *
+   * @param storage a local/session Storage instance obtained by either {@link
+   *     Storage#getLocalStorageIfSupported()} or {@link Storage#getSessionStorageIfSupported()}.
+   */
+  public CachedStorage(Storage storage) {
+    assert storage != null : "storage cannot be null";
+    this.storage = storage;
+    reload();
+    storageEventRegistration = Storage.addStorageEventHandler(this::onStorageChange);
+    window.addEventListener("storage", nativeListener, false);
+  }
+
+  /** Removes all items, from the mirror immediately and from the Storage on the next flush. */
+  @Override
+  public void clear() {
+    mirror.clear();
+    dirty.clear();
+    clearPending = true;
+    scheduleFlush();
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    if (key == null) {
+      throw new NullPointerException();
+    }
+    return mirror.containsKey(key);
+  }
+
+  @Override
+  public boolean containsValue(Object value) {
+    if (value == null) {
+      throw new NullPointerException();
+    }
+    return mirror.containsValue(value);
+  }
+
+  /**
+   * Stops keeping the mirror coherent with external changes, after writing any pending change to
+   * the Storage. The map remains usable, but may return stale values.
+   */
+  public void detach() {
+    flush();
+    storageEventRegistration.removeHandler();
+    window.removeEventListener("storage", nativeListener, false);
+  }
+
+  /** Returns a Set containing all entries of the mirror. */
+  @Override
+  public Set<Map.Entry<String, String>> entrySet() {
+    return new CachedEntrySet();
+  }
+
+  /** Writes all pending changes to the Storage now, instead of at the end of the event loop. */
+  public void flush() {
+    if (!clearPending && dirty.isEmpty()) {
+      return;
+    }
+    flushing = true;
+    try {
+      if (clearPending) {
+        clearPending = false;
+        storage.clear();
+      }
+      for (Map.Entry<String, String> change : dirty.entrySet()) {
+        if (change.getValue() == null) {
+          storage.removeItem(change.getKey());
+        } else {
+          storage.setItem(change.getKey(), change.getValue());
+        }
+      }
+      dirty.clear();
+    } finally {
+      flushing = false;
+    }
+  }
+
+  /** Returns the value associated with the specified key, from the mirror. */
+  @Override
+  public String get(Object key) {
+    if (key == null) {
+      throw new NullPointerException();
+    }
+    return mirror.get(key);
+  }
+
+  /**
+   * Adds (or overwrites) a key/value pair, in the mirror immediately and in the Storage on the
+   * next flush.
+   *
+   * @param key the key identifying the value (not <code>null</code>)
+   * @param value the value associated with the key (not <code>null</code>)
+   */
+  @Override
+  public String put(String key, String value) {
+    if (key == null || value == null) {
+      throw new NullPointerException();
+    }
+    String old = mirror.put(key, value);
+    if (!value.equals(old)) {
+      markDirty(key, value);
+    }
+    return old;
+  }
+
+  /**
+   * Removes a key/value pair, from the mirror immediately and from the Storage on the next flush.
+   *
+   * @param key the key identifying the item to remove
+   * @return the value associated with the key - <code>null</code> if the key was not present
+   */
+  @Override
+  public String remove(Object key) {
+    if (key == null) {
+      throw new NullPointerException();
+    }
+    String k = key.toString();
+    String old = mirror.remove(k);
+    if (old != null) {
+      markDirty(k, null);
+    }
+    return old;
+  }
+
+  @Override
+  public int size() {
+    return mirror.size();
+  }
+
+  private void markDirty(String key, String value) {
+    dirty.put(key, value);
+    scheduleFlush();
+  }
+
+  private void scheduleFlush() {
+    if (!flushScheduled) {
+      flushScheduled = true;
+      Scheduler.get()
+          .scheduleFinally(
+              () -> {
+                flushScheduled = false;
+                flush();
+              });
+    }
+  }
+
+  private void onStorageChange(StorageEvent event) {
+    if (flushing || event.getStorageArea() != storage) {
+      return;
+    }
+    String key = event.getKey();
+    if (key == null) {
+      // The Storage was cleared: start over, keeping our unflushed changes on top.
+      reload();
+    } else if (!clearPending && !dirty.containsKey(key)) {
+      String newValue = event.getNewValue();
+      if (newValue == null) {
+        mirror.remove(key);
+      } else {
+        mirror.put(key, newValue);
+      }
+    }
+  }
+
+  /** Fills the mirror from the Storage, then applies the unflushed changes to it. */
+  private void reload() {
+    mirror.clear();
+    if (!clearPending) {
+      for (int i = 0, length = storage.getLength(); i < length; i++) {
+        String key = storage.key(i);
+        if (key != null) {
+          mirror.put(key, storage.getItem(key));
+        }
+      }
+    }
+    for (Map.Entry<String, String> change : dirty.entrySet()) {
+      if (change.getValue() == null) {
+        mirror.remove(change.getKey());
+      } else {
+        mirror.put(change.getKey(), change.getValue());
+      }
+    }
+  }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2011 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gwtproject.storage.client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.gwtproject.storage.shared.LZCompressor;
+
+/**
+ * A size-bounded cache of String values kept in a local/session {@link Storage}.
+ *
+ * <p><span style="color:red">Experimental API: This API is still under development and is subject
+ * to change. </span>
+ *
+ * <p>Values are compressed with {@link LZCompressor} when that makes them smaller, and the space
+ * each entry takes in the Storage is tracked. Once adding an entry would exceed the configured
+ * byte budget, or the browser reports that the origin's quota is exceeded, the least recently used
+ * entries are evicted to make room, instead of failing. This makes it suitable for data that can be
+ * fetched again, such as cached reference data.
+ *
+ * <p>Entries are stored under keys starting with the namespace given to the constructor, so several
+ * caches, and other data, can share a Storage. Each entry records when it was stored, so a new cache
+ * rebuilds the order of use from the entries themselves, and adding or removing an entry writes
+ * only that entry. Reads update the order of use in memory only, so they never write to the
+ * Storage; after a reload, the entries are ordered by when they were last stored.
+ */
+public class StorageCache {
+
+  /** Marks a stored value that is compressed. */
+  private static final char COMPRESSED = 'Z';
+
+  /** Marks a stored value that is kept as is, because compression did not make it smaller. */
+  private static final char RAW = 'R';
+
+  private final Storage storage;
+
+  private final String prefix;
+
+  private final int maxBytes;
+
+  /** Keys, least recently used first, to the number of bytes their entries take. */
+  private final LinkedHashMap<String, Integer> sizes = new LinkedHashMap<>(16, 0.75f, true);
+
+  private int usedBytes;
+
+  private int evictionCount;
+
+  /** The sequence number recorded with the next stored entry. */
+  private long nextSequence;
+
+  /**
+   * Creates a cache, picking up the entries stored by a previous cache with the same namespace.
+   *
+   * @param storage a local/session Storage instance obtained by either {@link
+   *     Storage#getLocalStorageIfSupported()} or {@link Storage#getSessionStorageIfSupported()}.
+   * @param namespace a non-empty prefix for the Storage keys used by this cache, without ':'
+   *     so that it cannot be the start of another namespace
+   * @param maxBytes the number of bytes the entries may take in the Storage, counting two bytes per
+   *     character of their keys and stored values, including a short header
+   */
+  public StorageCache(Storage storage, String namespace, int maxBytes) {
+    assert storage != null : "storage cannot be null";
+    if (namespace == null || namespace.isEmpty()) {
+      throw new IllegalArgumentException("namespace cannot be empty");
+    }
+    if (namespace.indexOf(':') >= 0) {
+      throw new IllegalArgumentException("namespace cannot contain ':'");
+    }
+    if (maxBytes <= 0) {
+      throw new IllegalArgumentException("maxBytes must be positive");
+    }
+    this.storage = storage;
+    this.prefix = namespace + ":";
+    this.maxBytes = maxBytes;
+    loadEntries();
+  }
+
+  /** Removes all entries of this cache from the Storage. Other items are left untouched. */
+  public void clear() {
+    for (String key : sizes.keySet()) {
+      storage.removeItem(prefix + key);
+    }
+    sizes.clear();
+    usedBytes = 0;
+  }
+
+  /** Returns <code>true</code> if the cache holds an entry for the specified key. */
+  public boolean containsKey(String key) {
+    return sizes.containsKey(key);
+  }
+
+  /**
+   * Returns the value associated with the specified key, and marks it as the most recently used.
+   *
+   * @param key the key identifying the value
+   * @return the value, or <code>null</code> if it is not in the cache
+   */
+  public String get(String key) {
+    if (sizes.get(key) == null) {
+      return null;
+    }
+    String stored = storage.getItem(prefix + key);
+    if (stored == null) {
+      // Removed behind our back.
+      forget(key);
+      return null;
+    }
+    try {
+      String payload = stored.substring(stored.indexOf(',') + 1);
+      return stored.charAt(0) == COMPRESSED ? LZCompressor.decompress(payload) : payload;
+    } catch (RuntimeException e) {
+      remove(key);
+      return null;
+    }
+  }
+
+  /** Returns the number of entries evicted to make room since this cache was created. */
+  public int getEvictionCount() {
+    return evictionCount;
+  }
+
+  /** Returns the byte budget given to the constructor. */
+  public int getMaxBytes() {
+    return maxBytes;
+  }
+
+  /** Returns the number of bytes the entries of this cache currently take. */
+  public int getUsedBytes() {
+    return usedBytes;
+  }
+
+  /**
+   * Adds (or overwrites) an entry, evicting the least recently used entries as needed to make room
+   * for it.
+   *
+   * @param key the key identifying the value (not <code>null</code>)
+   * @param value the value associated with the key (not <code>null</code>)
+   * @return <code>false</code> if the entry could not be stored even after evicting every other
+   *     entry, in which case any previous value for the key has been removed
+   */
+  public boolean put(String key, String value) {
+    if (key == null || value == null) {
+      throw new NullPointerException();
+    }
+    String compressed = LZCompressor.compress(value);
+    String stored =
+        compressed.length() < value.length()
+            ? COMPRESSED + nextSequence + "," + compressed
+            : RAW + nextSequence + "," + value;
+    nextSequence++;
+    String storageKey = prefix + key;
+    int size = 2 * (storageKey.length() + stored.length());
+
+    forget(key);
+    if (size > maxBytes) {
+      storage.removeItem(storageKey);
+      return false;
+    }
+    while (usedBytes + size > maxBytes) {
+      evictEldest();
+    }
+    while (true) {
+      try {
+        storage.setItem(storageKey, stored);
+        break;
+      } catch (RuntimeException e) {
+        // Most likely over the origin's quota, because of data we do not account for.
+        if (sizes.isEmpty()) {
+          storage.removeItem(storageKey);
+          return false;
+        }
+        evictEldest();
+      }
+    }
+    sizes.put(key, size);
+    usedBytes += size;
+    return true;
+  }
+
+  /**
+   * Removes the entry for the specified key.
+   *
+   * @param key the key identifying the entry to remove
+   */
+  public void remove(String key) {
+    if (forget(key)) {
+      storage.removeItem(prefix + key);
+    }
+  }
+
+  /** Returns the number of entries in this cache. */
+  public int size() {
+    return sizes.size();
+  }
+
+  private void evictEldest() {
+    Iterator<Map.Entry<String, Integer>> eldest = sizes.entrySet().iterator();
+    Map.Entry<String, Integer> entry = eldest.next();
+    storage.removeItem(prefix + entry.getKey());
+    usedBytes -= entry.getValue();
+    eldest.remove();
+    evictionCount++;
+  }
+
+  /** Drops the bookkeeping for a key, returning whether there was any. */
+  private boolean forget(String key) {
+    Integer size = sizes.remove(key);
+    if (size == null) {
+      return false;
+    }
+    usedBytes -= size;
+    return true;
+  }
+
+  /*
+   * An entry is stored as a marker, the sequence number of the put that
+   * stored it and a comma, followed by the value. The entries are ordered by
+   * sequence number, and entries that cannot be read are removed.
+   */
+  private void loadEntries() {
+    List<String> keys = new ArrayList<>();
+    for (int i = 0, length = storage.getLength(); i < length; i++) {
+      String storageKey = storage.key(i);
+      if (storageKey != null && storageKey.startsWith(prefix)) {
+        keys.add(storageKey);
+      }
+    }
+
+    final Map<String, Long> sequences = new LinkedHashMap<>();
+    for (String storageKey : keys) {
+      String stored = storage.getItem(storageKey);
+      try {
+        char marker = stored.charAt(0);
+        if (marker != COMPRESSED && marker != RAW) {
+          throw new IllegalArgumentException();
+        }
+        long sequence = Long.parseLong(stored.substring(1, stored.indexOf(',')));
+        sequences.put(storageKey, sequence);
+        nextSequence = Math.max(nextSequence, sequence + 1);
+      } catch (RuntimeException e) {
+        storage.removeItem(storageKey);
+        continue;
+      }
+      int size = 2 * (storageKey.length() + stored.length());
+      sizes.put(storageKey.substring(prefix.length()), size);
+      usedBytes += size;
+    }
+
+    // Access the entries in the order they were stored, so the eldest one comes first.
+    keys = new ArrayList<>(sequences.keySet());
+    Collections.sort(
+        keys,
+        new Comparator<String>() {
+          @Override
+          public int compare(String a, String b) {
+            return Long.compare(sequences.get(a), sequences.get(b));
+          }
+        });
+    for (String storageKey : keys) {
+      sizes.get(storageKey.substring(prefix.length()));
+    }
+  }
+}
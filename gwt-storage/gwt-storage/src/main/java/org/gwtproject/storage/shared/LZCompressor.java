@@ -0,0 +1,180 @@
+/*
+ * Copyright © 2019 The GWT Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gwtproject.storage.shared;
+
+/**
+ * A fast LZ77-style codec for Strings, whose output is itself a String that Web Storage can hold.
+ *
+ * <p>The compressed form is a sequence of tokens. A token is either a run of literal characters,
+ * introduced by a header character below {@code U+4000} holding the run length, or a back
+ * reference, made of a header character in {@code U+4000..U+BFFF} holding the match length and a
+ * character holding the distance back into the output. Header and distance characters are never
+ * surrogates, and literal runs and matches never split a surrogate pair, so the output is valid
+ * UTF-16 whenever the input is.
+ *
+ * <p>Matches are found with a hash chain over three-character prefixes, so compression is linear
+ * in the input length for all practical purposes. Decompression is a single copy loop.
+ */
+public final class LZCompressor {
+
+  private static final int MIN_MATCH = 3;
+
+  private static final int MATCH_BASE = 0x4000;
+
+  private static final int MAX_MATCH = MIN_MATCH + 0x7FFF;
+
+  private static final int MAX_LITERAL_RUN = MATCH_BASE - 1;
+
+  private static final int MAX_DISTANCE = 0xD7FF;
+
+  private static final int HASH_BITS = 14;
+
+  /** How many earlier occurrences of a prefix are tried before settling on the best match. */
+  private static final int MAX_CHAIN = 16;
+
+  /**
+   * Compresses {@code input}.
+   *
+   * @param input the text to compress
+   * @return the compressed text, which {@link #decompress(String)} turns back into {@code input}
+   */
+  public static String compress(String input) {
+    int length = input.length();
+    StringBuilder out = new StringBuilder(length / 2 + 4);
+    int[] head = new int[1 << HASH_BITS];
+    for (int i = 0; i < head.length; i++) {
+      head[i] = -1;
+    }
+    int[] previous = new int[length];
+
+    int literalStart = 0;
+    int i = 0;
+    while (i + MIN_MATCH <= length) {
+      int bestLength = 0;
+      int bestDistance = 0;
+      if (!Character.isLowSurrogate(input.charAt(i))) {
+        int candidate = head[hash(input, i)];
+        for (int chain = MAX_CHAIN;
+            candidate >= 0 && i - candidate <= MAX_DISTANCE && chain > 0;
+            chain--) {
+          int matchLength = matchLength(input, candidate, i);
+          if (matchLength > bestLength) {
+            bestLength = matchLength;
+            bestDistance = i - candidate;
+            if (matchLength == MAX_MATCH) {
+              break;
+            }
+          }
+          candidate = previous[candidate];
+        }
+        if (bestLength > 0 && Character.isHighSurrogate(input.charAt(i + bestLength - 1))) {
+          bestLength--;
+        }
+      }
+
+      if (bestLength >= MIN_MATCH) {
+        appendLiterals(input, literalStart, i, out);
+        out.append((char) (MATCH_BASE + bestLength - MIN_MATCH));
+        out.append((char) bestDistance);
+        int end = i + bestLength;
+        for (; i < end; i++) {
+          insert(input, i, head, previous);
+        }
+        literalStart = end;
+      } else {
+        insert(input, i, head, previous);
+        i++;
+      }
+    }
+    appendLiterals(input, literalStart, length, out);
+    return out.toString();
+  }
+
+  /**
+   * Decompresses text produced by {@link #compress(String)}.
+   *
+   * @param compressed the compressed text
+   * @return the original text
+   * @throws IllegalArgumentException if {@code compressed} is not valid compressed text
+   */
+  public static String decompress(String compressed) {
+    int length = compressed.length();
+    StringBuilder out = new StringBuilder(length * 2);
+    int i = 0;
+    while (i < length) {
+      char header = compressed.charAt(i++);
+      if (header < MATCH_BASE) {
+        if (header == 0 || i + header > length) {
+          throw corrupt(i - 1);
+        }
+        out.append(compressed, i, i + header);
+        i += header;
+      } else if (header < MATCH_BASE + (MAX_MATCH - MIN_MATCH) + 1 && i < length) {
+        int distance = compressed.charAt(i++);
+        int from = out.length() - distance;
+        if (distance == 0 || from < 0) {
+          throw corrupt(i - 1);
+        }
+        for (int end = from + header - MATCH_BASE + MIN_MATCH; from < end; from++) {
+          out.append(out.charAt(from));
+        }
+      } else {
+        throw corrupt(i - 1);
+      }
+    }
+    return out.toString();
+  }
+
+  private static void appendLiterals(String input, int start, int end, StringBuilder out) {
+    while (start < end) {
+      int runEnd = Math.min(end, start + MAX_LITERAL_RUN);
+      if (runEnd < end && Character.isHighSurrogate(input.charAt(runEnd - 1))) {
+        runEnd--;
+      }
+      out.append((char) (runEnd - start));
+      out.append(input, start, runEnd);
+      start = runEnd;
+    }
+  }
+
+  private static void insert(String input, int i, int[] head, int[] previous) {
+    if (i + MIN_MATCH <= input.length()) {
+      int hash = hash(input, i);
+      previous[i] = head[hash];
+      head[hash] = i;
+    }
+  }
+
+  private static int hash(String input, int i) {
+    int h = (input.charAt(i) << 10) ^ (input.charAt(i + 1) << 5) ^ input.charAt(i + 2);
+    return (h ^ (h >>> HASH_BITS) ^ (h >>> (2 * HASH_BITS))) & ((1 << HASH_BITS) - 1);
+  }
+
+  private static int matchLength(String input, int candidate, int i) {
+    int max = Math.min(MAX_MATCH, input.length() - i);
+    int matched = 0;
+    while (matched < max && input.charAt(candidate + matched) == input.charAt(i + matched)) {
+      matched++;
+    }
+    return matched;
+  }
+
+  private static IllegalArgumentException corrupt(int index) {
+    return new IllegalArgumentException("Corrupt compressed text at index " + index);
+  }
+
+  private LZCompressor() {}
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright © 2019 The GWT Project Authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.gwtproject.storage.shared;
+
+import java.util.Random;
+import junit.framework.TestCase;
+
+/** Unit tests for {@link LZCompressor}. */
+public class LZCompressorTest extends TestCase {
+
+  public void testEmptyAndShort() {
+    assertRoundTrip("");
+    assertRoundTrip("a");
+    assertRoundTrip("ab");
+    assertRoundTrip("abc");
+  }
+
+  public void testRepetitiveTextShrinks() {
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 500; i++) {
+      sb.append("{\"id\":").append(i).append(",\"name\":\"item\",\"enabled\":true},");
+    }
+    String compressed = assertRoundTrip(sb.toString());
+    assertTrue(compressed.length() * 4 < sb.length());
+  }
+
+  public void testOverlappingMatch() {
+    StringBuilder sb = new StringBuilder("x");
+    for (int i = 0; i < 100000; i++) {
+      sb.append('a');
+    }
+    // Longer than a single match token can hold.
+    String compressed = assertRoundTrip(sb.toString());
+    assertTrue(compressed.length() < 20);
+  }
+
+  public void testLongLiteralRunsAndFarMatches() {
+    Random random = new Random(42);
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 70000; i++) {
+      sb.append((char) ('a' + random.nextInt(26)));
+    }
+    // Repeats beyond the maximum distance must not be referenced.
+    sb.append(sb, 0, 100);
+    assertRoundTrip(sb.toString());
+  }
+
+  public void testSurrogatePairsAreNeverSplit() {
+    Random random = new Random(7);
+    StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 40000; i++) {
+      if (random.nextInt(3) == 0) {
+        sb.appendCodePoint(0x1F600 + random.nextInt(4));
+      } else {
+        sb.append((char) ('a' + random.nextInt(3)));
+      }
+    }
+    String compressed = assertRoundTrip(sb.toString());
+    for (int i = 0; i < compressed.length(); i++) {
+      char c = compressed.charAt(i);
+      if (Character.isHighSurrogate(c)) {
+        assertTrue(Character.isLowSurrogate(compressed.charAt(++i)));
+      } else {
+        assertFalse(Character.isLowSurrogate(c));
+      }
+    }
+  }
+
+  public void testCorruptInput() {
+    assertCorrupt("\u0005ab");
+    assertCorrupt("\u4000\u0001");
+    assertCorrupt("\u0001a\u4000");
+    assertCorrupt("\uc000");
+  }
+
+  private static String assertRoundTrip(String input) {
+    String compressed = LZCompressor.compress(input);
+    assertEquals(input, LZCompressor.decompress(compressed));
+    return compressed;
+  }
+
+  private static void assertCorrupt(String compressed) {
+    try {
+      LZCompressor.decompress(compressed);
+      fail("Expected IllegalArgumentException for " + compressed);
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+}
@@ -18,15 +18,19 @@ package org.gwtproject.user.cellview.client;
 import com.google.gwt.junit.client.GWTTestCase;
 import com.google.j2cl.junit.apt.J2clTestInput;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.List;
 import org.gwtproject.cell.client.TextCell;
 import org.gwtproject.user.cellview.client.ColumnSortEvent.AsyncHandler;
 import org.gwtproject.user.cellview.client.ColumnSortEvent.ListHandler;
+import org.gwtproject.user.cellview.client.ColumnSortEvent.SortedFilteredListHandler;
 import org.gwtproject.user.cellview.client.ColumnSortList.ColumnSortInfo;
+import org.gwtproject.view.client.ListDataProvider;
 import org.gwtproject.view.client.MockHasData;
 import org.gwtproject.view.client.Range;
 import org.gwtproject.view.client.RangeChangeEvent;
+import org.gwtproject.view.client.SortedFilteredListDataProvider;
 
 /** Tests for {@link ColumnSortEvent}. */
 @J2clTestInput(ColumnSortEventTest.class)
@@ -135,6 +139,56 @@ public class ColumnSortEventTest extends GWTTestCase {
     assertEquals("a", values.get(2));
   }
 
+  public void testSortedFilteredListHandler() {
+    ListDataProvider<String> source = new ListDataProvider<String>();
+    source.getList().add("bb");
+    source.getList().add("a");
+    source.getList().add("ab");
+    source.getList().add("c");
+    source.flush();
+    SortedFilteredListDataProvider<String> provider =
+        new SortedFilteredListDataProvider<String>(source);
+
+    // Create a handler that sorts by length, then alphabetically.
+    SortedFilteredListHandler<String> handler = new SortedFilteredListHandler<String>(provider);
+    assertEquals(provider, handler.getProvider());
+    IdentityColumn<String> col0 = new IdentityColumn<String>(new TextCell());
+    Comparator<String> col0Comparator =
+        new Comparator<String>() {
+          @Override
+          public int compare(String o1, String o2) {
+            return o1.length() - o2.length();
+          }
+        };
+    handler.setComparator(col0, col0Comparator);
+    IdentityColumn<String> col1 = new IdentityColumn<String>(new TextCell());
+    Comparator<String> col1Comparator =
+        new Comparator<String>() {
+          @Override
+          public int compare(String o1, String o2) {
+            return o1.compareTo(o2);
+          }
+        };
+    handler.setComparator(col1, col1Comparator);
+    assertEquals(col0Comparator, handler.getComparator(col0));
+    assertEquals(col1Comparator, handler.getComparator(col1));
+
+    // Sort ascending on both columns.
+    ColumnSortList sortList = new ColumnSortList();
+    sortList.push(col1);
+    sortList.push(col0);
+    handler.onColumnSort(new ColumnSortEvent(sortList));
+    assertEquals(Arrays.asList("a", "c", "ab", "bb"), provider.getList());
+
+    // Sort descending on the first column.
+    sortList.push(col0); // Switches sort to descending.
+    handler.onColumnSort(new ColumnSortEvent(sortList));
+    assertEquals(Arrays.asList("ab", "bb", "a", "c"), provider.getList());
+
+    // The source list is not modified.
+    assertEquals(Arrays.asList("bb", "a", "ab", "c"), source.getList());
+  }
+
   @Override
   public String getModuleName() {
     return "";
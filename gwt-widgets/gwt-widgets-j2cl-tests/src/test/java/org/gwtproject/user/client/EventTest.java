@@ -18,11 +18,13 @@ package org.gwtproject.user.client;
 import com.google.gwt.junit.client.GWTTestCase;
 import com.google.j2cl.junit.apt.J2clTestInput;
 import org.gwtproject.dom.client.Document;
+import org.gwtproject.dom.client.Element;
 import org.gwtproject.dom.client.NativeEvent;
 import org.gwtproject.event.dom.client.*;
 import org.gwtproject.event.shared.HandlerRegistration;
 import org.gwtproject.user.client.Event.NativePreviewEvent;
 import org.gwtproject.user.client.Event.NativePreviewHandler;
+import org.gwtproject.user.client.impl.DOMImplStandard;
 import org.gwtproject.user.client.ui.Label;
 import org.gwtproject.user.client.ui.RootPanel;
 
@@ -362,4 +364,47 @@ public class EventTest extends GWTTestCase {
     handler1.assertIsFired(true);
     reg1.removeHandler();
   }
+
+  /** Test that sinking events replaces the events an element receives. */
+  public void testSinkEvents() {
+    Element elem = Document.get().createDivElement();
+    Document.get().getBody().appendChild(elem);
+    final EventInfo clickInfo = new EventInfo();
+    final EventInfo focusInfo = new EventInfo();
+    DOM.setEventListener(
+        elem,
+        event -> {
+          if (Event.getTypeInt(event.getType()) == Event.ONCLICK) {
+            clickInfo.fireCount++;
+          } else if (Event.getTypeInt(event.getType()) == Event.ONFOCUS) {
+            focusInfo.fireCount++;
+          }
+        });
+
+    DOM.sinkEvents(elem, Event.ONCLICK | Event.ONFOCUS);
+    assertEquals(Event.ONCLICK | Event.ONFOCUS, DOM.getEventsSunk(elem));
+    elem.dispatchEvent(Document.get().createClickEvent(0, 0, 0, 0, 0, false, false, false, false));
+    elem.dispatchEvent(Document.get().createFocusEvent());
+    assertEquals(1, clickInfo.fireCount);
+    assertEquals(1, focusInfo.fireCount);
+
+    // Stop sinking click events.
+    DOM.sinkEvents(elem, Event.ONFOCUS);
+    assertEquals(Event.ONFOCUS, DOM.getEventsSunk(elem));
+    elem.dispatchEvent(Document.get().createClickEvent(0, 0, 0, 0, 0, false, false, false, false));
+    elem.dispatchEvent(Document.get().createFocusEvent());
+    assertEquals(1, clickInfo.fireCount);
+    assertEquals(2, focusInfo.fireCount);
+
+    // Event delegation cannot be changed once events have been sunk.
+    try {
+      DOMImplStandard.setEventDelegationEnabled(!DOMImplStandard.isEventDelegationEnabled());
+      fail("Expected IllegalStateException");
+    } catch (IllegalStateException expected) {
+      // Expected.
+    }
+
+    DOM.setEventListener(elem, null);
+    elem.removeFromParent();
+  }
 }
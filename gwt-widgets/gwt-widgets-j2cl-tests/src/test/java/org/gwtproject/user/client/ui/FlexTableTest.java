@@ -16,6 +16,7 @@
 package org.gwtproject.user.client.ui;
 
 import com.google.j2cl.junit.apt.J2clTestInput;
+import java.util.Arrays;
 import org.gwtproject.user.client.ui.FlexTable.FlexCellFormatter;
 
 /** TODO: document me. */
@@ -148,4 +149,17 @@ public class FlexTableTest extends HTMLTableTestBase {
     cellFormatter.setHeight(3, 1, "300px");
     cellFormatter.setColSpan(3, 1, 2);
   }
+
+  /** Rows after the end of the table are created by {@link FlexTable#setRows(int, List)}. */
+  public void testSetRowsAppends() {
+    FlexTable t = new FlexTable();
+    t.setText(0, 0, "first");
+    t.setRows(2, Arrays.asList(row("a", "b"), row("c")));
+    assertEquals(4, t.getRowCount());
+    assertEquals("first", t.getText(0, 0));
+    assertEquals(0, t.getCellCount(1));
+    assertEquals(2, t.getCellCount(2));
+    assertEquals("b", t.getText(2, 1));
+    assertEquals(1, t.getCellCount(3));
+  }
 }
@@ -16,6 +16,8 @@
 package org.gwtproject.user.client.ui;
 
 import com.google.j2cl.junit.apt.J2clTestInput;
+import java.util.Arrays;
+import java.util.Collections;
 import org.gwtproject.dom.client.Element;
 import org.gwtproject.user.client.DOM;
 import org.gwtproject.user.client.ui.HTMLTable.ColumnFormatter;
@@ -175,4 +177,27 @@ public class GridTest extends HTMLTableTestBase {
     assertEquals(1, grid.getColumnCount());
     assertEquals(1, colGroup.getChildCount());
   }
+
+  /** Rows rendered into a grid must fit its bounds. */
+  public void testSetRowsBounds() {
+    Grid t = new Grid(2, 2);
+    try {
+      t.setRows(1, Arrays.asList(row("a"), row("b")));
+      fail("Expected IndexOutOfBoundsException");
+    } catch (IndexOutOfBoundsException expected) {
+      // Expected.
+    }
+    try {
+      t.setRows(0, Collections.singletonList(row("a", "b", "c")));
+      fail("Expected IndexOutOfBoundsException");
+    } catch (IndexOutOfBoundsException expected) {
+      // Expected.
+    }
+    assertEquals(2, t.getDOMRowCount());
+
+    // Missing cells are added.
+    t.setRows(0, Collections.singletonList(row("a")));
+    assertEquals("a", t.getText(0, 0));
+    assertEquals(2, t.getDOMCellCount(0));
+  }
 }
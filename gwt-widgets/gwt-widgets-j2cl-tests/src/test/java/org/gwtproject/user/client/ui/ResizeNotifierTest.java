@@ -0,0 +1,205 @@
+/*
+ * Copyright 2011 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gwtproject.user.client.ui;
+
+import com.google.gwt.junit.client.GWTTestCase;
+import com.google.j2cl.junit.apt.J2clTestInput;
+import org.gwtproject.dom.client.Document;
+import org.gwtproject.dom.client.Element;
+import org.gwtproject.dom.style.shared.Unit;
+import org.gwtproject.layout.client.Layout;
+import org.gwtproject.layout.client.LayoutScheduler.LayoutTask;
+import org.gwtproject.timer.client.Timer;
+
+/** Tests for {@link ResizeNotifier}. */
+@J2clTestInput(ResizeNotifierTest.class)
+public class ResizeNotifierTest extends GWTTestCase {
+
+  /** A {@link LayoutTask} that counts its executions. */
+  private static class CountingTask implements LayoutTask {
+
+    private int executions;
+    private final Layout layout;
+
+    CountingTask(Element elem) {
+      layout = new Layout(elem);
+    }
+
+    public void assertExecutions(int expected) {
+      assertEquals(expected, executions);
+      executions = 0;
+    }
+
+    @Override
+    public void executeLayout() {
+      executions++;
+    }
+
+    @Override
+    public Layout getLayout() {
+      return layout;
+    }
+  }
+
+  /** The delay after which the observer has reported the size changes of a frame. */
+  private static final int DELAY = 250;
+
+  private Element elem;
+
+  @Override
+  public String getModuleName() {
+    return "org.gwtproject.user.Widgets";
+  }
+
+  /** Test that the task is executed once for the initial size of the element. */
+  public void testInitialSize() {
+    if (!ResizeNotifier.isSupported()) {
+      return;
+    }
+
+    final CountingTask task = new CountingTask(elem);
+    ResizeNotifier.get().observe(elem, task);
+    delayTestFinish(10000);
+    new Timer() {
+      @Override
+      public void run() {
+        task.assertExecutions(1);
+        finishTest();
+      }
+    }.schedule(DELAY);
+  }
+
+  /** Test that changing the size of the element executes the task exactly once. */
+  public void testResize() {
+    if (!ResizeNotifier.isSupported()) {
+      return;
+    }
+
+    final CountingTask task = new CountingTask(elem);
+    ResizeNotifier.get().observe(elem, task);
+    delayTestFinish(10000);
+    new Timer() {
+      @Override
+      public void run() {
+        task.assertExecutions(1); // Triggered by the initial size.
+
+        // Change the width and the height in the same frame.
+        elem.getStyle().setWidth(101, Unit.PX);
+        elem.getStyle().setHeight(101, Unit.PX);
+        new Timer() {
+          @Override
+          public void run() {
+            task.assertExecutions(1);
+            finishTest();
+          }
+        }.schedule(DELAY);
+      }
+    }.schedule(DELAY);
+  }
+
+  /** Test that the task is not executed for a size it was notified of with setSize(). */
+  public void testSetSize() {
+    if (!ResizeNotifier.isSupported()) {
+      return;
+    }
+
+    final CountingTask task = new CountingTask(elem);
+    ResizeNotifier.get().observe(elem, task);
+    ResizeNotifier.get().setSize(elem, elem.getOffsetWidth(), elem.getOffsetHeight());
+    delayTestFinish(10000);
+    new Timer() {
+      @Override
+      public void run() {
+        task.assertExecutions(0);
+
+        // A different size is still reported.
+        elem.getStyle().setWidth(99, Unit.PX);
+        new Timer() {
+          @Override
+          public void run() {
+            task.assertExecutions(1);
+            finishTest();
+          }
+        }.schedule(DELAY);
+      }
+    }.schedule(DELAY);
+  }
+
+  /**
+   * Test that the task is not executed if the observer reports a change that does not affect the
+   * offset size of the element.
+   */
+  public void testUnchangedOffsetSize() {
+    if (!ResizeNotifier.isSupported()) {
+      return;
+    }
+
+    final CountingTask task = new CountingTask(elem);
+    ResizeNotifier.get().observe(elem, task);
+    delayTestFinish(10000);
+    new Timer() {
+      @Override
+      public void run() {
+        task.assertExecutions(1); // Triggered by the initial size.
+
+        // The content box shrinks, but the border box keeps its size.
+        elem.getStyle().setPadding(10, Unit.PX);
+        new Timer() {
+          @Override
+          public void run() {
+            task.assertExecutions(0);
+            finishTest();
+          }
+        }.schedule(DELAY);
+      }
+    }.schedule(DELAY);
+  }
+
+  /** Test that the task is not executed once the element is no longer observed. */
+  public void testUnobserve() {
+    if (!ResizeNotifier.isSupported()) {
+      return;
+    }
+
+    final CountingTask task = new CountingTask(elem);
+    ResizeNotifier.get().observe(elem, task);
+    ResizeNotifier.get().unobserve(elem);
+    elem.getStyle().setWidth(101, Unit.PX);
+    delayTestFinish(10000);
+    new Timer() {
+      @Override
+      public void run() {
+        task.assertExecutions(0);
+        finishTest();
+      }
+    }.schedule(DELAY);
+  }
+
+  @Override
+  protected void gwtSetUp() throws Exception {
+    elem = Document.get().createDivElement();
+    elem.getStyle().setProperty("boxSizing", "border-box");
+    elem.getStyle().setWidth(100, Unit.PX);
+    elem.getStyle().setHeight(100, Unit.PX);
+    Document.get().getBody().appendChild(elem);
+  }
+
+  @Override
+  protected void gwtTearDown() throws Exception {
+    ResizeNotifier.get().unobserve(elem);
+    elem.removeFromParent();
+  }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2008 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gwtproject.user.client.ui;
+
+import com.google.gwt.junit.client.GWTTestCase;
+import com.google.j2cl.junit.apt.J2clTestInput;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+/** Tests for {@link SuggestionIndex}. */
+@J2clTestInput(SuggestionIndexTest.class)
+public class SuggestionIndexTest extends GWTTestCase {
+  @Override
+  public String getModuleName() {
+    return "org.gwtproject.user.Widgets";
+  }
+
+  /** Words that are added after a lookup are merged into the existing words. */
+  public void testAddAfterLookup() {
+    SuggestionIndex index = new SuggestionIndex();
+    add(index, "john smith");
+    assertEquals(set("john smith"), collect(index, "jo"));
+
+    add(index, "joe brown");
+    add(index, "jane smith");
+    assertEquals(4, index.getWordCount());
+    assertEquals(set("john smith", "joe brown"), collect(index, "jo"));
+    assertEquals(set("john smith", "jane smith"), collect(index, "smith"));
+
+    // Re-adding a candidate does not duplicate it.
+    add(index, "john smith");
+    assertEquals(4, index.getWordCount());
+    assertEquals(set("john smith", "jane smith"), collect(index, "sm"));
+  }
+
+  public void testClear() {
+    SuggestionIndex index = new SuggestionIndex();
+    add(index, "john smith");
+    assertEquals(2, index.getWordCount());
+
+    index.clear();
+    assertEquals(0, index.getWordCount());
+    assertEquals(set(), collect(index, "j"));
+    assertTrue(index.getSuggestions("john smith").isEmpty());
+  }
+
+  public void testCollectCandidates() {
+    SuggestionIndex index = new SuggestionIndex();
+    add(index, "john smith");
+    add(index, "joe brown");
+    add(index, "jane doe");
+    add(index, "jane smith");
+    add(index, "bob jones");
+
+    assertEquals(set("john smith", "joe brown", "bob jones"), collect(index, "jo"));
+    assertEquals(set("john smith", "jane smith"), collect(index, "smith"));
+    assertEquals(set("jane doe", "jane smith"), collect(index, "jane"));
+    assertEquals(set(), collect(index, "janet"));
+    assertEquals(set(), collect(index, "z"));
+    assertEquals(set(), collect(index, "a"));
+  }
+
+  public void testGetSuggestions() {
+    SuggestionIndex index = new SuggestionIndex();
+    index.add("mobile", "Mobile", new String[] {"mobile"});
+    assertEquals(Arrays.asList("Mobile"), index.getSuggestions("mobile"));
+
+    // The most recent suggestion comes first.
+    index.add("mobile", "MOBILE", new String[] {"mobile"});
+    index.add("mobile", "MoBILE", new String[] {"mobile"});
+    assertEquals(Arrays.asList("MoBILE", "MOBILE", "Mobile"), index.getSuggestions("mobile"));
+    assertEquals(1, index.getWordCount());
+  }
+
+  private void add(SuggestionIndex index, String candidate) {
+    index.add(candidate, candidate, candidate.split(" "));
+  }
+
+  private Set<String> collect(SuggestionIndex index, String prefix) {
+    Set<String> candidates = new HashSet<String>();
+    index.collectCandidates(prefix, candidates);
+    return candidates;
+  }
+
+  private Set<String> set(String... values) {
+    return new HashSet<String>(Arrays.asList(values));
+  }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2010 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gwtproject.view.client;
+
+import com.google.gwt.junit.client.GWTTestCase;
+import com.google.j2cl.junit.apt.J2clTestInput;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/** Test cases for {@link SortedFilteredListDataProvider}. */
+@J2clTestInput(SortedFilteredListDataProviderTest.class)
+public class SortedFilteredListDataProviderTest extends GWTTestCase {
+
+  private static final Comparator<Integer> ASCENDING =
+      new Comparator<Integer>() {
+        @Override
+        public int compare(Integer o1, Integer o2) {
+          return o1.compareTo(o2);
+        }
+      };
+
+  private static final SortedFilteredListDataProvider.Filter<Integer> EVEN =
+      new SortedFilteredListDataProvider.Filter<Integer>() {
+        @Override
+        public boolean accept(Integer value) {
+          return value % 2 == 0;
+        }
+      };
+
+  @Override
+  public String getModuleName() {
+    return "org.gwtproject.view.View";
+  }
+
+  public void testFilter() {
+    SortedFilteredListDataProvider<Integer> provider = createProvider(5, 2, 8, 1, 4);
+    MockHasData<Integer> display = createDisplay(provider);
+
+    provider.setFilter(EVEN);
+    assertEquals(EVEN, provider.getFilter());
+    assertEquals(Arrays.asList(2, 8, 4), provider.getList());
+    assertEquals(3, display.getRowCount());
+
+    // Values that do not pass the filter are not pushed.
+    display.clearLastRowDataAndRange();
+    provider.getSource().getList().add(7);
+    provider.flush();
+    assertEquals(Arrays.asList(2, 8, 4), provider.getList());
+    assertNull(display.getLastRowDataRange());
+
+    // Remove the filter.
+    provider.setFilter(null);
+    assertEquals(Arrays.asList(5, 2, 8, 1, 4, 7), provider.getList());
+    assertEquals(6, display.getRowCount());
+  }
+
+  public void testInitialOrder() {
+    SortedFilteredListDataProvider<Integer> provider = createProvider(5, 2, 8);
+    MockHasData<Integer> display = createDisplay(provider);
+    assertNull(provider.getComparator());
+    assertNull(provider.getFilter());
+    assertEquals(Arrays.asList(5, 2, 8), provider.getList());
+    assertEquals(Arrays.asList(5, 2, 8), display.getLastRowData());
+    assertEquals(3, display.getRowCount());
+  }
+
+  public void testListNotModifiable() {
+    SortedFilteredListDataProvider<Integer> provider = createProvider(1, 2);
+    try {
+      provider.getList().add(3);
+      fail("Expected UnsupportedOperationException");
+    } catch (UnsupportedOperationException e) {
+      // Expected.
+    }
+  }
+
+  public void testRefresh() {
+    SortedFilteredListDataProvider<Integer> provider = createProvider(3, 1, 2);
+    provider.setComparator(ASCENDING);
+    MockHasData<Integer> display = createDisplay(provider);
+    display.clearLastRowDataAndRange();
+
+    provider.refresh();
+    assertEquals(Arrays.asList(1, 2, 3), display.getLastRowData());
+    assertEquals(new Range(0, 3), display.getLastRowDataRange());
+  }
+
+  public void testSourceAdd() {
+    SortedFilteredListDataProvider<Integer> provider = createProvider(0, 10, 20, 30, 40);
+    provider.setComparator(ASCENDING);
+    MockHasData<Integer> display = createDisplay(provider);
+    display.clearLastRowDataAndRange();
+
+    // The added value is pushed along with the rows that moved down.
+    provider.getSource().getList().add(25);
+    provider.flush();
+    assertEquals(Arrays.asList(0, 10, 20, 25, 30, 40), provider.getList());
+    assertEquals(6, display.getRowCount());
+    assertEquals(new Range(3, 3), display.getLastRowDataRange());
+  }
+
+  public void testSourceRemove() {
+    SortedFilteredListDataProvider<Integer> provider = createProvider(40, 30, 20, 10, 0);
+    provider.setComparator(ASCENDING);
+    MockHasData<Integer> display = createDisplay(provider);
+    display.clearLastRowDataAndRange();
+
+    provider.getSource().getList().remove(Integer.valueOf(20));
+    provider.flush();
+    assertEquals(Arrays.asList(0, 10, 30, 40), provider.getList());
+    assertEquals(4, display.getRowCount());
+    assertEquals(new Range(2, 2), display.getLastRowDataRange());
+  }
+
+  public void testSourceSet() {
+    SortedFilteredListDataProvider<Integer> provider = createProvider(0, 10, 20, 30, 40);
+    provider.setComparator(ASCENDING);
+    MockHasData<Integer> display = createDisplay(provider);
+    display.clearLastRowDataAndRange();
+
+    // Only the rows between the old and new position are pushed.
+    provider.getSource().getList().set(1, 25);
+    provider.flush();
+    assertEquals(Arrays.asList(0, 20, 25, 30, 40), provider.getList());
+    assertEquals(Arrays.asList(20, 25), display.getLastRowData());
+    assertEquals(new Range(1, 2), display.getLastRowDataRange());
+
+    // A value that keeps its position only pushes its own row.
+    provider.getSource().getList().set(0, 5);
+    provider.flush();
+    assertEquals(Arrays.asList(5), display.getLastRowData());
+    assertEquals(new Range(0, 1), display.getLastRowDataRange());
+  }
+
+  public void testSetComparator() {
+    SortedFilteredListDataProvider<Integer> provider = createProvider(5, 2, 8, 2);
+    MockHasData<Integer> display = createDisplay(provider);
+
+    provider.setComparator(ASCENDING);
+    assertEquals(ASCENDING, provider.getComparator());
+    assertEquals(Arrays.asList(2, 2, 5, 8), provider.getList());
+    assertEquals(Arrays.asList(2, 2, 5, 8), display.getLastRowData());
+
+    // Restore the order of the source list.
+    provider.setComparator(null);
+    assertEquals(Arrays.asList(5, 2, 8, 2), provider.getList());
+  }
+
+  private MockHasData<Integer> createDisplay(SortedFilteredListDataProvider<Integer> provider) {
+    MockHasData<Integer> display = new MockHasData<Integer>();
+    display.setVisibleRange(0, 15);
+    provider.addDataDisplay(display);
+    return display;
+  }
+
+  private SortedFilteredListDataProvider<Integer> createProvider(Integer... values) {
+    ListDataProvider<Integer> source = new ListDataProvider<Integer>();
+    List<Integer> list = source.getList();
+    list.addAll(Arrays.asList(values));
+    source.flush();
+    return new SortedFilteredListDataProvider<Integer>(source);
+  }
+}
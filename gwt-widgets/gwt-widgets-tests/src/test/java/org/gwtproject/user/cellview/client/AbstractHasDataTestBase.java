@@ -27,6 +27,7 @@ import org.gwtproject.regexp.shared.RegExp;
 import org.gwtproject.safehtml.shared.SafeHtmlBuilder;
 import org.gwtproject.user.cellview.client.AbstractHasData.RedrawEvent.Handler;
 import org.gwtproject.user.cellview.client.HasKeyboardSelectionPolicy.KeyboardSelectionPolicy;
+import org.gwtproject.user.cellview.client.LoadingStateChangeEvent.LoadingState;
 import org.gwtproject.user.window.client.Window;
 import org.gwtproject.view.client.ListDataProvider;
 import org.gwtproject.view.client.Range;
@@ -148,6 +149,38 @@ public abstract class AbstractHasDataTestBase extends GWTTestCase {
     assertEquals("test 12", items.get(2));
   }
 
+  /**
+   * Test that large pages are rendered in slices.
+   */
+  public void testIncrementalRendering() {
+    final AbstractHasData<String> display = createAbstractHasData(new TextCell());
+    assertEquals(0, display.getIncrementalRenderBudget());
+    display.setIncrementalRenderBudget(1);
+    assertEquals(1, display.getIncrementalRenderBudget());
+
+    // The rows at the top of the page are rendered right away.
+    display.setVisibleRange(0, 1000);
+    display.setRowData(0, createData(0, 1000));
+    display.getPresenter().flush();
+    int childCount = display.getChildContainer().getChildCount();
+    assertTrue(childCount >= 20);
+    if (childCount == 1000) {
+      return;
+    }
+
+    // The event is fired once all rows are rendered.
+    display.addLoadingStateChangeHandler(
+        new LoadingStateChangeEvent.Handler() {
+          @Override
+          public void onLoadingStateChanged(LoadingStateChangeEvent event) {
+            assertEquals(LoadingState.LOADED, event.getLoadingState());
+            assertEquals(1000, display.getChildContainer().getChildCount());
+            finishTest();
+          }
+        });
+    delayTestFinish(10000);
+  }
+
   /**
    * Test that we don't get any errors when keyboard selection is disabled.
    */
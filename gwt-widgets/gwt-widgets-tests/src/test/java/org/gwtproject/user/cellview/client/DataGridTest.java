@@ -90,6 +90,50 @@ public class DataGridTest extends AbstractCellTableTestBase<DataGrid<String>> {
     RootPanel.get().remove(table);
   }
 
+  /**
+   * Test that virtual scrolling keeps rendered rows and sizes the spacers.
+   */
+  public void testVirtualScrolling() {
+    DataGrid<String> table = createAbstractHasData();
+    table.addColumn(
+        new TextColumn<String>() {
+          @Override
+          public String getValue(String object) {
+            return object;
+          }
+        });
+    table.setVirtualRowHeight(20);
+    assertTrue(table.isVirtualScrolling());
+    table.setRowCount(100, true);
+    table.setVisibleRange(0, 10);
+    table.setRowData(0, createData(0, 10));
+    table.getPresenter().flush();
+
+    TableSectionElement tbody = table.getTableBodyElement();
+    TableElement tableElem = tbody.getParentElement().cast();
+    assertEquals(3, tableElem.getTBodies().getLength());
+    assertEquals(tbody, tableElem.getTBodies().getItem(1));
+    assertEquals(10, tbody.getRows().getLength());
+    TableRowElement row5 = table.getChildElement(5);
+
+    // Rows that stay on the page are kept.
+    table.setVisibleRange(3, 10);
+    table.setRowData(10, createData(10, 3));
+    table.getPresenter().flush();
+    assertEquals(10, tbody.getRows().getLength());
+    assertEquals(row5, table.getChildElement(2));
+    assertEquals("test 3", getBodyElement(table, 0, 0).getInnerText());
+    assertEquals("test 12", getBodyElement(table, 9, 0).getInnerText());
+
+    // The spacers take the space of the other rows.
+    assertEquals("60px", getSpacerCell(tableElem, 0).getStyle().getHeight());
+    assertEquals("1740px", getSpacerCell(tableElem, 2).getStyle().getHeight());
+
+    table.setVirtualRowHeight(0);
+    assertFalse(table.isVirtualScrolling());
+    assertEquals(1, tableElem.getTBodies().getLength());
+  }
+
   @Override
   protected DataGrid<String> createAbstractHasData() {
     return new DataGrid<String>();
@@ -97,8 +141,7 @@ public class DataGridTest extends AbstractCellTableTestBase<DataGrid<String>> {
 
   @Override
   protected TableCellElement getBodyElement(DataGrid<String> table, int row, int column) {
-    TableElement tableElem = table.tableData.getElement().cast();
-    TableSectionElement tbody = tableElem.getTBodies().getItem(0);
+    TableSectionElement tbody = table.getTableBodyElement();
     TableRowElement tr = tbody.getRows().getItem(row);
     return tr.getCells().getItem(column);
   }
@@ -121,4 +164,8 @@ public class DataGridTest extends AbstractCellTableTestBase<DataGrid<String>> {
     TableRowElement tr = thead.getRows().getItem(0);
     return tr.getCells().getItem(column);
   }
+
+  private TableCellElement getSpacerCell(TableElement tableElem, int index) {
+    return tableElem.getTBodies().getItem(index).getRows().getItem(0).getCells().getItem(0);
+  }
 }
@@ -40,6 +40,7 @@ import org.gwtproject.view.client.SelectionModel;
 import org.gwtproject.view.client.SingleSelectionModel;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -118,6 +119,9 @@ public class HasDataPresenterTest extends GWTTestCase {
     private List<Boolean> keyboardSelectedRowState = new ArrayList<Boolean>();
     private List<Replacement> lastReplacement = new ArrayList<Replacement>();
     private LoadingState loadingState;
+    private int[] reconciledSources;
+    private Range recycledRange;
+    private boolean supportsRecycling;
 
     @Override
     public <H> HandlerRegistration addHandler(H handler, Event.Type<H> type) {
@@ -163,6 +167,22 @@ public class HasDataPresenterTest extends GWTTestCase {
       assertEquals(size, call.size);
     }
 
+    public void assertRecycleChildrenCalled(int keepStart, int keepEnd, int size) {
+      assertNotNull("recycleChildren was not called", recycledRange);
+      assertEquals(new Range(keepStart, keepEnd - keepStart), recycledRange);
+      assertEquals(size, childCount);
+      recycledRange = null;
+    }
+
+    public void assertReconcileChildrenCalled(int... sources) {
+      assertNotNull("reconcileChildren was not called", reconciledSources);
+      assertEquals(sources.length, reconciledSources.length);
+      for (int i = 0; i < sources.length; i++) {
+        assertEquals(sources[i], reconciledSources[i]);
+      }
+      reconciledSources = null;
+    }
+
     public void assertReplaceChildrenNotCalled() {
       assertTrue(lastReplacement.isEmpty());
     }
@@ -185,6 +205,28 @@ public class HasDataPresenterTest extends GWTTestCase {
       lastReplacement.add(new Replacement(false, start, values.size()));
     }
 
+    @Override
+    public boolean recycleChildren(List<T> values, int keepStart, int keepEnd,
+        SelectionModel<? super T> selectionModel, boolean stealFocus) {
+      if (!supportsRecycling) {
+        return false;
+      }
+      childCount = values.size();
+      recycledRange = new Range(keepStart, keepEnd - keepStart);
+      return true;
+    }
+
+    @Override
+    public boolean reconcileChildren(List<T> values, int[] sources,
+        SelectionModel<? super T> selectionModel, boolean stealFocus) {
+      if (!supportsRecycling) {
+        return false;
+      }
+      childCount = values.size();
+      reconciledSources = sources;
+      return true;
+    }
+
     @Override
     public void resetFocus() {
     }
@@ -195,6 +237,10 @@ public class HasDataPresenterTest extends GWTTestCase {
       keyboardSelectedRowState.add(selected);
     }
 
+    public void setSupportsRecycling(boolean supportsRecycling) {
+      this.supportsRecycling = supportsRecycling;
+    }
+
     @Override
     public void setLoadingState(LoadingState state) {
       this.loadingState = state;
@@ -501,6 +547,64 @@ public class HasDataPresenterTest extends GWTTestCase {
    * Test that we can detect an infinite loop caused by user code updating the
    * presenter every time we try to resolve state.
    */
+  public void testKeyedRendering() {
+    HasData<String> listView = new MockHasData<String>();
+    MockView<String> view = new MockView<String>();
+    view.setSupportsRecycling(true);
+    HasDataPresenter<String> presenter = new HasDataPresenter<String>(listView, view, 10, null);
+    presenter.setKeyboardSelectionPolicy(KeyboardSelectionPolicy.DISABLED);
+    assertFalse(presenter.isKeyedRendering());
+    presenter.setKeyedRendering(true);
+    assertTrue(presenter.isKeyedRendering());
+
+    // Initialize some data.
+    presenter.setVisibleRange(new Range(0, 5));
+    presenter.setRowData(0, createData(0, 5));
+    presenter.flush();
+    view.assertReplaceAllChildrenCalled(5);
+    assertEquals(5, presenter.getRebuiltRowCount());
+    assertEquals(0, presenter.getReusedRowCount());
+
+    // Swap two rows and replace one: only the replaced row is rendered.
+    presenter.setRowData(0, Arrays.asList("test 1", "test 0", "test 2", "test 3", "test 100"));
+    presenter.flush();
+    view.assertReconcileChildrenCalled(1, 0, 2, 3, -1);
+    view.assertReplaceChildrenNotCalled();
+    assertEquals(6, presenter.getRebuiltRowCount());
+    assertEquals(4, presenter.getReusedRowCount());
+
+    // Setting equal values does not render anything.
+    presenter.setRowData(0, Arrays.asList("test 1", "test 0", "test 2", "test 3", "test 100"));
+    presenter.flush();
+    view.assertReplaceChildrenNotCalled();
+    assertEquals(6, presenter.getRebuiltRowCount());
+    assertEquals(9, presenter.getReusedRowCount());
+
+    // Force a row to render again.
+    presenter.redrawRow(2);
+    presenter.flush();
+    view.assertReconcileChildrenCalled(0, 1, -1, 3, 4);
+    assertEquals(7, presenter.getRebuiltRowCount());
+    assertEquals(13, presenter.getReusedRowCount());
+
+    // Move the page: the rows still on the page are reused.
+    presenter.setVisibleRange(new Range(2, 5));
+    presenter.setRowData(5, createData(5, 2));
+    presenter.flush();
+    view.assertReconcileChildrenCalled(2, 3, 4, -1, -1);
+    view.assertReplaceChildrenNotCalled();
+    assertEquals(9, presenter.getRebuiltRowCount());
+    assertEquals(16, presenter.getReusedRowCount());
+
+    // Views that cannot reconcile are redrawn.
+    view.setSupportsRecycling(false);
+    presenter.setRowData(2, createData(200, 1));
+    presenter.flush();
+    view.assertReplaceAllChildrenCalled(5);
+    assertEquals(14, presenter.getRebuiltRowCount());
+    assertEquals(16, presenter.getReusedRowCount());
+  }
+
   public void testLoopDetection() {
     HasData<String> listView = new MockHasData<String>();
     final MockView<String> view = new MockView<String>();
@@ -1503,6 +1607,48 @@ public class HasDataPresenterTest extends GWTTestCase {
     view.assertLoadingState(LoadingState.PARTIALLY_LOADED);
   }
 
+  public void testSetVisibleRangeRecyclesChildren() {
+    HasData<String> listView = new MockHasData<String>();
+    MockView<String> view = new MockView<String>();
+    view.setSupportsRecycling(true);
+    HasDataPresenter<String> presenter = new HasDataPresenter<String>(listView, view, 10, null);
+    presenter.setKeyboardSelectionPolicy(KeyboardSelectionPolicy.DISABLED);
+
+    // Initialize some data.
+    presenter.setVisibleRange(new Range(0, 10));
+    presenter.setRowData(0, createData(0, 10));
+    presenter.flush();
+    view.assertReplaceAllChildrenCalled(10);
+
+    // Move the page forward: rows 3-9 are kept, rows 10-12 are rendered.
+    presenter.setVisibleRange(new Range(3, 10));
+    presenter.setRowData(10, createData(10, 3));
+    presenter.flush();
+    view.assertRecycleChildrenCalled(3, 10, 10);
+    view.assertReplaceChildrenNotCalled();
+    view.assertLoadingState(LoadingState.LOADED);
+
+    // Move the page back: rows 3-10 are kept, rows 1-2 are rendered.
+    presenter.setVisibleRange(new Range(1, 10));
+    presenter.setRowData(1, createData(1, 2));
+    presenter.flush();
+    view.assertRecycleChildrenCalled(3, 11, 10);
+    view.assertReplaceChildrenNotCalled();
+
+    // Replace a kept row while moving the page.
+    presenter.setVisibleRange(new Range(2, 10));
+    presenter.setRowData(5, createData(100, 1));
+    presenter.flush();
+    view.assertRecycleChildrenCalled(2, 11, 9);
+    view.assertReplaceChildrenCalled(3, 1);
+
+    // Moving the page without an overlap redraws everything.
+    presenter.setVisibleRange(new Range(20, 10));
+    presenter.setRowData(20, createData(20, 10));
+    presenter.flush();
+    view.assertReplaceAllChildrenCalled(10);
+  }
+
   public void testSetVisibleRangeInts() {
     HasData<String> listView = new MockHasData<String>();
     MockView<String> view = new MockView<String>();
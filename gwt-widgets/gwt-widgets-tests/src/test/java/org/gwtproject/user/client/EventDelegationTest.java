@@ -0,0 +1,143 @@
+/*
+ * Copyright 2013 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gwtproject.user.client;
+
+import com.google.gwt.junit.client.GWTTestCase;
+import com.google.j2cl.junit.apt.J2clTestInput;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.gwtproject.dom.client.BrowserEvents;
+import org.gwtproject.dom.client.Document;
+import org.gwtproject.dom.client.Element;
+import org.gwtproject.dom.client.NativeEvent;
+import org.gwtproject.user.client.impl.DOMImplStandard;
+
+/**
+ * Tests the dispatch of events by listeners on the document, see {@link
+ * DOMImplStandard#setEventDelegationEnabled(boolean)}.
+ * <p>
+ * The test has its own module so that it will always be the first test executed in the page. By
+ * this way, we can make sure that event delegation is enabled before the event system gets
+ * initialized.
+ */
+@J2clTestInput(EventDelegationTest.class)
+public class EventDelegationTest extends GWTTestCase {
+
+  /** The names of the elements that received an event, in order. */
+  private final List<String> dispatched = new ArrayList<String>();
+
+  private Element inner;
+  private Element outer;
+
+  @Override
+  public String getModuleName() {
+    return "org.gwtproject.user.EventDelegationTest";
+  }
+
+  @Override
+  protected void gwtSetUp() throws Exception {
+    if (!DOMImplStandard.isEventDelegationEnabled()) {
+      DOMImplStandard.setEventDelegationEnabled(true);
+    }
+
+    outer = Document.get().createDivElement();
+    inner = Document.get().createDivElement();
+    outer.appendChild(inner);
+    Document.get().getBody().appendChild(outer);
+    listen(outer, "outer");
+    listen(inner, "inner");
+  }
+
+  @Override
+  protected void gwtTearDown() throws Exception {
+    outer.removeFromParent();
+  }
+
+  /** Test that a bubbling event is dispatched to the innermost element first. */
+  public void testBubbling() {
+    DOM.sinkEvents(outer, Event.ONCLICK);
+    DOM.sinkEvents(inner, Event.ONCLICK);
+    inner.dispatchEvent(createClickEvent());
+    assertEquals(Arrays.asList("inner", "outer"), dispatched);
+
+    // Only the elements between the target and the document receive the event
+    dispatched.clear();
+    outer.dispatchEvent(createClickEvent());
+    assertEquals(Arrays.asList("outer"), dispatched);
+  }
+
+  /** Test that an element that did not sink an event does not receive it. */
+  public void testBubblingSkipsElementsThatDidNotSink() {
+    DOM.sinkEvents(outer, Event.ONCLICK);
+    DOM.sinkEvents(inner, Event.ONMOUSEDOWN);
+    inner.dispatchEvent(createClickEvent());
+    assertEquals(Arrays.asList("outer"), dispatched);
+  }
+
+  /** Test that dispatching stops when a listener cancels bubbling. */
+  public void testCancelBubble() {
+    DOM.sinkEvents(outer, Event.ONCLICK);
+    DOM.sinkEvents(inner, Event.ONCLICK);
+    DOM.setEventListener(
+        inner,
+        event -> {
+          dispatched.add("inner");
+          event.stopPropagation();
+        });
+    inner.dispatchEvent(createClickEvent());
+    assertEquals(Arrays.asList("inner"), dispatched);
+  }
+
+  /** Test that the current target of a dispatched event is the element it is dispatched to. */
+  public void testCurrentTarget() {
+    final List<Element> currentTargets = new ArrayList<Element>();
+    DOM.setEventListener(outer, event -> currentTargets.add(DOM.eventGetCurrentTarget(event)));
+    DOM.setEventListener(inner, event -> currentTargets.add(DOM.eventGetCurrentTarget(event)));
+    DOM.sinkEvents(outer, Event.ONMOUSEDOWN);
+    DOM.sinkEvents(inner, Event.ONMOUSEDOWN);
+    inner.dispatchEvent(
+        Document.get().createMouseDownEvent(0, 0, 0, 0, 0, false, false, false, false, 1));
+    assertEquals(2, currentTargets.size());
+    assertSame(inner, currentTargets.get(0));
+    assertSame(outer, currentTargets.get(1));
+  }
+
+  /** Test that events that do not bubble are only dispatched to their target. */
+  public void testNonBubbling() {
+    DOM.sinkEvents(outer, Event.ONFOCUS | Event.ONLOAD);
+    DOM.sinkEvents(inner, Event.ONFOCUS | Event.ONLOAD);
+    inner.dispatchEvent(Document.get().createFocusEvent());
+    assertEquals(Arrays.asList("inner"), dispatched);
+
+    dispatched.clear();
+    inner.dispatchEvent(Document.get().createHtmlEvent(BrowserEvents.LOAD, false, false));
+    assertEquals(Arrays.asList("inner"), dispatched);
+    assertEquals(BrowserEvents.LOAD, inner.getPropertyString("__gwtLastUnhandledEvent"));
+
+    dispatched.clear();
+    outer.dispatchEvent(Document.get().createFocusEvent());
+    assertEquals(Arrays.asList("outer"), dispatched);
+  }
+
+  private static NativeEvent createClickEvent() {
+    return Document.get().createClickEvent(0, 0, 0, 0, 0, false, false, false, false);
+  }
+
+  private void listen(Element elem, final String name) {
+    DOM.setEventListener(elem, event -> dispatched.add(name));
+  }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2008 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gwtproject.user.client.ui;
+
+import com.google.gwt.junit.client.GWTTestCase;
+import com.google.j2cl.junit.apt.J2clTestInput;
+import org.gwtproject.user.client.ui.SuggestOracle.Callback;
+import org.gwtproject.user.client.ui.SuggestOracle.Request;
+import org.gwtproject.user.client.ui.SuggestOracle.Response;
+import org.gwtproject.user.client.ui.SuggestOracle.Suggestion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests for {@link CachingSuggestOracle}.
+ */
+@J2clTestInput(CachingSuggestOracleTest.class)
+public class CachingSuggestOracleTest extends GWTTestCase {
+
+  /**
+   * A {@link MultiWordSuggestOracle} that counts its requests.
+   */
+  private static class CountingOracle extends MultiWordSuggestOracle {
+    private Request cancelledRequest;
+    private int requestCount;
+
+    CountingOracle() {
+      addAll(Arrays.asList("John Smith", "Joe Brown", "Jane Doe", "Jane Smith", "Bob Jones"));
+    }
+
+    @Override
+    public void cancelRequest(Request request) {
+      cancelledRequest = request;
+    }
+
+    @Override
+    public void requestSuggestions(Request request, Callback callback) {
+      requestCount++;
+      super.requestSuggestions(request, callback);
+    }
+  }
+
+  /**
+   * A callback that remembers the last response.
+   */
+  private static class TestCallback implements Callback {
+    private Response response;
+
+    @Override
+    public void onSuggestionsReady(Request request, Response response) {
+      this.response = response;
+    }
+  }
+
+  @Override
+  public String getModuleName() {
+    return "org.gwtproject.user.Widgets";
+  }
+
+  public void testCancelRequest() {
+    CountingOracle delegate = new CountingOracle();
+    CachingSuggestOracle oracle = new CachingSuggestOracle(delegate);
+    Request request = new Request("jo", 10);
+    oracle.cancelRequest(request);
+    assertSame(request, delegate.cancelledRequest);
+  }
+
+  public void testClearCache() {
+    CountingOracle delegate = new CountingOracle();
+    CachingSuggestOracle oracle = new CachingSuggestOracle(delegate);
+    request(oracle, "jo", 10);
+    assertEquals(1, oracle.getCacheSize());
+
+    oracle.clearCache();
+    assertEquals(0, oracle.getCacheSize());
+    request(oracle, "jo", 10);
+    assertEquals(2, delegate.requestCount);
+  }
+
+  public void testIdenticalQuery() {
+    CountingOracle delegate = new CountingOracle();
+    CachingSuggestOracle oracle = new CachingSuggestOracle(delegate);
+    assertEquals(Arrays.asList("Joe Brown", "John Smith"), request(oracle, "jo", 10));
+    assertEquals(Arrays.asList("Joe Brown", "John Smith"), request(oracle, "jo", 10));
+    assertEquals(1, delegate.requestCount);
+
+    // A complete response is truncated to a smaller limit.
+    TestCallback callback = new TestCallback();
+    oracle.requestSuggestions(new Request("jo", 1), callback);
+    assertEquals(1, delegate.requestCount);
+    assertEquals(1, callback.response.getSuggestions().size());
+    assertEquals(1, callback.response.getMoreSuggestionsCount());
+  }
+
+  public void testIdenticalQueryTruncated() {
+    CountingOracle delegate = new CountingOracle();
+    CachingSuggestOracle oracle = new CachingSuggestOracle(delegate);
+    request(oracle, "j", 2);
+    request(oracle, "j", 2);
+    assertEquals(1, delegate.requestCount);
+
+    // A truncated response cannot answer a request with a larger limit.
+    assertEquals(4, request(oracle, "j", 10).size());
+    assertEquals(2, delegate.requestCount);
+  }
+
+  public void testMaxCacheSize() {
+    CountingOracle delegate = new CountingOracle();
+    CachingSuggestOracle oracle = new CachingSuggestOracle(delegate, null);
+    oracle.setMaxCacheSize(2);
+    assertEquals(2, oracle.getMaxCacheSize());
+    request(oracle, "a", 10);
+    request(oracle, "b", 10);
+    request(oracle, "a", 10);
+    request(oracle, "c", 10);
+    assertEquals(2, oracle.getCacheSize());
+    assertEquals(3, delegate.requestCount);
+
+    // "b" was the least recently used query.
+    request(oracle, "a", 10);
+    assertEquals(3, delegate.requestCount);
+    request(oracle, "b", 10);
+    assertEquals(4, delegate.requestCount);
+
+    oracle.setMaxCacheSize(1);
+    assertEquals(1, oracle.getCacheSize());
+    request(oracle, "b", 10);
+    assertEquals(4, delegate.requestCount);
+  }
+
+  public void testNoFilter() {
+    CountingOracle delegate = new CountingOracle();
+    CachingSuggestOracle oracle = new CachingSuggestOracle(delegate, null);
+    request(oracle, "j", 10);
+    request(oracle, "jo", 10);
+    assertEquals(2, delegate.requestCount);
+  }
+
+  public void testPrefixFilteredLocally() {
+    CountingOracle delegate = new CountingOracle();
+    CachingSuggestOracle oracle = new CachingSuggestOracle(delegate);
+    assertEquals(
+        Arrays.asList("Bob Jones", "Jane Doe", "Jane Smith", "Joe Brown", "John Smith"),
+        request(oracle, "j", 10));
+    assertEquals(Arrays.asList("Bob Jones", "Joe Brown", "John Smith"), request(oracle, "jo", 10));
+    assertEquals(Arrays.asList("John Smith"), request(oracle, "john", 10));
+    assertEquals(Arrays.asList("Jane Smith", "John Smith"), request(oracle, "j sm", 10));
+    assertEquals(0, request(oracle, "jx", 10).size());
+    assertEquals(1, delegate.requestCount);
+
+    // The filtered responses are cached too.
+    assertEquals(5, oracle.getCacheSize());
+  }
+
+  public void testPrefixTruncated() {
+    CountingOracle delegate = new CountingOracle();
+    CachingSuggestOracle oracle = new CachingSuggestOracle(delegate);
+
+    // The response for "j" is truncated, so it cannot answer "jo".
+    request(oracle, "j", 2);
+    assertEquals(Arrays.asList("Bob Jones", "Joe Brown", "John Smith"), request(oracle, "jo", 10));
+    assertEquals(2, delegate.requestCount);
+  }
+
+  /**
+   * Request suggestions and get the replacement strings of the response.
+   *
+   * @param oracle the oracle
+   * @param query the query
+   * @param limit the limit
+   * @return the replacement strings
+   */
+  private List<String> request(SuggestOracle oracle, String query, int limit) {
+    TestCallback callback = new TestCallback();
+    oracle.requestSuggestions(new Request(query, limit), callback);
+    List<String> replacements = new ArrayList<String>();
+    for (Suggestion suggestion : callback.response.getSuggestions()) {
+      replacements.add(suggestion.getReplacementString());
+    }
+    return replacements;
+  }
+}
@@ -18,6 +18,8 @@ package org.gwtproject.user.client.ui;
 import com.google.j2cl.junit.apt.J2clTestInput;
 import org.gwtproject.user.client.ui.FlexTable.FlexCellFormatter;
 
+import java.util.Arrays;
+
 /**
  * TODO: document me.
  */
@@ -153,4 +155,18 @@ public class FlexTableTest extends HTMLTableTestBase {
     cellFormatter.setColSpan(3, 1, 2);
   }
 
+  /**
+   * Rows after the end of the table are created by {@link FlexTable#setRows(int, List)}.
+   */
+  public void testSetRowsAppends() {
+    FlexTable t = new FlexTable();
+    t.setText(0, 0, "first");
+    t.setRows(2, Arrays.asList(row("a", "b"), row("c")));
+    assertEquals(4, t.getRowCount());
+    assertEquals("first", t.getText(0, 0));
+    assertEquals(0, t.getCellCount(1));
+    assertEquals(2, t.getCellCount(2));
+    assertEquals("b", t.getText(2, 1));
+    assertEquals(1, t.getCellCount(3));
+  }
 }
@@ -20,6 +20,9 @@ import org.gwtproject.dom.client.Element;
 import org.gwtproject.user.client.DOM;
 import org.gwtproject.user.client.ui.HTMLTable.ColumnFormatter;
 
+import java.util.Arrays;
+import java.util.Collections;
+
 /**
  * Tests for {@link Grid}.
  */
@@ -183,4 +186,29 @@ public class GridTest extends HTMLTableTestBase {
     assertEquals(1, grid.getColumnCount());
     assertEquals(1, colGroup.getChildCount());
   }
+
+  /**
+   * Rows rendered into a grid must fit its bounds.
+   */
+  public void testSetRowsBounds() {
+    Grid t = new Grid(2, 2);
+    try {
+      t.setRows(1, Arrays.asList(row("a"), row("b")));
+      fail("Expected IndexOutOfBoundsException");
+    } catch (IndexOutOfBoundsException expected) {
+      // Expected.
+    }
+    try {
+      t.setRows(0, Collections.singletonList(row("a", "b", "c")));
+      fail("Expected IndexOutOfBoundsException");
+    } catch (IndexOutOfBoundsException expected) {
+      // Expected.
+    }
+    assertEquals(2, t.getDOMRowCount());
+
+    // Missing cells are added.
+    t.setRows(0, Collections.singletonList(row("a")));
+    assertEquals("a", t.getText(0, 0));
+    assertEquals(2, t.getDOMCellCount(0));
+  }
 }
@@ -17,6 +17,7 @@ package org.gwtproject.user.client.ui;
 
 import org.gwtproject.dom.client.Element;
 import org.gwtproject.dom.client.TableCellElement;
+import org.gwtproject.safehtml.shared.SafeHtml;
 import com.google.gwt.junit.client.GWTTestCase;
 import org.gwtproject.safehtml.shared.SafeHtmlUtils;
 import org.gwtproject.user.client.ui.HTMLTable.Cell;
@@ -220,6 +221,57 @@ public abstract class HTMLTableTestBase extends GWTTestCase {
     assertFalse(iter5.hasNext());
   }
 
+  /**
+   * Tests {@link HTMLTable#renderRange(int, int, HTMLTable.RowRenderer)}.
+   */
+  public void testRenderRange() {
+    HTMLTable t = getTable(4, 2);
+    t.renderRange(0, 4, (row, rowBuilder) -> rowBuilder.startTD().text("r" + row).endTD());
+    assertEquals(4, t.getRowCount());
+    assertEquals("r0", t.getText(0, 0));
+    assertEquals("r3", t.getText(3, 0));
+
+    // Replace the rows in the middle.
+    t.renderRange(1, 2, (row, rowBuilder) -> rowBuilder.startTD().text("x" + row).endTD());
+    assertEquals(4, t.getRowCount());
+    assertEquals("r0", t.getText(0, 0));
+    assertEquals("x1", t.getText(1, 0));
+    assertEquals("x2", t.getText(2, 0));
+    assertEquals("r3", t.getText(3, 0));
+
+    try {
+      t.renderRange(-1, 1, (row, rowBuilder) -> rowBuilder.startTD().endTD());
+      fail("Expected IndexOutOfBoundsException");
+    } catch (IndexOutOfBoundsException expected) {
+      // Expected.
+    }
+  }
+
+  /**
+   * Tests {@link HTMLTable#setRows(int, List)}.
+   */
+  public void testSetRows() {
+    HTMLTable t = getTable(3, 2);
+    t.setRows(0, Arrays.asList(row("0:0", "0:1"), row("1:0", "1:1"), row("2:0", "2:1")));
+    assertEquals(3, t.getRowCount());
+    assertEquals("2:1", t.getHTML(2, 1));
+    Widget widget = new Label("foo");
+    t.setWidget(1, 1, widget);
+
+    // Replace the last two rows.
+    t.setRows(1, Arrays.asList(row("a", "b"), row("c", null)));
+    assertEquals(3, t.getRowCount());
+    assertEquals("0:0", t.getHTML(0, 0));
+    assertEquals("a", t.getHTML(1, 0));
+    assertEquals("b", t.getHTML(1, 1));
+    assertEquals("c", t.getHTML(2, 0));
+    assertEquals("", t.getHTML(2, 1).trim());
+
+    // The widget in the replaced row is removed.
+    assertNull(widget.getParent());
+    assertNull(t.getWidget(1, 1));
+  }
+
   public void testSetColumnFormatter() {
     HTMLTable t = getTable(1, 1);
     Element columnGroup = t.getColumnFormatter().columnGroup;
@@ -347,4 +399,18 @@ public abstract class HTMLTableTestBase extends GWTTestCase {
     assertTrue(iterator.hasNext());
     assertSame(child, iterator.next());
   }
+
+  /**
+   * Create the contents of a row for {@link HTMLTable#setRows(int, List)}.
+   *
+   * @param cells the text of each cell, or null for an empty cell
+   * @return the HTML of each cell
+   */
+  protected static SafeHtml[] row(String... cells) {
+    SafeHtml[] row = new SafeHtml[cells.length];
+    for (int i = 0; i < cells.length; i++) {
+      row[i] = (cells[i] == null) ? null : SafeHtmlUtils.fromString(cells[i]);
+    }
+    return row;
+  }
 }
@@ -25,6 +25,7 @@ import org.gwtproject.layout.client.Layout.AnimationCallback;
 import org.gwtproject.layout.client.Layout.Layer;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -68,6 +69,37 @@ public class LayoutPanelTest extends WidgetTestBase {
     });
   }
 
+  /**
+   * Tests that nested panels animated in the same event are each laid out
+   * once, although each of them schedules a command.
+   */
+  public void testNestedAnimateLaysOutOnce() {
+    final LayoutPanel outer = new LayoutPanel();
+    final LayoutPanel inner = new LayoutPanel();
+    outer.add(inner);
+    inner.add(new Label("foo"));
+    RootPanel.get().add(outer);
+
+    final List<String> layouts = new ArrayList<String>();
+    delayTestFinish(5000);
+    Scheduler.get().scheduleDeferred(new ScheduledCommand() {
+      @Override
+      public void execute() {
+        // The command of the inner panel runs first, and lays out both panels.
+        inner.animate(0, recordLayout(layouts, "inner"));
+        outer.animate(0, recordLayout(layouts, "outer"));
+        Scheduler.get().scheduleDeferred(new ScheduledCommand() {
+          @Override
+          public void execute() {
+            assertEquals(Arrays.asList("outer", "inner"), layouts);
+            outer.removeFromParent();
+            finishTest();
+          }
+        });
+      }
+    });
+  }
+
   /**
    * Ensures that the popup implementation doesn't interfere with layout. This
    * cropped up on IE7 as a result of CSS expressions used in PopupImplIE6, as
@@ -489,6 +521,24 @@ public class LayoutPanelTest extends WidgetTestBase {
    * @param widget the widget being tested
    * @param expectedLayerProperties the expected properties of <b>widget</b>
    */
+  /**
+   * Returns a callback that records the name of a panel each time its layout
+   * completes.
+   */
+  private static AnimationCallback recordLayout(final List<String> layouts,
+      final String name) {
+    return new AnimationCallback() {
+      @Override
+      public void onLayout(Layer layer, double progress) {
+      }
+
+      @Override
+      public void onAnimationComplete() {
+        layouts.add(name);
+      }
+    };
+  }
+
   private void assertLayerProperties(final Widget widget,
       final LayerProperties expectedLayerProperties) {
     delayTestFinish(2000);
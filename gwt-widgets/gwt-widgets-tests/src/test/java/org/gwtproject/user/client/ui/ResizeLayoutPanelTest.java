@@ -203,6 +203,50 @@ public class ResizeLayoutPanelTest extends
     });
   }
 
+  /**
+   * Test that, with a {@code ResizeObserver}, attaching and resizing the panel fire exactly one
+   * resize event each, although the size is reported both by the panel and by the observer.
+   */
+  public void testResizeObserverFiresOnce() {
+    if (!ResizeNotifier.isSupported()) {
+      return;
+    }
+
+    final ResizeLayoutPanel panel = createPanel();
+    panel.setWidget(new Label("hello world"));
+    panel.setWidth("100%");
+    panel.setHeight("100%");
+    final int[] resizes = new int[1];
+    panel.addResizeHandler(new ResizeHandler() {
+      @Override
+      public void onResize(ResizeEvent event) {
+        resizes[0]++;
+      }
+    });
+    final SimplePanel container = new SimplePanel();
+    container.setPixelSize(100, 100);
+    container.setWidget(panel);
+    RootPanel.get().add(container);
+
+    delayTestFinish(10000);
+    new Timer() {
+      @Override
+      public void run() {
+        assertEquals(1, resizes[0]); // Triggered by attach.
+
+        container.setPixelSize(101, 101);
+        new Timer() {
+          @Override
+          public void run() {
+            assertEquals(2, resizes[0]);
+            container.removeFromParent();
+            finishTest();
+          }
+        }.schedule(250);
+      }
+    }.schedule(250);
+  }
+
   /**
    * Test that resizing the outer container triggers a resize event.
    */
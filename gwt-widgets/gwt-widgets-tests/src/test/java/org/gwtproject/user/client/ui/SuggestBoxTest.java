@@ -23,6 +23,7 @@ import org.gwtproject.event.dom.client.KeyDownEvent;
 import org.gwtproject.event.dom.client.KeyDownHandler;
 import org.gwtproject.event.dom.client.KeyUpEvent;
 import org.gwtproject.event.dom.client.KeyUpHandler;
+import org.gwtproject.timer.client.Timer;
 import org.gwtproject.user.client.ui.MultiWordSuggestOracle.MultiWordSuggestion;
 import org.gwtproject.user.client.ui.SuggestBox.DefaultSuggestionDisplay;
 import org.gwtproject.user.client.ui.SuggestBox.SuggestionCallback;
@@ -47,11 +48,19 @@ public class SuggestBoxTest extends WidgetTestBase {
   private static class TestOracle extends SuggestOracle {
     private Request request;
     private Callback callback;
+    private Request cancelledRequest;
+    private int requestCount;
+
+    @Override
+    public void cancelRequest(Request request) {
+      this.cancelledRequest = request;
+    }
 
     @Override
     public void requestSuggestions(Request request, Callback callback) {
       this.request = request;
       this.callback = callback;
+      requestCount++;
     }
   }
 
@@ -109,6 +118,17 @@ public class SuggestBoxTest extends WidgetTestBase {
     box.setLimit(5);
     assertEquals(5, box.getLimit());
 
+    // setRequestDelay
+    assertEquals(0, box.getRequestDelay());
+    box.setRequestDelay(250);
+    assertEquals(250, box.getRequestDelay());
+    try {
+      box.setRequestDelay(-1);
+      fail("Expected IllegalArgumentException");
+    } catch (IllegalArgumentException expected) {
+      // Expected.
+    }
+
     // setSelectsFirstItem
     box.setAutoSelectEnabled(true);
     assertTrue(box.isAutoSelectEnabled());
@@ -337,6 +357,81 @@ public class SuggestBoxTest extends WidgetTestBase {
     assertFalse(display.isSuggestionListShowing());
   }
 
+  public void testSupersededResponseIgnored() {
+    TestOracle oracle = new TestOracle();
+    SuggestBox box = new SuggestBox(oracle, new TextBox(), new TestSuggestionDisplay());
+    TestSuggestionDisplay display = (TestSuggestionDisplay) box.getSuggestionDisplay();
+    RootPanel.get().add(box);
+
+    // Request suggestions for "o", then for "on" before the first response.
+    box.showSuggestions("o");
+    SuggestOracle.Request first = oracle.request;
+    SuggestOracle.Callback firstCallback = oracle.callback;
+    box.showSuggestions("on");
+    assertSame(first, oracle.cancelledRequest);
+    assertEquals("on", oracle.request.getQuery());
+
+    // The response to the superseded request is ignored.
+    Collection<MultiWordSuggestion> suggestions = new ArrayList<MultiWordSuggestion>();
+    suggestions.add(new MultiWordSuggestion("one", "one"));
+    suggestions.add(new MultiWordSuggestion("other", "other"));
+    firstCallback.onSuggestionsReady(first, new Response(suggestions));
+    assertFalse(display.isSuggestionListShowing());
+
+    // The response to the latest request is shown.
+    suggestions = new ArrayList<MultiWordSuggestion>();
+    suggestions.add(new MultiWordSuggestion("one", "one"));
+    oracle.callback.onSuggestionsReady(oracle.request, new Response(suggestions));
+    assertTrue(display.isSuggestionListShowing());
+    assertEquals(1, display.getSuggestionCount());
+  }
+
+  public void testDetachCancelsPendingRequest() {
+    TestOracle oracle = new TestOracle();
+    SuggestBox box = new SuggestBox(oracle, new TextBox(), new TestSuggestionDisplay());
+    TestSuggestionDisplay display = (TestSuggestionDisplay) box.getSuggestionDisplay();
+    RootPanel.get().add(box);
+    box.showSuggestions("o");
+
+    // Detaching the box cancels the request.
+    box.removeFromParent();
+    assertSame(oracle.request, oracle.cancelledRequest);
+
+    // A late response is ignored.
+    Collection<MultiWordSuggestion> suggestions = new ArrayList<MultiWordSuggestion>();
+    suggestions.add(new MultiWordSuggestion("one", "one"));
+    oracle.callback.onSuggestionsReady(oracle.request, new Response(suggestions));
+    assertFalse(display.isSuggestionListShowing());
+  }
+
+  public void testRequestDelay() {
+    final TestOracle oracle = new TestOracle();
+    SuggestBox box = new SuggestBox(oracle, new TextBox(),
+        new TestSuggestionDisplay());
+    box.setRequestDelay(100);
+    RootPanel.get().add(box);
+
+    // Each key up restarts the delay, so no request is made while typing.
+    for (String text : new String[] {"o", "on", "one"}) {
+      box.setText(text);
+      NativeEvent e = Document.get().createKeyUpEvent(false, false, false,
+          false, 'o');
+      box.getElement().dispatchEvent(e);
+    }
+    assertEquals(0, oracle.requestCount);
+
+    // A single request is made for the final text once the delay elapses.
+    delayTestFinish(5000);
+    new Timer() {
+      @Override
+      public void run() {
+        assertEquals(1, oracle.requestCount);
+        assertEquals("one", oracle.request.getQuery());
+        finishTest();
+      }
+    }.schedule(400);
+  }
+
   public void testDefaults() {
     MultiWordSuggestOracle oracle = new MultiWordSuggestOracle();
     oracle.setDefaultSuggestionsFromText(Arrays.asList("A", "B"));
@@ -82,6 +82,71 @@ public class DefaultSelectionEventManagerTest extends GWTTestCase {
     assertSelected(model);
   }
 
+  public void testDoIndexRangeSelection() {
+    IndexRangeSelectionModel<String> model =
+        new IndexRangeSelectionModel<String>(
+            new IndexRangeSelectionModel.IndexProvider<String>() {
+              @Override
+              public int getIndex(String item) {
+                return Integer.parseInt(item.substring("test ".length()));
+              }
+            });
+    display.setSelectionModel(model);
+
+    // Select one value.
+    manager.doIndexRangeSelection(model, display, 3, "test 3", null, false, false);
+    assertEquals(1, model.getSelectedCount(100));
+    assertTrue(model.isSelected("test 3"));
+
+    // Select a range that extends past the rows in the display.
+    manager.doIndexRangeSelection(model, display, 50, "test 50", null, true, false);
+    assertEquals(48, model.getSelectedCount(100));
+    assertFalse(model.isSelected("test 2"));
+    assertTrue(model.isSelected("test 9"));
+    assertTrue(model.isSelected("test 50"));
+
+    // Shrink the range from the anchor.
+    manager.doIndexRangeSelection(model, display, 5, "test 5", null, true, false);
+    assertEquals(3, model.getSelectedCount(100));
+    assertTrue(model.isSelected("test 5"));
+    assertFalse(model.isSelected("test 6"));
+
+    // Toggle a selected value.
+    manager.doIndexRangeSelection(model, display, 4, "test 4", SelectAction.TOGGLE, false, false);
+    assertEquals(2, model.getSelectedCount(100));
+    assertFalse(model.isSelected("test 4"));
+
+    // Select a value and clear.
+    manager.doIndexRangeSelection(model, display, 7, "test 7", null, false, true);
+    assertEquals(1, model.getSelectedCount(100));
+    assertTrue(model.isSelected("test 7"));
+  }
+
+  public void testDoIndexRangeSelectionAfterVisibleRangeChange() {
+    IndexRangeSelectionModel<String> model =
+        new IndexRangeSelectionModel<String>(
+            new IndexRangeSelectionModel.IndexProvider<String>() {
+              @Override
+              public int getIndex(String item) {
+                return Integer.parseInt(item.substring("test ".length()));
+              }
+            });
+    display.setSelectionModel(model);
+
+    // Select one value, then scroll it out of the visible range.
+    manager.doIndexRangeSelection(model, display, 3, "test 3", null, false, false);
+    display.setVisibleRange(40, 10);
+    display.setRowData(40, createData(40, 10));
+
+    // Extend the selection from the anchor that is no longer visible.
+    manager.doIndexRangeSelection(model, display, 45, "test 45", null, true, false);
+    assertEquals(43, model.getSelectedCount(100));
+    assertFalse(model.isSelected("test 2"));
+    assertTrue(model.isSelected("test 3"));
+    assertTrue(model.isSelected("test 45"));
+    assertFalse(model.isSelected("test 46"));
+  }
+
   public void testDoMultiSelection() {
     org.gwtproject.view.client.MultiSelectionModel<String> model = new org.gwtproject.view.client.MultiSelectionModel<String>();
     display.setSelectionModel(model);
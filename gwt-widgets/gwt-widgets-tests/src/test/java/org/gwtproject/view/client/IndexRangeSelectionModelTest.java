@@ -0,0 +1,193 @@
+/*
+ * Copyright 2010 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gwtproject.view.client;
+
+import com.google.j2cl.junit.apt.J2clTestInput;
+import org.gwtproject.timer.client.Timer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for {@link IndexRangeSelectionModel}.
+ */
+@J2clTestInput(IndexRangeSelectionModelTest.class)
+public class IndexRangeSelectionModelTest extends AbstractSelectionModelTest {
+
+  /**
+   * Uses the digits at the end of a value as its index, or 0 if there are none.
+   */
+  private static final IndexRangeSelectionModel.IndexProvider<String> INDEX_PROVIDER =
+      new IndexRangeSelectionModel.IndexProvider<String>() {
+        @Override
+        public int getIndex(String item) {
+          int start = item.length();
+          while (start > 0 && Character.isDigit(item.charAt(start - 1))) {
+            start--;
+          }
+          return (start == item.length()) ? 0 : Integer.parseInt(item.substring(start));
+        }
+      };
+
+  public void testClear() {
+    IndexRangeSelectionModel<String> model = createSelectionModel(null);
+    MockSelectionChangeHandler handler = new MockSelectionChangeHandler();
+    model.addSelectionChangeHandler(handler);
+
+    // Select a few values.
+    model.setSelected("test0", true);
+    model.setSelected("test1", true);
+    model.setSelected("test5", true);
+    model.fireSelectionChangeEvent();
+    handler.assertEventFired(true);
+
+    // Clear selection and verify that an event is fired.
+    model.clear();
+    assertFalse(model.isSelected("test0"));
+    assertFalse(model.isSelected("test1"));
+    assertFalse(model.isSelected("test5"));
+    assertEquals(0, model.getSelectedRanges().size());
+    model.fireSelectionChangeEvent();
+    handler.assertEventFired(true);
+  }
+
+  /**
+   * Clearing an empty {@link IndexRangeSelectionModel} should not fire an event, even if there are
+   * pending changes.
+   */
+  public void testClearWhenEmpty() {
+    IndexRangeSelectionModel<String> model = createSelectionModel(null);
+    MockSelectionChangeHandler handler = new MockSelectionChangeHandler();
+    model.addSelectionChangeHandler(handler);
+
+    // Add a pending change.
+    model.setSelected("test", true);
+
+    // Clear selection and verify that no event is fired.
+    model.clear();
+    assertFalse(model.isSelected("test"));
+    model.fireSelectionChangeEvent();
+    handler.assertEventFired(false);
+  }
+
+  public void testGetSelectedCount() {
+    IndexRangeSelectionModel<String> model = createSelectionModel(null);
+    assertEquals(0, model.getSelectedCount(100));
+
+    model.setRangeSelected(new Range(10, 20), true);
+    model.setSelected("test50", true);
+    assertEquals(21, model.getSelectedCount(100));
+    assertEquals(15, model.getSelectedCount(25));
+    assertEquals(0, model.getSelectedCount(10));
+
+    // Select all rows, including rows past the end of the list.
+    model.selectAll();
+    assertEquals(1000000, model.getSelectedCount(1000000));
+  }
+
+  public void testNoDuplicateChangeEvent() {
+    delayTestFinish(2000);
+    IndexRangeSelectionModel<String> model = createSelectionModel(null);
+
+    // No event should be fired, as the selection is effectively unchanged at the end of the loop.
+    model.addSelectionChangeHandler(new FailingSelectionChangeEventHandler());
+    model.setSelected("test3", true);
+    model.setRangeSelected(new Range(0, 10), true);
+    model.setSelected("test3", false);
+    model.clear();
+
+    new Timer() {
+      @Override
+      public void run() {
+        finishTest();
+      }
+    }.schedule(1000);
+  }
+
+  public void testSelectAll() {
+    IndexRangeSelectionModel<String> model = createSelectionModel(null);
+    model.selectAll();
+    assertTrue(model.isSelected("test0"));
+    assertTrue(model.isSelected("test999999"));
+    assertTrue(model.isIndexSelected(Integer.MAX_VALUE - 1));
+
+    // Exclude a few rows.
+    model.setSelected("test5", false);
+    model.setRangeSelected(new Range(100, 50), false);
+    assertTrue(model.isSelected("test4"));
+    assertFalse(model.isSelected("test5"));
+    assertTrue(model.isSelected("test6"));
+    assertTrue(model.isSelected("test99"));
+    assertFalse(model.isSelected("test100"));
+    assertFalse(model.isSelected("test149"));
+    assertTrue(model.isSelected("test150"));
+
+    List<Range> expected = new ArrayList<Range>();
+    expected.add(new Range(0, 5));
+    expected.add(new Range(6, 94));
+    expected.add(new Range(150, Integer.MAX_VALUE - 150));
+    assertEquals(expected, model.getSelectedRanges());
+  }
+
+  public void testSetRangeSelected() {
+    IndexRangeSelectionModel<String> model = createSelectionModel(null);
+    model.setRangeSelected(new Range(10, 10), true);
+    model.setRangeSelected(new Range(30, 10), true);
+    assertFalse(model.isIndexSelected(9));
+    assertTrue(model.isIndexSelected(10));
+    assertTrue(model.isIndexSelected(19));
+    assertFalse(model.isIndexSelected(20));
+    assertTrue(model.isIndexSelected(30));
+    assertFalse(model.isIndexSelected(-1));
+
+    // Joining two ranges merges them.
+    model.setRangeSelected(new Range(15, 20), true);
+    List<Range> expected = new ArrayList<Range>();
+    expected.add(new Range(10, 30));
+    assertEquals(expected, model.getSelectedRanges());
+
+    // Deselecting the middle of a range splits it.
+    model.setRangeSelected(new Range(20, 5), false);
+    expected.clear();
+    expected.add(new Range(10, 10));
+    expected.add(new Range(25, 15));
+    assertEquals(expected, model.getSelectedRanges());
+  }
+
+  public void testSetSelected() {
+    IndexRangeSelectionModel<String> model = createSelectionModel(null);
+    assertFalse(model.isSelected("test0"));
+
+    model.setSelected("test0", true);
+    assertTrue(model.isSelected("test0"));
+    assertTrue(model.isSelected("other0"));
+
+    model.setSelected("test1", true);
+    assertTrue(model.isSelected("test1"));
+    assertTrue(model.isSelected("test0"));
+
+    model.setSelected("test0", false);
+    assertFalse(model.isSelected("test0"));
+    assertTrue(model.isSelected("test1"));
+    assertFalse(model.isSelected(null));
+  }
+
+  @Override
+  protected IndexRangeSelectionModel<String> createSelectionModel(
+      ProvidesKey<String> keyProvider) {
+    return new IndexRangeSelectionModel<String>(INDEX_PROVIDER, keyProvider);
+  }
+}
@@ -543,6 +543,164 @@ public abstract class AbstractCellTable<T> extends AbstractHasData<T> {
       }
     }
 
+    /**
+     * Rebuild a table section from the rows it contains and newly rendered rows.
+     *
+     * @param table the {@link AbstractCellTable}
+     * @param section the {@link TableSectionElement} containing the rows
+     * @param sources for each row value of the page, the absolute index of the rendered row value
+     *     whose rows are reused, or -1 to use the newly rendered rows
+     * @param html the html of the newly rendered rows
+     */
+    public final void reconcileRows(
+        AbstractCellTable<?> table, TableSectionElement section, int[] sources, SafeHtml html) {
+      // If the widget is not attached, attach an event listener so we can catch
+      // synchronous load events from cached images.
+      if (!table.isAttached()) {
+        DOM.setEventListener(table.getElement(), table);
+      }
+
+      // Remove the section from the tbody.
+      Element parent = section.getParentElement();
+      Element nextSection = section.getNextSiblingElement();
+      detachSectionElement(section);
+
+      // Take out the rendered rows and the new rows, by row value index.
+      Map<Integer, List<TableRowElement>> renderedRows = removeRows(table, section);
+      Map<Integer, List<TableRowElement>> newRows =
+          removeRows(table, convertToSectionElement(table, section.getTagName(), html));
+
+      // Put the rows back in the order of the row values.
+      int pageStart = table.getPageStart();
+      for (int i = 0; i < sources.length; i++) {
+        int absRowIndex = pageStart + i;
+        List<TableRowElement> rows =
+            sources[i] < 0 ? newRows.get(absRowIndex) : renderedRows.get(sources[i]);
+        if (rows == null) {
+          continue;
+        }
+        for (TableRowElement row : rows) {
+          if (sources[i] >= 0 && sources[i] != absRowIndex) {
+            table.moveRow(row, sources[i], absRowIndex);
+          }
+          section.appendChild(row);
+        }
+      }
+
+      /*
+       * Reattach the section. If next section is null, the section will be
+       * appended instead.
+       */
+      reattachSectionElement(parent, section, nextSection);
+
+      // Detach the event listener.
+      if (!table.isAttached()) {
+        DOM.setEventListener(table.getElement(), null);
+      }
+    }
+
+    /**
+     * Remove the rows that represent row values outside of the specified range, and render new rows
+     * before and after the rows that are kept.
+     *
+     * @param table the {@link AbstractCellTable}
+     * @param section the {@link TableSectionElement} containing the rows
+     * @param keepStart the absolute index of the first row value to keep
+     * @param keepEnd the absolute index after the last row value to keep
+     * @param htmlBefore the html of the rows to insert before the kept rows, or null
+     * @param htmlAfter the html of the rows to append after the kept rows, or null
+     */
+    public final void recycleRows(
+        AbstractCellTable<?> table,
+        TableSectionElement section,
+        int keepStart,
+        int keepEnd,
+        SafeHtml htmlBefore,
+        SafeHtml htmlAfter) {
+      // If the widget is not attached, attach an event listener so we can catch
+      // synchronous load events from cached images.
+      if (!table.isAttached()) {
+        DOM.setEventListener(table.getElement(), table);
+      }
+
+      // Remove the section from the tbody.
+      Element parent = section.getParentElement();
+      Element nextSection = section.getNextSiblingElement();
+      detachSectionElement(section);
+
+      // Remove the rows that are no longer on the page.
+      Element row = section.getFirstChildElement();
+      while (row != null) {
+        Element next = row.getNextSiblingElement();
+        int rowValueIndex = table.tableBuilder.getRowValueIndex(row.<TableRowElement>cast());
+        if (rowValueIndex < keepStart || rowValueIndex >= keepEnd) {
+          section.removeChild(row);
+        }
+        row = next;
+      }
+
+      // Add the rows that moved onto the page.
+      if (htmlBefore != null) {
+        Element insertBefore = section.getFirstChildElement();
+        TableSectionElement newSection =
+            convertToSectionElement(table, section.getTagName(), htmlBefore);
+        Element newChild = newSection.getFirstChildElement();
+        while (newChild != null) {
+          Element next = newChild.getNextSiblingElement();
+          section.insertBefore(newChild, insertBefore);
+          newChild = next;
+        }
+      }
+      if (htmlAfter != null) {
+        TableSectionElement newSection =
+            convertToSectionElement(table, section.getTagName(), htmlAfter);
+        Element newChild = newSection.getFirstChildElement();
+        while (newChild != null) {
+          Element next = newChild.getNextSiblingElement();
+          section.appendChild(newChild);
+          newChild = next;
+        }
+      }
+
+      /*
+       * Reattach the section. If next section is null, the section will be
+       * appended instead.
+       */
+      reattachSectionElement(parent, section, nextSection);
+
+      // Detach the event listener.
+      if (!table.isAttached()) {
+        DOM.setEventListener(table.getElement(), null);
+      }
+    }
+
+    /**
+     * Remove all rows from a table section.
+     *
+     * @param table the {@link AbstractCellTable}
+     * @param section the {@link TableSectionElement} containing the rows
+     * @return the rows, grouped by the absolute index of the row value they represent
+     */
+    private Map<Integer, List<TableRowElement>> removeRows(
+        AbstractCellTable<?> table, TableSectionElement section) {
+      Map<Integer, List<TableRowElement>> rows = new HashMap<Integer, List<TableRowElement>>();
+      Element child = section.getFirstChildElement();
+      while (child != null) {
+        Element next = child.getNextSiblingElement();
+        TableRowElement row = child.cast();
+        int rowValueIndex = table.tableBuilder.getRowValueIndex(row);
+        List<TableRowElement> group = rows.get(rowValueIndex);
+        if (group == null) {
+          group = new ArrayList<TableRowElement>();
+          rows.put(rowValueIndex, group);
+        }
+        group.add(row);
+        section.removeChild(row);
+        child = next;
+      }
+      return rows;
+    }
+
     /**
      * Detach a table section element from its parent.
      *
@@ -1136,6 +1294,16 @@ public abstract class AbstractCellTable<T> extends AbstractHasData<T> {
     return footerRefreshDisabled;
   }
 
+  /**
+   * Check whether rows are matched by key when the table is updated.
+   *
+   * @return true if keyed rendering is enabled
+   * @see #setKeyedRendering(boolean)
+   */
+  public boolean isKeyedRendering() {
+    return getPresenter().isKeyedRendering();
+  }
+
   /**
    * Check if auto header refresh is enabled or disabled.
    *
@@ -1334,6 +1502,26 @@ public abstract class AbstractCellTable<T> extends AbstractHasData<T> {
     redrawHeaders();
   }
 
+  /**
+   * Enable or disable keyed rendering.
+   *
+   * <p>By default, every row in a range passed to {@link #setRowData(int, List)} is rendered again,
+   * and so are all rows when the page start changes and the rows cannot simply be kept. With keyed
+   * rendering, the rows of the page are matched to the rendered rows by the key of their value, as
+   * returned by the {@link ProvidesKey}. Rendered rows whose value is equal to the new value and
+   * whose selection did not change are reused, even if they moved, and only the other rows are
+   * rendered. {@link #getReusedRowCount()} and {@link #getRebuiltRowCount()} tell how well this
+   * works for a table.
+   *
+   * <p>Row values that are changed in place are equal to themselves, so they must be redrawn with
+   * {@link #redrawRow(int)}.
+   *
+   * @param keyedRendering true to enable keyed rendering
+   */
+  public void setKeyedRendering(boolean keyedRendering) {
+    getPresenter().setKeyedRendering(keyedRendering);
+  }
+
   /**
    * Set the keyboard selected column index.
    *
@@ -1911,6 +2099,73 @@ public abstract class AbstractCellTable<T> extends AbstractHasData<T> {
     }
   }
 
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The rows are reused if the table renders its rows with an {@link AbstractCellTableBuilder}.
+   * A row that moved gets the index of its new position and the even or odd row styles of the
+   * {@link Resources}, but its cells are not rendered again, so they should not depend on the row
+   * index.
+   */
+  @Override
+  protected boolean reconcileChildren(List<T> values, int[] sources) {
+    if (legacyRenderRowValues || !(tableBuilder instanceof AbstractCellTableBuilder)) {
+      return false;
+    }
+    refreshHeadersAndColumnsImpl();
+
+    // Render the values that cannot be reused.
+    int pageStart = getPageStart();
+    tableBuilder.start(false);
+    for (int i = 0; i < sources.length; i++) {
+      if (sources[i] < 0) {
+        tableBuilder.buildRow(values.get(i), pageStart + i);
+      }
+    }
+    coalesceCellProperties();
+    SafeHtml html = tableSectionToSafeHtml(tableBuilder.finish(), "tbody");
+
+    TABLE_IMPL.reconcileRows(
+        this, getTableBodyElement(), sources, CellBasedWidgetImpl.get().processHtml(html));
+    return true;
+  }
+
+  /**
+   * {@inheritDoc}
+   *
+   * <p>The rows are kept unless the table renders its rows by overriding {@link
+   * #renderRowValues(SafeHtmlBuilder, List, int, SelectionModel)}.
+   */
+  @Override
+  protected boolean recycleChildren(List<T> values, int keepStart, int keepEnd) {
+    if (legacyRenderRowValues) {
+      return false;
+    }
+    refreshHeadersAndColumnsImpl();
+
+    int pageStart = getPageStart();
+    int pageEnd = pageStart + values.size();
+    SafeHtml htmlBefore = null;
+    if (keepStart > pageStart) {
+      htmlBefore =
+          CellBasedWidgetImpl.get()
+              .processHtml(
+                  buildRowValues(values.subList(0, keepStart - pageStart), pageStart, false));
+    }
+    SafeHtml htmlAfter = null;
+    if (keepEnd < pageEnd) {
+      htmlAfter =
+          CellBasedWidgetImpl.get()
+              .processHtml(
+                  buildRowValues(
+                      values.subList(keepEnd - pageStart, values.size()), keepEnd, false));
+    }
+
+    TABLE_IMPL.recycleRows(
+        this, getTableBodyElement(), keepStart, keepEnd, htmlBefore, htmlAfter);
+    return true;
+  }
+
   @Override
   protected void replaceAllChildren(List<T> values, SafeHtml html) {
     refreshHeadersAndColumnsImpl();
@@ -2326,6 +2581,24 @@ public abstract class AbstractCellTable<T> extends AbstractHasData<T> {
     setKeyboardSelectionHandler(new CellTableKeyboardSelectionHandler<T>(this));
   }
 
+  /**
+   * Update a reused row element that represents a row value that moved.
+   *
+   * @param row the row element
+   * @param oldAbsRowIndex the absolute index the row value was rendered at
+   * @param absRowIndex the new absolute index of the row value
+   */
+  private void moveRow(TableRowElement row, int oldAbsRowIndex, int absRowIndex) {
+    ((AbstractCellTableBuilder<?>) tableBuilder).setRowValueIndex(row, absRowIndex);
+    if ((oldAbsRowIndex - absRowIndex) % 2 != 0) {
+      swapClassName(row, style.evenRow(), style.oddRow());
+      NodeList<TableCellElement> cells = row.getCells();
+      for (int i = 0; i < cells.getLength(); i++) {
+        swapClassName(cells.getItem(i), style.evenRowCell(), style.oddRowCell());
+      }
+    }
+  }
+
   /** Mark the column widths as dirty and redraw the table. */
   private void refreshColumnsAndRedraw() {
     columnWidthsDirty = true;
@@ -2398,6 +2671,15 @@ public abstract class AbstractCellTable<T> extends AbstractHasData<T> {
     }
   }
 
+  /** Replace one of two class names on an element with the other. */
+  private void swapClassName(Element elem, String className, String otherClassName) {
+    if (elem.hasClassName(className)) {
+      elem.replaceClassName(className, otherClassName);
+    } else if (elem.hasClassName(otherClassName)) {
+      elem.replaceClassName(otherClassName, className);
+    }
+  }
+
   /**
    * Update the width of all instances of the specified column. A column instance may appear
    * multiple times in the table.
@@ -135,6 +135,17 @@ public abstract class AbstractCellTableBuilder<T> implements CellTableBuilder<T>
     }
   }
 
+  /**
+   * Update a rendered row element so it represents the row value at the specified index, when the
+   * element is reused for a row value that moved.
+   *
+   * @param row the row element
+   * @param absRowIndex the absolute index of the row value
+   */
+  final void setRowValueIndex(TableRowElement row, int absRowIndex) {
+    row.setAttribute(ROW_ATTRIBUTE, String.valueOf(absRowIndex));
+  }
+
   /**
    * Get the index of the subrow value from the associated {@link TableRowElement}. The sub row
    * value starts at 0 for the first row that represents a row value.
@@ -15,12 +15,14 @@
  */
 package org.gwtproject.user.cellview.client;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import jsinterop.base.Js;
 import org.gwtproject.cell.client.Cell;
+import org.gwtproject.core.client.Duration;
 import org.gwtproject.core.client.Scheduler;
 import org.gwtproject.dom.client.BrowserEvents;
 import org.gwtproject.dom.client.Document;
@@ -68,6 +70,10 @@ public abstract class AbstractHasData<T> extends Composite
   boolean isFocused;
 
   private char accessKey = 0;
+
+  /** The time spent rendering rows before yielding to the browser, or 0 to render all at once. */
+  private int incrementalRenderBudget;
+
   /** A boolean indicating that the widget is refreshing, so all events should be ignored. */
   private boolean isRefreshing;
 
@@ -285,6 +291,35 @@ public abstract class AbstractHasData<T> extends Composite
     return getVisibleItems();
   }
 
+  /**
+   * Get the time spent rendering rows before yielding to the browser when a page is rendered
+   * incrementally.
+   *
+   * @return the time budget in milliseconds, or 0 if pages are rendered all at once
+   * @see #setIncrementalRenderBudget(int)
+   */
+  public int getIncrementalRenderBudget() {
+    return incrementalRenderBudget;
+  }
+
+  /**
+   * Render large pages incrementally. When all rows of a page are rendered, the rows at the top of
+   * the page are rendered right away, and the other rows are rendered in slices with {@link
+   * Scheduler#scheduleIncremental(Scheduler.RepeatingCommand)}, spending at most about {@code
+   * budget} milliseconds per slice, so the browser can handle input in between.
+   *
+   * <p>While the remaining rows are rendered, the widget reports {@link
+   * LoadingState#PARTIALLY_LOADED}. A {@link LoadingStateChangeEvent} with the loading state of
+   * the data is fired once the page is fully rendered. Any other update of the rows first renders
+   * the remaining rows at once.
+   *
+   * @param budget the time budget in milliseconds, or 0 to render pages all at once, which is the
+   *     default
+   */
+  public void setIncrementalRenderBudget(int budget) {
+    this.incrementalRenderBudget = Math.max(0, budget);
+  }
+
   @Override
   public KeyboardPagingPolicy getKeyboardPagingPolicy() {
     return presenter.getKeyboardPagingPolicy();
@@ -397,6 +432,27 @@ public abstract class AbstractHasData<T> extends Composite
     return getChildContainer();
   }
 
+  /**
+   * Get the number of rows that were rendered when updating this widget.
+   *
+   * @return the number of rows rendered since this widget was created
+   * @see #getReusedRowCount()
+   */
+  public int getRebuiltRowCount() {
+    return presenter.getRebuiltRowCount();
+  }
+
+  /**
+   * Get the number of rows that were kept as they were, instead of being rendered again, when
+   * updating this widget.
+   *
+   * @return the number of rows kept since this widget was created
+   * @see #getRebuiltRowCount()
+   */
+  public int getReusedRowCount() {
+    return presenter.getReusedRowCount();
+  }
+
   @Override
   public int getRowCount() {
     return presenter.getRowCount();
@@ -553,7 +609,7 @@ public abstract class AbstractHasData<T> extends Composite
   public void redrawRow(int absRowIndex) {
     int relRowIndex = absRowIndex - getPageStart();
     checkRowBounds(relRowIndex);
-    setRowData(absRowIndex, Collections.singletonList(getVisibleItem(relRowIndex)));
+    presenter.redrawRow(absRowIndex);
   }
 
   @Override
@@ -785,6 +841,35 @@ public abstract class AbstractHasData<T> extends Composite
       SafeHtmlBuilder sb, List<T> values, int start, SelectionModel<? super T> selectionModel)
       throws UnsupportedOperationException;
 
+  /**
+   * Update the children to show the specified values, reusing the children of row values that were
+   * matched by key. Views that cannot reuse their children return false, in which case all
+   * children are replaced instead.
+   *
+   * @param values the values of the page
+   * @param sources for each value, the absolute index at which the child to reuse was rendered,
+   *     or -1 if the value must be rendered
+   * @return true if the children were updated, false if not
+   * @see AbstractCellTable#setKeyedRendering(boolean)
+   */
+  protected boolean reconcileChildren(List<T> values, int[] sources) {
+    return false;
+  }
+
+  /**
+   * Update the children after the page start changed, keeping the children that represent rows in
+   * the specified range and rendering the other values. Views that cannot keep their children
+   * return false, in which case all children are replaced instead.
+   *
+   * @param values the values of the page
+   * @param keepStart the absolute index of the first rendered row that is still on the page
+   * @param keepEnd the absolute index after the last rendered row that is still on the page
+   * @return true if the children were updated, false if not
+   */
+  protected boolean recycleChildren(List<T> values, int keepStart, int keepEnd) {
+    return false;
+  }
+
   /**
    * Replace all children with the specified html.
    *
@@ -1109,7 +1194,85 @@ public abstract class AbstractHasData<T> extends Composite
    */
   private static class View<T> implements HasDataPresenter.View<T> {
 
+    /**
+     * A page rendered in slices. Each slice renders chunks of rows until the time budget of the
+     * widget is spent.
+     */
+    private class IncrementalRender implements Scheduler.RepeatingCommand {
+
+      private boolean cancelled;
+      private int renderedCount;
+      private final SelectionModel<? super T> selectionModel;
+      private final int start;
+      private final List<T> values;
+
+      public IncrementalRender(
+          List<T> values, int start, SelectionModel<? super T> selectionModel) {
+        this.values = new ArrayList<T>(values);
+        this.start = start;
+        this.selectionModel = selectionModel;
+      }
+
+      @Override
+      public boolean execute() {
+        if (cancelled) {
+          return false;
+        }
+        if (hasData.getPageStart() != start) {
+          // Wait until the view is updated with the pending page.
+          return true;
+        }
+        renderSlice();
+        if (isRendered()) {
+          finishIncrementalRender();
+          return false;
+        }
+        return true;
+      }
+
+      /** Check if all rows have been rendered. */
+      public boolean isRendered() {
+        return renderedCount >= values.size();
+      }
+
+      /** Render the next chunk of rows. */
+      public void renderChunk() {
+        int end = Math.min(values.size(), renderedCount + INCREMENTAL_RENDER_CHUNK_SIZE);
+        List<T> chunk = values.subList(renderedCount, end);
+        SafeHtml html = renderRowValues(chunk, start + renderedCount, selectionModel);
+        hasData.isRefreshing = true;
+        if (renderedCount == 0) {
+          hasData.replaceAllChildren(chunk, html);
+        } else {
+          hasData.replaceChildren(chunk, renderedCount, html);
+        }
+        hasData.isRefreshing = false;
+        renderedCount = end;
+      }
+
+      /** Render chunks of rows until the time budget is spent, rendering at least one chunk. */
+      public void renderSlice() {
+        Duration duration = new Duration();
+        do {
+          renderChunk();
+        } while (!isRendered() && duration.elapsedMillis() < hasData.incrementalRenderBudget);
+      }
+    }
+
+    /** The number of rows rendered at a time when rendering a page incrementally. */
+    private static final int INCREMENTAL_RENDER_CHUNK_SIZE = 20;
+
     private final AbstractHasData<T> hasData;
+
+    /** The page being rendered incrementally, or null if the page is fully rendered. */
+    private IncrementalRender incrementalRender;
+
+    /** The last loading state of the presenter. */
+    private LoadingState loadingState;
+
+    /** A boolean indicating that the loading state is reported once the page is rendered. */
+    private boolean loadingStatePending;
+
     private boolean wasFocused;
 
     public View(AbstractHasData<T> hasData) {
@@ -1124,6 +1287,13 @@ public abstract class AbstractHasData<T> extends Composite
     @Override
     public void replaceAllChildren(
         List<T> values, SelectionModel<? super T> selectionModel, boolean stealFocus) {
+      // Drop the rows of a page that is still being rendered.
+      cancelIncrementalRender();
+      if (hasData.incrementalRenderBudget > 0 && values.size() > INCREMENTAL_RENDER_CHUNK_SIZE) {
+        replaceAllChildrenIncrementally(values, selectionModel, stealFocus);
+        return;
+      }
+
       SafeHtml html = renderRowValues(values, hasData.getPageStart(), selectionModel);
 
       // Removing elements can fire a blur event, which we ignore.
@@ -1133,22 +1303,17 @@ public abstract class AbstractHasData<T> extends Composite
       hasData.replaceAllChildren(values, html);
       hasData.isRefreshing = false;
 
-      // Ensure that the keyboard selected element is focusable.
-      Element elem = hasData.getKeyboardSelectedElement();
-      if (elem != null) {
-        hasData.setFocusable(elem, true);
-        if (hasData.isFocused) {
-          hasData.onFocus();
-        }
-      }
+      ensureKeyboardSelectedElementFocusable();
 
       fireValueChangeEvent();
       View.this.hasData.fireEvent(new RedrawEvent());
+      reportPendingLoadingState();
     }
 
     @Override
     public void replaceChildren(
         List<T> values, int start, SelectionModel<? super T> selectionModel, boolean stealFocus) {
+      finishIncrementalRender();
       SafeHtml html = renderRowValues(values, hasData.getPageStart() + start, selectionModel);
 
       // Removing elements can fire a blur event, which we ignore.
@@ -1158,17 +1323,67 @@ public abstract class AbstractHasData<T> extends Composite
       hasData.replaceChildren(values, start, html);
       hasData.isRefreshing = false;
 
-      // Ensure that the keyboard selected element is focusable.
-      Element elem = hasData.getKeyboardSelectedElement();
-      if (elem != null) {
-        hasData.setFocusable(elem, true);
-        if (hasData.isFocused) {
-          hasData.onFocus();
-        }
+      ensureKeyboardSelectedElementFocusable();
+
+      fireValueChangeEvent();
+      View.this.hasData.fireEvent(new RedrawEvent());
+    }
+
+    @Override
+    public boolean recycleChildren(
+        List<T> values,
+        int keepStart,
+        int keepEnd,
+        SelectionModel<? super T> selectionModel,
+        boolean stealFocus) {
+      if (!finishIncrementalRender()) {
+        return false;
+      }
+
+      // Removing elements can fire a blur event, which we ignore.
+      boolean isFocused = hasData.isFocused || stealFocus;
+      hasData.isFocused = isFocused;
+      hasData.isRefreshing = true;
+      boolean recycled = hasData.recycleChildren(values, keepStart, keepEnd);
+      hasData.isRefreshing = false;
+      if (!recycled) {
+        return false;
       }
+      wasFocused = isFocused;
+
+      ensureKeyboardSelectedElementFocusable();
 
       fireValueChangeEvent();
       View.this.hasData.fireEvent(new RedrawEvent());
+      return true;
+    }
+
+    @Override
+    public boolean reconcileChildren(
+        List<T> values,
+        int[] sources,
+        SelectionModel<? super T> selectionModel,
+        boolean stealFocus) {
+      if (!finishIncrementalRender()) {
+        return false;
+      }
+
+      // Removing elements can fire a blur event, which we ignore.
+      boolean isFocused = hasData.isFocused || stealFocus;
+      hasData.isFocused = isFocused;
+      hasData.isRefreshing = true;
+      boolean reconciled = hasData.reconcileChildren(values, sources);
+      hasData.isRefreshing = false;
+      if (!reconciled) {
+        return false;
+      }
+      wasFocused = isFocused;
+
+      ensureKeyboardSelectedElementFocusable();
+
+      fireValueChangeEvent();
+      View.this.hasData.fireEvent(new RedrawEvent());
+      return true;
     }
 
     @Override
@@ -1192,15 +1407,63 @@ public abstract class AbstractHasData<T> extends Composite
 
     @Override
     public void setKeyboardSelected(int index, boolean seleted, boolean stealFocus) {
+      finishIncrementalRender();
       hasData.isFocused = hasData.isFocused || stealFocus;
       hasData.setKeyboardSelected(index, seleted, stealFocus);
     }
 
     @Override
     public void setLoadingState(LoadingState state) {
-      hasData.isRefreshing = true;
-      hasData.onLoadingStateChanged(state);
-      hasData.isRefreshing = false;
+      loadingState = state;
+
+      // The state is reported once the page being rendered is complete.
+      if (!loadingStatePending) {
+        onLoadingStateChanged(state);
+      }
+    }
+
+    /** Stop rendering the page being rendered incrementally, if any. */
+    private void cancelIncrementalRender() {
+      if (incrementalRender != null) {
+        incrementalRender.cancelled = true;
+        incrementalRender = null;
+      }
+    }
+
+    /** Ensure that the keyboard selected element is focusable. */
+    private void ensureKeyboardSelectedElementFocusable() {
+      Element elem = hasData.getKeyboardSelectedElement();
+      if (elem != null) {
+        hasData.setFocusable(elem, true);
+        if (hasData.isFocused) {
+          hasData.onFocus();
+        }
+      }
+    }
+
+    /**
+     * Render the remaining rows of the page being rendered incrementally, if any, and report the
+     * loading state now that the page is complete.
+     *
+     * @return false if the remaining rows cannot be rendered because the page start changed, in
+     *     which case the children must be replaced
+     */
+    private boolean finishIncrementalRender() {
+      IncrementalRender render = incrementalRender;
+      if (render == null) {
+        return true;
+      }
+      cancelIncrementalRender();
+      if (hasData.getPageStart() != render.start) {
+        return false;
+      }
+      while (!render.isRendered()) {
+        render.renderChunk();
+      }
+      ensureKeyboardSelectedElementFocusable();
+      hasData.fireEvent(new RedrawEvent());
+      reportPendingLoadingState();
+      return true;
     }
 
     /** Fire a value change event. */
@@ -1211,6 +1474,59 @@ public abstract class AbstractHasData<T> extends Composite
       hasData.fireEvent(new ValueChangeEvent<List<T>>(hasData.getVisibleItems()) {});
     }
 
+    /**
+     * Notify the widget that the loading state changed.
+     *
+     * @param state the new loading state
+     */
+    private void onLoadingStateChanged(LoadingState state) {
+      hasData.isRefreshing = true;
+      hasData.onLoadingStateChanged(state);
+      hasData.isRefreshing = false;
+    }
+
+    /**
+     * Replace all children, rendering the rows at the top of the page right away and the other rows
+     * in scheduled slices.
+     *
+     * @param values the row values
+     * @param selectionModel the {@link SelectionModel}
+     * @param stealFocus true if the row should steal focus, false if not
+     */
+    private void replaceAllChildrenIncrementally(
+        List<T> values, SelectionModel<? super T> selectionModel, boolean stealFocus) {
+      // Removing elements can fire a blur event, which we ignore.
+      hasData.isFocused = hasData.isFocused || stealFocus;
+      wasFocused = hasData.isFocused;
+
+      IncrementalRender render =
+          new IncrementalRender(values, hasData.getPageStart(), selectionModel);
+      render.renderSlice();
+      ensureKeyboardSelectedElementFocusable();
+      fireValueChangeEvent();
+      if (render.isRendered()) {
+        hasData.fireEvent(new RedrawEvent());
+        reportPendingLoadingState();
+        return;
+      }
+
+      // Report that the page is incomplete until the remaining rows are rendered.
+      if (!loadingStatePending && loadingState == LoadingState.LOADED) {
+        onLoadingStateChanged(LoadingState.PARTIALLY_LOADED);
+      }
+      loadingStatePending = true;
+      incrementalRender = render;
+      Scheduler.get().scheduleIncremental(render);
+    }
+
+    /** Report the loading state if it was held back while a page was rendered. */
+    private void reportPendingLoadingState() {
+      if (loadingStatePending) {
+        loadingStatePending = false;
+        onLoadingStateChanged(loadingState);
+      }
+    }
+
     /**
      * Render a list of row values.
      *
@@ -256,6 +256,27 @@ class CellTreeNodeView<T> extends UIObject {
         loadChildState(values, start, savedViews);
       }
 
+      @Override
+      public boolean reconcileChildren(
+          List<C> values,
+          int[] sources,
+          SelectionModel<? super C> selectionModel,
+          boolean stealFocus) {
+        // Child nodes keep state of their own, so they are always rendered again.
+        return false;
+      }
+
+      @Override
+      public boolean recycleChildren(
+          List<C> values,
+          int keepStart,
+          int keepEnd,
+          SelectionModel<? super C> selectionModel,
+          boolean stealFocus) {
+        // Child nodes keep state of their own, so they are always rendered again.
+        return false;
+      }
+
       @Override
       public void resetFocus() {
         nodeView.tree.resetFocus();
@@ -15,6 +15,7 @@
  */
 package org.gwtproject.user.cellview.client;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -22,10 +23,12 @@ import java.util.List;
 import java.util.Map;
 import org.gwtproject.event.shared.Event;
 import org.gwtproject.event.shared.HasHandlers;
+import org.gwtproject.user.cellview.client.ColumnSortList.ColumnSortInfo;
 import org.gwtproject.view.client.AsyncDataProvider;
 import org.gwtproject.view.client.HasData;
 import org.gwtproject.view.client.ListDataProvider;
 import org.gwtproject.view.client.Range;
+import org.gwtproject.view.client.SortedFilteredListDataProvider;
 
 /** Represents a column sort event. */
 public class ColumnSortEvent extends Event<ColumnSortEvent.Handler> {
@@ -133,6 +136,92 @@ public class ColumnSortEvent extends Event<ColumnSortEvent.Handler> {
     }
   }
 
+  /**
+   * A default handler used to sort the values shown by a {@link SortedFilteredListDataProvider}.
+   * The values are sorted by all columns of the {@link ColumnSortList} that have an associated
+   * {@link Comparator}, so values that are equal in the first sorted column are sorted by the next
+   * one. The source list is not modified.
+   *
+   * @param <T> the data type of the list
+   */
+  public static class SortedFilteredListHandler<T> implements Handler {
+    private final Map<Column<?, ?>, Comparator<T>> comparators =
+        new HashMap<Column<?, ?>, Comparator<T>>();
+    private final SortedFilteredListDataProvider<T> provider;
+
+    public SortedFilteredListHandler(SortedFilteredListDataProvider<T> provider) {
+      this.provider = provider;
+    }
+
+    /**
+     * Returns the comparator that has been set for the specified column, or null if no comparator
+     * has been set.
+     *
+     * @param column the {@link Column}
+     */
+    public Comparator<T> getComparator(Column<T, ?> column) {
+      return comparators.get(column);
+    }
+
+    public SortedFilteredListDataProvider<T> getProvider() {
+      return provider;
+    }
+
+    public void onColumnSort(ColumnSortEvent event) {
+      ColumnSortList sortList = event.getColumnSortList();
+      if (sortList == null) {
+        return;
+      }
+
+      // Get the comparators of the sorted columns.
+      final List<Comparator<T>> sortComparators = new ArrayList<Comparator<T>>();
+      for (int i = 0; i < sortList.size(); i++) {
+        ColumnSortInfo sortInfo = sortList.get(i);
+        final Comparator<T> comparator = comparators.get(sortInfo.getColumn());
+        if (comparator == null) {
+          continue;
+        }
+        if (sortInfo.isAscending()) {
+          sortComparators.add(comparator);
+        } else {
+          sortComparators.add(
+              new Comparator<T>() {
+                public int compare(T o1, T o2) {
+                  return -comparator.compare(o1, o2);
+                }
+              });
+        }
+      }
+      if (sortComparators.isEmpty()) {
+        return;
+      }
+
+      // Sort using the comparators in order.
+      provider.setComparator(
+          new Comparator<T>() {
+            public int compare(T o1, T o2) {
+              for (Comparator<T> comparator : sortComparators) {
+                int diff = comparator.compare(o1, o2);
+                if (diff != 0) {
+                  return diff;
+                }
+              }
+              return 0;
+            }
+          });
+    }
+
+    /**
+     * Set the comparator used to sort the specified column in ascending order.
+     *
+     * @param column the {@link Column}
+     * @param comparator the {@link Comparator} to use for the {@link Column}
+     */
+    public void setComparator(Column<T, ?> column, Comparator<T> comparator) {
+      comparators.put(column, comparator);
+    }
+  }
+
   /** Handler type. */
   private static Type<Handler> TYPE;
 
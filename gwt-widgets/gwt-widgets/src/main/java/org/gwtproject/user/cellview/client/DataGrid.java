@@ -18,6 +18,7 @@ package org.gwtproject.user.cellview.client;
 import org.gwtproject.cell.client.Cell;
 import org.gwtproject.dom.client.Document;
 import org.gwtproject.dom.client.Element;
+import org.gwtproject.dom.client.TableCellElement;
 import org.gwtproject.dom.client.TableColElement;
 import org.gwtproject.dom.client.TableElement;
 import org.gwtproject.dom.client.TableSectionElement;
@@ -42,6 +43,8 @@ import org.gwtproject.user.client.ui.ScrollPanel;
 import org.gwtproject.user.client.ui.SimplePanel;
 import org.gwtproject.user.client.ui.Widget;
 import org.gwtproject.view.client.ProvidesKey;
+import org.gwtproject.view.client.Range;
+import org.gwtproject.view.client.RowCountChangeEvent;
 
 /**
  * A tabular view with a fixed header and footer section and a scrollable data section in the
@@ -67,6 +70,16 @@ import org.gwtproject.view.client.ProvidesKey;
  *
  * <p>
  *
+ * <h3>Virtual Scrolling</h3>
+ *
+ * By default, the data section contains every row of the current page. To scroll through a large
+ * number of rows without paging, call {@link #setVirtualRowHeight(int)}: the visible range then
+ * follows the scroll position, so only the rows in view plus a few rows above and below them (see
+ * {@link #setVirtualOverscan(int)}) are rendered, and rows that stay in view are kept as the user
+ * scrolls. Empty space above and below the rendered rows preserves the scroll height.
+ *
+ * <p>
+ *
  * <h3>Examples</h3>
  *
  * <dl>
@@ -412,6 +425,7 @@ public class DataGrid<T> extends AbstractCellTable<T> implements RequiresResize
   }
 
   private static final int DEFAULT_PAGESIZE = 50;
+  private static final int DEFAULT_VIRTUAL_OVERSCAN = 10;
   private static Resources DEFAULT_RESOURCES;
 
   /**
@@ -452,6 +466,13 @@ public class DataGrid<T> extends AbstractCellTable<T> implements RequiresResize
   private final SimplePanel tableHeaderContainer;
   private final Element tableHeaderScroller;
 
+  /** The spacers above and below the rendered rows, created when virtual scrolling is enabled. */
+  private TableSectionElement topSpacer;
+
+  private TableSectionElement bottomSpacer;
+  private int virtualOverscan = DEFAULT_VIRTUAL_OVERSCAN;
+  private int virtualRowHeight;
+
   /** Constructs a table with a default page size of 50. */
   public DataGrid() {
     this(DEFAULT_PAGESIZE);
@@ -589,6 +610,23 @@ public class DataGrid<T> extends AbstractCellTable<T> implements RequiresResize
             int scrollLeft = tableDataScroller.getHorizontalScrollPosition();
             tableHeaderScroller.setScrollLeft(scrollLeft);
             tableFooterScroller.setScrollLeft(scrollLeft);
+            updateVirtualRange();
+          }
+        });
+
+    // Keep the spacers in sync with the rendered rows.
+    addRedrawHandler(
+        new RedrawEvent.Handler() {
+          @Override
+          public void onRedraw() {
+            updateSpacers();
+          }
+        });
+    addRowCountChangeHandler(
+        new RowCountChangeEvent.Handler() {
+          @Override
+          public void onRowCountChange(RowCountChangeEvent event) {
+            updateSpacers();
           }
         });
   }
@@ -628,9 +666,41 @@ public class DataGrid<T> extends AbstractCellTable<T> implements RequiresResize
     tableDataContainer.getStyle().clearWidth();
   }
 
+  /**
+   * Get the number of rows rendered above and below the visible rows when virtual scrolling is
+   * enabled.
+   *
+   * @return the number of rows
+   * @see #setVirtualOverscan(int)
+   */
+  public int getVirtualOverscan() {
+    return virtualOverscan;
+  }
+
+  /**
+   * Get the row height used for virtual scrolling.
+   *
+   * @return the height of a row in pixels, or 0 if virtual scrolling is disabled
+   * @see #setVirtualRowHeight(int)
+   */
+  public int getVirtualRowHeight() {
+    return virtualRowHeight;
+  }
+
+  /**
+   * Check whether the visible range follows the scroll position.
+   *
+   * @return true if virtual scrolling is enabled
+   * @see #setVirtualRowHeight(int)
+   */
+  public boolean isVirtualScrolling() {
+    return virtualRowHeight > 0;
+  }
+
   @Override
   public void onResize() {
     headerPanel.onResize();
+    updateVirtualRange();
   }
 
   @Override
@@ -661,6 +731,54 @@ public class DataGrid<T> extends AbstractCellTable<T> implements RequiresResize
     super.setLoadingIndicator(widget);
   }
 
+  /**
+   * Set the number of rows rendered above and below the visible rows when virtual scrolling is
+   * enabled, so rows are already in place when the user scrolls a little. Defaults to 10.
+   *
+   * @param rows the number of rows
+   */
+  public void setVirtualOverscan(int rows) {
+    if (rows < 0) {
+      throw new IllegalArgumentException("Overscan cannot be less than 0");
+    }
+    virtualOverscan = rows;
+    updateVirtualRange();
+  }
+
+  /**
+   * Enable or disable virtual scrolling.
+   *
+   * <p>When enabled, the visible range of this grid is driven by the scroll position: it covers the
+   * rows in view plus the overscan rows, and a {@link org.gwtproject.view.client.RangeChangeEvent}
+   * is fired as the user scrolls, so the data provider only has to supply those rows. Rows that
+   * stay in range are kept in the DOM instead of being rendered again, and the space of the other
+   * rows, up to the row count, is preserved above and below them. Pagers should not be attached
+   * to a grid that uses virtual scrolling.
+   *
+   * <p>Every row is expected to take the specified height, which is used to translate between
+   * scroll positions and row indexes, so rows should be styled with a fixed height.
+   *
+   * @param rowHeight the height of a row in pixels, or 0 to disable virtual scrolling
+   */
+  public void setVirtualRowHeight(int rowHeight) {
+    if (rowHeight < 0) {
+      throw new IllegalArgumentException("Row height cannot be less than 0");
+    }
+    virtualRowHeight = rowHeight;
+    if (rowHeight > 0) {
+      if (topSpacer == null) {
+        topSpacer = createSpacer();
+        bottomSpacer = createSpacer();
+      }
+      tableData.tableElem.insertBefore(topSpacer, tableData.section);
+      tableData.tableElem.insertAfter(bottomSpacer, tableData.section);
+      updateVirtualRange();
+    } else if (topSpacer != null) {
+      topSpacer.removeFromParent();
+      bottomSpacer.removeFromParent();
+    }
+  }
+
   /**
    * Set the minimum width of the tables in this widget. If the widget become narrower than the
    * minimum width, a horizontal scrollbar will appear so the user can scroll horizontally.
@@ -759,8 +877,12 @@ public class DataGrid<T> extends AbstractCellTable<T> implements RequiresResize
   @Override
   protected void onLoadingStateChanged(LoadingState state) {
     Widget message = tableData;
-    if (state == LoadingState.LOADING) {
-      // Loading indicator.
+    if (state == LoadingState.LOADING
+        && (!isVirtualScrolling() || tableDataScroller.getVerticalScrollPosition() == 0)) {
+      /*
+       * Loading indicator. When virtual scrolling, the table stays in place
+       * while rows load further down, or the scroll position would be lost.
+       */
       message = loadingIndicatorContainer;
     } else if (state == LoadingState.LOADED && getPresenter().isEmpty()) {
       // Empty table.
@@ -784,4 +906,60 @@ public class DataGrid<T> extends AbstractCellTable<T> implements RequiresResize
     tableData.hideUnusedColumns(columnCount);
     tableFooter.hideUnusedColumns(columnCount);
   }
+
+  /** Create a table body containing a single empty cell, used to take the space of rows. */
+  private TableSectionElement createSpacer() {
+    TableSectionElement spacer = Document.get().createTBodyElement();
+    TableCellElement cell = spacer.insertRow(-1).insertCell(-1);
+    cell.getStyle().setPadding(0.0, Unit.PX);
+    cell.getStyle().setProperty("border", "none");
+    return spacer;
+  }
+
+  /**
+   * Set the height of a spacer, hiding it when empty so it does not add borders or spacing.
+   *
+   * @param spacer the spacer
+   * @param rows the number of rows the spacer stands for
+   */
+  private void setSpacerHeight(TableSectionElement spacer, int rows) {
+    if (rows <= 0) {
+      spacer.getStyle().setDisplay(Display.NONE);
+    } else {
+      spacer.getStyle().clearDisplay();
+      TableCellElement cell = spacer.getRows().getItem(0).getCells().getItem(0);
+      cell.getStyle().setHeight((double) rows * virtualRowHeight, Unit.PX);
+    }
+  }
+
+  /** Size the spacers so they take the space of the rows that are not rendered. */
+  private void updateSpacers() {
+    if (!isVirtualScrolling()) {
+      return;
+    }
+    int pageStart = getPageStart();
+    setSpacerHeight(topSpacer, pageStart);
+    setSpacerHeight(bottomSpacer, getRowCount() - pageStart - getVisibleItemCount());
+  }
+
+  /** Move the visible range to the rows in view when virtual scrolling. */
+  private void updateVirtualRange() {
+    if (!isVirtualScrolling()) {
+      return;
+    }
+
+    // The viewport has no height until the grid is attached and laid out.
+    int viewportHeight = tableDataScroller.getOffsetHeight();
+    if (viewportHeight > 0) {
+      int firstVisibleRow = tableDataScroller.getVerticalScrollPosition() / virtualRowHeight;
+      int visibleRowCount = viewportHeight / virtualRowHeight + 2;
+      int start = Math.max(0, firstVisibleRow - virtualOverscan);
+      int length = firstVisibleRow - start + visibleRowCount + virtualOverscan;
+      Range range = getVisibleRange();
+      if (range.getStart() != start || range.getLength() != length) {
+        setVisibleRange(start, length);
+      }
+    }
+    updateSpacers();
+  }
 }
@@ -18,9 +18,11 @@ package org.gwtproject.user.cellview.client;
 import elemental2.core.JsArray;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import jsinterop.base.Js;
 import org.gwtproject.core.client.JavaScriptObject;
@@ -115,6 +117,41 @@ class HasDataPresenter<T> implements HasData<T>, HasKeyProvider<T>, HasKeyboardP
     void replaceChildren(
         List<T> values, int start, SelectionModel<? super T> selectionModel, boolean stealFocus);
 
+    /**
+     * Update the children after the page start changed, keeping the children that represent rows
+     * that are still on the page and rendering only the values that moved onto the page.
+     *
+     * @param values the values of the page
+     * @param keepStart the absolute index of the first rendered row that is still on the page
+     * @param keepEnd the absolute index after the last rendered row that is still on the page
+     * @param selectionModel the {@link SelectionModel}
+     * @param stealFocus true if the row should steal focus, false if not
+     * @return true if the children were updated, false if the view must be redrawn instead
+     */
+    boolean recycleChildren(
+        List<T> values,
+        int keepStart,
+        int keepEnd,
+        SelectionModel<? super T> selectionModel,
+        boolean stealFocus);
+
+    /**
+     * Update the children to show the specified values, reusing the children that represent the
+     * same row values as before, possibly at a different index, and rendering the other values.
+     *
+     * @param values the values of the page
+     * @param sources for each value, the absolute index at which the child to reuse was rendered,
+     *     or -1 if the value must be rendered
+     * @param selectionModel the {@link SelectionModel}
+     * @param stealFocus true if the row should steal focus, false if not
+     * @return true if the children were updated, false if the view must be redrawn instead
+     */
+    boolean reconcileChildren(
+        List<T> values,
+        int[] sources,
+        SelectionModel<? super T> selectionModel,
+        boolean stealFocus);
+
     /** Re-establish focus on an element within the view if the view already had focus. */
     void resetFocus();
 
@@ -239,6 +276,9 @@ class HasDataPresenter<T> implements HasData<T>, HasKeyProvider<T>, HasKeyboardP
     /** Set to true if a redraw is required. */
     private boolean redrawRequired = false;
 
+    /** The absolute indexes of rows that must be rendered again even if their value is equal. */
+    private final Set<Integer> redrawnRows = new HashSet<Integer>();
+
     /** The list of ranges that have been replaced. */
     private final List<Range> replacedRanges = new ArrayList<Range>();
 
@@ -373,6 +413,9 @@ class HasDataPresenter<T> implements HasData<T>, HasKeyProvider<T>, HasKeyboardP
   private KeyboardPagingPolicy keyboardPagingPolicy = KeyboardPagingPolicy.CHANGE_PAGE;
   private KeyboardSelectionPolicy keyboardSelectionPolicy = KeyboardSelectionPolicy.ENABLED;
 
+  /** A boolean indicating that rows are matched by key when the view is updated. */
+  private boolean keyedRendering;
+
   private final ProvidesKey<T> keyProvider;
 
   /** The pending state of the presenter to be pushed to the view. */
@@ -388,6 +431,16 @@ class HasDataPresenter<T> implements HasData<T>, HasKeyProvider<T>, HasKeyboardP
    */
   private int pendingStateLoop = 0;
 
+  /** The number of rows rendered again, and kept as they were, when updating the view. */
+  private int rebuiltRowCount;
+
+  /**
+   * The state that the view currently shows, or null if unknown because pushing a state to the view
+   * failed.
+   */
+  private State<T> renderedState;
+
+  private int reusedRowCount;
   private HandlerRegistration selectionHandler;
   private SelectionModel<? super T> selectionModel;
 
@@ -412,6 +465,7 @@ class HasDataPresenter<T> implements HasData<T>, HasKeyProvider<T>, HasKeyboardP
     this.view = view;
     this.keyProvider = keyProvider;
     this.state = new DefaultState<T>(pageSize);
+    this.renderedState = state;
   }
 
   @Override
@@ -520,6 +574,28 @@ class HasDataPresenter<T> implements HasData<T>, HasKeyProvider<T>, HasKeyboardP
     return keyProvider;
   }
 
+  /**
+   * Get the number of rows that were rendered when the view was updated, since this presenter was
+   * created.
+   *
+   * @return the number of rows rendered
+   * @see #getReusedRowCount()
+   */
+  public int getRebuiltRowCount() {
+    return rebuiltRowCount;
+  }
+
+  /**
+   * Get the number of rows that were kept as they were, instead of being rendered again, when the
+   * view was updated, since this presenter was created.
+   *
+   * @return the number of rows kept
+   * @see #getRebuiltRowCount()
+   */
+  public int getReusedRowCount() {
+    return reusedRowCount;
+  }
+
   /**
    * Get the overall data size.
    *
@@ -575,6 +651,16 @@ class HasDataPresenter<T> implements HasData<T>, HasKeyProvider<T>, HasKeyboardP
     return isRowCountExact() && getRowCount() == 0;
   }
 
+  /**
+   * Check whether rows are matched by key when the view is updated.
+   *
+   * @return true if keyed rendering is enabled
+   * @see #setKeyedRendering(boolean)
+   */
+  public boolean isKeyedRendering() {
+    return keyedRendering;
+  }
+
   @Override
   public boolean isRowCountExact() {
     return getCurrentState().isRowCountExact();
@@ -585,6 +671,36 @@ class HasDataPresenter<T> implements HasData<T>, HasKeyProvider<T>, HasKeyboardP
     ensurePendingState().redrawRequired = true;
   }
 
+  /**
+   * Redraw a single row with its current value, even if keyed rendering would otherwise keep it.
+   *
+   * @param absRowIndex the absolute row index to redraw
+   */
+  public void redrawRow(int absRowIndex) {
+    T value = getVisibleItem(absRowIndex - getPageStart());
+    setRowData(absRowIndex, Collections.singletonList(value));
+    ensurePendingState().redrawnRows.add(absRowIndex);
+  }
+
+  /**
+   * Enable or disable keyed rendering.
+   *
+   * <p>By default, every row in a range passed to {@link #setRowData(int, List)} is rendered again,
+   * and all rows are rendered again when the page start changes. With keyed rendering, the rows of
+   * the page are matched to the rendered rows by the key of their value, as returned by the {@link
+   * ProvidesKey}, and the view reuses the rendered rows whose value is equal to the new value and
+   * whose selection state did not change, even if they moved. Only the other rows are rendered.
+   *
+   * <p>Row values that are changed in place are equal to themselves, so they are not rendered
+   * again unless {@link #redrawRow(int)} or {@link #redraw()} is called. Views that do not support
+   * keyed rendering are redrawn instead.
+   *
+   * @param keyedRendering true to enable keyed rendering
+   */
+  public void setKeyedRendering(boolean keyedRendering) {
+    this.keyedRendering = keyedRendering;
+  }
+
   @Override
   public void setKeyboardPagingPolicy(KeyboardPagingPolicy policy) {
     if (policy == null) {
@@ -891,6 +1007,17 @@ class HasDataPresenter<T> implements HasData<T>, HasKeyProvider<T>, HasKeyboardP
     return toRet;
   }
 
+  /**
+   * Update the counters of rendered and reused rows.
+   *
+   * @param renderedRows the number of rows rendered
+   * @param rowDataCount the number of rows on the page
+   */
+  private void countRenderedRows(int renderedRows, int rowDataCount) {
+    rebuiltRowCount += renderedRows;
+    reusedRowCount += Math.max(0, rowDataCount - renderedRows);
+  }
+
   /**
    * Ensure that a pending {@link DefaultState} exists and return it.
    *
@@ -983,6 +1110,86 @@ class HasDataPresenter<T> implements HasData<T>, HasKeyProvider<T>, HasKeyboardP
     return (keyProvider == null || rowValue == null) ? rowValue : keyProvider.getKey(rowValue);
   }
 
+  /**
+   * Match the rows of the new state to the rows of the rendered state by key. A rendered row can be
+   * reused if its value is equal to the new value, and neither its selection nor its keyboard
+   * selection changed.
+   *
+   * @param rendered the state shown by the view
+   * @param newState the state to show
+   * @param keyboardRowChanged true if the keyboard selected row changed
+   * @return for each row of the new state, the absolute index of the rendered row to reuse, or -1
+   */
+  private int[] matchRowsByKey(
+      State<T> rendered, PendingState<T> newState, boolean keyboardRowChanged) {
+    int renderedStart = rendered.getPageStart();
+    int renderedCount = rendered.getRowDataSize();
+    Map<Object, Integer> renderedRows = new HashMap<Object, Integer>();
+    for (int i = 0; i < renderedCount; i++) {
+      T value = rendered.getRowDataValue(i);
+      Object key = getRowValueKey(value);
+      if (key != null && !renderedRows.containsKey(key)) {
+        renderedRows.put(key, renderedStart + i);
+      }
+    }
+
+    int pageStart = newState.getPageStart();
+    int renderedKeyboardRow = renderedStart + rendered.getKeyboardSelectedRow();
+    int keyboardRow = pageStart + newState.getKeyboardSelectedRow();
+    boolean keyboardMoved =
+        KeyboardSelectionPolicy.DISABLED != keyboardSelectionPolicy
+            && (keyboardRowChanged || renderedKeyboardRow != keyboardRow);
+
+    int rowDataCount = newState.getRowDataSize();
+    int[] sources = new int[rowDataCount];
+    for (int i = 0; i < rowDataCount; i++) {
+      int row = pageStart + i;
+      T value = newState.getRowDataValue(i);
+      Object key = getRowValueKey(value);
+      // Remove the match, so a rendered row is reused at most once.
+      Integer source = key == null ? null : renderedRows.remove(key);
+      boolean reuse =
+          source != null
+              && value.equals(rendered.getRowDataValue(source - renderedStart))
+              && !newState.redrawnRows.contains(row)
+              && rendered.isRowSelected(source) == newState.isRowSelected(row)
+              && !(keyboardMoved && (row == keyboardRow || source == renderedKeyboardRow));
+      sources[i] = reuse ? source : -1;
+    }
+    return sources;
+  }
+
+  /**
+   * Push the new state to the view by reusing the rendered rows matched by key.
+   *
+   * @return false if the view does not support it
+   */
+  private boolean reconcileChildren(State<T> rendered, PendingState<T> newState, int[] sources) {
+    int pageStart = newState.getPageStart();
+    int rowDataCount = sources.length;
+    int renderedRows = 0;
+    boolean unchanged =
+        pageStart == rendered.getPageStart() && rowDataCount == rendered.getRowDataSize();
+    for (int i = 0; i < rowDataCount; i++) {
+      if (sources[i] < 0) {
+        renderedRows++;
+      }
+      if (sources[i] != pageStart + i) {
+        unchanged = false;
+      }
+    }
+
+    if (!unchanged) {
+      if (!view.reconcileChildren(
+          newState.rowData, sources, selectionModel, newState.keyboardStealFocus)) {
+        return false;
+      }
+      view.resetFocus();
+    }
+    countRenderedRows(renderedRows, rowDataCount);
+    return true;
+  }
+
   /**
    * Resolve the pending state and push updates to the view.
    *
@@ -1204,6 +1411,7 @@ class HasDataPresenter<T> implements HasData<T>, HasKeyProvider<T>, HasKeyboardP
       // pending state instance.
       pendingState.selectedValue = newState.selectedValue;
       pendingState.selectedRows.addAll(newlySelectedRows);
+      pendingState.redrawnRows.addAll(newState.redrawnRows);
       if (keyboardRowChanged) {
         pendingState.keyboardSelectedRowChanged = true;
       }
@@ -1230,6 +1438,57 @@ class HasDataPresenter<T> implements HasData<T>, HasKeyProvider<T>, HasKeyboardP
       }
     }
 
+    /*
+     * If the page start moved, but some of the rendered rows are still on the
+     * page, the view may keep them and render only the rows that moved onto the
+     * page. The rows it keeps only need to be replaced if they were modified.
+     */
+    int oldPageStart = oldState.getPageStart();
+    int oldPageSize = oldState.getPageSize();
+    int oldRowDataCount = oldState.getRowDataSize();
+    int keepStart = Math.max(pageStart, oldPageStart);
+    int keepEnd = Math.min(oldPageStart + oldRowDataCount, pageStart + rowDataCount);
+    int[] keyedSources = null;
+    if (keyedRendering
+        && !newState.redrawRequired
+        && renderedState != null
+        && renderedState.getRowDataSize() > 0
+        && rowDataCount > 0) {
+      keyedSources = matchRowsByKey(renderedState, newState, keyboardRowChanged);
+    }
+    boolean recycle =
+        keyedSources == null
+            && pageStart != oldPageStart
+            && !newState.redrawRequired
+            && keepStart < keepEnd;
+    if (recycle) {
+      JsArrayInteger keptModifiedRows = JavaScriptObject.createArray().cast();
+      for (int i = 0; i < modifiedRows.length(); i++) {
+        int index = modifiedRows.get(i);
+        if (index >= keepStart && index < keepEnd) {
+          keptModifiedRows.push(index);
+        }
+      }
+      for (int i = keepStart; i < keepEnd; i++) {
+        if (oldState.getRowDataValue(i - oldPageStart) != newState.getRowDataValue(i - pageStart)) {
+          keptModifiedRows.push(i);
+        }
+      }
+      // The keyboard selected row is relative to the page start, so it may have moved.
+      int oldKeyboardRow = oldPageStart + oldState.getKeyboardSelectedRow();
+      int newKeyboardRow = pageStart + newState.getKeyboardSelectedRow();
+      if (KeyboardSelectionPolicy.DISABLED != keyboardSelectionPolicy
+          && (keyboardRowChanged || oldKeyboardRow != newKeyboardRow)) {
+        if (oldKeyboardRow >= keepStart && oldKeyboardRow < keepEnd) {
+          keptModifiedRows.push(oldKeyboardRow);
+        }
+        if (newKeyboardRow >= keepStart && newKeyboardRow < keepEnd) {
+          keptModifiedRows.push(newKeyboardRow);
+        }
+      }
+      modifiedRows = keptModifiedRows;
+    }
+
     // Calculate the modified ranges.
     List<Range> modifiedRanges = calculateModifiedRanges(modifiedRows, pageStart, pageEnd);
     Range range0 = modifiedRanges.size() > 0 ? modifiedRanges.get(0) : null;
@@ -1242,13 +1501,12 @@ class HasDataPresenter<T> implements HasData<T>, HasKeyProvider<T>, HasKeyboardP
     /*
      * Check the various conditions that require redraw.
      */
-    int oldPageStart = oldState.getPageStart();
-    int oldPageSize = oldState.getPageSize();
-    int oldRowDataCount = oldState.getRowDataSize();
     boolean redrawRequired = newState.redrawRequired;
-    if (pageStart != oldPageStart) {
-      // Redraw if pageStart changes.
-      redrawRequired = true;
+    if (keyedSources != null) {
+      // The view only renders the rows that could not be matched.
+    } else if (pageStart != oldPageStart) {
+      // Redraw if pageStart changes, unless the view can keep some rows.
+      redrawRequired = !recycle;
     } else if (rowDataCount < oldRowDataCount) {
       // Redraw if we have trimmed the row data.
       redrawRequired = true;
@@ -1279,12 +1537,32 @@ class HasDataPresenter<T> implements HasData<T>, HasKeyProvider<T>, HasKeyboardP
     /*
      * Push changes to the view.
      */
+    State<T> lastRenderedState = renderedState;
+    renderedState = null;
     try {
+      if (keyedSources != null
+          && !reconcileChildren(lastRenderedState, newState, keyedSources)) {
+        redrawRequired = true;
+      }
+
+      if (recycle
+          && !view.recycleChildren(
+              newState.rowData,
+              keepStart,
+              keepEnd,
+              selectionModel,
+              newState.keyboardStealFocus)) {
+        redrawRequired = true;
+      }
+
       if (redrawRequired) {
         // Redraw the entire content.
         SafeHtmlBuilder sb = new SafeHtmlBuilder();
         view.replaceAllChildren(newState.rowData, selectionModel, newState.keyboardStealFocus);
         view.resetFocus();
+        countRenderedRows(rowDataCount, rowDataCount);
+      } else if (keyedSources != null) {
+        // The view already reused the rows that were matched by key.
       } else if (range0 != null) {
         // Surgically replace specific rows.
 
@@ -1309,6 +1587,12 @@ class HasDataPresenter<T> implements HasData<T>, HasKeyProvider<T>, HasKeyboardP
         }
 
         view.resetFocus();
+        int recycledRows = recycle ? rowDataCount - (keepEnd - keepStart) : 0;
+        countRenderedRows(replaceDiff + recycledRows, rowDataCount);
+      } else if (recycle) {
+        // The kept rows are up to date, and the other rows were just rendered.
+        view.resetFocus();
+        countRenderedRows(rowDataCount - (keepEnd - keepStart), rowDataCount);
       } else if (keyboardRowChanged) {
         // Update the keyboard selected rows without redrawing.
         // Deselect the old keyboard row.
@@ -1323,6 +1607,7 @@ class HasDataPresenter<T> implements HasData<T>, HasKeyProvider<T>, HasKeyboardP
           view.setKeyboardSelected(newSelectedRow, true, newState.keyboardStealFocus);
         }
       }
+      renderedState = newState;
     } catch (Error e) {
       // Force the error into the dev mode console.
       throw new RuntimeException(e);
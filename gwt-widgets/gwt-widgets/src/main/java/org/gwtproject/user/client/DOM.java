@@ -465,7 +465,7 @@ public class DOM {
    * @see DOM#eventGetTarget(Event)
    */
   public static Element eventGetCurrentTarget(Event evt) {
-    return evt.getCurrentEventTarget().cast();
+    return impl.eventGetCurrentTarget(evt);
   }
 
   /**
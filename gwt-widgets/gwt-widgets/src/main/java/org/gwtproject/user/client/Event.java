@@ -281,7 +281,7 @@ public class Event extends NativeEvent {
    */
   @Deprecated
   public final Element getCurrentTarget() {
-    return getCurrentEventTarget().cast();
+    return DOM.eventGetCurrentTarget(this);
   }
 
   /**
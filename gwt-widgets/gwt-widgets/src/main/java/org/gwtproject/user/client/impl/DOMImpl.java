@@ -65,6 +65,10 @@ public abstract class DOMImpl {
     }
   }
 
+  public Element eventGetCurrentTarget(Event evt) {
+    return evt.getCurrentEventTarget().cast();
+  }
+
   public abstract Element eventGetFromElement(Event evt);
 
   public boolean eventGetRepeat(Event evt) {
@@ -151,10 +155,8 @@ public abstract class DOMImpl {
   public abstract int getChildIndex(Element parent, Element child);
 
   public int getEventsSunk(Element elem) {
-    if (((JsPropertyMap) elem).has("__eventBits")) {
-      return Integer.valueOf(((JsPropertyMap) elem).get("__eventBits").toString());
-    }
-    return 0;
+    // Undefined coerces to 0.
+    return Js.coerceToInt(Js.asPropertyMap(elem).get("__eventBits"));
   }
 
   public abstract void insertChild(Element parent, Element child, int index);
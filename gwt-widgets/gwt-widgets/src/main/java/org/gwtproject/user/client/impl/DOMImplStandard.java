@@ -33,10 +33,69 @@ import org.gwtproject.user.client.Event;
  */
 public abstract class DOMImplStandard extends DOMImpl {
 
+  /** The names of the events handled by {@link #sinkEvents}, in the order of their bits. */
+  private static final String[] EVENT_NAMES = {
+    "click",
+    "dblclick",
+    "mousedown",
+    "mouseup",
+    "mouseover",
+    "mouseout",
+    "mousemove",
+    "keydown",
+    "keypress",
+    "keyup",
+    "change",
+    "focus",
+    "blur",
+    "losecapture",
+    "scroll",
+    "load",
+    "error",
+    "mousewheel",
+    "contextmenu",
+    "paste",
+    "touchstart",
+    "touchmove",
+    "touchend",
+    "touchcancel",
+    "gesturestart",
+    "gesturechange",
+    "gestureend"
+  };
+
+  /** The event handler properties, such as {@code onclick}, in the order of their bits. */
+  private static final String[] HANDLER_PROPERTIES = new String[EVENT_NAMES.length];
+
+  static {
+    for (int i = 0; i < EVENT_NAMES.length; i++) {
+      HANDLER_PROPERTIES[i] = "on" + EVENT_NAMES[i];
+    }
+  }
+
+  /** Shared by all elements, so that sinking events does not allocate a function per element. */
+  private static final Fn DISPATCH_EVENT = (event) -> dispatchEvent(event);
+
+  private static final Fn DISPATCH_UNHANDLED_EVENT = (event) -> dispatchUnhandledEvent(event);
+
+  private static final Fn DISPATCH_DELEGATED_EVENT = (event) -> dispatchDelegatedEvent(event);
+
   private static Element captureElem;
   private static EventMap bitlessEventDispatchers = getBitlessEventDispatchers();
   private static EventMap captureEventDispatchers = getCaptureEventDispatchers();
 
+  /** The event being dispatched by {@link #dispatchEvent(Event, Element)}, if any. */
+  private static Event dispatchedEvent;
+
+  /** The element {@link #dispatchedEvent} is being dispatched to. */
+  private static Element dispatchedTarget;
+
+  /** The bits of the events that have a delegated listener on the document. */
+  private static int delegatedEventBits;
+
+  private static boolean eventDelegationEnabled =
+      "true".equals(System.getProperty("gwt.eventDelegationEnabled", "false"));
+
   /**
    * Adds custom bitless event dispatchers to GWT. If no specific event dispatcher supplied for an
    * event, the default dispatcher is used.
@@ -97,6 +156,43 @@ public abstract class DOMImplStandard extends DOMImpl {
     captureEventDispatchers.merge(eventMap);
   }
 
+  /**
+   * Check if events sunk with {@link DOM#sinkEvents(Element, int)} are dispatched by listeners on
+   * the document.
+   *
+   * @return true if event delegation is enabled
+   * @see #setEventDelegationEnabled(boolean)
+   */
+  public static boolean isEventDelegationEnabled() {
+    return eventDelegationEnabled;
+  }
+
+  /**
+   * Enables or disables event delegation. Must be called before the first widget sinks events, or
+   * set with the {@code gwt.eventDelegationEnabled} system property.
+   *
+   * <p>By default, sinking events sets an event handler property, such as {@code onclick}, on each
+   * element. With event delegation, sinking events only records the event bits on the element, and
+   * a single capturing listener per event type on the document dispatches each event to the
+   * elements between its target and the document that sank it, innermost first, just as their own
+   * handler properties would have. Events that do not bubble are only dispatched to their target.
+   * This saves a handler per element and event type on pages with many widgets.
+   *
+   * <p>Because the listeners capture events on the document, widgets receive an event before the
+   * listeners added directly to its target, and stopping its propagation from a widget also hides
+   * it from those listeners. The native current target of a delegated event is the document; use
+   * {@link DOM#eventGetCurrentTarget(Event)} to get the element the event is dispatched to.
+   *
+   * @param enabled true to dispatch events from the document
+   * @throws IllegalStateException if the event system is already initialized
+   */
+  public static void setEventDelegationEnabled(boolean enabled) {
+    if (eventSystemIsInitialized) {
+      throw new IllegalStateException("Event system already initialized");
+    }
+    eventDelegationEnabled = enabled;
+  }
+
   private static void ensureInit() {
     if (eventSystemIsInitialized) {
       throw new IllegalStateException("Event system already initialized");
@@ -108,15 +204,32 @@ public abstract class DOMImplStandard extends DOMImpl {
   }
 
   public static void dispatchEvent(Event evt) {
-    Element element = getFirstAncestorWithListener(evt);
+    dispatchEvent(evt, evt.getCurrentEventTarget().<Element>cast());
+  }
+
+  private static void dispatchEvent(Event evt, Element target) {
+    Element element = getFirstAncestorWithListener(target);
     if (element == null) {
       return;
     }
-    DOM.dispatchEvent(evt, element.getNodeType() != 1 ? null : element, getEventListener(element));
+
+    // With event delegation, the native current target is the document, so the element is recorded
+    // for DOM.eventGetCurrentTarget()
+    Event previousEvent = dispatchedEvent;
+    Element previousTarget = dispatchedTarget;
+    dispatchedEvent = evt;
+    dispatchedTarget = element;
+    try {
+      DOM.dispatchEvent(
+          evt, element.getNodeType() != 1 ? null : element, getEventListener(element));
+    } finally {
+      dispatchedEvent = previousEvent;
+      dispatchedTarget = previousTarget;
+    }
   }
 
-  private static Element getFirstAncestorWithListener(Event evt) {
-    Element curElem = evt.getCurrentEventTarget().cast();
+  private static Element getFirstAncestorWithListener(Element target) {
+    Element curElem = target;
     while (curElem != null && getEventListener(curElem) == null) {
       curElem = curElem.getParentNode().cast();
     }
@@ -135,6 +248,38 @@ public abstract class DOMImplStandard extends DOMImpl {
     dispatchEvent(evt);
   }
 
+  /**
+   * Dispatches an event caught by a delegated listener on the document to the elements between its
+   * target and the document that sank it, as their own handler properties would have.
+   */
+  private static void dispatchDelegatedEvent(Event evt) {
+    int bit = Event.getTypeInt(evt.getType());
+    if (bit <= 0) {
+      return;
+    }
+    JsPropertyMap<Object> eventMap = Js.asPropertyMap(evt);
+    boolean bubbles = Js.isTruthy(eventMap.get("bubbles"));
+    Node node = evt.getEventTarget().cast();
+    while (node != null) {
+      if (node.getNodeType() == Node.ELEMENT_NODE) {
+        Element element = (Element) node;
+        if ((Js.coerceToInt(Js.asPropertyMap(element).get("__eventBits")) & bit) != 0) {
+          if (bit == Event.ONLOAD) {
+            element.setPropertyString("__gwtLastUnhandledEvent", evt.getType());
+          }
+          dispatchEvent(evt, element);
+          if (Js.isTruthy(eventMap.get("cancelBubble"))) {
+            return;
+          }
+        }
+      }
+      if (!bubbles) {
+        return;
+      }
+      node = node.getParentNode();
+    }
+  }
+
   private static void dispatchCapturedEvent(Event evt) {
     DOM.previewEvent(evt);
   }
@@ -185,6 +330,14 @@ public abstract class DOMImplStandard extends DOMImpl {
     return eventMap;
   }
 
+  @Override
+  public Element eventGetCurrentTarget(Event evt) {
+    if (evt == dispatchedEvent) {
+      return dispatchedTarget;
+    }
+    return super.eventGetCurrentTarget(evt);
+  }
+
   @Override
   public Element eventGetFromElement(Event evt) {
     if (evt.getType().equals(BrowserEvents.MOUSEOVER)) {
@@ -320,122 +473,37 @@ public abstract class DOMImplStandard extends DOMImpl {
   }
 
   protected void sinkEventsImpl(Element elem, int bits) {
-    JsPropertyMap map = Js.asPropertyMap(elem);
-    int chMask =
-        (map.has("__eventBits") ? Integer.valueOf(map.get("__eventBits").toString()) : 0) ^ bits;
+    int chMask = getEventsSunk(elem) ^ bits;
+    JsPropertyMap<Object> map = Js.asPropertyMap(elem);
     map.set("__eventBits", bits);
 
-    if ((chMask & 0x00001) != 0) {
-      map.set("onclick", ((bits & 0x00001) != 0) ? (Fn) event -> dispatchEvent(event) : null);
-    }
-
-    if ((chMask & 0x00002) != 0) {
-      map.set("ondblclick", ((bits & 0x00002) != 0) ? (Fn) event -> dispatchEvent(event) : null);
-    }
-
-    if ((chMask & 0x00004) != 0) {
-      map.set("onmousedown", ((bits & 0x00004) != 0) ? (Fn) event -> dispatchEvent(event) : null);
-    }
-
-    if ((chMask & 0x00008) != 0) {
-      map.set("onmouseup", ((bits & 0x00008) != 0) ? (Fn) event -> dispatchEvent(event) : null);
-    }
-
-    if ((chMask & 0x00010) != 0) {
-      map.set("onmouseover", ((bits & 0x00010) != 0) ? (Fn) event -> dispatchEvent(event) : null);
-    }
-
-    if ((chMask & 0x00020) != 0) {
-      map.set("onmouseout", ((bits & 0x00020) != 0) ? (Fn) event -> dispatchEvent(event) : null);
-    }
-
-    if ((chMask & 0x00040) != 0) {
-      map.set("onmousemove", ((bits & 0x00040) != 0) ? (Fn) event -> dispatchEvent(event) : null);
-    }
-
-    if ((chMask & 0x00080) != 0) {
-      map.set("onkeydown", ((bits & 0x00080) != 0) ? (Fn) event -> dispatchEvent(event) : null);
-    }
-
-    if ((chMask & 0x00100) != 0) {
-      map.set("onkeypress", ((bits & 0x00100) != 0) ? (Fn) event -> dispatchEvent(event) : null);
-    }
-
-    if ((chMask & 0x00200) != 0) {
-      map.set("onkeyup", ((bits & 0x00200) != 0) ? (Fn) event -> dispatchEvent(event) : null);
-    }
-
-    if ((chMask & 0x00400) != 0) {
-      map.set("onchange", ((bits & 0x00400) != 0) ? (Fn) event -> dispatchEvent(event) : null);
-    }
-
-    if ((chMask & 0x00800) != 0) {
-      map.set("onfocus", ((bits & 0x00400) != 0) ? (Fn) event -> dispatchEvent(event) : null);
-    }
-
-    if ((chMask & 0x01000) != 0) {
-      map.set("onblur", ((bits & 0x01000) != 0) ? (Fn) event -> dispatchEvent(event) : null);
-    }
-
-    if ((chMask & 0x02000) != 0) {
-      map.set("onlosecapture", ((bits & 0x02000) != 0) ? (Fn) event -> dispatchEvent(event) : null);
-    }
-
-    if ((chMask & 0x04000) != 0) {
-      map.set("onscroll", ((bits & 0x04000) != 0) ? (Fn) event -> dispatchEvent(event) : null);
-    }
-
-    if ((chMask & 0x08000) != 0) {
-      map.set(
-          "onload", ((bits & 0x08000) != 0) ? (Fn) event -> dispatchUnhandledEvent(event) : null);
-    }
-
-    if ((chMask & 0x10000) != 0) {
-      map.set("onerror", ((bits & 0x10000) != 0) ? (Fn) event -> dispatchEvent(event) : null);
-    }
-
-    if ((chMask & 0x20000) != 0) {
-      map.set("onmousewheel", ((bits & 0x20000) != 0) ? (Fn) event -> dispatchEvent(event) : null);
-    }
-
-    if ((chMask & 0x40000) != 0) {
-      map.set("oncontextmenu", ((bits & 0x40000) != 0) ? (Fn) event -> dispatchEvent(event) : null);
-    }
-
-    if ((chMask & 0x80000) != 0) {
-      map.set("onpaste", ((bits & 0x80000) != 0) ? (Fn) event -> dispatchEvent(event) : null);
-    }
-
-    if ((chMask & 0x100000) != 0) {
-      map.set("ontouchstart", ((bits & 0x100000) != 0) ? (Fn) event -> dispatchEvent(event) : null);
-    }
-
-    if ((chMask & 0x200000) != 0) {
-      map.set("ontouchmove", ((bits & 0x200000) != 0) ? (Fn) event -> dispatchEvent(event) : null);
-    }
-
-    if ((chMask & 0x400000) != 0) {
-      map.set("ontouchend", ((bits & 0x400000) != 0) ? (Fn) event -> dispatchEvent(event) : null);
-    }
-
-    if ((chMask & 0x800000) != 0) {
-      map.set(
-          "ontouchcancel", ((bits & 0x800000) != 0) ? (Fn) event -> dispatchEvent(event) : null);
-    }
-
-    if ((chMask & 0x1000000) != 0) {
-      map.set(
-          "ongesturestart", ((bits & 0x1000000) != 0) ? (Fn) event -> dispatchEvent(event) : null);
+    if (eventDelegationEnabled) {
+      sinkDelegatedEvents(bits & ~delegatedEventBits);
+      return;
     }
 
-    if ((chMask & 0x2000000) != 0) {
-      map.set(
-          "ongesturechange", ((bits & 0x2000000) != 0) ? (Fn) event -> dispatchEvent(event) : null);
+    for (int i = 0; i < HANDLER_PROPERTIES.length; i++) {
+      int bit = 1 << i;
+      if ((chMask & bit) != 0) {
+        Fn dispatcher = (bit == Event.ONLOAD) ? DISPATCH_UNHANDLED_EVENT : DISPATCH_EVENT;
+        map.set(HANDLER_PROPERTIES[i], ((bits & bit) != 0) ? dispatcher : null);
+      }
     }
+  }
 
-    if ((chMask & 0x4000000) != 0) {
-      map.set(
-          "ongestureend", ((bits & 0x4000000) != 0) ? (Fn) event -> dispatchEvent(event) : null);
+  /**
+   * Adds a capturing listener on the document for each event that does not have one yet.
+   *
+   * @param bits the bits of the events to listen to
+   */
+  private void sinkDelegatedEvents(int bits) {
+    for (int i = 0; i < EVENT_NAMES.length; i++) {
+      int bit = 1 << i;
+      if ((bits & bit) != 0) {
+        DomGlobal.document.addEventListener(
+            EVENT_NAMES[i], Js.uncheckedCast(DISPATCH_DELEGATED_EVENT), true);
+        delegatedEventBits |= bit;
+      }
     }
   }
 
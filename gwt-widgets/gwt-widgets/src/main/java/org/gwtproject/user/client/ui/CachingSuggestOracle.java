@@ -0,0 +1,264 @@
+/*
+ * Copyright 2008 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gwtproject.user.client.ui;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A {@link SuggestOracle} that caches the responses of another oracle, typically one that fetches
+ * suggestions from a server.
+ *
+ * <p>A query that was answered before is answered from the cache. A query that extends a cached
+ * query, such as <i>jan</i> after <i>ja</i>, is answered by filtering the suggestions of the cached
+ * query locally with a {@link SuggestionFilter}, provided the cached response was complete, that
+ * is, it was not truncated by the limit of its request. Other queries are passed to the wrapped
+ * oracle.
+ *
+ * <p>Local filtering is only correct if every suggestion for a query is also a suggestion for each
+ * of its prefixes, and if the filter accepts exactly the suggestions the wrapped oracle would
+ * return. The {@link #CachingSuggestOracle(SuggestOracle) default filter} matches the semantics of
+ * {@link MultiWordSuggestOracle}. Suggestions returned from a filtered response keep the display
+ * string they had for the cached query.
+ */
+public class CachingSuggestOracle extends SuggestOracle {
+
+  /** Decides which suggestions of a cached query also match a query that extends it. */
+  public interface SuggestionFilter {
+
+    /**
+     * Check if a suggestion matches a query.
+     *
+     * @param query the query
+     * @param suggestion a suggestion for a prefix of the query
+     * @return true if the suggestion matches the query
+     */
+    boolean accept(String query, Suggestion suggestion);
+  }
+
+  /** A cached response, with the limit of the request it answered. */
+  private static class CacheEntry {
+    final int limit;
+    final Response response;
+
+    CacheEntry(int limit, Response response) {
+      this.limit = limit;
+      this.response = response;
+    }
+
+    /** Check if the response contains every suggestion for its query. */
+    boolean isComplete() {
+      return !response.hasMoreSuggestions();
+    }
+  }
+
+  /**
+   * The default filter, which accepts a suggestion if every whitespace separated word of the query
+   * is a prefix of a word of its replacement string, ignoring case.
+   */
+  private static final SuggestionFilter WORD_PREFIX_FILTER =
+      new SuggestionFilter() {
+        @Override
+        public boolean accept(String query, Suggestion suggestion) {
+          String[] words = suggestion.getReplacementString().toLowerCase(Locale.ROOT).split("\\s+");
+          for (String queryWord : query.toLowerCase(Locale.ROOT).split("\\s+")) {
+            if (queryWord.length() > 0 && !startsAnyWord(words, queryWord)) {
+              return false;
+            }
+          }
+          return true;
+        }
+
+        private boolean startsAnyWord(String[] words, String prefix) {
+          for (String word : words) {
+            if (word.startsWith(prefix)) {
+              return true;
+            }
+          }
+          return false;
+        }
+      };
+
+  private final Map<String, CacheEntry> cache;
+
+  private final SuggestOracle delegate;
+
+  private final SuggestionFilter filter;
+
+  private int maxCacheSize = 50;
+
+  /**
+   * Constructor for {@link CachingSuggestOracle}. Filters cached suggestions the way {@link
+   * MultiWordSuggestOracle} matches them: every word of the query must be a prefix of a word of the
+   * replacement string, ignoring case.
+   *
+   * @param delegate the oracle whose responses are cached
+   */
+  public CachingSuggestOracle(SuggestOracle delegate) {
+    this(delegate, WORD_PREFIX_FILTER);
+  }
+
+  /**
+   * Constructor for {@link CachingSuggestOracle}.
+   *
+   * @param delegate the oracle whose responses are cached
+   * @param filter the filter that matches cached suggestions against queries that extend their
+   *     query, or null to only reuse responses for identical queries
+   */
+  public CachingSuggestOracle(SuggestOracle delegate, SuggestionFilter filter) {
+    this.delegate = delegate;
+    this.filter = filter;
+    this.cache =
+        new LinkedHashMap<String, CacheEntry>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, CacheEntry> eldest) {
+            return size() > maxCacheSize;
+          }
+        };
+  }
+
+  @Override
+  public void cancelRequest(Request request) {
+    delegate.cancelRequest(request);
+  }
+
+  /** Remove all cached responses, for example after the suggestions of the server changed. */
+  public void clearCache() {
+    cache.clear();
+  }
+
+  /**
+   * Get the number of cached responses.
+   *
+   * @return the number of cached queries
+   */
+  public int getCacheSize() {
+    return cache.size();
+  }
+
+  /**
+   * Get the oracle whose responses are cached.
+   *
+   * @return the wrapped oracle
+   */
+  public SuggestOracle getDelegate() {
+    return delegate;
+  }
+
+  /**
+   * Get the maximum number of cached responses.
+   *
+   * @return the maximum number of cached queries
+   */
+  public int getMaxCacheSize() {
+    return maxCacheSize;
+  }
+
+  @Override
+  public boolean isDisplayStringHTML() {
+    return delegate.isDisplayStringHTML();
+  }
+
+  @Override
+  public void requestDefaultSuggestions(Request request, Callback callback) {
+    delegate.requestDefaultSuggestions(request, callback);
+  }
+
+  @Override
+  public void requestSuggestions(final Request request, final Callback callback) {
+    final String query = request.getQuery();
+    CacheEntry entry = cache.get(query);
+    if (entry != null && (entry.isComplete() || entry.limit == request.getLimit())) {
+      callback.onSuggestionsReady(request, truncate(entry, request.getLimit()));
+      return;
+    }
+
+    // Filter the suggestions of the longest cached prefix.
+    if (filter != null) {
+      for (int length = query.length() - 1; length > 0; length--) {
+        CacheEntry prefixEntry = cache.get(query.substring(0, length));
+        if (prefixEntry != null && prefixEntry.isComplete()) {
+          List<Suggestion> suggestions = new ArrayList<Suggestion>();
+          for (Suggestion suggestion : prefixEntry.response.getSuggestions()) {
+            if (filter.accept(query, suggestion)) {
+              suggestions.add(suggestion);
+            }
+          }
+          entry = new CacheEntry(request.getLimit(), new Response(suggestions));
+          cache.put(query, entry);
+          callback.onSuggestionsReady(request, truncate(entry, request.getLimit()));
+          return;
+        }
+      }
+    }
+
+    delegate.requestSuggestions(
+        request,
+        new Callback() {
+          @Override
+          public void onSuggestionsReady(Request ignored, Response response) {
+            cache.put(query, new CacheEntry(request.getLimit(), response));
+            callback.onSuggestionsReady(request, response);
+          }
+        });
+  }
+
+  /**
+   * Set the maximum number of cached responses. When the cache is full, the least recently used
+   * response is evicted.
+   *
+   * @param maxCacheSize the maximum number of cached queries
+   */
+  public void setMaxCacheSize(int maxCacheSize) {
+    if (maxCacheSize < 0) {
+      throw new IllegalArgumentException("maxCacheSize must be non-negative");
+    }
+    this.maxCacheSize = maxCacheSize;
+    if (cache.size() > maxCacheSize) {
+      List<String> queries = new ArrayList<String>(cache.keySet());
+      for (String query : queries.subList(0, queries.size() - maxCacheSize)) {
+        cache.remove(query);
+      }
+    }
+  }
+
+  /**
+   * Get a cached response, truncated to a limit if it is complete.
+   *
+   * @param entry the cached response
+   * @param limit the limit of the request
+   * @return the response
+   */
+  private Response truncate(CacheEntry entry, int limit) {
+    int size = entry.response.getSuggestions().size();
+    if (!entry.isComplete() || size <= limit) {
+      return entry.response;
+    }
+    List<Suggestion> suggestions = new ArrayList<Suggestion>(limit);
+    for (Suggestion suggestion : entry.response.getSuggestions()) {
+      if (suggestions.size() == limit) {
+        break;
+      }
+      suggestions.add(suggestion);
+    }
+    Response response = new Response(suggestions);
+    response.setMoreSuggestionsCount(size - limit);
+    return response;
+  }
+}
@@ -230,4 +230,18 @@ public class FlexTable extends HTMLTable {
       insertRow(i);
     }
   }
+
+  /**
+   * Creates the rows before a range rendered by {@link #renderRange(int, int, RowRenderer)}. The
+   * rows of the range itself are appended by {@code renderRange}.
+   *
+   * @param startRow the index of the first row of the range
+   * @param rowCount the number of rows in the range
+   */
+  @Override
+  protected void prepareRowRange(int startRow, int rowCount) {
+    if (startRow > 0) {
+      prepareRow(startRow - 1);
+    }
+  }
 }
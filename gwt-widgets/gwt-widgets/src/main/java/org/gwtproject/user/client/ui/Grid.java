@@ -20,6 +20,7 @@ import org.gwtproject.dom.client.Element;
 import org.gwtproject.dom.client.Node;
 import org.gwtproject.dom.client.TableCellElement;
 import org.gwtproject.dom.client.TableRowElement;
+import org.gwtproject.user.client.DOM;
 
 /**
  * A rectangular grid that can contain text, html, or a child {@link Widget} within its cells. It
@@ -323,4 +324,24 @@ public class Grid extends HTMLTable {
       throw new IndexOutOfBoundsException("Row index: " + row + ", Row size: " + numRows);
     }
   }
+
+  /**
+   * Pads a row rendered by {@link #renderRange(int, int, RowRenderer)} with empty cells, so that
+   * it has as many cells as the grid has columns.
+   *
+   * @param row the index of the row
+   * @param tr the TR element of the row
+   * @throws IndexOutOfBoundsException if the row has more cells than the grid has columns
+   */
+  @Override
+  protected void prepareRenderedRow(int row, Element tr) {
+    int cellCount = DOM.getChildCount(tr);
+    if (cellCount > numColumns) {
+      throw new IndexOutOfBoundsException(
+          "Row " + row + " has " + cellCount + " cells, Column size: " + numColumns);
+    }
+    for (int i = cellCount; i < numColumns; i++) {
+      tr.appendChild(createCell());
+    }
+  }
 }
@@ -18,9 +18,14 @@ package org.gwtproject.user.client.ui;
 import elemental2.core.JsArray;
 import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
 import jsinterop.base.Js;
 import jsinterop.base.JsPropertyMap;
+import org.gwtproject.dom.builder.shared.HtmlBuilderFactory;
+import org.gwtproject.dom.builder.shared.HtmlTableBuilder;
+import org.gwtproject.dom.builder.shared.TableRowBuilder;
+import org.gwtproject.dom.builder.shared.TableSectionBuilder;
 import org.gwtproject.dom.client.Document;
 import org.gwtproject.dom.client.Element;
 import org.gwtproject.dom.client.TableCellElement;
@@ -679,6 +684,22 @@ public abstract class HTMLTable extends Panel
     }
   }
 
+  /**
+   * Renders the cells of the rows of a {@link HTMLTable#renderRange(int, int, RowRenderer)
+   * range}.
+   */
+  public interface RowRenderer {
+
+    /**
+     * Render the cells of a row. Each cell is a TD started with {@link TableRowBuilder#startTD()}
+     * and ended with {@link org.gwtproject.dom.builder.shared.TableCellBuilder#endTD()}.
+     *
+     * @param row the index of the row
+     * @param rowBuilder the builder of the row
+     */
+    void render(int row, TableRowBuilder rowBuilder);
+  }
+
   /** Table's body. */
   private final Element bodyElem;
 
@@ -694,6 +715,9 @@ public abstract class HTMLTable extends Panel
   /** Table element. */
   private final Element tableElem;
 
+  /** Used to convert the HTML of rendered rows into elements. */
+  private Element tmpElem;
+
   private ElementMapperImpl<Widget> widgetMap = new ElementMapperImpl<Widget>();
 
   /** Create a new empty HTML Table. */
@@ -988,6 +1012,66 @@ public abstract class HTMLTable extends Panel
     return true;
   }
 
+  /**
+   * Renders a range of rows, replacing any rows that already exist in the range. All the rows are
+   * built with {@link HtmlBuilderFactory} and converted to elements at once, which is much faster
+   * than filling the table cell by cell with {@link #setHTML(int, int, SafeHtml)}.
+   *
+   * <p>Widgets in the replaced rows are removed. Rows after the range are not affected.
+   *
+   * @param startRow the index of the first row to render
+   * @param rowCount the number of rows to render
+   * @param renderer renders the cells of each row
+   * @throws IndexOutOfBoundsException if the table cannot contain the range
+   */
+  public void renderRange(int startRow, int rowCount, RowRenderer renderer) {
+    if (startRow < 0 || rowCount < 0) {
+      throw new IndexOutOfBoundsException(
+          "Cannot render " + rowCount + " rows starting at row " + startRow);
+    }
+    if (rowCount == 0) {
+      return;
+    }
+    prepareRowRange(startRow, rowCount);
+
+    // Render all rows into a single table.
+    HtmlTableBuilder tableBuilder = HtmlBuilderFactory.get().createTableBuilder();
+    TableSectionBuilder sectionBuilder = tableBuilder.startTBody();
+    for (int row = startRow; row < startRow + rowCount; row++) {
+      TableRowBuilder rowBuilder = sectionBuilder.startTR();
+      renderer.render(row, rowBuilder);
+      rowBuilder.endTR();
+    }
+    sectionBuilder.endTBody();
+    tableBuilder.endTable();
+    if (tmpElem == null) {
+      tmpElem = Document.get().createDivElement();
+    }
+    tmpElem.setInnerSafeHtml(tableBuilder.asSafeHtml());
+    Element newBody = tmpElem.getFirstChildElement().getFirstChildElement();
+    tmpElem.setInnerHTML("");
+    JsArray<Element> newRows = getRows(newBody);
+    for (int i = 0; i < rowCount; i++) {
+      prepareRenderedRow(startRow + i, newRows.getAt(i));
+    }
+
+    // Remove the rows in the range, then insert the new rows in their place.
+    JsArray<Element> rows = getRows(bodyElem);
+    int endRow = Math.min(startRow + rowCount, rows.length);
+    Element before = (endRow < rows.length) ? rows.getAt(endRow) : null;
+    for (int row = endRow - 1; row >= startRow; row--) {
+      Element tr = rows.getAt(row);
+      JsArray<Element> cells = getCells(tr);
+      for (int column = 0; column < cells.length; column++) {
+        internalClearCell(cells.getAt(column), false);
+      }
+      bodyElem.removeChild(tr);
+    }
+    while (newBody.getFirstChildElement() != null) {
+      bodyElem.insertBefore(newBody.getFirstChildElement(), before);
+    }
+  }
+
   /**
    * Sets the width of the table's border. This border is displayed around all cells in the table.
    *
@@ -1043,6 +1127,31 @@ public abstract class HTMLTable extends Panel
     setHTML(row, column, html.asString());
   }
 
+  /**
+   * Sets the HTML contents of a range of rows, replacing the rows that already exist in the range.
+   * Each element of {@code rows} holds the contents of the cells of one row; null contents leave
+   * the cell empty.
+   *
+   * @param startRow the index of the first row to set
+   * @param rows the HTML contents of the cells of each row
+   * @throws IndexOutOfBoundsException if the table cannot contain the rows
+   * @see #renderRange(int, int, RowRenderer)
+   */
+  public void setRows(final int startRow, final List<SafeHtml[]> rows) {
+    renderRange(
+        startRow,
+        rows.size(),
+        (row, rowBuilder) -> {
+          for (SafeHtml html : rows.get(row - startRow)) {
+            if (html == null) {
+              rowBuilder.startTD().endTD();
+            } else {
+              rowBuilder.startTD().html(html).endTD();
+            }
+          }
+        });
+  }
+
   /**
    * Sets the text within the specified cell.
    *
@@ -1222,9 +1331,7 @@ public abstract class HTMLTable extends Panel
    * @throws IndexOutOfBoundsException
    */
   protected void insertCell(int row, int column) {
-    Element tr = rowFormatter.getRow(bodyElem, row);
-    Element td = createCell();
-    DOM.insertChild(tr, td, column);
+    insertCells(row, column, 1);
   }
 
   /**
@@ -1237,9 +1344,10 @@ public abstract class HTMLTable extends Panel
    */
   protected void insertCells(int row, int column, int count) {
     Element tr = rowFormatter.getRow(bodyElem, row);
-    for (int i = column; i < column + count; i++) {
-      Element td = createCell();
-      DOM.insertChild(tr, td, i);
+    JsArray<Element> cells = getCells(tr);
+    Element before = (column < cells.length) ? cells.getAt(column) : null;
+    for (int i = 0; i < count; i++) {
+      tr.insertBefore(createCell(), before);
     }
   }
 
@@ -1256,7 +1364,8 @@ public abstract class HTMLTable extends Panel
       checkRowBounds(beforeRow);
     }
     Element tr = DOM.createTR();
-    DOM.insertChild(bodyElem, tr, beforeRow);
+    JsArray<Element> rows = getRows(bodyElem);
+    bodyElem.insertBefore(tr, (beforeRow < rows.length) ? rows.getAt(beforeRow) : null);
     return beforeRow;
   }
 
@@ -1337,6 +1446,16 @@ public abstract class HTMLTable extends Panel
     }
   }
 
+  /**
+   * Called by {@link #renderRange(int, int, RowRenderer)} for each rendered row before it is
+   * inserted. Subclasses can override this method to check or complete the cells of the row.
+   *
+   * @param row the index of the row
+   * @param tr the TR element of the row, which is not attached to the table yet
+   * @throws IndexOutOfBoundsException if the row cannot be inserted
+   */
+  protected void prepareRenderedRow(int row, Element tr) {}
+
   /**
    * Subclasses must implement this method. If the row already exists, this method must do nothing.
    * Otherwise, a subclass must either ensure that the row exists or throw an {@link
@@ -1346,6 +1465,19 @@ public abstract class HTMLTable extends Panel
    */
   protected abstract void prepareRow(int row);
 
+  /**
+   * Called by {@link #renderRange(int, int, RowRenderer)} before it renders a range of rows. Rows
+   * in the range that do not exist are appended by {@code renderRange}, so the default
+   * implementation lets {@link #prepareRow(int)} prepare or reject the last row of the range.
+   *
+   * @param startRow the index of the first row of the range
+   * @param rowCount the number of rows in the range
+   * @throws IndexOutOfBoundsException if the table cannot contain the range
+   */
+  protected void prepareRowRange(int startRow, int rowCount) {
+    prepareRow(startRow + rowCount - 1);
+  }
+
   /**
    * Removes the specified cell from the table.
    *
@@ -20,15 +20,21 @@ import org.gwtproject.core.client.Scheduler.ScheduledCommand;
 import org.gwtproject.layout.client.Layout;
 import org.gwtproject.layout.client.Layout.AnimationCallback;
 import org.gwtproject.layout.client.Layout.Layer;
+import org.gwtproject.layout.client.LayoutScheduler;
+import org.gwtproject.layout.client.LayoutScheduler.LayoutTask;
 
 /**
  * A scheduled command used by animated layouts to ensure that only layout is ever performed for a
  * panel within a given user event.
  *
+ * <p>The layout is scheduled with the {@link LayoutScheduler}, which is flushed at the end of the
+ * event. All panels scheduled in the same event are therefore laid out in a single top-down pass,
+ * and a nested panel is not laid out before the panel that contains it.
+ *
  * <p>Note: This class assumes that {@link Layer#getUserObject Layer.getUserObject()} will return
  * the widget associated with a given layer.
  */
-public class LayoutCommand implements ScheduledCommand {
+public class LayoutCommand implements ScheduledCommand, LayoutTask {
 
   private boolean scheduled, canceled;
   private int duration;
@@ -49,8 +55,9 @@ public class LayoutCommand implements ScheduledCommand {
    * re-enable it.
    */
   public void cancel() {
-    // There's no way to "unschedule" a command, so we use a canceled flag.
+    // There's no way to "unschedule" a finally command, so we use a canceled flag.
     canceled = true;
+    LayoutScheduler.get().cancel(this);
   }
 
   public final void execute() {
@@ -59,6 +66,20 @@ public class LayoutCommand implements ScheduledCommand {
       return;
     }
 
+    // Lay out every panel scheduled so far, top-down. If this panel is no longer scheduled, a pass
+    // run by the command of another panel has already laid it out.
+    LayoutScheduler layoutScheduler = LayoutScheduler.get();
+    if (layoutScheduler.isScheduled(this)) {
+      layoutScheduler.flush();
+    }
+  }
+
+  @Override
+  public final void executeLayout() {
+    if (canceled) {
+      return;
+    }
+
     doBeforeLayout();
 
     layout.layout(
@@ -87,6 +108,11 @@ public class LayoutCommand implements ScheduledCommand {
         });
   }
 
+  @Override
+  public Layout getLayout() {
+    return layout;
+  }
+
   /**
    * Schedules a layout. The duration and callback passed to this method will supercede any previous
    * call that has not yet been executed.
@@ -99,6 +125,7 @@ public class LayoutCommand implements ScheduledCommand {
     this.callback = callback;
 
     canceled = false;
+    LayoutScheduler.get().schedule(this);
     if (!scheduled) {
       scheduled = true;
       Scheduler.get().scheduleFinally(this);
@@ -20,12 +20,10 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
-import java.util.Set;
 import java.util.TreeSet;
 import org.gwtproject.safehtml.shared.SafeHtmlBuilder;
 import org.gwtproject.safehtml.shared.SafeHtmlUtils;
@@ -127,17 +125,12 @@ public class MultiWordSuggestOracle extends SuggestOracle {
   /** Regular expression used to collapse all whitespace in a query string. */
   private static final String NORMALIZE_TO_SINGLE_WHITE_SPACE = "\\s+";
 
-  /** Associates substrings with words. */
-  private final PrefixTree tree = new PrefixTree();
-
-  /** Associates individual words with candidates. */
-  private HashMap<String, Set<String>> toCandidates = new HashMap<String, Set<String>>();
-
   /**
-   * Associates candidates with their formatted suggestions. Multiple formatted suggestions could be
-   * normalized to the same candidate, e.g. both 'Mobile' and 'MOBILE' are normalized to 'mobile'.
+   * Associates word prefixes with candidates, and candidates with their formatted suggestions.
+   * Multiple formatted suggestions could be normalized to the same candidate, e.g. both 'Mobile' and
+   * 'MOBILE' are normalized to 'mobile'.
    */
-  private HashMap<String, List<String>> toRealSuggestions = new HashMap<>();
+  private final SuggestionIndex index = new SuggestionIndex();
 
   /**
    * Specifies whether all formatted suggestions should be returned per normalized candidate. Refer
@@ -190,26 +183,8 @@ public class MultiWordSuggestOracle extends SuggestOracle {
    */
   public void add(String suggestion) {
     String candidate = normalizeSuggestion(suggestion);
-    // candidates --> real suggestions.
-    List<String> realSuggestions = toRealSuggestions.get(candidate);
-    if (realSuggestions == null) {
-      realSuggestions = new ArrayList<>();
-      toRealSuggestions.put(candidate, realSuggestions);
-    }
-    realSuggestions.add(0, suggestion);
-
-    // word fragments --> candidates.
-    String[] words = candidate.split(WHITESPACE_STRING);
-    for (int i = 0; i < words.length; i++) {
-      String word = words[i];
-      tree.add(word);
-      Set<String> l = toCandidates.get(word);
-      if (l == null) {
-        l = new HashSet<>();
-        toCandidates.put(word, l);
-      }
-      l.add(candidate);
-    }
+    // candidates --> real suggestions, word fragments --> candidates.
+    index.add(candidate, suggestion, candidate.split(WHITESPACE_STRING));
   }
 
   /**
@@ -225,9 +200,7 @@ public class MultiWordSuggestOracle extends SuggestOracle {
 
   /** Removes all of the suggestions from the oracle. */
   public void clear() {
-    tree.clear();
-    toCandidates.clear();
-    toRealSuggestions.clear();
+    index.clear();
   }
 
   @Override
@@ -335,7 +308,7 @@ public class MultiWordSuggestOracle extends SuggestOracle {
     for (int i = 0; i < candidates.size(); i++) {
       String candidate = candidates.get(i);
       // Use real suggestion for assembly.
-      List<String> realSuggestions = toRealSuggestions.get(candidate);
+      List<String> realSuggestions = index.getSuggestions(candidate);
       TreeSet<String> realSuggestionsSet = new TreeSet<>();
       if (suggestAllMatchingWords) {
         realSuggestionsSet.addAll(realSuggestions);
@@ -436,17 +409,8 @@ public class MultiWordSuggestOracle extends SuggestOracle {
    */
   private HashSet<String> createCandidatesFromWord(String query) {
     HashSet<String> candidateSet = new HashSet<>();
-    List<String> words = tree.getSuggestions(query, Integer.MAX_VALUE);
-    if (words != null) {
-      // Find all candidates that contain the given word the search is a
-      // subset of.
-      for (int i = 0; i < words.size(); i++) {
-        Collection<String> belongsTo = toCandidates.get(words.get(i));
-        if (belongsTo != null) {
-          candidateSet.addAll(belongsTo);
-        }
-      }
-    }
+    // Find all candidates that contain a word the search is a prefix of.
+    index.collectCandidates(query, candidateSet);
     return candidateSet;
   }
 
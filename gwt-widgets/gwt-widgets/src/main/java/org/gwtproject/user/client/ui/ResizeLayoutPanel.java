@@ -32,6 +32,7 @@ import org.gwtproject.event.logical.shared.ResizeHandler;
 import org.gwtproject.event.shared.HandlerRegistration;
 import org.gwtproject.layout.client.Layout;
 import org.gwtproject.layout.client.Layout.Layer;
+import org.gwtproject.layout.client.LayoutScheduler.LayoutTask;
 import org.gwtproject.user.client.DOM;
 import org.gwtproject.user.client.Event;
 import org.gwtproject.user.client.EventListener;
@@ -40,6 +41,10 @@ import org.gwtproject.user.client.ui.ResizeLayoutPanel.Impl.Delegate;
 /**
  * A simple panel that {@link ProvidesResize} to its one child, but does not {@link RequiresResize}.
  * Use this to embed layout panels in any location within your application.
+ *
+ * <p>In browsers that support {@code ResizeObserver}, the panel observes the size of its element,
+ * and its child is only resized when the size of the panel actually changed. Otherwise, the panel
+ * detects size changes with hidden scrollable elements.
  */
 public class ResizeLayoutPanel extends SimplePanel implements ProvidesResize, HasResizeHandlers {
 
@@ -82,6 +87,50 @@ public class ResizeLayoutPanel extends SimplePanel implements ProvidesResize, Ha
         delegate.onResize();
       }
     }
+
+    /**
+     * Called after a resize event was fired.
+     *
+     * @param width the offset width of the element
+     * @param height the offset height of the element
+     */
+    public void onResizeFired(int width, int height) {}
+  }
+
+  /**
+   * Implementation of resize event that observes the element with a {@code ResizeObserver}. Resizes
+   * are batched per frame and reported by the {@link ResizeNotifier}, which executes the layout
+   * task of the panel only if its size changed.
+   */
+  static class ImplResizeObserver extends Impl {
+    private final LayoutTask task;
+
+    /**
+     * Constructor for {@link ImplResizeObserver}.
+     *
+     * @param task the task to execute when the element is resized
+     */
+    ImplResizeObserver(LayoutTask task) {
+      this.task = task;
+    }
+
+    @Override
+    public void onAttach() {
+      super.onAttach();
+      ResizeNotifier.get().observe(parent, task);
+    }
+
+    @Override
+    public void onDetach() {
+      super.onDetach();
+      ResizeNotifier.get().unobserve(parent);
+    }
+
+    @Override
+    public void onResizeFired(int width, int height) {
+      // Don't report the same size again when the observer reports it.
+      ResizeNotifier.get().setSize(parent, width, height);
+    }
   }
 
   /** Implementation of resize event. */
@@ -288,14 +337,29 @@ public class ResizeLayoutPanel extends SimplePanel implements ProvidesResize, Ha
     }
   }
 
-  private final Impl impl = new ImplStandard();
+  private final LayoutTask resizeTask =
+      new LayoutTask() {
+        @Override
+        public Layout getLayout() {
+          return layout;
+        }
+
+        @Override
+        public void executeLayout() {
+          handleResize();
+        }
+      };
+  private final Impl impl =
+      ResizeNotifier.isSupported() ? new ImplResizeObserver(resizeTask) : new ImplStandard();
   private Layer layer;
   private final Layout layout;
   private final ScheduledCommand resizeCmd =
       new ScheduledCommand() {
         public void execute() {
-          resizeCmdScheduled = false;
-          handleResize();
+          // The resize may have been handled since it was scheduled.
+          if (resizeCmdScheduled) {
+            handleResize();
+          }
         }
       };
   private boolean resizeCmdScheduled = false;
@@ -386,6 +450,7 @@ public class ResizeLayoutPanel extends SimplePanel implements ProvidesResize, Ha
   }
 
   private void handleResize() {
+    resizeCmdScheduled = false;
     if (!isAttached()) {
       return;
     }
@@ -396,7 +461,10 @@ public class ResizeLayoutPanel extends SimplePanel implements ProvidesResize, Ha
     }
 
     // Fire resize event.
-    ResizeEvent.fire(this, getOffsetWidth(), getOffsetHeight());
+    int width = getOffsetWidth();
+    int height = getOffsetHeight();
+    ResizeEvent.fire(this, width, height);
+    impl.onResizeFired(width, height);
   }
 
   /**
@@ -0,0 +1,163 @@
+/*
+ * Copyright 2009 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gwtproject.user.client.ui;
+
+import elemental2.dom.DomGlobal;
+import jsinterop.annotations.JsFunction;
+import jsinterop.annotations.JsPackage;
+import jsinterop.annotations.JsType;
+import jsinterop.base.Js;
+import jsinterop.base.JsPropertyMap;
+import org.gwtproject.dom.client.Element;
+import org.gwtproject.layout.client.LayoutScheduler;
+import org.gwtproject.layout.client.LayoutScheduler.LayoutTask;
+
+/**
+ * Notifies widgets of changes to the size of their elements, using a single {@code
+ * ResizeObserver} for all of them.
+ *
+ * <p>The browser reports the size changes of a frame together, after it has laid out the page. The
+ * notifier reads the offset size of every reported element before any widget is notified, and
+ * schedules the {@link LayoutTask} of each element whose size differs from the last one it was
+ * notified of. The tasks are then executed in a single top-down pass of the {@link
+ * LayoutScheduler}, before the frame is painted. Widgets whose size did not change are not
+ * notified.
+ */
+final class ResizeNotifier {
+
+  /** The size an element was last notified of, and the task that notifies it. */
+  private static class Registration {
+    private int height = -1;
+    private final LayoutTask task;
+    private int width = -1;
+
+    Registration(LayoutTask task) {
+      this.task = task;
+    }
+  }
+
+  @FunctionalInterface
+  @JsFunction
+  interface ResizeObserverCallback {
+    void onInvoke(ResizeObserverEntry[] entries);
+  }
+
+  @JsType(isNative = true, namespace = JsPackage.GLOBAL)
+  public static class ResizeObserver {
+    public ResizeObserver(ResizeObserverCallback callback) {}
+
+    public native void observe(Element target);
+
+    public native void unobserve(Element target);
+  }
+
+  @JsType(isNative = true, namespace = JsPackage.GLOBAL)
+  public static class ResizeObserverEntry {
+    public Element target;
+  }
+
+  /** The expando that holds the {@link Registration} of an observed element. */
+  private static final String REGISTRATION = "__gwtResizeRegistration";
+
+  private static ResizeNotifier instance;
+
+  /**
+   * Returns the shared notifier.
+   *
+   * @return the notifier
+   */
+  static ResizeNotifier get() {
+    if (instance == null) {
+      instance = new ResizeNotifier();
+    }
+    return instance;
+  }
+
+  /**
+   * Checks if the browser supports {@code ResizeObserver}.
+   *
+   * @return true if elements can be observed
+   */
+  static boolean isSupported() {
+    return Js.asPropertyMap(DomGlobal.window).has("ResizeObserver");
+  }
+
+  private final ResizeObserver observer = new ResizeObserver(this::onResize);
+
+  private ResizeNotifier() {}
+
+  /**
+   * Starts observing the size of an element. The task is executed when the size of the element
+   * changes, and once for the initial size, unless {@link #setSize(Element, int, int)} is called
+   * with it before.
+   *
+   * @param elem the element to observe
+   * @param task the task to execute when the element is resized
+   */
+  void observe(Element elem, LayoutTask task) {
+    Js.asPropertyMap(elem).set(REGISTRATION, new Registration(task));
+    observer.observe(elem);
+  }
+
+  /**
+   * Sets the size the widget of an observed element was last notified of, for example when it is
+   * notified of the size by other means.
+   *
+   * @param elem the observed element
+   * @param width the offset width of the element
+   * @param height the offset height of the element
+   */
+  void setSize(Element elem, int width, int height) {
+    Registration registration = getRegistration(elem);
+    if (registration != null) {
+      registration.width = width;
+      registration.height = height;
+    }
+  }
+
+  /**
+   * Stops observing the size of an element.
+   *
+   * @param elem the observed element
+   */
+  void unobserve(Element elem) {
+    observer.unobserve(elem);
+    Js.asPropertyMap(elem).delete(REGISTRATION);
+  }
+
+  private Registration getRegistration(Element elem) {
+    JsPropertyMap<Object> map = Js.asPropertyMap(elem);
+    return map.has(REGISTRATION) ? (Registration) map.get(REGISTRATION) : null;
+  }
+
+  private void onResize(ResizeObserverEntry[] entries) {
+    LayoutScheduler scheduler = LayoutScheduler.get();
+    for (ResizeObserverEntry entry : entries) {
+      Registration registration = getRegistration(entry.target);
+      if (registration == null) {
+        continue;
+      }
+      int width = entry.target.getOffsetWidth();
+      int height = entry.target.getOffsetHeight();
+      if (width != registration.width || height != registration.height) {
+        registration.width = width;
+        registration.height = height;
+        scheduler.schedule(registration.task);
+      }
+    }
+    scheduler.flush();
+  }
+}
@@ -17,6 +17,9 @@ package org.gwtproject.user.client.ui;
 
 import org.gwtproject.event.logical.shared.ResizeEvent;
 import org.gwtproject.event.logical.shared.ResizeHandler;
+import org.gwtproject.layout.client.Layout;
+import org.gwtproject.layout.client.LayoutScheduler;
+import org.gwtproject.layout.client.LayoutScheduler.LayoutTask;
 import org.gwtproject.user.window.client.Window;
 
 /**
@@ -24,7 +27,10 @@ import org.gwtproject.user.window.client.Window;
  * body (i.e. {@link RootPanel#get()}).
  *
  * <p>This panel automatically calls {@link RequiresResize#onResize()} on itself when initially
- * created, and whenever the window is resized.
+ * created, and whenever the window is resized. The resize events of a frame are coalesced, and
+ * the panel is resized once by the next layout pass of the {@link LayoutScheduler}. In browsers
+ * that support {@code ResizeObserver}, the panel observes the size of its element instead, so it is
+ * only resized when its size actually changed.
  *
  * <p>NOTE: This widget will <em>only</em> work in standards mode, which requires that the HTML page
  * in which it is run have an explicit &lt;!DOCTYPE&gt; declaration.
@@ -55,13 +61,30 @@ public class RootLayoutPanel extends LayoutPanel {
     return singleton;
   }
 
+  private final LayoutTask resizeTask =
+      new LayoutTask() {
+        @Override
+        public Layout getLayout() {
+          return RootLayoutPanel.this.getLayout();
+        }
+
+        @Override
+        public void executeLayout() {
+          onResize();
+        }
+      };
+
+  private final boolean observeResize = ResizeNotifier.isSupported();
+
   private RootLayoutPanel() {
-    Window.addResizeHandler(
-        new ResizeHandler() {
-          public void onResize(ResizeEvent event) {
-            RootLayoutPanel.this.onResize();
-          }
-        });
+    if (!observeResize) {
+      Window.addResizeHandler(
+          new ResizeHandler() {
+            public void onResize(ResizeEvent event) {
+              LayoutScheduler.get().schedule(resizeTask);
+            }
+          });
+    }
 
     // TODO(jgw): We need notification of font-size changes as well.
     // I believe there's a hidden iframe trick that we can use to get
@@ -72,5 +95,15 @@ public class RootLayoutPanel extends LayoutPanel {
   protected void onLoad() {
     getLayout().onAttach();
     getLayout().fillParent();
+    if (observeResize) {
+      ResizeNotifier.get().observe(getElement(), resizeTask);
+    }
+  }
+
+  @Override
+  protected void onUnload() {
+    if (observeResize) {
+      ResizeNotifier.get().unobserve(getElement());
+    }
   }
 }
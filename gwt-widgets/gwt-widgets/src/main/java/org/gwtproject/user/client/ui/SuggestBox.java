@@ -26,6 +26,7 @@ import org.gwtproject.editor.client.adapters.TakesValueEditor;
 import org.gwtproject.event.dom.client.*;
 import org.gwtproject.event.logical.shared.*;
 import org.gwtproject.event.shared.HandlerRegistration;
+import org.gwtproject.timer.client.Timer;
 import org.gwtproject.user.client.ui.PopupPanel.AnimationType;
 import org.gwtproject.user.client.ui.SuggestOracle.Callback;
 import org.gwtproject.user.client.ui.SuggestOracle.Request;
@@ -615,23 +616,20 @@ public class SuggestBox extends Composite
   private LeafValueEditor<String> editor;
   private final SuggestionDisplay display;
   private final ValueBoxBase<String> box;
-  private final Callback callback =
-      new Callback() {
-        public void onSuggestionsReady(Request request, Response response) {
-          // If disabled while request was in-flight, drop it
-          if (!isEnabled()) {
-            return;
-          }
-          display.setMoreSuggestions(
-              response.hasMoreSuggestions(), response.getMoreSuggestionsCount());
-          display.showSuggestions(
-              SuggestBox.this,
-              response.getSuggestions(),
-              oracle.isDisplayStringHTML(),
-              isAutoSelectEnabled(),
-              suggestionCallback);
+  private int requestDelay;
+
+  /** The request whose response has not arrived yet, or null if there is none. */
+  private Request pendingRequest;
+
+  /** Refreshes the suggestions once the user stops typing for {@link #requestDelay}. */
+  private final Timer requestTimer =
+      new Timer() {
+        @Override
+        public void run() {
+          refreshSuggestions();
         }
       };
+
   private final SuggestionCallback suggestionCallback =
       new SuggestionCallback() {
         public void onSuggestionSelected(Suggestion suggestion) {
@@ -727,6 +725,15 @@ public class SuggestBox extends Composite
     return limit;
   }
 
+  /**
+   * Gets the time the box waits after the last key up before requesting suggestions.
+   *
+   * @return the delay in milliseconds
+   */
+  public int getRequestDelay() {
+    return requestDelay;
+  }
+
   /**
    * Get the {@link SuggestionDisplay} used to display suggestions.
    *
@@ -832,6 +839,7 @@ public class SuggestBox extends Composite
   /** Refreshes the current list of suggestions. */
   public void refreshSuggestionList() {
     if (isAttached()) {
+      requestTimer.cancel();
       refreshSuggestions();
     }
   }
@@ -869,6 +877,7 @@ public class SuggestBox extends Composite
   public void setEnabled(boolean enabled) {
     box.setEnabled(enabled);
     if (!enabled) {
+      cancelPendingRequest();
       display.hideSuggestions();
     }
   }
@@ -887,6 +896,24 @@ public class SuggestBox extends Composite
     this.limit = limit;
   }
 
+  /**
+   * Sets the time the box waits after the last key up before requesting suggestions. Each key up
+   * restarts the wait, so typing a word sends a single request instead of one per keystroke. The
+   * default of 0 requests suggestions on every key up.
+   *
+   * <p>Whatever the delay, a request supersedes the one before it: the response of the earlier
+   * request is ignored and the oracle is asked to cancel it with {@link
+   * SuggestOracle#cancelRequest(Request)}.
+   *
+   * @param delayMillis the delay in milliseconds
+   */
+  public void setRequestDelay(int delayMillis) {
+    if (delayMillis < 0) {
+      throw new IllegalArgumentException("delayMillis must be non-negative");
+    }
+    this.requestDelay = delayMillis;
+  }
+
   /**
    * Sets the style name of the suggestion popup in the {@link DefaultSuggestionDisplay}. Note that
    * this method is a no-op unless the {@link DefaultSuggestionDisplay} is used.
@@ -920,6 +947,7 @@ public class SuggestBox extends Composite
   public void showSuggestionList() {
     if (isAttached()) {
       currentText = null;
+      requestTimer.cancel();
       refreshSuggestions();
     }
   }
@@ -930,11 +958,43 @@ public class SuggestBox extends Composite
     display.onEnsureDebugId(baseID);
   }
 
+  @Override
+  protected void onUnload() {
+    // Don't refresh the suggestions of a detached box when the timer or the oracle fires.
+    cancelPendingRequest();
+  }
+
   void showSuggestions(String query) {
+    cancelPendingRequest();
+    final Request request = new Request(query.length() == 0 ? null : query, limit);
+    pendingRequest = request;
+    Callback callback =
+        new Callback() {
+          public void onSuggestionsReady(Request ignored, Response response) {
+            // Drop the response of a superseded request.
+            if (request != pendingRequest) {
+              return;
+            }
+            pendingRequest = null;
+
+            // If disabled while request was in-flight, drop it
+            if (!isEnabled()) {
+              return;
+            }
+            display.setMoreSuggestions(
+                response.hasMoreSuggestions(), response.getMoreSuggestionsCount());
+            display.showSuggestions(
+                SuggestBox.this,
+                response.getSuggestions(),
+                oracle.isDisplayStringHTML(),
+                isAutoSelectEnabled(),
+                suggestionCallback);
+          }
+        };
     if (query.length() == 0) {
-      oracle.requestDefaultSuggestions(new Request(null, limit), callback);
+      oracle.requestDefaultSuggestions(request, callback);
     } else {
-      oracle.requestSuggestions(new Request(query, limit), callback);
+      oracle.requestSuggestions(request, callback);
     }
   }
 
@@ -969,7 +1029,11 @@ public class SuggestBox extends Composite
 
       public void onKeyUp(KeyUpEvent event) {
         // After every user key input, refresh the popup's suggestions.
-        refreshSuggestions();
+        if (requestDelay > 0) {
+          requestTimer.schedule(requestDelay);
+        } else {
+          refreshSuggestions();
+        }
       }
 
       public void onValueChange(ValueChangeEvent<String> event) {
@@ -995,6 +1059,16 @@ public class SuggestBox extends Composite
     // box.addValueChangeHandler(events);
   }
 
+  /** Stop waiting for the response of the pending request, and for a delayed refresh. */
+  private void cancelPendingRequest() {
+    requestTimer.cancel();
+    if (pendingRequest != null) {
+      Request request = pendingRequest;
+      pendingRequest = null;
+      oracle.cancelRequest(request);
+    }
+  }
+
   private void fireSuggestionEvent(Suggestion selectedSuggestion) {
     SelectionEvent.fire(this, selectedSuggestion);
   }
@@ -1017,6 +1091,7 @@ public class SuggestBox extends Composite
    */
   private void setNewSelection(Suggestion curSuggestion) {
     assert curSuggestion != null : "suggestion cannot be null";
+    cancelPendingRequest();
     currentText = curSuggestion.getReplacementString();
     setText(currentText);
     display.hideSuggestions();
@@ -264,6 +264,18 @@ public abstract class SuggestOracle {
   /** Constructor for {@link SuggestOracle}. */
   public SuggestOracle() {}
 
+  /**
+   * Cancel a request whose response is no longer needed because a newer request superseded it.
+   * {@link SuggestBox} ignores the response of a cancelled request, so an oracle that fetches
+   * suggestions from a server can override this method to abort the call. The callback of the
+   * request may still be called.
+   *
+   * <p>By default, does nothing.
+   *
+   * @param request the request to cancel
+   */
+  public void cancelRequest(Request request) {}
+
   /**
    * Should {@link Suggestion} display strings be treated as HTML? If true, this all suggestions'
    * display strings will be interpreted as HTML, otherwise as text.
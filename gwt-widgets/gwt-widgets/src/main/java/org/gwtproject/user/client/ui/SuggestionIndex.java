@@ -0,0 +1,341 @@
+/*
+ * Copyright 2008 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gwtproject.user.client.ui;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compact index from words to the candidates that contain them, used by {@link
+ * MultiWordSuggestOracle}.
+ *
+ * <p>The distinct words are kept in sorted order, packed into a single {@code char[]} with an
+ * {@code int[]} of offsets, and each word points to a sorted slice of an {@code int[]} of candidate
+ * ids. All words that start with a prefix are adjacent, so finding them takes two binary searches.
+ *
+ * <p>Words added since the last lookup are buffered and merged into the packed arrays by the next
+ * lookup. Adding many suggestions before the first lookup therefore builds the index once; the
+ * buffered words are sorted with a stable merge sort, so words added in sorted order are merged in
+ * linear time.
+ */
+class SuggestionIndex {
+
+  /** The candidates, by id. */
+  private final List<String> candidates = new ArrayList<String>();
+
+  /** Maps candidates to their id. */
+  private final Map<String, Integer> candidateIds = new HashMap<String, Integer>();
+
+  /** The number of words added since the last lookup. */
+  private int pendingCount;
+
+  /** The candidate ids of the words added since the last lookup. */
+  private int[] pendingCandidates = new int[16];
+
+  /** The words added since the last lookup. */
+  private final List<String> pendingWords = new ArrayList<String>();
+
+  /** The candidate ids of all words. The ids of word {@code i} are sorted. */
+  private int[] postings = new int[0];
+
+  /** The start of the candidate ids of each word in {@link #postings}, followed by the end. */
+  private int[] postingOffsets = new int[] {0};
+
+  /**
+   * The suggestions of each candidate, by candidate id. Each entry is a single {@link String}, or a
+   * {@code String[]} if more than one suggestion normalizes to the candidate.
+   */
+  private final List<Object> suggestions = new ArrayList<Object>();
+
+  /** The characters of all words, in sorted order. */
+  private char[] wordChars = new char[0];
+
+  /** The number of distinct words in the packed arrays. */
+  private int wordCount;
+
+  /** The start of each word in {@link #wordChars}, followed by the end of the last word. */
+  private int[] wordOffsets = new int[] {0};
+
+  /**
+   * Add a suggestion.
+   *
+   * @param candidate the normalized suggestion
+   * @param suggestion the suggestion
+   * @param words the words of the candidate
+   */
+  public void add(String candidate, String suggestion, String[] words) {
+    Integer id = candidateIds.get(candidate);
+    if (id == null) {
+      id = candidates.size();
+      candidateIds.put(candidate, id);
+      candidates.add(candidate);
+      suggestions.add(suggestion);
+    } else {
+      // The most recent suggestion comes first.
+      Object old = suggestions.get(id);
+      String[] oldSuggestions =
+          (old instanceof String) ? new String[] {(String) old} : (String[]) old;
+      String[] newSuggestions = new String[oldSuggestions.length + 1];
+      newSuggestions[0] = suggestion;
+      System.arraycopy(oldSuggestions, 0, newSuggestions, 1, oldSuggestions.length);
+      suggestions.set(id, newSuggestions);
+    }
+
+    for (String word : words) {
+      if (word.length() == 0) {
+        continue;
+      }
+      if (pendingCount == pendingCandidates.length) {
+        pendingCandidates = Arrays.copyOf(pendingCandidates, pendingCount * 2);
+      }
+      pendingCandidates[pendingCount++] = id;
+      pendingWords.add(word);
+    }
+  }
+
+  /** Remove all suggestions. */
+  public void clear() {
+    candidates.clear();
+    candidateIds.clear();
+    suggestions.clear();
+    pendingCount = 0;
+    pendingCandidates = new int[16];
+    pendingWords.clear();
+    postings = new int[0];
+    postingOffsets = new int[] {0};
+    wordChars = new char[0];
+    wordCount = 0;
+    wordOffsets = new int[] {0};
+  }
+
+  /**
+   * Add the candidates that contain a word starting with the specified prefix.
+   *
+   * @param prefix the prefix
+   * @param output the collection to add the candidates to
+   */
+  public void collectCandidates(String prefix, Collection<String> output) {
+    flush();
+
+    // The words that start with the prefix are in [start, low).
+    int start = lowerBound(prefix);
+    int low = start;
+    int high = wordCount;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (startsWith(mid, prefix)) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+
+    for (int i = postingOffsets[start]; i < postingOffsets[low]; i++) {
+      output.add(candidates.get(postings[i]));
+    }
+  }
+
+  /**
+   * Get the suggestions that normalize to a candidate, most recently added first.
+   *
+   * @param candidate the candidate
+   * @return the suggestions, or an empty list if the candidate was not added
+   */
+  public List<String> getSuggestions(String candidate) {
+    Integer id = candidateIds.get(candidate);
+    if (id == null) {
+      return Collections.emptyList();
+    }
+    Object value = suggestions.get(id);
+    if (value instanceof String) {
+      return Collections.singletonList((String) value);
+    }
+    return Arrays.asList((String[]) value);
+  }
+
+  /**
+   * Get the number of distinct words.
+   *
+   * @return the number of words
+   */
+  public int getWordCount() {
+    flush();
+    return wordCount;
+  }
+
+  /** Merge the words added since the last lookup into the packed arrays. */
+  void flush() {
+    if (pendingCount == 0) {
+      return;
+    }
+
+    // Sort the pending words, then their candidates.
+    Integer[] order = new Integer[pendingCount];
+    int pendingChars = 0;
+    for (int i = 0; i < pendingCount; i++) {
+      order[i] = i;
+      pendingChars += pendingWords.get(i).length();
+    }
+    Arrays.sort(
+        order,
+        new Comparator<Integer>() {
+          @Override
+          public int compare(Integer o1, Integer o2) {
+            int comparison = pendingWords.get(o1).compareTo(pendingWords.get(o2));
+            return (comparison != 0) ? comparison : pendingCandidates[o1] - pendingCandidates[o2];
+          }
+        });
+
+    // Merge the sorted pending words with the existing words.
+    char[] newChars = new char[wordChars.length + pendingChars];
+    int[] newWordOffsets = new int[wordCount + pendingCount + 1];
+    int[] newPostings = new int[postings.length + pendingCount];
+    int[] newPostingOffsets = new int[wordCount + pendingCount + 1];
+    int charCount = 0;
+    int postingCount = 0;
+    int newWordCount = 0;
+    int existing = 0;
+    int pending = 0;
+    while (existing < wordCount || pending < pendingCount) {
+      int comparison;
+      if (existing == wordCount) {
+        comparison = 1;
+      } else if (pending == pendingCount) {
+        comparison = -1;
+      } else {
+        comparison = compareWord(existing, pendingWords.get(order[pending]));
+      }
+
+      int firstPosting = postingCount;
+      if (comparison <= 0) {
+        // Copy the existing word and its candidates.
+        int wordStart = wordOffsets[existing];
+        int wordLength = wordOffsets[existing + 1] - wordStart;
+        System.arraycopy(wordChars, wordStart, newChars, charCount, wordLength);
+        charCount += wordLength;
+        int postingStart = postingOffsets[existing];
+        int postingLength = postingOffsets[existing + 1] - postingStart;
+        System.arraycopy(postings, postingStart, newPostings, postingCount, postingLength);
+        postingCount += postingLength;
+        existing++;
+      } else {
+        String word = pendingWords.get(order[pending]);
+        word.getChars(0, word.length(), newChars, charCount);
+        charCount += word.length();
+      }
+
+      if (comparison >= 0) {
+        // Merge the candidates of the pending word into the sorted candidates.
+        String word = pendingWords.get(order[pending]);
+        int existingEnd = postingCount;
+        while (pending < pendingCount && pendingWords.get(order[pending]).equals(word)) {
+          int id = pendingCandidates[order[pending++]];
+          if (postingCount > firstPosting && newPostings[postingCount - 1] == id) {
+            continue;
+          }
+          int position = Arrays.binarySearch(newPostings, firstPosting, existingEnd, id);
+          if (position < 0) {
+            newPostings[postingCount++] = id;
+          }
+        }
+        if (existingEnd > firstPosting && postingCount > existingEnd) {
+          // Re-added candidates can have lower ids than existing ones.
+          Arrays.sort(newPostings, firstPosting, postingCount);
+        }
+      }
+
+      newWordCount++;
+      newWordOffsets[newWordCount] = charCount;
+      newPostingOffsets[newWordCount] = postingCount;
+    }
+
+    wordChars = Arrays.copyOf(newChars, charCount);
+    wordOffsets = Arrays.copyOf(newWordOffsets, newWordCount + 1);
+    postings = Arrays.copyOf(newPostings, postingCount);
+    postingOffsets = Arrays.copyOf(newPostingOffsets, newWordCount + 1);
+    wordCount = newWordCount;
+    pendingCount = 0;
+    pendingCandidates = new int[16];
+    pendingWords.clear();
+  }
+
+  /**
+   * Compare a packed word with a string.
+   *
+   * @param index the index of the packed word
+   * @param s the string
+   * @return a negative value, zero or a positive value if the word is less than, equal to or
+   *     greater than the string
+   */
+  private int compareWord(int index, String s) {
+    int start = wordOffsets[index];
+    int length = wordOffsets[index + 1] - start;
+    int common = Math.min(length, s.length());
+    for (int i = 0; i < common; i++) {
+      int difference = wordChars[start + i] - s.charAt(i);
+      if (difference != 0) {
+        return difference;
+      }
+    }
+    return length - s.length();
+  }
+
+  /**
+   * Get the index of the first word that is greater than or equal to a string.
+   *
+   * @param s the string
+   * @return the index of the word, or the number of words
+   */
+  private int lowerBound(String s) {
+    int low = 0;
+    int high = wordCount;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (compareWord(mid, s) < 0) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Check if a packed word starts with a prefix.
+   *
+   * @param index the index of the packed word
+   * @param prefix the prefix
+   * @return true if the word starts with the prefix
+   */
+  private boolean startsWith(int index, String prefix) {
+    int start = wordOffsets[index];
+    if (wordOffsets[index + 1] - start < prefix.length()) {
+      return false;
+    }
+    for (int i = 0; i < prefix.length(); i++) {
+      if (wordChars[start + i] != prefix.charAt(i)) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -27,8 +27,9 @@ import org.gwtproject.dom.client.NativeEvent;
  *
  * <p>If the {@link org.gwtproject.view.client.HasData} source of the selection event uses a {@link
  * org.gwtproject.view.client.MultiSelectionModel}, this manager additionally provides support for
- * shift key to select a range of values. For all other {@link SelectionModel}s, only the control
- * key is supported.
+ * shift key to select a range of values. An {@link IndexRangeSelectionModel} gets the same support,
+ * but ranges are selected by row index without reading the row values from the display. For all
+ * other {@link SelectionModel}s, only the control key is supported.
  *
  * @param <T> the data type of records in the list
  */
@@ -238,6 +239,46 @@ public class DefaultSelectionEventManager<T> implements CellPreviewEvent.Handler
     }
   }
 
+  /**
+   * Applies a user selection to a selection model that supports the shift key. The type of the
+   * selection model is resolved once per event, when the selector is created.
+   */
+  private abstract class RangeSelector {
+    /** The selection model to update. */
+    final SelectionModel<? super T> model;
+
+    RangeSelector(SelectionModel<? super T> model) {
+      this.model = model;
+    }
+
+    /** Update the selection model based on a user selection event. */
+    abstract void doSelection(
+        org.gwtproject.view.client.HasData<T> display,
+        int row,
+        T rowValue,
+        SelectAction action,
+        boolean selectRange,
+        boolean clearOthers);
+
+    /** Select or deselect a single row. */
+    abstract void selectOne(int row, T rowValue, boolean selected, boolean clearOthers);
+
+    /**
+     * Returns true if rows are selected by absolute index, so that a shift selection can extend
+     * the previous one even if the visible range or the display changed since.
+     */
+    boolean selectsByIndex() {
+      return false;
+    }
+
+    /** Select or deselect a range of rows. */
+    abstract void setRangeSelection(
+        org.gwtproject.view.client.HasData<T> display,
+        org.gwtproject.view.client.Range range,
+        boolean addToSelection,
+        boolean clearOthers);
+  }
+
   /**
    * Construct a new {@link DefaultSelectionEventManager} that ignores selection for the columns in
    * the specified blacklist.
@@ -341,6 +382,36 @@ public class DefaultSelectionEventManager<T> implements CellPreviewEvent.Handler
     this.translator = translator;
   }
 
+  /**
+   * Update an {@link IndexRangeSelectionModel} based on a user selection event. Ranges are selected
+   * by row index, so the rows in the range do not need to be loaded.
+   *
+   * @param selectionModel the selection model to update
+   * @param display the {@link org.gwtproject.view.client.HasData} source of the selection event
+   * @param row the absolute index of the selected row
+   * @param rowValue the selected row value
+   * @param action the {@link SelectAction} to apply
+   * @param selectRange true to select the range from the last selected row
+   * @param clearOthers true to clear the current selection
+   */
+  public void doIndexRangeSelection(
+      IndexRangeSelectionModel<? super T> selectionModel,
+      org.gwtproject.view.client.HasData<T> display,
+      int row,
+      T rowValue,
+      SelectAction action,
+      boolean selectRange,
+      boolean clearOthers) {
+    doSelection(
+        indexRangeSelector(selectionModel),
+        display,
+        row,
+        rowValue,
+        action,
+        selectRange,
+        clearOthers);
+  }
+
   /**
    * Update the selection model based on a user selection event.
    *
@@ -359,81 +430,8 @@ public class DefaultSelectionEventManager<T> implements CellPreviewEvent.Handler
       SelectAction action,
       boolean selectRange,
       boolean clearOthers) {
-    // Determine if we will add or remove selection.
-    boolean addToSelection = true;
-    if (action != null) {
-      switch (action) {
-        case IGNORE:
-          // Ignore selection.
-          return;
-        case SELECT:
-          addToSelection = true;
-          break;
-        case DESELECT:
-          addToSelection = false;
-          break;
-        case TOGGLE:
-          addToSelection = !selectionModel.isSelected(rowValue);
-          break;
-      }
-    }
-
-    // Determine which rows will be newly selected.
-    int pageStart = display.getVisibleRange().getStart();
-    if (selectRange
-        && pageStart == lastPageStart
-        && lastSelectedIndex > -1
-        && shiftAnchor > -1
-        && display == lastDisplay) {
-      /*
-       * Get the new shift bounds based on the existing shift anchor and the
-       * selected row.
-       */
-      int start = Math.min(shiftAnchor, row); // Inclusive.
-      int end = Math.max(shiftAnchor, row); // Inclusive.
-
-      if (lastSelectedIndex < start) {
-        // Revert previous selection if the user reselects a smaller range.
-        setRangeSelection(
-            selectionModel,
-            display,
-            new org.gwtproject.view.client.Range(lastSelectedIndex, start - lastSelectedIndex),
-            !shiftAdditive,
-            false);
-      } else if (lastSelectedIndex > end) {
-        // Revert previous selection if the user reselects a smaller range.
-        setRangeSelection(
-            selectionModel,
-            display,
-            new org.gwtproject.view.client.Range(end + 1, lastSelectedIndex - end),
-            !shiftAdditive,
-            false);
-      } else {
-        // Remember if we are adding or removing rows.
-        shiftAdditive = addToSelection;
-      }
-
-      // Update the last selected row, but do not move the shift anchor.
-      lastSelectedIndex = row;
-
-      // Select the range.
-      setRangeSelection(
-          selectionModel,
-          display,
-          new org.gwtproject.view.client.Range(start, end - start + 1),
-          shiftAdditive,
-          clearOthers);
-    } else {
-      /*
-       * If we are not selecting a range, save the last row and set the shift
-       * anchor.
-       */
-      lastDisplay = display;
-      lastPageStart = pageStart;
-      lastSelectedIndex = row;
-      shiftAnchor = row;
-      selectOne(selectionModel, rowValue, addToSelection, clearOthers);
-    }
+    doSelection(
+        multiSelector(selectionModel), display, row, rowValue, action, selectRange, clearOthers);
   }
 
   public void onCellPreview(CellPreviewEvent<T> event) {
@@ -460,6 +458,10 @@ public class DefaultSelectionEventManager<T> implements CellPreviewEvent.Handler
           event,
           action,
           (org.gwtproject.view.client.MultiSelectionModel<? super T>) selectionModel);
+    } else if (selectionModel instanceof IndexRangeSelectionModel<?>) {
+      // Add shift key support for IndexRangeSelectionModel.
+      handleIndexRangeSelectionEvent(
+          event, action, (IndexRangeSelectionModel<? super T>) selectionModel);
     } else {
       // Use the standard handler.
       handleSelectionEvent(event, action, selectionModel);
@@ -476,6 +478,31 @@ public class DefaultSelectionEventManager<T> implements CellPreviewEvent.Handler
     selectionModel.clear();
   }
 
+  /**
+   * Removes all rows from the selection.
+   *
+   * @param selectionModel the {@link IndexRangeSelectionModel} to clear
+   */
+  protected void clearSelection(IndexRangeSelectionModel<? super T> selectionModel) {
+    selectionModel.clear();
+  }
+
+  /**
+   * Handle an event that could cause a value to be selected for an {@link
+   * IndexRangeSelectionModel}. This method adds the same support for the control and shift keys as
+   * {@link #handleMultiSelectionEvent}.
+   *
+   * @param event the {@link CellPreviewEvent} that triggered selection
+   * @param action the action to handle
+   * @param selectionModel the {@link SelectionModel} to update
+   */
+  protected void handleIndexRangeSelectionEvent(
+      CellPreviewEvent<T> event,
+      SelectAction action,
+      IndexRangeSelectionModel<? super T> selectionModel) {
+    handleRangeSelectionEvent(event, action, indexRangeSelector(selectionModel));
+  }
+
   /**
    * Handle an event that could cause a value to be selected for a {@link
    * org.gwtproject.view.client.MultiSelectionModel}. This overloaded method adds support for both
@@ -490,52 +517,7 @@ public class DefaultSelectionEventManager<T> implements CellPreviewEvent.Handler
       CellPreviewEvent<T> event,
       SelectAction action,
       org.gwtproject.view.client.MultiSelectionModel<? super T> selectionModel) {
-    NativeEvent nativeEvent = event.getNativeEvent();
-    String type = nativeEvent.getType();
-    if (BrowserEvents.CLICK.equals(type)) {
-      /*
-       * Update selection on click. Selection is toggled only if the user
-       * presses the ctrl key. If the user does not press the control key,
-       * selection is additive.
-       */
-      boolean shift = nativeEvent.getShiftKey();
-      boolean ctrlOrMeta = nativeEvent.getCtrlKey() || nativeEvent.getMetaKey();
-      boolean clearOthers =
-          (translator == null) ? !ctrlOrMeta : translator.clearCurrentSelection(event);
-      if (action == null || action == SelectAction.DEFAULT) {
-        action = ctrlOrMeta ? SelectAction.TOGGLE : SelectAction.SELECT;
-      }
-      doMultiSelection(
-          selectionModel,
-          event.getDisplay(),
-          event.getIndex(),
-          event.getValue(),
-          action,
-          shift,
-          clearOthers);
-    } else if (BrowserEvents.KEYUP.equals(type)) {
-      int keyCode = nativeEvent.getKeyCode();
-      if (keyCode == 32) {
-        /*
-         * Update selection when the space bar is pressed. The spacebar always
-         * toggles selection, regardless of whether the control key is pressed.
-         */
-        boolean shift = nativeEvent.getShiftKey();
-        boolean clearOthers =
-            (translator == null) ? false : translator.clearCurrentSelection(event);
-        if (action == null || action == SelectAction.DEFAULT) {
-          action = SelectAction.TOGGLE;
-        }
-        doMultiSelection(
-            selectionModel,
-            event.getDisplay(),
-            event.getIndex(),
-            event.getValue(),
-            action,
-            shift,
-            clearOthers);
-      }
-    }
+    handleRangeSelectionEvent(event, action, multiSelector(selectionModel));
   }
 
   /**
@@ -606,6 +588,25 @@ public class DefaultSelectionEventManager<T> implements CellPreviewEvent.Handler
     selectionModel.setSelected(target, selected);
   }
 
+  /**
+   * Selects the row at the given index, optionally clearing any prior selection.
+   *
+   * @param selectionModel the {@link IndexRangeSelectionModel} to update
+   * @param row the absolute index of the row to select
+   * @param selected true to select, false to deselect
+   * @param clearOthers true to clear all other selected rows
+   */
+  protected void selectOne(
+      IndexRangeSelectionModel<? super T> selectionModel,
+      int row,
+      boolean selected,
+      boolean clearOthers) {
+    if (clearOthers) {
+      clearSelection(selectionModel);
+    }
+    selectionModel.setRangeSelected(new org.gwtproject.view.client.Range(row, 1), selected);
+  }
+
   /**
    * Select or deselect a range of row indexes, optionally deselecting all other values.
    *
@@ -640,4 +641,234 @@ public class DefaultSelectionEventManager<T> implements CellPreviewEvent.Handler
       selectionModel.setSelected(value, addToSelection);
     }
   }
+
+  /**
+   * Select or deselect a range of row indexes, optionally deselecting all other rows. The rows in
+   * the range do not need to be visible in the display.
+   *
+   * @param selectionModel the {@link IndexRangeSelectionModel} to update
+   * @param range the {@link org.gwtproject.view.client.Range} of rows to select or deselect
+   * @param addToSelection true to select, false to deselect the range
+   * @param clearOthers true to deselect rows not in the range
+   */
+  protected void setRangeSelection(
+      IndexRangeSelectionModel<? super T> selectionModel,
+      org.gwtproject.view.client.Range range,
+      boolean addToSelection,
+      boolean clearOthers) {
+    if (clearOthers) {
+      clearSelection(selectionModel);
+    }
+    selectionModel.setRangeSelected(range, addToSelection);
+  }
+
+  /**
+   * Update a {@link org.gwtproject.view.client.MultiSelectionModel} or an {@link
+   * IndexRangeSelectionModel} based on a user selection event.
+   */
+  private void doSelection(
+      RangeSelector selector,
+      org.gwtproject.view.client.HasData<T> display,
+      int row,
+      T rowValue,
+      SelectAction action,
+      boolean selectRange,
+      boolean clearOthers) {
+    // Determine if we will add or remove selection.
+    boolean addToSelection = true;
+    if (action != null) {
+      switch (action) {
+        case IGNORE:
+          // Ignore selection.
+          return;
+        case SELECT:
+          addToSelection = true;
+          break;
+        case DESELECT:
+          addToSelection = false;
+          break;
+        case TOGGLE:
+          addToSelection = !selector.model.isSelected(rowValue);
+          break;
+      }
+    }
+
+    // Determine which rows will be newly selected.
+    int pageStart = display.getVisibleRange().getStart();
+    boolean sameRows =
+        selector.selectsByIndex() || (pageStart == lastPageStart && display == lastDisplay);
+    if (selectRange && sameRows && lastSelectedIndex > -1 && shiftAnchor > -1) {
+      /*
+       * Get the new shift bounds based on the existing shift anchor and the
+       * selected row.
+       */
+      int start = Math.min(shiftAnchor, row); // Inclusive.
+      int end = Math.max(shiftAnchor, row); // Inclusive.
+
+      if (lastSelectedIndex < start) {
+        // Revert previous selection if the user reselects a smaller range.
+        selector.setRangeSelection(
+            display,
+            new org.gwtproject.view.client.Range(lastSelectedIndex, start - lastSelectedIndex),
+            !shiftAdditive,
+            false);
+      } else if (lastSelectedIndex > end) {
+        // Revert previous selection if the user reselects a smaller range.
+        selector.setRangeSelection(
+            display,
+            new org.gwtproject.view.client.Range(end + 1, lastSelectedIndex - end),
+            !shiftAdditive,
+            false);
+      } else {
+        // Remember if we are adding or removing rows.
+        shiftAdditive = addToSelection;
+      }
+
+      // Update the last selected row, but do not move the shift anchor.
+      lastSelectedIndex = row;
+
+      // Select the range.
+      selector.setRangeSelection(
+          display,
+          new org.gwtproject.view.client.Range(start, end - start + 1),
+          shiftAdditive,
+          clearOthers);
+    } else {
+      /*
+       * If we are not selecting a range, save the last row and set the shift
+       * anchor.
+       */
+      lastDisplay = display;
+      lastPageStart = pageStart;
+      lastSelectedIndex = row;
+      shiftAnchor = row;
+      selector.selectOne(row, rowValue, addToSelection, clearOthers);
+    }
+  }
+
+  /**
+   * Handle an event that could cause a value to be selected for a {@link
+   * org.gwtproject.view.client.MultiSelectionModel} or an {@link IndexRangeSelectionModel}.
+   */
+  private void handleRangeSelectionEvent(
+      CellPreviewEvent<T> event, SelectAction action, RangeSelector selector) {
+    NativeEvent nativeEvent = event.getNativeEvent();
+    String type = nativeEvent.getType();
+    if (BrowserEvents.CLICK.equals(type)) {
+      /*
+       * Update selection on click. Selection is toggled only if the user
+       * presses the ctrl key. If the user does not press the control key,
+       * selection is additive.
+       */
+      boolean shift = nativeEvent.getShiftKey();
+      boolean ctrlOrMeta = nativeEvent.getCtrlKey() || nativeEvent.getMetaKey();
+      boolean clearOthers =
+          (translator == null) ? !ctrlOrMeta : translator.clearCurrentSelection(event);
+      if (action == null || action == SelectAction.DEFAULT) {
+        action = ctrlOrMeta ? SelectAction.TOGGLE : SelectAction.SELECT;
+      }
+      selector.doSelection(
+          event.getDisplay(),
+          event.getIndex(),
+          event.getValue(),
+          action,
+          shift,
+          clearOthers);
+    } else if (BrowserEvents.KEYUP.equals(type)) {
+      int keyCode = nativeEvent.getKeyCode();
+      if (keyCode == 32) {
+        /*
+         * Update selection when the space bar is pressed. The spacebar always
+         * toggles selection, regardless of whether the control key is pressed.
+         */
+        boolean shift = nativeEvent.getShiftKey();
+        boolean clearOthers =
+            (translator == null) ? false : translator.clearCurrentSelection(event);
+        if (action == null || action == SelectAction.DEFAULT) {
+          action = SelectAction.TOGGLE;
+        }
+        selector.doSelection(
+            event.getDisplay(),
+            event.getIndex(),
+            event.getValue(),
+            action,
+            shift,
+            clearOthers);
+      }
+    }
+  }
+
+  /** Returns a selector that selects rows of an {@link IndexRangeSelectionModel} by index. */
+  private RangeSelector indexRangeSelector(
+      final IndexRangeSelectionModel<? super T> selectionModel) {
+    return new RangeSelector(selectionModel) {
+      @Override
+      void doSelection(
+          org.gwtproject.view.client.HasData<T> display,
+          int row,
+          T rowValue,
+          SelectAction action,
+          boolean selectRange,
+          boolean clearOthers) {
+        doIndexRangeSelection(
+            selectionModel, display, row, rowValue, action, selectRange, clearOthers);
+      }
+
+      @Override
+      void selectOne(int row, T rowValue, boolean selected, boolean clearOthers) {
+        DefaultSelectionEventManager.this.selectOne(selectionModel, row, selected, clearOthers);
+      }
+
+      @Override
+      boolean selectsByIndex() {
+        return true;
+      }
+
+      @Override
+      void setRangeSelection(
+          org.gwtproject.view.client.HasData<T> display,
+          org.gwtproject.view.client.Range range,
+          boolean addToSelection,
+          boolean clearOthers) {
+        DefaultSelectionEventManager.this.setRangeSelection(
+            selectionModel, range, addToSelection, clearOthers);
+      }
+    };
+  }
+
+  /**
+   * Returns a selector that selects the values of the rows of a {@link
+   * org.gwtproject.view.client.MultiSelectionModel}.
+   */
+  private RangeSelector multiSelector(
+      final org.gwtproject.view.client.MultiSelectionModel<? super T> selectionModel) {
+    return new RangeSelector(selectionModel) {
+      @Override
+      void doSelection(
+          org.gwtproject.view.client.HasData<T> display,
+          int row,
+          T rowValue,
+          SelectAction action,
+          boolean selectRange,
+          boolean clearOthers) {
+        doMultiSelection(selectionModel, display, row, rowValue, action, selectRange, clearOthers);
+      }
+
+      @Override
+      void selectOne(int row, T rowValue, boolean selected, boolean clearOthers) {
+        DefaultSelectionEventManager.this.selectOne(
+            selectionModel, rowValue, selected, clearOthers);
+      }
+
+      @Override
+      void setRangeSelection(
+          org.gwtproject.view.client.HasData<T> display,
+          org.gwtproject.view.client.Range range,
+          boolean addToSelection,
+          boolean clearOthers) {
+        DefaultSelectionEventManager.this.setRangeSelection(
+            selectionModel, display, range, addToSelection, clearOthers);
+      }
+    };
+  }
 }
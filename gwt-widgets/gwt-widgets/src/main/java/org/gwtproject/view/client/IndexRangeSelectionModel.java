@@ -0,0 +1,289 @@
+/*
+ * Copyright 2010 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gwtproject.view.client;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A selection model that selects rows by their absolute index, allowing multiple rows to be
+ * selected.
+ *
+ * <p>Unlike {@link MultiSelectionModel}, the selected rows are not stored. The selection is kept as
+ * a sorted set of index ranges, so selecting all rows or a range of rows does not require the rows
+ * to be loaded, and deselecting some rows after selecting all of them only splits the selected
+ * range around the excluded rows. Checking whether an item is selected is a binary search over the
+ * range bounds.
+ *
+ * <p>The model maps each item to its row index using an {@link IndexProvider}. When used with
+ * {@link DefaultSelectionEventManager}, shift+click selects the rows between the anchor and the
+ * clicked row by index, without reading their values from the display.
+ *
+ * @param <T> the data type of the items
+ */
+public class IndexRangeSelectionModel<T> extends SelectionModel.AbstractSelectionModel<T> {
+
+  /**
+   * Provides the absolute row index of an item.
+   *
+   * @param <T> the data type of the items
+   */
+  public interface IndexProvider<T> {
+
+    /**
+     * Get the absolute row index of an item.
+     *
+     * @param item the item
+     * @return the row index, or a negative value if the item is not in the list
+     */
+    int getIndex(T item);
+  }
+
+  /**
+   * The bounds of the selected ranges, in increasing order. Each even entry is the inclusive start
+   * of a range and each odd entry is its exclusive end, so an index is selected if an odd number of
+   * bounds is less than or equal to it.
+   */
+  private int[] bounds = new int[8];
+
+  /** The number of entries used in {@link #bounds}. */
+  private int boundsCount;
+
+  /**
+   * A copy of the bounds before the first change since the last event, or null if the selection
+   * has not changed.
+   */
+  private int[] firedBounds;
+
+  private final IndexProvider<T> indexProvider;
+
+  /**
+   * Constructs an IndexRangeSelectionModel with the given index provider.
+   *
+   * @param indexProvider an instance of IndexProvider<T> that provides the row index of each item
+   */
+  public IndexRangeSelectionModel(IndexProvider<T> indexProvider) {
+    this(indexProvider, null);
+  }
+
+  /**
+   * Constructs an IndexRangeSelectionModel with the given index provider and key provider.
+   *
+   * @param indexProvider an instance of IndexProvider<T> that provides the row index of each item
+   * @param keyProvider an instance of ProvidesKey<T>, or null if the item should act as its own key
+   */
+  public IndexRangeSelectionModel(IndexProvider<T> indexProvider, ProvidesKey<T> keyProvider) {
+    super(keyProvider);
+    this.indexProvider = indexProvider;
+  }
+
+  /** Deselect all rows. */
+  public void clear() {
+    setRangeSelected(0, Integer.MAX_VALUE, false);
+  }
+
+  /**
+   * Get the {@link IndexProvider} used to map items to row indexes.
+   *
+   * @return the index provider
+   */
+  public IndexProvider<T> getIndexProvider() {
+    return indexProvider;
+  }
+
+  /**
+   * Get the number of selected rows in the first {@code rowCount} rows.
+   *
+   * @param rowCount the number of rows in the list
+   * @return the number of selected rows
+   */
+  public int getSelectedCount(int rowCount) {
+    int count = 0;
+    for (int i = 0; i < boundsCount; i += 2) {
+      if (bounds[i] >= rowCount) {
+        break;
+      }
+      count += Math.min(bounds[i + 1], rowCount) - bounds[i];
+    }
+    return count;
+  }
+
+  /**
+   * Get the selected ranges, in increasing order. After {@link #selectAll()}, the last range ends
+   * at {@link Integer#MAX_VALUE}.
+   *
+   * @return the list of selected ranges
+   */
+  public List<Range> getSelectedRanges() {
+    List<Range> ranges = new ArrayList<Range>(boundsCount / 2);
+    for (int i = 0; i < boundsCount; i += 2) {
+      ranges.add(new Range(bounds[i], bounds[i + 1] - bounds[i]));
+    }
+    return ranges;
+  }
+
+  /**
+   * Check if the row at the specified index is selected.
+   *
+   * @param index the absolute row index
+   * @return true if selected, false if not
+   */
+  public boolean isIndexSelected(int index) {
+    return index >= 0 && (upperBound(index) & 1) == 1;
+  }
+
+  @Override
+  public boolean isSelected(T item) {
+    return item != null && isIndexSelected(indexProvider.getIndex(item));
+  }
+
+  /** Select all rows, including rows that have not been loaded. */
+  public void selectAll() {
+    setRangeSelected(0, Integer.MAX_VALUE, true);
+  }
+
+  /**
+   * Select or deselect a range of rows.
+   *
+   * @param range the range of absolute row indexes
+   * @param selected true to select, false to deselect
+   */
+  public void setRangeSelected(Range range, boolean selected) {
+    long end = (long) range.getStart() + range.getLength();
+    setRangeSelected(range.getStart(), (int) Math.min(end, Integer.MAX_VALUE), selected);
+  }
+
+  @Override
+  public void setSelected(T item, boolean selected) {
+    int index = (item == null) ? -1 : indexProvider.getIndex(item);
+    if (index >= 0 && index < Integer.MAX_VALUE) {
+      setRangeSelected(index, index + 1, selected);
+    }
+  }
+
+  @Override
+  protected void fireSelectionChangeEvent() {
+    if (isEventScheduled()) {
+      setEventCancelled(true);
+    }
+    if (firedBounds == null) {
+      return;
+    }
+
+    // Only fire an event if the net change is not empty.
+    boolean changed = !Arrays.equals(firedBounds, Arrays.copyOf(bounds, boundsCount));
+    firedBounds = null;
+    if (changed) {
+      SelectionChangeEvent.fire(this);
+    }
+  }
+
+  /**
+   * Insert a bound at the specified position in {@link #bounds}.
+   *
+   * @param position the position of the bound
+   * @param bound the bound
+   */
+  private void insertBound(int position, int bound) {
+    if (boundsCount == bounds.length) {
+      bounds = Arrays.copyOf(bounds, bounds.length * 2);
+    }
+    System.arraycopy(bounds, position, bounds, position + 1, boundsCount - position);
+    bounds[position] = bound;
+    boundsCount++;
+  }
+
+  /**
+   * Get the number of bounds that are less than the specified value.
+   *
+   * @param value the value
+   * @return the position of the first bound greater than or equal to the value
+   */
+  private int lowerBound(int value) {
+    int low = 0;
+    int high = boundsCount;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (bounds[mid] < value) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Select or deselect the rows in [start, end).
+   *
+   * @param start the first row index, inclusive
+   * @param end the last row index, exclusive
+   * @param selected true to select, false to deselect
+   */
+  private void setRangeSelected(int start, int end, boolean selected) {
+    start = Math.max(0, start);
+    if (start >= end) {
+      return;
+    }
+
+    /*
+     * Remove the bounds inside [start, end], then add a bound at start and end
+     * where the state on either side of the range differs from the new state.
+     */
+    boolean selectedBefore = start > 0 && (upperBound(start - 1) & 1) == 1;
+    boolean selectedAfter = (upperBound(end) & 1) == 1;
+    int from = lowerBound(start);
+    int to = upperBound(end);
+    if (from == to && selectedBefore == selected && selectedAfter == selected) {
+      // The range already has the requested state.
+      return;
+    }
+
+    if (firedBounds == null) {
+      firedBounds = Arrays.copyOf(bounds, boundsCount);
+    }
+    System.arraycopy(bounds, to, bounds, from, boundsCount - to);
+    boundsCount -= to - from;
+    if (selectedAfter != selected) {
+      insertBound(from, end);
+    }
+    if (selectedBefore != selected) {
+      insertBound(from, start);
+    }
+    scheduleSelectionChangeEvent();
+  }
+
+  /**
+   * Get the number of bounds that are less than or equal to the specified value.
+   *
+   * @param value the value
+   * @return the position of the first bound greater than the value
+   */
+  private int upperBound(int value) {
+    int low = 0;
+    int high = boundsCount;
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (bounds[mid] <= value) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+}
@@ -40,6 +40,30 @@ import org.gwtproject.core.client.Scheduler.ScheduledCommand;
  */
 public class ListDataProvider<T> extends AbstractDataProvider<T> {
 
+  /**
+   * Receives every change of the list that is pushed to the displays, regardless of their visible
+   * ranges. Used by data providers that derive their data from this one.
+   *
+   * @param <T> the data type of the list
+   */
+  interface ListObserver<T> {
+
+    /**
+     * Called when the size of the list changed, before the changed values are pushed.
+     *
+     * @param count the new size of the list
+     */
+    void onRowCountChanged(int count);
+
+    /**
+     * Called with the values of the list from the first modified index.
+     *
+     * @param start the index of the first value
+     * @param values the values
+     */
+    void onRowDataChanged(int start, List<T> values);
+  }
+
   /** A wrapper around a list that updates the model on any change. */
   private class ListWrapper implements List<T> {
 
@@ -430,6 +454,9 @@ public class ListDataProvider<T> extends AbstractDataProvider<T> {
   /** The wrapper around the actual list. */
   private ListWrapper listWrapper;
 
+  /** The observers that receive every change of the list. */
+  private final List<ListObserver<T>> observers = new ArrayList<ListObserver<T>>();
+
   /** Creates an empty model. */
   public ListDataProvider() {
     this(new ArrayList<T>(), null);
@@ -543,4 +570,29 @@ public class ListDataProvider<T> extends AbstractDataProvider<T> {
       updateRowData(display, 0, listWrapper);
     }
   }
+
+  @Override
+  protected void updateRowCount(int count, boolean exact) {
+    for (ListObserver<T> observer : observers) {
+      observer.onRowCountChanged(count);
+    }
+    super.updateRowCount(count, exact);
+  }
+
+  @Override
+  protected void updateRowData(int start, List<T> values) {
+    for (ListObserver<T> observer : observers) {
+      observer.onRowDataChanged(start, values);
+    }
+    super.updateRowData(start, values);
+  }
+
+  /**
+   * Add an observer that receives every change of the list.
+   *
+   * @param observer the observer
+   */
+  void addListObserver(ListObserver<T> observer) {
+    observers.add(observer);
+  }
 }
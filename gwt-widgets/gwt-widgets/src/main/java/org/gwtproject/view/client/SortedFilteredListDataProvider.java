@@ -0,0 +1,441 @@
+/*
+ * Copyright 2010 Google Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License"); you may not
+ * use this file except in compliance with the License. You may obtain a copy of
+ * the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied. See the
+ * License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.gwtproject.view.client;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * A data provider that shows the values of a source {@link ListDataProvider} sorted and filtered,
+ * without modifying the source list.
+ *
+ * <p>The provider keeps a sorted index of the source values that pass the {@link Filter}. When the
+ * source list changes, only the values that were added, removed or replaced are moved in the index,
+ * each one at the position found by a binary search, and only the rows whose position changed are
+ * pushed to the displays. Changing the {@link Comparator} or the {@link Filter} sorts the index
+ * again.
+ *
+ * <p>As with {@link ListDataProvider}, mutations to the items contained within the source list are
+ * NOT detected. You must call {@link List#set(int, Object)} on the source list to update an item,
+ * or call {@link #refresh()} to sort and filter all items again.
+ *
+ * @param <T> the data type of the list
+ */
+public class SortedFilteredListDataProvider<T> extends AbstractDataProvider<T> {
+
+  /**
+   * Decides which values of the source list are shown.
+   *
+   * @param <T> the data type of the list
+   */
+  public interface Filter<T> {
+
+    /**
+     * Check whether a value is shown.
+     *
+     * @param value the value
+     * @return true to show the value, false to hide it
+     */
+    boolean accept(T value);
+  }
+
+  /**
+   * A value of the source list.
+   *
+   * @param <T> the data type of the list
+   */
+  private static class Entry<T> {
+
+    /** True if the value passes the filter, so the entry is in the sorted index. */
+    private boolean accepted;
+
+    /** The order of the entry among entries with equal values. */
+    private final int order;
+
+    private final T value;
+
+    public Entry(T value, int order) {
+      this.value = value;
+      this.order = order;
+    }
+  }
+
+  /** Receives the changes of the source list. */
+  private class SourceObserver implements ListDataProvider.ListObserver<T> {
+
+    /** The row count of the source list. */
+    private int rowCount;
+
+    @Override
+    public void onRowCountChanged(int count) {
+      rowCount = count;
+    }
+
+    @Override
+    public void onRowDataChanged(int start, List<T> values) {
+      onSourceRowData(start, values);
+    }
+  }
+
+  /**
+   * The number of changed values above which sorting the whole index is cheaper than moving each
+   * value.
+   */
+  private static final int MAX_INCREMENTAL_CHANGES = 32;
+
+  private Comparator<? super T> comparator;
+
+  /** Compares entries by value, then by order, so every entry has exactly one position. */
+  private final Comparator<Entry<T>> entryComparator =
+      new Comparator<Entry<T>>() {
+        @Override
+        public int compare(Entry<T> o1, Entry<T> o2) {
+          int diff = comparator == null ? 0 : comparator.compare(o1.value, o2.value);
+          if (diff != 0) {
+            return diff;
+          }
+          return o1.order < o2.order ? -1 : (o1.order == o2.order ? 0 : 1);
+        }
+      };
+
+  /** The entries of the source list, in the order of the source list. */
+  private final List<Entry<T>> entries = new ArrayList<Entry<T>>();
+
+  private Filter<? super T> filter;
+
+  /** The values shown by the displays. */
+  private final List<T> list =
+      new AbstractList<T>() {
+        @Override
+        public T get(int index) {
+          return sorted.get(index).value;
+        }
+
+        @Override
+        public int size() {
+          return sorted.size();
+        }
+      };
+
+  /** The order assigned to the next new entry. */
+  private int nextOrder;
+
+  /** The entries that pass the filter, in sorted order. */
+  private List<Entry<T>> sorted = new ArrayList<Entry<T>>();
+
+  private final ListDataProvider<T> source;
+
+  private final SourceObserver sourceObserver = new SourceObserver();
+
+  /**
+   * Creates a data provider that shows the values of the specified source, in the order of the
+   * source list until a comparator is set.
+   *
+   * @param source the source {@link ListDataProvider}
+   */
+  public SortedFilteredListDataProvider(ListDataProvider<T> source) {
+    super(source.getKeyProvider());
+    this.source = source;
+    source.addListObserver(sourceObserver);
+    sourceObserver.rowCount = source.getList().size();
+    onSourceRowData(0, source.getList());
+    updateRowCount(sorted.size(), true);
+  }
+
+  /**
+   * Flush pending changes of the source list to the displays.
+   *
+   * @see ListDataProvider#flush()
+   */
+  public void flush() {
+    source.flush();
+  }
+
+  /**
+   * Get the {@link Comparator} used to sort the values.
+   *
+   * @return the comparator, or null if the values are in the order of the source list
+   */
+  public Comparator<? super T> getComparator() {
+    return comparator;
+  }
+
+  /**
+   * Get the {@link Filter} that decides which values are shown.
+   *
+   * @return the filter, or null if all values are shown
+   */
+  public Filter<? super T> getFilter() {
+    return filter;
+  }
+
+  /**
+   * Get the sorted and filtered values, as shown by the displays. The list cannot be modified;
+   * modify the list of the source instead.
+   *
+   * @return the values
+   */
+  public List<T> getList() {
+    return Collections.unmodifiableList(list);
+  }
+
+  /**
+   * Get the source of the values.
+   *
+   * @return the source {@link ListDataProvider}
+   */
+  public ListDataProvider<T> getSource() {
+    return source;
+  }
+
+  /**
+   * Filter and sort all values again, and push all rows to the displays. Use this method after
+   * modifying items contained within the source list.
+   */
+  public void refresh() {
+    source.flush();
+    for (Entry<T> entry : entries) {
+      entry.accepted = accepts(entry.value);
+    }
+    List<Entry<T>> oldSorted = sorted;
+    rebuild();
+    if (sorted.size() != oldSorted.size()) {
+      updateRowCount(sorted.size(), true);
+    }
+    updateRowData(0, list);
+  }
+
+  /**
+   * Set the {@link Comparator} used to sort the values. Values that are equal according to the
+   * comparator stay in the order in which they were added.
+   *
+   * @param comparator the comparator, or null to show the values in the order of the source list
+   */
+  public void setComparator(Comparator<? super T> comparator) {
+    source.flush();
+    this.comparator = comparator;
+    List<Entry<T>> oldSorted = sorted;
+    rebuild();
+    pushChanges(oldSorted);
+  }
+
+  /**
+   * Set the {@link Filter} that decides which values are shown.
+   *
+   * @param filter the filter, or null to show all values
+   */
+  public void setFilter(Filter<? super T> filter) {
+    source.flush();
+    this.filter = filter;
+    for (Entry<T> entry : entries) {
+      entry.accepted = accepts(entry.value);
+    }
+    List<Entry<T>> oldSorted = sorted;
+    rebuild();
+    pushChanges(oldSorted);
+  }
+
+  @Override
+  protected void onRangeChanged(HasData<T> display) {
+    if (sorted.size() > 0) {
+      // Do not push data if the data set is empty.
+      updateRowData(display, 0, list);
+    }
+  }
+
+  /** Check whether a value passes the filter. */
+  private boolean accepts(T value) {
+    return filter == null || filter.accept(value);
+  }
+
+  /**
+   * Move the removed and added entries in the sorted index, and push the rows that changed.
+   *
+   * @param removed the entries removed from the source list
+   * @param added the entries added to the source list
+   */
+  private void applyChanges(List<Entry<T>> removed, List<Entry<T>> added) {
+    if (comparator == null || removed.size() + added.size() > MAX_INCREMENTAL_CHANGES) {
+      // Without a comparator, the position of a value depends on the whole source list.
+      List<Entry<T>> oldSorted = sorted;
+      rebuild();
+      pushChanges(oldSorted);
+      return;
+    }
+
+    /*
+     * Every row at or after modifiedEnd holds the same value as before the
+     * changes, shifted by the change in size.
+     */
+    int oldSize = sorted.size();
+    int modifiedStart = Integer.MAX_VALUE;
+    int modifiedEnd = -1;
+    for (Entry<T> entry : removed) {
+      if (entry.accepted) {
+        int index = indexOf(entry);
+        sorted.remove(index);
+        modifiedStart = Math.min(modifiedStart, index);
+        modifiedEnd = (modifiedEnd < 0) ? index : (index < modifiedEnd ? modifiedEnd - 1 : index);
+      }
+    }
+    for (Entry<T> entry : added) {
+      if (entry.accepted) {
+        int index = -Collections.binarySearch(sorted, entry, entryComparator) - 1;
+        sorted.add(index, entry);
+        modifiedStart = Math.min(modifiedStart, index);
+        modifiedEnd =
+            (modifiedEnd < 0) ? index + 1 : (index < modifiedEnd ? modifiedEnd + 1 : index + 1);
+      }
+    }
+    if (modifiedStart == Integer.MAX_VALUE) {
+      // None of the changed values are shown.
+      return;
+    }
+
+    int newSize = sorted.size();
+    if (newSize != oldSize) {
+      updateRowCount(newSize, true);
+      modifiedEnd = newSize;
+    }
+    updateRowData(modifiedStart, list.subList(modifiedStart, modifiedEnd));
+  }
+
+  /** Create an entry for a value of the source list. */
+  private Entry<T> createEntry(T value, int order) {
+    Entry<T> entry = new Entry<T>(value, order);
+    entry.accepted = accepts(value);
+    return entry;
+  }
+
+  /**
+   * Find the position of an entry in the sorted index.
+   *
+   * @param entry the entry
+   * @return the index of the entry
+   */
+  private int indexOf(Entry<T> entry) {
+    int index = Collections.binarySearch(sorted, entry, entryComparator);
+    if (index >= 0 && sorted.get(index) == entry) {
+      return index;
+    }
+
+    // The comparator is inconsistent, or the value was modified in place.
+    for (int i = 0; i < sorted.size(); i++) {
+      if (sorted.get(i) == entry) {
+        return i;
+      }
+    }
+    throw new IllegalStateException("Entry not found in the sorted index");
+  }
+
+  /**
+   * Apply the values pushed by the source list. The source pushes the values from the first
+   * modified index, so the values before {@code start} did not change, and the values after the
+   * pushed values are the old values shifted by the change in size.
+   *
+   * @param start the index of the first pushed value
+   * @param values the pushed values
+   */
+  private void onSourceRowData(int start, List<? extends T> values) {
+    int oldSize = entries.size();
+    int end = start + values.size();
+    int newSize = Math.max(end, sourceObserver.rowCount);
+    int shift = newSize - oldSize;
+    if (start > oldSize || end - shift < 0) {
+      // The values cannot be matched to the old values, so start over.
+      List<Entry<T>> oldEntries = new ArrayList<Entry<T>>(entries);
+      entries.clear();
+      List<T> sourceList = source.getList();
+      List<Entry<T>> added = new ArrayList<Entry<T>>(sourceList.size());
+      for (T value : sourceList) {
+        added.add(createEntry(value, nextOrder++));
+      }
+      entries.addAll(added);
+      applyChanges(oldEntries, added);
+      return;
+    }
+
+    // Skip the values that did not change at either end of the pushed values.
+    int lo = start;
+    while (lo < end && lo < oldSize && values.get(lo - start) == entries.get(lo).value) {
+      lo++;
+    }
+    int hi = end;
+    while (hi > lo
+        && hi - shift > lo
+        && values.get(hi - 1 - start) == entries.get(hi - 1 - shift).value) {
+      hi--;
+    }
+
+    // The old values in [lo, hi - shift) are replaced by the new values in [lo, hi).
+    List<Entry<T>> replaced = entries.subList(lo, hi - shift);
+    List<Entry<T>> removed = new ArrayList<Entry<T>>(replaced);
+    List<Entry<T>> added = new ArrayList<Entry<T>>(hi - lo);
+    for (int i = lo; i < hi; i++) {
+      // A replaced value keeps the order of the value it replaces.
+      int index = i - lo;
+      int order = index < removed.size() ? removed.get(index).order : nextOrder++;
+      added.add(createEntry(values.get(i - start), order));
+    }
+    replaced.clear();
+    entries.addAll(lo, added);
+    applyChanges(removed, added);
+  }
+
+  /**
+   * Push the rows that differ from the specified sorted index to the displays.
+   *
+   * @param oldSorted the sorted index shown by the displays
+   */
+  private void pushChanges(List<Entry<T>> oldSorted) {
+    int oldSize = oldSorted.size();
+    int newSize = sorted.size();
+    int start = 0;
+    while (start < oldSize && start < newSize && oldSorted.get(start) == sorted.get(start)) {
+      start++;
+    }
+    int end = newSize;
+    if (newSize == oldSize) {
+      while (end > start && oldSorted.get(end - 1) == sorted.get(end - 1)) {
+        end--;
+      }
+      if (start == end) {
+        // Nothing changed.
+        return;
+      }
+    } else {
+      updateRowCount(newSize, true);
+    }
+    updateRowData(start, list.subList(start, end));
+  }
+
+  /** Rebuild the sorted index from the entries that pass the filter. */
+  private void rebuild() {
+    List<Entry<T>> newSorted = new ArrayList<Entry<T>>();
+    for (Entry<T> entry : entries) {
+      if (entry.accepted) {
+        newSorted.add(entry);
+      }
+    }
+    if (comparator != null) {
+      Collections.sort(newSorted, entryComparator);
+    }
+    sorted = newSorted;
+  }
+}